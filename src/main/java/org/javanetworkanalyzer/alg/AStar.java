@@ -0,0 +1,182 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.alg;
+
+import org.javanetworkanalyzer.data.IndexedDaryHeap;
+import org.javanetworkanalyzer.data.SearchState;
+import org.javanetworkanalyzer.model.CSRGraph;
+
+/**
+ * A* search for point-to-point shortest paths on a {@link CSRGraph}.
+ *
+ * <p> Vertices are queued by their distance from the source plus an
+ * {@link AStarHeuristic} estimate of their distance to the target, so that
+ * the search is directed towards the target. With the zero heuristic this is
+ * Dijkstra's algorithm stopped at the target. Vertices whose distance
+ * improves after they were settled are queued again, so any admissible
+ * heuristic gives shortest paths; consistent heuristics such as
+ * {@link EuclideanHeuristic} and {@link Landmarks} settle each vertex at most
+ * once.
+ *
+ * <p> As in {@link CSRDijkstra}, all per-search state is kept in a
+ * {@link SearchState} so that starting a new query costs O(1).
+ *
+ * @author Adam Gouge
+ */
+public class AStar {
+
+    /**
+     * The graph.
+     */
+    private final CSRGraph<?, ?> graph;
+    /**
+     * The heuristic.
+     */
+    private final AStarHeuristic heuristic;
+    /**
+     * Search state.
+     */
+    private final SearchState state;
+    /**
+     * Queue ordered by distance plus estimate.
+     */
+    private final IndexedDaryHeap queue;
+    /**
+     * Predecessor of each touched vertex on its shortest path, or -1.
+     */
+    private final int[] parents;
+    /**
+     * Source and target of the last query, or -1.
+     */
+    private int source = -1;
+    private int target = -1;
+    /**
+     * Number of vertices settled by the last query.
+     */
+    private int settledCount;
+
+    /**
+     * Constructor.
+     *
+     * @param graph     The graph
+     * @param heuristic The heuristic
+     */
+    public AStar(CSRGraph<?, ?> graph, AStarHeuristic heuristic) {
+        if (heuristic == null) {
+            throw new IllegalArgumentException(
+                    "Please specify a heuristic.");
+        }
+        this.graph = graph;
+        this.heuristic = heuristic;
+        final int n = graph.getVertexCount();
+        state = new SearchState(n);
+        queue = new IndexedDaryHeap(n);
+        parents = new int[n];
+    }
+
+    /**
+     * Computes the shortest path from the source to the target.
+     *
+     * @param source Source vertex index
+     * @param target Target vertex index
+     * @return The distance from the source to the target, or infinity if the
+     *         target cannot be reached
+     */
+    public double calculate(int source, int target) {
+        this.source = source;
+        this.target = target;
+        settledCount = 0;
+        state.reset();
+        queue.clear();
+        state.setDistance(source, 0.0);
+        parents[source] = -1;
+        queue.update(source, heuristic.estimate(source, target));
+        while (!queue.isEmpty()) {
+            final int u = queue.poll();
+            settledCount++;
+            if (u == target) {
+                break;
+            }
+            final double du = state.getDistance(u);
+            final int end = graph.endArc(u);
+            for (int arc = graph.firstArc(u); arc < end; arc++) {
+                final int v = graph.arcTarget(arc);
+                final double candidate = du + graph.arcWeight(arc);
+                if (state.getDistance(v) > candidate) {
+                    state.setDistance(v, candidate);
+                    parents[v] = u;
+                    queue.update(v, candidate + heuristic.estimate(v, target));
+                }
+            }
+        }
+        return state.getDistance(target);
+    }
+
+    /**
+     * Returns the distance from the last source to the given vertex if it was
+     * settled by the last query; otherwise an upper bound on it.
+     *
+     * @param v Vertex index
+     * @return The distance to v
+     */
+    public double getDistance(int v) {
+        return state.getDistance(v);
+    }
+
+    /**
+     * Returns the number of vertices settled by the last query.
+     *
+     * @return The number of vertices settled by the last query
+     */
+    public int getSettledCount() {
+        return settledCount;
+    }
+
+    /**
+     * Returns the vertex indices of the shortest path found by the last
+     * query, from the source to the target.
+     *
+     * @return The vertices of the shortest path, or an empty array if the
+     *         target cannot be reached
+     */
+    public int[] getPath() {
+        if (source < 0) {
+            throw new IllegalStateException(
+                    "You must call #calculate before querying the path.");
+        }
+        if (!state.isTouched(target)) {
+            return new int[0];
+        }
+        int length = 0;
+        for (int u = target; u >= 0; u = parents[u]) {
+            length++;
+        }
+        final int[] path = new int[length];
+        for (int u = target, i = length - 1; u >= 0; u = parents[u], i--) {
+            path[i] = u;
+        }
+        return path;
+    }
+}
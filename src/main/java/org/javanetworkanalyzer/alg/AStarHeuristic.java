@@ -0,0 +1,48 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.alg;
+
+/**
+ * A lower bound on the distance between two vertices of a
+ * {@link org.javanetworkanalyzer.model.CSRGraph}, used by {@link AStar} to
+ * direct the search towards the target.
+ *
+ * <p> The estimate must be admissible, i.e., never larger than the actual
+ * distance, and in the same units as the edge weights; otherwise the paths
+ * found by A* may not be shortest paths.
+ *
+ * @author Adam Gouge
+ */
+public interface AStarHeuristic {
+
+    /**
+     * Returns a lower bound on the distance from u to the target.
+     *
+     * @param u      Vertex index
+     * @param target Target vertex index
+     * @return A lower bound on the distance from u to the target
+     */
+    double estimate(int u, int target);
+}
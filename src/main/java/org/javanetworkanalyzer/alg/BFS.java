@@ -25,6 +25,7 @@
 package org.javanetworkanalyzer.alg;
 
 import org.javanetworkanalyzer.data.VBFS;
+import org.javanetworkanalyzer.model.CSRGraph;
 import org.javanetworkanalyzer.model.EdgeSPT;
 import org.jgrapht.Graph;
 import org.jgrapht.Graphs;
@@ -49,6 +50,11 @@ public class BFS<V extends VBFS, E extends EdgeSPT>
      * BFS queue.
      */
     private final LinkedList<V> queue;
+    /**
+     * CSR indices of the vertices in the queue, in the same order, if the
+     * graph is a {@link CSRGraph}; null otherwise.
+     */
+    private final int[] queuedIndices;
 
     /**
      * Constructor.
@@ -58,6 +64,7 @@ public class BFS<V extends VBFS, E extends EdgeSPT>
     public BFS(Graph<V, E> graph) {
         super(graph);
         queue = new LinkedList<V>();
+        queuedIndices = csr != null ? new int[csr.getVertexCount()] : null;
     }
 
     /**
@@ -70,6 +77,11 @@ public class BFS<V extends VBFS, E extends EdgeSPT>
 
         init(startNode);
 
+        if (csr != null) {
+            calculateOnCSR(startNode);
+            return;
+        }
+
         // While the queue is not empty ...
         while (!queue.isEmpty()) {
             V current = dequeueStep(queue);
@@ -92,6 +104,38 @@ public class BFS<V extends VBFS, E extends EdgeSPT>
         }
     }
 
+    /**
+     * Main loop of {@link #calculate} when the graph is a {@link CSRGraph}:
+     * neighbors are found by scanning arcs rather than iterating edge sets.
+     * Each vertex is queued once, so the CSR indices of the queued vertices
+     * are kept in a plain array alongside the queue.
+     *
+     * @param startNode Start node
+     */
+    private void calculateOnCSR(V startNode) {
+        int head = 0;
+        int tail = 0;
+        queuedIndices[tail++] = csr.indexOfID(startNode.getID());
+        while (!queue.isEmpty()) {
+            V current = dequeueStep(queue);
+            final int u = queuedIndices[head++];
+            final int end = csr.endArc(u);
+            for (int arc = csr.firstArc(u); arc < end; arc++) {
+                final int v = csr.arcTarget(arc);
+                V neighbor = (V) csr.vertex(v);
+                if (neighbor.getDistance() < 0) {
+                    enqueueAndUpdateDistance(current, neighbor, queue);
+                    queuedIndices[tail++] = v;
+                    firstTimeFoundStep(current, neighbor);
+                }
+                if (neighbor.getDistance() == current.getDistance() + 1) {
+                    shortestPathStep(current, neighbor,
+                                     (E) csr.edge(csr.arcEdge(arc)));
+                }
+            }
+        }
+    }
+
     @Override
     protected void init(V startNode) {
         super.init(startNode);
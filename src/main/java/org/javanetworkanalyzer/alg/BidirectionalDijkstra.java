@@ -0,0 +1,498 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.alg;
+
+import org.javanetworkanalyzer.data.IndexedDaryHeap;
+import org.javanetworkanalyzer.data.SearchState;
+import org.javanetworkanalyzer.data.VDijkstra;
+import org.javanetworkanalyzer.model.CSRGraph;
+import org.javanetworkanalyzer.model.DirectedG;
+import org.javanetworkanalyzer.model.EdgeReversedG;
+import org.javanetworkanalyzer.model.EdgeSPT;
+import org.jgrapht.DirectedGraph;
+import org.jgrapht.Graph;
+import org.jgrapht.Graphs;
+import org.jgrapht.graph.EdgeReversedGraph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bidirectional Dijkstra for point-to-point shortest path queries.
+ *
+ * <p> Searches forward from the source and backward from the target (over
+ * the edge-reversed graph if the graph is directed), always advancing the
+ * search whose smallest tentative distance is smaller, and stops as soon as
+ * the sum of the two smallest tentative distances is at least the length of
+ * the shortest path found so far.
+ *
+ * <p> All per-query state is kept in {@link SearchState}s indexed by dense
+ * vertex index, so that each query only resets the vertices it touched; the
+ * vertex objects are not modified. An instance should therefore be reused
+ * for many queries on the same graph. If the graph is a {@link CSRGraph},
+ * its arcs are traversed directly.
+ *
+ * @param <V> Vertices
+ * @param <E> Edges
+ * @author Adam Gouge
+ */
+public class BidirectionalDijkstra<V extends VDijkstra, E extends EdgeSPT> {
+
+    /**
+     * Forward search.
+     */
+    private static final int FORWARD = 0;
+    /**
+     * Backward search.
+     */
+    private static final int BACKWARD = 1;
+    /**
+     * The graph.
+     */
+    private final Graph<V, E> graph;
+    /**
+     * The graph traversed by each search: the graph itself, and its
+     * edge-reversed view if the graph is directed.
+     */
+    private final Graph<V, E>[] searchGraphs;
+    /**
+     * The views traversed by each search if the graph is a CSR graph; null
+     * otherwise.
+     */
+    private final CSRGraph<?, ?>[] csrs;
+    /**
+     * Vertex index of each vertex if the graph is not a CSR graph.
+     */
+    private final Map<V, Integer> indices;
+    /**
+     * Vertex of each index if the graph is not a CSR graph.
+     */
+    private final Object[] vertices;
+    /**
+     * State of each search.
+     */
+    private final SearchState[] states;
+    /**
+     * Queue of each search.
+     */
+    private final IndexedDaryHeap[] queues;
+    /**
+     * Predecessor of each vertex touched by each search.
+     */
+    private final int[][] parents;
+    /**
+     * Edge to the predecessor of each vertex touched by each search, as an
+     * edge object, or as an edge index if the graph is a CSR graph.
+     */
+    private final Object[][] parentEdges;
+    private final int[][] parentEdgeIndices;
+    /**
+     * Source and target of the last query, or -1.
+     */
+    private int source = -1;
+    private int target = -1;
+    /**
+     * Length of the shortest path found by the last query.
+     */
+    private double distance = Double.POSITIVE_INFINITY;
+    /**
+     * The vertex at which the two searches meet on the shortest path, or -1.
+     */
+    private int meeting = -1;
+    /**
+     * Number of vertices settled by both searches in the last query.
+     */
+    private int settledCount;
+    /**
+     * Whether the last query reached a vertex added to the graph after this
+     * search was created.
+     */
+    private boolean stale;
+
+    /**
+     * Constructor.
+     *
+     * @param graph The graph
+     */
+    public BidirectionalDijkstra(Graph<V, E> graph) {
+        this.graph = graph;
+        final int n;
+        if (graph instanceof CSRGraph) {
+            final CSRGraph<?, ?> csr = (CSRGraph<?, ?>) graph;
+            n = csr.getVertexCount();
+            final int orientation = csr.getOrientation();
+            csrs = new CSRGraph<?, ?>[]{csr,
+                orientation == CSRGraph.UNDIRECTED ? csr
+                : csr.withOrientation(orientation == CSRGraph.DIRECTED
+                ? CSRGraph.REVERSED : CSRGraph.DIRECTED)};
+            searchGraphs = null;
+            indices = null;
+            vertices = null;
+            parentEdges = null;
+            parentEdgeIndices = new int[2][n];
+        } else {
+            n = graph.vertexSet().size();
+            csrs = null;
+            searchGraphs = new Graph[]{graph, reverse(graph)};
+            indices = new HashMap<V, Integer>(2 * n);
+            vertices = new Object[n];
+            int i = 0;
+            for (V v : graph.vertexSet()) {
+                indices.put(v, i);
+                vertices[i++] = v;
+            }
+            parentEdges = new Object[2][n];
+            parentEdgeIndices = null;
+        }
+        states = new SearchState[]{new SearchState(n), new SearchState(n)};
+        queues = new IndexedDaryHeap[]{new IndexedDaryHeap(n),
+            new IndexedDaryHeap(n)};
+        parents = new int[2][n];
+    }
+
+    /**
+     * Returns the edge-reversed view of the given graph if it is directed,
+     * and the graph itself otherwise.
+     */
+    private static <V extends VDijkstra, E extends EdgeSPT> Graph<V, E>
+            reverse(Graph<V, E> graph) {
+        if (graph instanceof DirectedG) {
+            try {
+                return new EdgeReversedG((DirectedG) graph);
+            } catch (NoSuchMethodException ex) {
+                throw new IllegalStateException(
+                        "Could not reverse the graph.", ex);
+            }
+        } else if (graph instanceof DirectedGraph) {
+            return new EdgeReversedGraph<V, E>((DirectedGraph<V, E>) graph);
+        }
+        return graph;
+    }
+
+    /**
+     * Computes the shortest path from the source to the target.
+     *
+     * @param source Source
+     * @param target Target
+     * @return The distance from the source to the target, or infinity if the
+     *         target cannot be reached
+     */
+    public double calculate(V source, V target) {
+        final int s = indexOf(source);
+        if (s < 0) {
+            throw new IllegalArgumentException("Source vertex not found.");
+        }
+        final int t = indexOf(target);
+        if (t < 0) {
+            throw new IllegalArgumentException("Target vertex not found.");
+        }
+        return calculate(s, t);
+    }
+
+    /**
+     * Computes the shortest path between the vertices with the given
+     * indices.
+     */
+    private double calculate(int s, int t) {
+        source = s;
+        target = t;
+        distance = Double.POSITIVE_INFINITY;
+        meeting = -1;
+        settledCount = 0;
+        stale = false;
+        init(FORWARD, s);
+        init(BACKWARD, t);
+        if (s == t) {
+            distance = 0.0;
+            meeting = s;
+            return distance;
+        }
+        final IndexedDaryHeap forward = queues[FORWARD];
+        final IndexedDaryHeap backward = queues[BACKWARD];
+        while (!forward.isEmpty() && !backward.isEmpty()) {
+            final double topForward = forward.peekPriority();
+            final double topBackward = backward.peekPriority();
+            // No path through an unsettled vertex can be shorter.
+            if (topForward + topBackward >= distance) {
+                break;
+            }
+            settledCount++;
+            if (topForward <= topBackward) {
+                relaxArcs(FORWARD, forward.poll());
+            } else {
+                relaxArcs(BACKWARD, backward.poll());
+            }
+        }
+        return distance;
+    }
+
+    /**
+     * Resets the given search and queues the given vertex.
+     */
+    private void init(int direction, int start) {
+        states[direction].reset();
+        queues[direction].clear();
+        states[direction].setDistance(start, 0.0);
+        parents[direction][start] = -1;
+        queues[direction].update(start, 0.0);
+    }
+
+    /**
+     * Relaxes the outgoing arcs of u in the given search, updating the
+     * shortest path whenever a relaxed vertex has been reached by the other
+     * search.
+     */
+    private void relaxArcs(int direction, int u) {
+        final SearchState state = states[direction];
+        final SearchState other = states[1 - direction];
+        final double du = state.getDistance(u);
+        if (csrs != null) {
+            final CSRGraph<?, ?> csr = csrs[direction];
+            final int end = csr.endArc(u);
+            for (int arc = csr.firstArc(u); arc < end; arc++) {
+                final int v = csr.arcTarget(arc);
+                if (relax(direction, state, u, v, du + csr.arcWeight(arc))) {
+                    parentEdgeIndices[direction][v] = csr.arcEdge(arc);
+                }
+                meet(state, other, v);
+            }
+        } else {
+            final V uVertex = (V) vertices[u];
+            final Graph<V, E> g = searchGraphs[direction];
+            for (E e : (Iterable<E>) GraphSearchAlgorithm.outgoingEdgesOf(
+                    g, uVertex)) {
+                final Integer v = indices.get(
+                        Graphs.getOppositeVertex(graph, e, uVertex));
+                // The vertex was added after this search was created and
+                // has no index, so the result may be wrong.
+                if (v == null) {
+                    stale = true;
+                    continue;
+                }
+                if (relax(direction, state, u, v,
+                          du + graph.getEdgeWeight(e))) {
+                    parentEdges[direction][v] = e;
+                }
+                meet(state, other, v);
+            }
+        }
+    }
+
+    /**
+     * Updates the distance to v if the given candidate is shorter.
+     *
+     * @return True if the distance to v was updated
+     */
+    private boolean relax(int direction, SearchState state, int u, int v,
+                          double candidate) {
+        if (state.getDistance(v) > candidate) {
+            state.setDistance(v, candidate);
+            parents[direction][v] = u;
+            queues[direction].update(v, candidate);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Updates the shortest path if v has been reached by both searches by a
+     * shorter path.
+     */
+    private void meet(SearchState state, SearchState other, int v) {
+        if (other.isTouched(v)) {
+            final double length = state.getDistance(v) + other.getDistance(v);
+            if (length < distance) {
+                distance = length;
+                meeting = v;
+            }
+        }
+    }
+
+    /**
+     * Returns the distance found by the last query.
+     *
+     * @return The distance from the last source to the last target, or
+     *         infinity if it cannot be reached
+     */
+    public double getDistance() {
+        checkCalculated();
+        return distance;
+    }
+
+    /**
+     * Returns the number of vertices of the graph when this search was
+     * created.
+     *
+     * @return The number of vertices
+     */
+    public int getVertexCount() {
+        return parents[FORWARD].length;
+    }
+
+    /**
+     * Returns true if the given vertex has an index in this search, that is,
+     * if it was in the graph when this search was created.
+     *
+     * @param v Vertex
+     * @return True if the vertex can be queried
+     */
+    public boolean contains(V v) {
+        return indexOf(v) >= 0;
+    }
+
+    /**
+     * Returns true if the last query reached a vertex added to the graph
+     * after this search was created. The arcs to such vertices are skipped,
+     * so the result of the query may be wrong and a new search should be
+     * created.
+     *
+     * @return True if the last query is unreliable
+     */
+    public boolean isStale() {
+        return stale;
+    }
+
+    /**
+     * Returns the number of vertices settled by the two searches of the last
+     * query.
+     *
+     * @return The number of vertices settled by the last query
+     */
+    public int getSettledCount() {
+        return settledCount;
+    }
+
+    /**
+     * Returns the vertices of the shortest path found by the last query, from
+     * the source to the target.
+     *
+     * @return The vertices of the shortest path, or an empty list if the
+     *         target cannot be reached
+     */
+    public List<V> getPathVertices() {
+        final int[] path = path();
+        final List<V> result = new ArrayList<V>(path.length);
+        for (int u : path) {
+            result.add(vertex(u));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the edges of the shortest path found by the last query, from
+     * the source to the target.
+     *
+     * @return The edges of the shortest path, or an empty list if the target
+     *         cannot be reached or is the source
+     */
+    public List<E> getPath() {
+        final int[] path = path();
+        if (path.length < 2) {
+            return Collections.emptyList();
+        }
+        final List<E> result = new ArrayList<E>(path.length - 1);
+        int u = meeting;
+        // Edges from the source to the meeting vertex, in reverse.
+        while (parents[FORWARD][u] >= 0) {
+            result.add(parentEdge(FORWARD, u));
+            u = parents[FORWARD][u];
+        }
+        Collections.reverse(result);
+        // Edges from the meeting vertex to the target.
+        u = meeting;
+        while (parents[BACKWARD][u] >= 0) {
+            result.add(parentEdge(BACKWARD, u));
+            u = parents[BACKWARD][u];
+        }
+        return result;
+    }
+
+    /**
+     * Returns the vertex indices of the shortest path.
+     */
+    private int[] path() {
+        checkCalculated();
+        if (meeting < 0) {
+            return new int[0];
+        }
+        int length = 1;
+        for (int u = meeting; parents[FORWARD][u] >= 0;
+             u = parents[FORWARD][u]) {
+            length++;
+        }
+        final int forwardLength = length;
+        for (int u = meeting; parents[BACKWARD][u] >= 0;
+             u = parents[BACKWARD][u]) {
+            length++;
+        }
+        final int[] path = new int[length];
+        int u = meeting;
+        for (int i = forwardLength - 1; i >= 0; i--) {
+            path[i] = u;
+            u = parents[FORWARD][u];
+        }
+        u = meeting;
+        for (int i = forwardLength; i < length; i++) {
+            u = parents[BACKWARD][u];
+            path[i] = u;
+        }
+        return path;
+    }
+
+    private E parentEdge(int direction, int u) {
+        if (csrs != null) {
+            return (E) csrs[FORWARD].edge(parentEdgeIndices[direction][u]);
+        }
+        return (E) parentEdges[direction][u];
+    }
+
+    private int indexOf(V v) {
+        if (v == null) {
+            return -1;
+        }
+        if (csrs != null) {
+            return ((CSRGraph) graph).indexOf(v);
+        }
+        final Integer index = indices.get(v);
+        return index == null ? -1 : index;
+    }
+
+    private V vertex(int u) {
+        if (csrs != null) {
+            return (V) csrs[FORWARD].vertex(u);
+        }
+        return (V) vertices[u];
+    }
+
+    private void checkCalculated() {
+        if (source < 0) {
+            throw new IllegalStateException(
+                    "You must call #calculate before querying the path.");
+        }
+    }
+}
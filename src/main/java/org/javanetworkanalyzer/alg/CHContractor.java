@@ -0,0 +1,390 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.alg;
+
+import org.javanetworkanalyzer.data.IndexedDaryHeap;
+import org.javanetworkanalyzer.data.SearchState;
+import org.javanetworkanalyzer.model.CSRGraph;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * Builds a {@link ContractionHierarchy}.
+ *
+ * <p> Vertices are contracted in order of increasing priority, the priority
+ * of a vertex being twice its edge difference (the number of shortcuts its
+ * contraction would add minus the number of arcs it would remove) plus the
+ * number of its neighbors already contracted, which spreads contractions
+ * evenly over the graph. Priorities are updated lazily when a vertex is
+ * polled and eagerly for the neighbors of each contracted vertex.
+ *
+ * @author Adam Gouge
+ */
+final class CHContractor {
+
+    /**
+     * Maximum number of vertices settled by a witness search; a search
+     * stopped early may only add superfluous shortcuts.
+     */
+    static final int SETTLE_LIMIT = 500;
+    /**
+     * Maximum number of vertices settled by a witness search when only
+     * estimating the number of shortcuts for the priority.
+     */
+    static final int ESTIMATE_SETTLE_LIMIT = 50;
+    /**
+     * Number of vertices.
+     */
+    private final int n;
+    /**
+     * The graph.
+     */
+    private final CSRGraph<?, ?> graph;
+    /**
+     * Out-arcs of each vertex among the remaining vertices: target, weight
+     * and bypassed vertex (or -1). Once a vertex is contracted, these are
+     * its upward arcs.
+     */
+    private final int[][] outTargets;
+    private final double[][] outWeights;
+    private final int[][] outMiddles;
+    private final int[] outDegrees;
+    /**
+     * In-arcs of each vertex among the remaining vertices: source, weight
+     * and bypassed vertex (or -1). Once a vertex is contracted, these are
+     * its downward arcs.
+     */
+    private final int[][] inSources;
+    private final double[][] inWeights;
+    private final int[][] inMiddles;
+    private final int[] inDegrees;
+    /**
+     * Number of contracted neighbors of each vertex.
+     */
+    private final int[] contractedNeighbors;
+    /**
+     * Rank of each vertex, or -1 if it has not been contracted yet.
+     */
+    private final int[] ranks;
+    /**
+     * Witness search state and queue.
+     */
+    private final SearchState witness;
+    private final IndexedDaryHeap witnessQueue;
+    /**
+     * Number of shortcuts added.
+     */
+    private int shortcutCount;
+
+    /**
+     * Constructor.
+     *
+     * @param graph The graph
+     */
+    CHContractor(CSRGraph<?, ?> graph) {
+        this.graph = graph;
+        n = graph.getVertexCount();
+        outTargets = new int[n][];
+        outWeights = new double[n][];
+        outMiddles = new int[n][];
+        outDegrees = new int[n];
+        inSources = new int[n][];
+        inWeights = new double[n][];
+        inMiddles = new int[n][];
+        inDegrees = new int[n];
+        for (int u = 0; u < n; u++) {
+            outTargets[u] = new int[4];
+            outWeights[u] = new double[4];
+            outMiddles[u] = new int[4];
+            inSources[u] = new int[4];
+            inWeights[u] = new double[4];
+            inMiddles[u] = new int[4];
+        }
+        contractedNeighbors = new int[n];
+        ranks = new int[n];
+        Arrays.fill(ranks, -1);
+        witness = new SearchState(n);
+        witnessQueue = new IndexedDaryHeap(n);
+        for (int u = 0; u < n; u++) {
+            for (int arc = graph.firstArc(u); arc < graph.endArc(u); arc++) {
+                final double weight = graph.arcWeight(arc);
+                if (weight < 0) {
+                    throw new IllegalArgumentException(
+                            "Edge weights must be non-negative.");
+                }
+                final int v = graph.arcTarget(arc);
+                if (v != u) {
+                    addArc(u, v, weight, -1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Contracts all vertices and returns the hierarchy.
+     *
+     * @return The contraction hierarchy
+     */
+    ContractionHierarchy contract() {
+        final IndexedDaryHeap queue = new IndexedDaryHeap(n);
+        for (int v = 0; v < n; v++) {
+            queue.update(v, priority(v));
+        }
+        int rank = 0;
+        while (!queue.isEmpty()) {
+            final int v = queue.poll();
+            final double priority = priority(v);
+            if (!queue.isEmpty() && priority > queue.peekPriority()) {
+                queue.update(v, priority);
+                continue;
+            }
+            final int[] neighbors = new int[outDegrees[v] + inDegrees[v]];
+            int neighborCount = 0;
+            for (int i = 0; i < outDegrees[v]; i++) {
+                neighbors[neighborCount++] = outTargets[v][i];
+            }
+            for (int i = 0; i < inDegrees[v]; i++) {
+                neighbors[neighborCount++] = inSources[v][i];
+            }
+            contract(v);
+            ranks[v] = rank++;
+            for (int i = 0; i < neighborCount; i++) {
+                final int x = neighbors[i];
+                contractedNeighbors[x]++;
+                queue.update(x, priority(x));
+            }
+        }
+        return hierarchy();
+    }
+
+    /**
+     * Returns the priority of the given remaining vertex.
+     */
+    private double priority(int v) {
+        final int shortcuts = shortcuts(v, false);
+        return 2.0 * (shortcuts - outDegrees[v] - inDegrees[v])
+                + contractedNeighbors[v];
+    }
+
+    /**
+     * Contracts the given vertex: adds the necessary shortcuts between its
+     * neighbors and removes it from the remaining graph.
+     */
+    private void contract(int v) {
+        shortcutCount += shortcuts(v, true);
+        for (int i = 0; i < outDegrees[v]; i++) {
+            removeIn(outTargets[v][i], v);
+        }
+        for (int i = 0; i < inDegrees[v]; i++) {
+            removeOut(inSources[v][i], v);
+        }
+    }
+
+    /**
+     * Counts, and optionally adds, the shortcuts needed to contract v.
+     *
+     * @param v   Vertex
+     * @param add Whether to add the shortcuts
+     * @return The number of shortcuts
+     */
+    private int shortcuts(int v, boolean add) {
+        int count = 0;
+        // Shortcuts join neighbors of v, so the arcs of v do not change.
+        for (int i = 0; i < inDegrees[v]; i++) {
+            final int u = inSources[v][i];
+            final double uv = inWeights[v][i];
+            double maxOut = 0.0;
+            for (int j = 0; j < outDegrees[v]; j++) {
+                if (outTargets[v][j] != u) {
+                    maxOut = Math.max(maxOut, outWeights[v][j]);
+                }
+            }
+            if (outDegrees[v] == 0
+                    || (outDegrees[v] == 1 && outTargets[v][0] == u)) {
+                continue;
+            }
+            witnessSearch(u, v, uv + maxOut,
+                          add ? SETTLE_LIMIT : ESTIMATE_SETTLE_LIMIT);
+            for (int j = 0; j < outDegrees[v]; j++) {
+                final int w = outTargets[v][j];
+                if (w == u) {
+                    continue;
+                }
+                final double via = uv + outWeights[v][j];
+                if (witness.getDistance(w) > via) {
+                    count++;
+                    if (add) {
+                        addArc(u, w, via, v);
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Searches from u among the remaining vertices other than v, up to the
+     * given distance or the given number of settled vertices.
+     */
+    private void witnessSearch(int u, int v, double maxDistance,
+                               int settleLimit) {
+        witness.reset();
+        witnessQueue.clear();
+        witness.setDistance(u, 0.0);
+        witnessQueue.update(u, 0.0);
+        int settled = 0;
+        while (!witnessQueue.isEmpty()
+                && witnessQueue.peekPriority() <= maxDistance
+                && settled < settleLimit) {
+            final int x = witnessQueue.poll();
+            settled++;
+            final double dx = witness.getDistance(x);
+            for (int i = 0; i < outDegrees[x]; i++) {
+                final int y = outTargets[x][i];
+                if (y == v) {
+                    continue;
+                }
+                final double candidate = dx + outWeights[x][i];
+                if (witness.getDistance(y) > candidate) {
+                    witness.setDistance(y, candidate);
+                    witnessQueue.update(y, candidate);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the arc u -> w, or lowers the weight of the existing one.
+     */
+    private void addArc(int u, int w, double weight, int middle) {
+        for (int i = 0; i < outDegrees[u]; i++) {
+            if (outTargets[u][i] == w) {
+                if (weight < outWeights[u][i]) {
+                    outWeights[u][i] = weight;
+                    outMiddles[u][i] = middle;
+                    for (int j = 0; j < inDegrees[w]; j++) {
+                        if (inSources[w][j] == u) {
+                            inWeights[w][j] = weight;
+                            inMiddles[w][j] = middle;
+                            break;
+                        }
+                    }
+                }
+                return;
+            }
+        }
+        int i = outDegrees[u]++;
+        if (i == outTargets[u].length) {
+            outTargets[u] = Arrays.copyOf(outTargets[u], 2 * i);
+            outWeights[u] = Arrays.copyOf(outWeights[u], 2 * i);
+            outMiddles[u] = Arrays.copyOf(outMiddles[u], 2 * i);
+        }
+        outTargets[u][i] = w;
+        outWeights[u][i] = weight;
+        outMiddles[u][i] = middle;
+        i = inDegrees[w]++;
+        if (i == inSources[w].length) {
+            inSources[w] = Arrays.copyOf(inSources[w], 2 * i);
+            inWeights[w] = Arrays.copyOf(inWeights[w], 2 * i);
+            inMiddles[w] = Arrays.copyOf(inMiddles[w], 2 * i);
+        }
+        inSources[w][i] = u;
+        inWeights[w][i] = weight;
+        inMiddles[w][i] = middle;
+    }
+
+    /**
+     * Removes the arc u -> v from the out-arcs of u.
+     */
+    private void removeOut(int u, int v) {
+        for (int i = 0; i < outDegrees[u]; i++) {
+            if (outTargets[u][i] == v) {
+                final int last = --outDegrees[u];
+                outTargets[u][i] = outTargets[u][last];
+                outWeights[u][i] = outWeights[u][last];
+                outMiddles[u][i] = outMiddles[u][last];
+                return;
+            }
+        }
+    }
+
+    /**
+     * Removes the arc v -> w from the in-arcs of w.
+     */
+    private void removeIn(int w, int v) {
+        for (int i = 0; i < inDegrees[w]; i++) {
+            if (inSources[w][i] == v) {
+                final int last = --inDegrees[w];
+                inSources[w][i] = inSources[w][last];
+                inWeights[w][i] = inWeights[w][last];
+                inMiddles[w][i] = inMiddles[w][last];
+                return;
+            }
+        }
+    }
+
+    /**
+     * Packs the arcs of the contracted vertices into the hierarchy.
+     */
+    private ContractionHierarchy hierarchy() {
+        final int[] ids = new int[n];
+        final int[] upOffsets = new int[n + 1];
+        final int[] downOffsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            ids[u] = graph.getID(u);
+            upOffsets[u + 1] = upOffsets[u] + outDegrees[u];
+            downOffsets[u + 1] = downOffsets[u] + inDegrees[u];
+        }
+        final int[] upTargets = new int[upOffsets[n]];
+        final double[] upWeights = new double[upOffsets[n]];
+        final int[] upMiddles = new int[upOffsets[n]];
+        final int[] downTargets = new int[downOffsets[n]];
+        final double[] downWeights = new double[downOffsets[n]];
+        final int[] downMiddles = new int[downOffsets[n]];
+        for (int u = 0; u < n; u++) {
+            System.arraycopy(outTargets[u], 0, upTargets, upOffsets[u],
+                             outDegrees[u]);
+            System.arraycopy(outWeights[u], 0, upWeights, upOffsets[u],
+                             outDegrees[u]);
+            System.arraycopy(outMiddles[u], 0, upMiddles, upOffsets[u],
+                             outDegrees[u]);
+            System.arraycopy(inSources[u], 0, downTargets, downOffsets[u],
+                             inDegrees[u]);
+            System.arraycopy(inWeights[u], 0, downWeights, downOffsets[u],
+                             inDegrees[u]);
+            System.arraycopy(inMiddles[u], 0, downMiddles, downOffsets[u],
+                             inDegrees[u]);
+        }
+        return new ContractionHierarchy(
+                IntBuffer.wrap(ids), IntBuffer.wrap(ranks),
+                IntBuffer.wrap(upOffsets), IntBuffer.wrap(upTargets),
+                DoubleBuffer.wrap(upWeights), IntBuffer.wrap(upMiddles),
+                IntBuffer.wrap(downOffsets), IntBuffer.wrap(downTargets),
+                DoubleBuffer.wrap(downWeights), IntBuffer.wrap(downMiddles),
+                shortcutCount);
+    }
+}
@@ -0,0 +1,389 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.alg;
+
+import org.javanetworkanalyzer.data.IndexedDaryHeap;
+import org.javanetworkanalyzer.data.SearchState;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * Shortest path queries on a {@link ContractionHierarchy}.
+ *
+ * <p> A one-to-one query runs an upward search from the source and an upward
+ * search over the downward arcs from the target; the distance is the
+ * smallest sum of the two distances of a vertex reached by both. Both
+ * searches use stall-on-demand: a vertex is not expanded if a higher-ranked
+ * vertex already gives it a shorter distance. A many-to-many query runs one
+ * backward search per target, leaving the distances in a bucket at each
+ * vertex reached, and then one forward search per source, scanning the
+ * buckets of the vertices it reaches.
+ *
+ * <p> All per-query state is kept in {@link SearchState}s, so queries only
+ * reset the vertices they touched. A query object is not thread-safe but
+ * any number of them may share a hierarchy.
+ *
+ * @author Adam Gouge
+ */
+public class CHQuery {
+
+    /**
+     * Forward search.
+     */
+    private static final int FORWARD = 0;
+    /**
+     * Backward search.
+     */
+    private static final int BACKWARD = 1;
+    /**
+     * The hierarchy.
+     */
+    private final ContractionHierarchy ch;
+    /**
+     * Arcs searched in each direction: upward arcs forward and downward arcs
+     * backward.
+     */
+    private final IntBuffer[] offsets;
+    private final IntBuffer[] targets;
+    private final DoubleBuffer[] weights;
+    private final IntBuffer[] middles;
+    /**
+     * State and queue of each search.
+     */
+    private final SearchState[] states;
+    private final IndexedDaryHeap[] queues;
+    /**
+     * Predecessor of each vertex touched by each search, and the vertex
+     * bypassed by the arc from it.
+     */
+    private final int[][] parents;
+    private final int[][] parentMiddles;
+    /**
+     * Source and target of the last one-to-one query, or -1.
+     */
+    private int source = -1;
+    private int target = -1;
+    /**
+     * Vertex at which the searches of the last one-to-one query met, or -1.
+     */
+    private int meeting = -1;
+    /**
+     * Number of vertices settled by the last query.
+     */
+    private int settledCount;
+
+    /**
+     * Constructor.
+     *
+     * @param ch The contraction hierarchy
+     */
+    public CHQuery(ContractionHierarchy ch) {
+        this.ch = ch;
+        final int n = ch.getVertexCount();
+        offsets = new IntBuffer[]{ch.upOffsets, ch.downOffsets};
+        targets = new IntBuffer[]{ch.upTargets, ch.downTargets};
+        weights = new DoubleBuffer[]{ch.upWeights, ch.downWeights};
+        middles = new IntBuffer[]{ch.upMiddles, ch.downMiddles};
+        states = new SearchState[]{new SearchState(n), new SearchState(n)};
+        queues = new IndexedDaryHeap[]{new IndexedDaryHeap(n),
+            new IndexedDaryHeap(n)};
+        parents = new int[2][n];
+        parentMiddles = new int[2][n];
+    }
+
+    /**
+     * Computes the shortest path from the source to the target.
+     *
+     * @param source Source vertex index
+     * @param target Target vertex index
+     * @return The distance from the source to the target, or infinity if the
+     *         target cannot be reached
+     */
+    public double oneToOne(int source, int target) {
+        this.source = source;
+        this.target = target;
+        meeting = -1;
+        settledCount = 0;
+        init(FORWARD, source);
+        init(BACKWARD, target);
+        double best = Double.POSITIVE_INFINITY;
+        boolean forwardDone = false;
+        boolean backwardDone = false;
+        while (!forwardDone || !backwardDone) {
+            // Advance the search with the smaller queue minimum; a search is
+            // done once its minimum is at least the best distance.
+            forwardDone = forwardDone || queues[FORWARD].isEmpty()
+                    || queues[FORWARD].peekPriority() >= best;
+            backwardDone = backwardDone || queues[BACKWARD].isEmpty()
+                    || queues[BACKWARD].peekPriority() >= best;
+            final int direction;
+            if (forwardDone && backwardDone) {
+                break;
+            } else if (forwardDone) {
+                direction = BACKWARD;
+            } else if (backwardDone) {
+                direction = FORWARD;
+            } else {
+                direction = queues[FORWARD].peekPriority()
+                        <= queues[BACKWARD].peekPriority()
+                        ? FORWARD : BACKWARD;
+            }
+            final int u = settle(direction);
+            final SearchState other = states[1 - direction];
+            if (other.isTouched(u)) {
+                final double length = states[direction].getDistance(u)
+                        + other.getDistance(u);
+                if (length < best) {
+                    best = length;
+                    meeting = u;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the vertex indices of the shortest path found by the last
+     * one-to-one query, from the source to the target.
+     *
+     * @return The vertices of the shortest path, or an empty array if the
+     *         target cannot be reached
+     */
+    public int[] getPath() {
+        if (source < 0) {
+            throw new IllegalStateException(
+                    "You must call #oneToOne before querying the path.");
+        }
+        if (meeting < 0) {
+            return new int[0];
+        }
+        // The upward path from the source to the meeting vertex, reversed.
+        final ContractionHierarchy.IntList up =
+                new ContractionHierarchy.IntList();
+        for (int u = meeting; u != source; u = parents[FORWARD][u]) {
+            up.add(u);
+        }
+        final ContractionHierarchy.IntList path =
+                new ContractionHierarchy.IntList();
+        path.add(source);
+        int previous = source;
+        for (int i = up.size() - 1; i >= 0; i--) {
+            final int u = up.get(i);
+            ch.unpack(previous, u, parentMiddles[FORWARD][u], path);
+            previous = u;
+        }
+        // The downward path from the meeting vertex to the target.
+        for (int u = meeting; u != target; u = parents[BACKWARD][u]) {
+            ch.unpack(u, parents[BACKWARD][u], parentMiddles[BACKWARD][u],
+                      path);
+        }
+        return path.toArray();
+    }
+
+    /**
+     * Computes the distance from each source to each target.
+     *
+     * @param sources Source vertex indices
+     * @param targets Target vertex indices
+     * @return The distances, indexed by source and then by target; infinity
+     *         for unreachable targets
+     */
+    public double[][] manyToMany(int[] sources, int[] targets) {
+        settledCount = 0;
+        final Buckets buckets = buckets(targets);
+        final double[][] distances = new double[sources.length][];
+        for (int i = 0; i < sources.length; i++) {
+            distances[i] = new double[targets.length];
+            scan(buckets, sources[i], distances[i]);
+        }
+        return distances;
+    }
+
+    /**
+     * Runs a backward search from each target and records the distances
+     * from the vertices it settles in their buckets.
+     *
+     * @param targets Target vertex indices
+     * @return The buckets, which may be shared by several queries
+     */
+    Buckets buckets(int[] targets) {
+        final Buckets buckets = new Buckets(ch.getVertexCount());
+        final SearchState state = states[BACKWARD];
+        for (int j = 0; j < targets.length; j++) {
+            search(BACKWARD, targets[j]);
+            for (int i = 0; i < state.getTouchedCount(); i++) {
+                final int x = state.getTouched(i);
+                if (isSettled(BACKWARD, x)) {
+                    buckets.add(x, j, state.getDistance(x));
+                }
+            }
+        }
+        return buckets;
+    }
+
+    /**
+     * Runs a forward search from the given source and computes its distance
+     * to each target from the buckets of the vertices it settles.
+     *
+     * @param buckets The buckets
+     * @param source  Source vertex index
+     * @param row     Array in which to store the distance to each target;
+     *                infinity for unreachable targets
+     */
+    void scan(Buckets buckets, int source, double[] row) {
+        Arrays.fill(row, Double.POSITIVE_INFINITY);
+        search(FORWARD, source);
+        final SearchState state = states[FORWARD];
+        for (int k = 0; k < state.getTouchedCount(); k++) {
+            final int x = state.getTouched(k);
+            int e = buckets.heads[x];
+            if (e < 0 || !isSettled(FORWARD, x)) {
+                continue;
+            }
+            final double dx = state.getDistance(x);
+            for (; e >= 0; e = buckets.next[e]) {
+                final double length = dx + buckets.distances[e];
+                if (length < row[buckets.targets[e]]) {
+                    row[buckets.targets[e]] = length;
+                }
+            }
+        }
+    }
+
+    /**
+     * The distances to the targets of a many-to-many query from the vertices
+     * settled by their backward searches, stored as a list of entries per
+     * vertex.
+     */
+    static final class Buckets {
+
+        /**
+         * First entry of each vertex, or -1.
+         */
+        private final int[] heads;
+        /**
+         * Target index, distance and next entry of each entry.
+         */
+        private int[] targets = new int[16];
+        private double[] distances = new double[16];
+        private int[] next = new int[16];
+        private int size;
+
+        Buckets(int vertexCount) {
+            heads = new int[vertexCount];
+            Arrays.fill(heads, -1);
+        }
+
+        void add(int x, int target, double distance) {
+            if (size == targets.length) {
+                targets = Arrays.copyOf(targets, 2 * size);
+                distances = Arrays.copyOf(distances, 2 * size);
+                next = Arrays.copyOf(next, 2 * size);
+            }
+            targets[size] = target;
+            distances[size] = distance;
+            next[size] = heads[x];
+            heads[x] = size++;
+        }
+    }
+
+    /**
+     * Returns the number of vertices settled by the last query.
+     *
+     * @return The number of vertices settled by the last query
+     */
+    public int getSettledCount() {
+        return settledCount;
+    }
+
+    /**
+     * Runs a complete search in the given direction.
+     */
+    private void search(int direction, int start) {
+        init(direction, start);
+        while (!queues[direction].isEmpty()) {
+            settle(direction);
+        }
+    }
+
+    private void init(int direction, int start) {
+        states[direction].reset();
+        queues[direction].clear();
+        states[direction].setDistance(start, 0.0);
+        parents[direction][start] = -1;
+        queues[direction].update(start, 0.0);
+    }
+
+    /**
+     * Returns true if u was settled; settled vertices are marked by a
+     * shortest path count of 1.
+     */
+    private boolean isSettled(int direction, int u) {
+        return states[direction].getSigma(u) != 0;
+    }
+
+    /**
+     * Settles the next vertex in the given direction, relaxing its arcs
+     * unless it is stalled.
+     *
+     * @return The settled vertex
+     */
+    private int settle(int direction) {
+        final SearchState state = states[direction];
+        final int u = queues[direction].poll();
+        state.setSigma(u, 1);
+        settledCount++;
+        final double du = state.getDistance(u);
+        // Stall-on-demand: the arcs of the opposite direction lead to
+        // higher-ranked vertices from which u may be reached more cheaply.
+        final int opposite = 1 - direction;
+        final IntBuffer oppositeTargets = targets[opposite];
+        final DoubleBuffer oppositeWeights = weights[opposite];
+        for (int a = offsets[opposite].get(u);
+             a < offsets[opposite].get(u + 1); a++) {
+            if (state.getDistance(oppositeTargets.get(a))
+                    + oppositeWeights.get(a) < du) {
+                return u;
+            }
+        }
+        final IntBuffer arcTargets = targets[direction];
+        final DoubleBuffer arcWeights = weights[direction];
+        final IntBuffer arcMiddles = middles[direction];
+        final int end = offsets[direction].get(u + 1);
+        for (int a = offsets[direction].get(u); a < end; a++) {
+            final int v = arcTargets.get(a);
+            final double candidate = du + arcWeights.get(a);
+            if (state.getDistance(v) > candidate) {
+                state.setDistance(v, candidate);
+                parents[direction][v] = u;
+                parentMiddles[direction][v] = arcMiddles.get(a);
+                queues[direction].update(v, candidate);
+            }
+        }
+        return u;
+    }
+}
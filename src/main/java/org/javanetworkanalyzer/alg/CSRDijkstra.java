@@ -0,0 +1,249 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.alg;
+
+import org.javanetworkanalyzer.data.IndexedDaryHeap;
+import org.javanetworkanalyzer.data.SearchState;
+import org.javanetworkanalyzer.model.CSRGraph;
+
+/**
+ * Dijkstra's algorithm on a {@link CSRGraph}, keeping all per-search state in
+ * a {@link SearchState} rather than on vertex objects so that starting a new
+ * search costs O(1) instead of O(n).
+ *
+ * <p> Vertices are settled in order of non-decreasing distance and can be
+ * retrieved in that order with {@link #getSettled(int)}. If
+ * {@link #setRecordPredecessors(boolean)} is set, shortest path counts and
+ * all shortest path predecessors are recorded in the state as well.
+ *
+ * @author Adam Gouge
+ */
+public class CSRDijkstra {
+
+    /**
+     * Tolerance to be used when determining if two potential shortest paths
+     * have the same length.
+     */
+    protected static final double TOLERANCE = 0.000000001;
+    /**
+     * The graph.
+     */
+    protected final CSRGraph<?, ?> graph;
+    /**
+     * Search state.
+     */
+    protected final SearchState state;
+    /**
+     * Dijkstra queue.
+     */
+    private final IndexedDaryHeap queue;
+    /**
+     * Vertices settled by the current search, in order.
+     */
+    private final int[] settled;
+    /**
+     * Number of vertices settled by the current search.
+     */
+    private int settledCount;
+    /**
+     * Whether each vertex has been settled by the current search.
+     */
+    private final boolean[] isSettled;
+    /**
+     * Whether to record shortest path counts and predecessors.
+     */
+    private boolean recordPredecessors = false;
+
+    /**
+     * Constructor.
+     *
+     * @param graph The graph
+     */
+    public CSRDijkstra(CSRGraph<?, ?> graph) {
+        this.graph = graph;
+        final int n = graph.getVertexCount();
+        state = new SearchState(n);
+        queue = new IndexedDaryHeap(n);
+        settled = new int[n];
+        isSettled = new boolean[n];
+    }
+
+    /**
+     * Sets whether to record shortest path counts and predecessors (false by
+     * default).
+     *
+     * @param recordPredecessors True to record predecessors
+     */
+    public void setRecordPredecessors(boolean recordPredecessors) {
+        this.recordPredecessors = recordPredecessors;
+    }
+
+    /**
+     * Does a Dijkstra search from the given source to all other vertices.
+     *
+     * @param source Source vertex index
+     */
+    public void calculate(int source) {
+        calculate(source, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Does a Dijkstra search from the given source, settling only vertices at
+     * distance at most the given radius.
+     *
+     * @param source Source vertex index
+     * @param radius Radius by which to limit the search
+     */
+    public void calculate(int source, double radius) {
+        init(source);
+        while (!queue.isEmpty() && queue.peekPriority() <= radius) {
+            final int u = queue.poll();
+            isSettled[u] = true;
+            settled[settledCount++] = u;
+            if (settleStep(u)) {
+                break;
+            }
+            relaxArcs(u);
+        }
+    }
+
+    /**
+     * Resets the state and queues the given source.
+     *
+     * @param source Source vertex index
+     */
+    protected void init(int source) {
+        for (int i = 0; i < settledCount; i++) {
+            isSettled[settled[i]] = false;
+        }
+        settledCount = 0;
+        state.reset();
+        queue.clear();
+        state.setDistance(source, 0.0);
+        state.setSigma(source, 1);
+        queue.update(source, 0.0);
+    }
+
+    /**
+     * Any work to be done when u is settled, before its outgoing arcs are
+     * relaxed. Must return true if the search should be stopped.
+     *
+     * @param u Vertex index
+     * @return True if the search should be stopped
+     */
+    protected boolean settleStep(int u) {
+        return false;
+    }
+
+    /**
+     * Relaxes the outgoing arcs of u.
+     *
+     * @param u Vertex index
+     */
+    private void relaxArcs(int u) {
+        final double du = state.getDistance(u);
+        final int end = graph.endArc(u);
+        for (int arc = graph.firstArc(u); arc < end; arc++) {
+            final int v = graph.arcTarget(arc);
+            if (isSettled[v]) {
+                continue;
+            }
+            final double candidate = du + graph.arcWeight(arc);
+            final double dv = state.getDistance(v);
+            if (dv > candidate) {
+                state.setDistance(v, candidate);
+                queue.update(v, candidate);
+                if (recordPredecessors) {
+                    state.clearPredecessors(v);
+                    state.setSigma(v, state.getSigma(u));
+                    state.addPredecessor(v, u, arc);
+                }
+            } else if (recordPredecessors
+                    && Math.abs(dv - candidate) < TOLERANCE) {
+                state.addSigma(v, state.getSigma(u));
+                state.addPredecessor(v, u, arc);
+            }
+        }
+    }
+
+    /**
+     * Returns the graph.
+     *
+     * @return The graph
+     */
+    public CSRGraph<?, ?> getGraph() {
+        return graph;
+    }
+
+    /**
+     * Returns the search state.
+     *
+     * @return The search state
+     */
+    public SearchState getState() {
+        return state;
+    }
+
+    /**
+     * Returns the distance from the last source to the given vertex, or
+     * infinity if it was not reached.
+     *
+     * @param v Vertex index
+     * @return The distance to v
+     */
+    public double getDistance(int v) {
+        return state.getDistance(v);
+    }
+
+    /**
+     * Returns the number of vertices settled by the last search.
+     *
+     * @return The number of vertices settled by the last search
+     */
+    public int getSettledCount() {
+        return settledCount;
+    }
+
+    /**
+     * Returns the i-th vertex settled by the last search; vertices are settled
+     * in order of non-decreasing distance.
+     *
+     * @param i Settle order
+     * @return The i-th vertex settled
+     */
+    public int getSettled(int i) {
+        return settled[i];
+    }
+
+    /**
+     * Returns true if the given vertex was settled by the last search.
+     *
+     * @param v Vertex index
+     * @return True if v was settled
+     */
+    public boolean isSettled(int v) {
+        return isSettled[v];
+    }
+}
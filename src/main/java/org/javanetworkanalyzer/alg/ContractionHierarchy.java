@@ -0,0 +1,386 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.alg;
+
+import org.javanetworkanalyzer.data.VId;
+import org.javanetworkanalyzer.model.BinaryFile;
+import org.javanetworkanalyzer.model.CSRGraph;
+import org.javanetworkanalyzer.model.EdgeID;
+import org.jgrapht.Graph;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * A contraction hierarchy (Geisberger et al.) of a weighted graph, for fast
+ * shortest path queries with {@link CHQuery}.
+ *
+ * <p> Vertices are contracted one by one in order of increasing importance
+ * (their rank). Contracting a vertex v removes it from the remaining graph
+ * and adds a shortcut u &rarr; w of weight w(u, v) + w(v, w) for each pair of
+ * remaining neighbors whose shortest path goes through v, as determined by a
+ * bounded local witness search. Every shortest path then has a counterpart
+ * which first goes up the hierarchy from the source and then down to the
+ * target, so a query only needs two small upward searches.
+ *
+ * <p> The hierarchy is stored as two CSR graphs: the upward arcs of each
+ * vertex (to higher-ranked vertices) and its downward arcs (from
+ * higher-ranked vertices), each arc recording the vertex it bypasses (or -1
+ * for an original edge) so that paths can be unpacked. Like a
+ * {@link CSRGraph}, it can be written to a file with {@link #write(File)}
+ * and memory-mapped back with {@link #read(File)}.
+ *
+ * @author Adam Gouge
+ */
+public class ContractionHierarchy {
+
+    /**
+     * Magic number ("JNAH").
+     */
+    private static final int MAGIC = 0x4A4E4148;
+    /**
+     * Format version.
+     */
+    private static final int VERSION = 1;
+    /**
+     * Name of the format, for error messages.
+     */
+    private static final String FORMAT = "contraction hierarchy";
+    /**
+     * Header size in bytes.
+     */
+    private static final int HEADER_SIZE = 32;
+    /**
+     * Vertex ids in increasing order, by vertex index.
+     */
+    final IntBuffer ids;
+    /**
+     * Rank of each vertex in the contraction order.
+     */
+    final IntBuffer ranks;
+    /**
+     * The upward arcs of u occupy positions upOffsets[u] to
+     * upOffsets[u + 1] - 1.
+     */
+    final IntBuffer upOffsets;
+    /**
+     * Target of each upward arc.
+     */
+    final IntBuffer upTargets;
+    /**
+     * Weight of each upward arc.
+     */
+    final DoubleBuffer upWeights;
+    /**
+     * The vertex bypassed by each upward arc, or -1.
+     */
+    final IntBuffer upMiddles;
+    /**
+     * The downward arcs of u, i.e., the arcs x &rarr; u from higher-ranked
+     * vertices x, occupy positions downOffsets[u] to downOffsets[u + 1] - 1
+     * and their targets are the vertices x.
+     */
+    final IntBuffer downOffsets;
+    /**
+     * Higher-ranked source of each downward arc.
+     */
+    final IntBuffer downTargets;
+    /**
+     * Weight of each downward arc.
+     */
+    final DoubleBuffer downWeights;
+    /**
+     * The vertex bypassed by each downward arc, or -1.
+     */
+    final IntBuffer downMiddles;
+    /**
+     * Number of shortcuts.
+     */
+    private final int shortcutCount;
+
+    /**
+     * Constructor.
+     */
+    ContractionHierarchy(IntBuffer ids, IntBuffer ranks, IntBuffer upOffsets,
+                         IntBuffer upTargets, DoubleBuffer upWeights,
+                         IntBuffer upMiddles, IntBuffer downOffsets,
+                         IntBuffer downTargets, DoubleBuffer downWeights,
+                         IntBuffer downMiddles, int shortcutCount) {
+        this.ids = ids;
+        this.ranks = ranks;
+        this.upOffsets = upOffsets;
+        this.upTargets = upTargets;
+        this.upWeights = upWeights;
+        this.upMiddles = upMiddles;
+        this.downOffsets = downOffsets;
+        this.downTargets = downTargets;
+        this.downWeights = downWeights;
+        this.downMiddles = downMiddles;
+        this.shortcutCount = shortcutCount;
+    }
+
+    /**
+     * Builds a contraction hierarchy of the given graph. Directed graphs
+     * (e.g. {@link org.javanetworkanalyzer.model.DirectedWeightedPseudoG})
+     * are contracted as such and undirected graphs (e.g.
+     * {@link org.javanetworkanalyzer.model.WeightedPseudoG}) as if each edge
+     * were a pair of opposite arcs. Edge weights must be non-negative.
+     *
+     * @param graph The graph
+     * @return The contraction hierarchy
+     */
+    public static ContractionHierarchy build(
+            Graph<? extends VId, ? extends EdgeID> graph) {
+        return new CHContractor(CSRGraph.fromGraph(graph)).contract();
+    }
+
+    /**
+     * Returns the number of vertices.
+     *
+     * @return The number of vertices
+     */
+    public int getVertexCount() {
+        return ids.limit();
+    }
+
+    /**
+     * Returns the number of shortcuts added by the contraction.
+     *
+     * @return The number of shortcuts
+     */
+    public int getShortcutCount() {
+        return shortcutCount;
+    }
+
+    /**
+     * Returns the id of the vertex with the given index.
+     *
+     * @param u Vertex index
+     * @return The id of u
+     */
+    public int getID(int u) {
+        return ids.get(u);
+    }
+
+    /**
+     * Returns the index of the vertex with the given id, or -1 if there is
+     * none.
+     *
+     * @param id Vertex id
+     * @return The index of the vertex with the given id
+     */
+    public int indexOfID(int id) {
+        int low = 0;
+        int high = ids.limit() - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final int midID = ids.get(mid);
+            if (midID < id) {
+                low = mid + 1;
+            } else if (midID > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the rank of the given vertex in the contraction order.
+     *
+     * @param u Vertex index
+     * @return The rank of u
+     */
+    public int getRank(int u) {
+        return ranks.get(u);
+    }
+
+    /**
+     * Appends to the given path the vertices after u on the original path
+     * represented by the arc u &rarr; w bypassing the given vertex.
+     *
+     * @param u      Arc source
+     * @param w      Arc target
+     * @param middle The vertex bypassed by the arc, or -1
+     * @param path   The path
+     */
+    void unpack(int u, int w, int middle, IntList path) {
+        if (middle < 0) {
+            path.add(w);
+            return;
+        }
+        // The middle vertex was contracted before u and w, so u -> middle
+        // is a downward arc of middle and middle -> w an upward arc.
+        int first = -1;
+        for (int a = downOffsets.get(middle);
+             a < downOffsets.get(middle + 1); a++) {
+            if (downTargets.get(a) == u) {
+                first = downMiddles.get(a);
+                break;
+            }
+        }
+        int second = -1;
+        for (int a = upOffsets.get(middle);
+             a < upOffsets.get(middle + 1); a++) {
+            if (upTargets.get(a) == w) {
+                second = upMiddles.get(a);
+                break;
+            }
+        }
+        unpack(u, middle, first, path);
+        unpack(middle, w, second, path);
+    }
+
+    /**
+     * Writes this hierarchy to the given file.
+     *
+     * @param file The file
+     * @throws IOException If the file could not be written
+     */
+    public void write(File file) throws IOException {
+        final RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.setLength(0);
+            new BinaryFile(raf.getChannel())
+                    .putHeader(MAGIC, VERSION, HEADER_SIZE, getVertexCount(),
+                               upTargets.limit(), downTargets.limit(),
+                               shortcutCount)
+                    .putInts(ids)
+                    .putInts(ranks)
+                    .putInts(upOffsets)
+                    .putInts(upTargets)
+                    .putInts(upMiddles)
+                    .putInts(downOffsets)
+                    .putInts(downTargets)
+                    .putInts(downMiddles)
+                    .putDoubles(upWeights)
+                    .putDoubles(downWeights)
+                    .flush();
+        } finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * Maps the hierarchy in the given file.
+     *
+     * @param file The file
+     * @return The hierarchy
+     * @throws IOException If the file could not be read
+     */
+    public static ContractionHierarchy read(File file) throws IOException {
+        final RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            final FileChannel channel = raf.getChannel();
+            final ByteBuffer header = BinaryFile.readHeader(
+                    channel, file, FORMAT, MAGIC, VERSION, HEADER_SIZE);
+            final int n = header.getInt();
+            final int up = header.getInt();
+            final int down = header.getInt();
+            final int shortcuts = header.getInt();
+            if (n < 0 || up < 0 || down < 0) {
+                throw new IOException(
+                        "Truncated contraction hierarchy file.");
+            }
+            BinaryFile.checkSize(channel, FORMAT, HEADER_SIZE
+                    + 4L * (4L * n + 2 + 2L * up + 2L * down)
+                    + 8L * (up + (long) down));
+            long position = HEADER_SIZE;
+            final IntBuffer ids = BinaryFile.mapInts(channel, position, n);
+            position += 4L * n;
+            final IntBuffer ranks = BinaryFile.mapInts(channel, position, n);
+            position += 4L * n;
+            final IntBuffer upOffsets =
+                    BinaryFile.mapInts(channel, position, n + 1);
+            position += 4L * (n + 1);
+            final IntBuffer upTargets =
+                    BinaryFile.mapInts(channel, position, up);
+            position += 4L * up;
+            final IntBuffer upMiddles =
+                    BinaryFile.mapInts(channel, position, up);
+            position += 4L * up;
+            final IntBuffer downOffsets =
+                    BinaryFile.mapInts(channel, position, n + 1);
+            position += 4L * (n + 1);
+            final IntBuffer downTargets =
+                    BinaryFile.mapInts(channel, position, down);
+            position += 4L * down;
+            final IntBuffer downMiddles =
+                    BinaryFile.mapInts(channel, position, down);
+            position += 4L * down;
+            final DoubleBuffer upWeights =
+                    BinaryFile.mapDoubles(channel, position, up);
+            position += 8L * up;
+            final DoubleBuffer downWeights =
+                    BinaryFile.mapDoubles(channel, position, down);
+            return new ContractionHierarchy(ids, ranks, upOffsets, upTargets,
+                                            upWeights, upMiddles, downOffsets,
+                                            downTargets, downWeights,
+                                            downMiddles, shortcuts);
+        } finally {
+            // The mappings remain valid after the channel is closed.
+            raf.close();
+        }
+    }
+
+    /**
+     * A growable list of ints.
+     */
+    static final class IntList {
+
+        private int[] values = new int[16];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, 2 * size);
+            }
+            values[size++] = value;
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int get(int i) {
+            return values[i];
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
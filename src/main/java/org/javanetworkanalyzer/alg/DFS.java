@@ -26,10 +26,21 @@ package org.javanetworkanalyzer.alg;
 
 import org.javanetworkanalyzer.data.VDFS;
 import org.javanetworkanalyzer.model.EdgeSPT;
+import org.javanetworkanalyzer.model.CSRGraph;
 import org.jgrapht.Graph;
 
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * Root Depth First Search (DFS) class.
+ * <p/>
+ * The search keeps its own stack of visited nodes in arrays rather than
+ * recursing, so that its use of the Java stack does not depend on the depth
+ * of the search (river networks may have main stems of hundreds of thousands
+ * of segments). On a {@link CSRGraph}, the stack holds vertex indices and
+ * arcs in primitive arrays. Subclasses may do post-order work in
+ * {@link #finishStep}.
  *
  * @param <V> The data structure to hold node information during the execution
  *            of DFS.
@@ -41,6 +52,19 @@ public class DFS<V extends VDFS, E extends EdgeSPT> extends GraphSearchAlgorithm
      * For discovery and finishing times.
      */
     private int time = 0;
+    /**
+     * Stack of the nodes being visited, their successors and the position of
+     * the next successor to consider.
+     */
+    private Object[] nodeStack = new Object[16];
+    private List[] successorStack = new List[16];
+    private int[] positionStack = new int[16];
+    /**
+     * Stack of the vertex indices being visited and of the next arc to
+     * consider, when the graph is a {@link CSRGraph}.
+     */
+    private int[] vertexStack;
+    private int[] arcStack;
 
     /**
      * Constructor.
@@ -74,27 +98,113 @@ public class DFS<V extends VDFS, E extends EdgeSPT> extends GraphSearchAlgorithm
     }
 
     /**
-     * Visit the given node, updating its predecessor and discovery and
-     * finishing times.
+     * Visit the given node and every undiscovered node reachable from it,
+     * updating their predecessors and discovery and finishing times.
      *
      * @param node The node.
      */
     protected void visit(V node) {
+        if (csr != null) {
+            visitOnCSR(node);
+            return;
+        }
+        int size = 0;
+        push(size++, node);
+        while (size > 0) {
+            final int top = size - 1;
+            final V current = (V) nodeStack[top];
+            final List<V> successors = successorStack[top];
+            if (positionStack[top] < successors.size()) {
+                final V neighbor = successors.get(positionStack[top]++);
+                if (neighbor.getDiscoveryTime() < 0) {
+                    neighbor.addPredecessor(current);
+                    neighbor.addPredecessorEdge(
+                            graph.getEdge(current, neighbor));
+                    push(size++, neighbor);
+                }
+            } else {
+                nodeStack[top] = null;
+                successorStack[top] = null;
+                size--;
+                finish(current);
+            }
+        }
+    }
 
-        time++;
+    /**
+     * {@link #visit} on a {@link CSRGraph}: successors are found by scanning
+     * arcs.
+     *
+     * @param node The node.
+     */
+    private void visitOnCSR(V node) {
+        if (vertexStack == null) {
+            vertexStack = new int[16];
+            arcStack = new int[16];
+        }
+        int size = 0;
+        pushIndex(size++, csr.indexOfID(node.getID()), node);
+        while (size > 0) {
+            final int top = size - 1;
+            final int u = vertexStack[top];
+            if (arcStack[top] < csr.endArc(u)) {
+                final int arc = arcStack[top]++;
+                final V neighbor = (V) csr.vertex(csr.arcTarget(arc));
+                if (neighbor.getDiscoveryTime() < 0) {
+                    neighbor.addPredecessor((V) csr.vertex(u));
+                    neighbor.addPredecessorEdge(csr.edge(csr.arcEdge(arc)));
+                    pushIndex(size++, csr.arcTarget(arc), neighbor);
+                }
+            } else {
+                size--;
+                finish((V) csr.vertex(u));
+            }
+        }
+    }
 
-        node.setDiscoveryTime(time);
+    /**
+     * Discovers the given node and pushes it at the given stack position.
+     */
+    private void push(int position, V node) {
+        if (position == nodeStack.length) {
+            nodeStack = Arrays.copyOf(nodeStack, 2 * position);
+            successorStack = Arrays.copyOf(successorStack, 2 * position);
+            positionStack = Arrays.copyOf(positionStack, 2 * position);
+        }
+        node.setDiscoveryTime(++time);
+        nodeStack[position] = node;
+        successorStack[position] = successorListOf(node);
+        positionStack[position] = 0;
+    }
 
-        for (V neighbor : successorListOf(node)) {
-            if (neighbor.getDiscoveryTime() < 0) {
-                neighbor.addPredecessor(node);
-                neighbor.addPredecessorEdge(graph.getEdge(node, neighbor));
-                visit(neighbor);
-            }
+    /**
+     * Discovers the given node of index u and pushes it at the given stack
+     * position.
+     */
+    private void pushIndex(int position, int u, V node) {
+        if (position == vertexStack.length) {
+            vertexStack = Arrays.copyOf(vertexStack, 2 * position);
+            arcStack = Arrays.copyOf(arcStack, 2 * position);
         }
+        node.setDiscoveryTime(++time);
+        vertexStack[position] = u;
+        arcStack[position] = csr.firstArc(u);
+    }
 
-        time++;
+    /**
+     * Finishes the given node, all of whose successors have been visited.
+     */
+    private void finish(V node) {
+        node.setFinishingTime(++time);
+        finishStep(node);
+    }
 
-        node.setFinishingTime(time);
+    /**
+     * Any work to be done when the given node is finished, after all nodes
+     * reachable from it have been visited (post-order).
+     *
+     * @param node The node.
+     */
+    protected void finishStep(V node) {
     }
 }
@@ -56,13 +56,13 @@ public class DFSForStrahler<E extends EdgeSPT> extends DFS<VStrahler, E> {
     }
 
     /**
-     * Visit the given node and calculate its Strahler number.
+     * Calculates the Strahler number of the given node once its children are
+     * finished.
      *
      * @param node The node.
      */
     @Override
-    protected void visit(VStrahler node) {
-        super.visit(node);
+    protected void finishStep(VStrahler node) {
         calculateStrahlerNumber(node);
     }
 
@@ -47,16 +47,31 @@ public class Dijkstra<V extends VDijkstra, E extends EdgeSPT>
     /**
      * Dijkstra queue.
      */
-    private final PriorityQueue<V> queue;
+    private final DijkstraQueue<V> queue;
+    /**
+     * The queue if it is keyed by the CSR vertex indices of the graph, so
+     * that vertices can be queued and polled by index; null otherwise.
+     */
+    private final HeapDijkstraQueue<V> indexedQueue;
+    /**
+     * Index of the vertex whose distance is being relaxed if it is known, or
+     * -1.
+     */
+    private int relaxedIndex = -1;
     /**
      * Tolerance to be used when determining if two potential shortest paths
      * have the same length.
      */
     protected static final double TOLERANCE = 0.000000001;
     /**
-     * Distance of the node furthest away in the shortest path tree thus far.
+     * Vertices settled by the last search, in order.
      */
-    private double largestDistanceSoFar = 0.0;
+    private final List<V> settled = new ArrayList<V>();
+    /**
+     * Bidirectional search used by {@link #oneToOneBidirectional}, created on
+     * first use.
+     */
+    private BidirectionalDijkstra<V, E> bidirectional;
 
 
     /**
@@ -65,8 +80,21 @@ public class Dijkstra<V extends VDijkstra, E extends EdgeSPT>
      * @param graph The graph.
      */
     public Dijkstra(Graph<V, E> graph) {
+        this(graph, new HeapDijkstraQueue<V>(graph));
+    }
+
+    /**
+     * Constructor which sets the queue.
+     *
+     * @param graph The graph.
+     * @param queue The queue.
+     */
+    public Dijkstra(Graph<V, E> graph, DijkstraQueue<V> queue) {
         super(graph);
-        queue = createPriorityQueue();
+        this.queue = queue;
+        this.indexedQueue = (queue instanceof HeapDijkstraQueue
+                && ((HeapDijkstraQueue<V>) queue).isKeyedBy(graph))
+                ? (HeapDijkstraQueue<V>) queue : null;
     }
 
     /**
@@ -81,25 +109,55 @@ public class Dijkstra<V extends VDijkstra, E extends EdgeSPT>
 
     /**
      * Does a Dijkstra search from the given start node to all other nodes,
-     * limiting the search by the given radius.
+     * limiting the search by the given radius: only vertices at distance at
+     * most the radius are settled and have their edges relaxed.
      *
      * @param startNode Start node
      * @param radius    Radius by which to limit the search
      */
     public void calculate(V startNode, double radius) {
         init(startNode);
+        settled.clear();
 
-        while (!queue.isEmpty() && largestDistanceSoFar < radius) {
-            // Extract the minimum element.
-            V u = queue.poll();
+        while (!queue.isEmpty()) {
+            // Extract the minimum element, along with its index if the queue
+            // knows it.
+            final int ui;
+            final V u;
+            if (indexedQueue != null) {
+                ui = indexedQueue.pollIndex();
+                u = indexedQueue.vertex(ui);
+            } else {
+                u = queue.poll();
+                ui = csr != null ? csr.indexOfID(u.getID()) : -1;
+            }
+            // Vertices are settled in order of distance, so the rest are
+            // beyond the radius too.
+            if (u.getDistance() > radius) {
+                break;
+            }
+            settled.add(u);
             // Do any pre-relax step.
             if (preRelaxStep(startNode, u)) {
                 break;
             }
             // Relax all the outgoing edges of u.
-            Set<E> outgoing = outgoingEdgesOf(u);
-            for (E e : outgoing) {
-                relax(startNode, u, e, queue);
+            if (csr != null) {
+                final int end = csr.endArc(ui);
+                for (int arc = csr.firstArc(ui); arc < end; arc++) {
+                    // The vertex objects are only needed by the relaxation
+                    // hooks; the index is handed on to the queue.
+                    relaxedIndex = csr.arcTarget(arc);
+                    relax(startNode, u, (V) csr.vertex(relaxedIndex),
+                          csr.arcWeight(arc), (E) csr.edge(csr.arcEdge(arc)),
+                          queue);
+                }
+                relaxedIndex = -1;
+            } else {
+                Set<E> outgoing = outgoingEdgesOf(u);
+                for (E e : outgoing) {
+                    relax(startNode, u, e, queue);
+                }
             }
         }
     }
@@ -112,7 +170,7 @@ public class Dijkstra<V extends VDijkstra, E extends EdgeSPT>
         }
         startNode.setSource();
         queue.clear();
-        queue.add(startNode);
+        queue.update(startNode);
     }
 
     /**
@@ -133,11 +191,25 @@ public class Dijkstra<V extends VDijkstra, E extends EdgeSPT>
      * @param e     Edge e.
      * @param queue The queue.
      */
-    protected void relax(V startNode, V u, E e, PriorityQueue<V> queue) {
+    protected void relax(V startNode, V u, E e, DijkstraQueue<V> queue) {
         // Get the target vertex.
         V v = Graphs.getOppositeVertex(graph, e, u);
         // Get the weight.
         double uvWeight = graph.getEdgeWeight(e);
+        relax(startNode, u, v, uvWeight, e, queue);
+    }
+
+    /**
+     * Relaxes the edge from u to v and updates the queue appropriately.
+     *
+     * @param u        Vertex u.
+     * @param v        Vertex v.
+     * @param uvWeight w(u,v)
+     * @param e        Edge e.
+     * @param queue    The queue.
+     */
+    protected void relax(V startNode, V u, V v, double uvWeight, E e,
+                         DijkstraQueue<V> queue) {
         // If a smaller distance estimate is available, make the necessary
         // updates.
         if (v.getDistance() > u.getDistance() + uvWeight) {
@@ -159,17 +231,19 @@ public class Dijkstra<V extends VDijkstra, E extends EdgeSPT>
      * @param queue    Queue
      */
     protected void shortestPathSoFarUpdate(V startNode, V u, V v, Double uvWeight,
-                                           E e, PriorityQueue<V> queue) {
+                                           E e, DijkstraQueue<V> queue) {
         // Reset the predecessors and add u as a predecessor
         v.clear();
         v.addPredecessor(u);
         v.addPredecessorEdge(e);
         // Set the distance
         v.setDistance(u.getDistance() + uvWeight);
-        largestDistanceSoFar = v.getDistance();
-        // Update the queue.
-        queue.remove(v);
-        queue.add(v);
+        // Update the queue, by index if it is known.
+        if (relaxedIndex >= 0 && queue == indexedQueue) {
+            indexedQueue.update(relaxedIndex, v);
+        } else {
+            queue.update(v);
+        }
     }
 
     /**
@@ -187,24 +261,6 @@ public class Dijkstra<V extends VDijkstra, E extends EdgeSPT>
         v.addPredecessorEdge(e);
     }
 
-    /**
-     * Creates the priority queue used in Dijkstra's algorithm.
-     *
-     * @return The priority queue used in Dijkstra's algorithm.
-     */
-    private PriorityQueue<V> createPriorityQueue() {
-        return new PriorityQueue<V>(
-                graph.vertexSet().size(),
-                new Comparator<V>() {
-                    @Override
-                    public int compare(V v1, V v2) {
-                        return Double.compare(
-                                v1.getDistance(),
-                                v2.getDistance());
-                    }
-                });
-    }
-
     /**
      * Returns the SPT from the last start node {@link #calculate} was called on,
      * limited by the given radius. The shortest path "tree" we return may
@@ -214,6 +270,12 @@ public class Dijkstra<V extends VDijkstra, E extends EdgeSPT>
      * be used when limiting by radius as it will include edges to vertices with
      * a distance greater than the radius.
      *
+     * A vertex at distance exactly the radius is included, as it is by
+     * {@link #calculate(VDijkstra, double)} and {@link Isochrone}. Only the
+     * vertices settled by the last search are visited, so the radius should be
+     * at most the one the search was limited by. See
+     * {@link Isochrone} for service areas on a CSR graph.
+     *
      * @param radius The radius to limit by
      * @return The SPT/traversal graph from the last start node {@link #calculate}
      *         was called on
@@ -229,12 +291,14 @@ public class Dijkstra<V extends VDijkstra, E extends EdgeSPT>
 
         TraversalGraph<V, E> traversalGraph = new TraversalGraph<V, E>(
                 graph.getEdgeFactory(), currentStartNode);
-        for (V v : graph.vertexSet()) {
+        // Only the settled vertices can be within the radius, so there is no
+        // need to scan the whole graph.
+        for (V v : settled) {
             Set<E> predEdges = (Set<E>) v.getPredecessorEdges();
             for (E e : predEdges) {
                 V source = graph.getEdgeSource(e);
                 V target = graph.getEdgeTarget(e);
-                if (source.getDistance() < radius && target.getDistance() < radius) {
+                if (source.getDistance() <= radius && target.getDistance() <= radius) {
                     traversalGraph.addVertex(source);
                     traversalGraph.addVertex(target);
                     if (v.equals(source)) {
@@ -292,6 +356,52 @@ public class Dijkstra<V extends VDijkstra, E extends EdgeSPT>
         }
     }
 
+    /**
+     * Performs a bidirectional Dijkstra search between the source and the
+     * target (see {@link BidirectionalDijkstra}). Unlike {@link #oneToOne},
+     * the vertex objects are not modified: only the distance is returned,
+     * and the path can be retrieved from {@link #getBidirectional()}. Only
+     * the vertices touched by the search are reset, so this is much faster
+     * than {@link #oneToOne} for repeated queries on large graphs.
+     *
+     * @param source Source
+     * @param target Target
+     * @return The distance from the source to the target.
+     */
+    public double oneToOneBidirectional(V source, V target) {
+        if (source == null || !graph.containsVertex(source)) {
+            throw new IllegalArgumentException(
+                    "Source vertex not found.");
+        } else if (target == null || !graph.containsVertex(target)) {
+            throw new IllegalArgumentException(
+                    "Target vertex not found.");
+        }
+        // The vertex indices must be recomputed if vertices were added since
+        // the search was created.
+        if (bidirectional == null
+                || !bidirectional.contains(source)
+                || !bidirectional.contains(target)) {
+            bidirectional = new BidirectionalDijkstra<V, E>(graph);
+        }
+        double distance = bidirectional.calculate(source, target);
+        if (bidirectional.isStale()) {
+            bidirectional = new BidirectionalDijkstra<V, E>(graph);
+            distance = bidirectional.calculate(source, target);
+        }
+        return distance;
+    }
+
+    /**
+     * Returns the bidirectional search used by the last call to
+     * {@link #oneToOneBidirectional}, from which the path can be retrieved,
+     * or null if there was none.
+     *
+     * @return The bidirectional search
+     */
+    public BidirectionalDijkstra<V, E> getBidirectional() {
+        return bidirectional;
+    }
+
     /**
      * Performs a Dijkstra search from the source, stopping once all the
      * targets are found.
@@ -378,7 +488,9 @@ public class Dijkstra<V extends VDijkstra, E extends EdgeSPT>
      * {@link #oneToMany} search from each source.
      * <p/>
      * Note: Using oneToMany rather than manyToOne is more efficient since we
-     * don't have to create an edge-reversed graph.
+     * don't have to create an edge-reversed graph. See {@link DistanceMatrix}
+     * for large matrices, which it computes in parallel into primitive
+     * storage.
      *
      * @param sources Sources
      * @param targets Targets
@@ -24,7 +24,6 @@
  */
 package org.javanetworkanalyzer.alg;
 
-import java.util.PriorityQueue;
 import org.javanetworkanalyzer.data.VAccess;
 import org.javanetworkanalyzer.model.EdgeSPT;
 import org.jgrapht.Graph;
@@ -32,11 +31,15 @@ import org.jgrapht.Graph;
 /**
  * An implementation of Dijkstra's algorithm which can be used to calculate, for
  * each vertex, the (distance to the) closest destination among several possible
- * destinations in an {@link AccessibilityAnalyzer}.
+ * destinations in an {@link AccessibilityAnalyzer}. See
+ * {@link KNearestDijkstra} for the k closest destinations.
  *
  * @author Adam Gouge
+ * @deprecated {@link AccessibilityAnalyzer} no longer runs one search per
+ * destination. Use {@link DynamicDijkstra} for the closest destination, or
+ * {@link KNearestDijkstra} for the k closest destinations.
  */
-// TODO: Enable **multiple** "closest" destinations within a given tolerance.
+@Deprecated
 public class DijkstraForAccessibility<E extends EdgeSPT> extends Dijkstra<VAccess, E> {
 
     /**
@@ -48,6 +51,17 @@ public class DijkstraForAccessibility<E extends EdgeSPT> extends Dijkstra<VAcces
         super(graph);
     }
 
+    /**
+     * Constructor: sets the graph and the queue.
+     *
+     * @param graph Graph
+     * @param queue Queue
+     */
+    public DijkstraForAccessibility(Graph<VAccess, E> graph,
+                                    DijkstraQueue<VAccess> queue) {
+        super(graph, queue);
+    }
+
     /**
      * Updates the distance to the neighbor and updates the distance to the
      * closest destination if necessary.
@@ -60,7 +74,7 @@ public class DijkstraForAccessibility<E extends EdgeSPT> extends Dijkstra<VAcces
      */
     @Override
     protected void shortestPathSoFarUpdate(VAccess startNode, VAccess u, VAccess v,
-                                           Double uvWeight, E e, PriorityQueue<VAccess> queue) {
+                                           Double uvWeight, E e, DijkstraQueue<VAccess> queue) {
         // If the distance from the start node to v (so the distance *from* v
         // *to* the destination represented by the start node in a reversed
         // graph) is less than the distance to any previously found closest
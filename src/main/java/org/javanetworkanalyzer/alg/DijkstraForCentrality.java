@@ -26,7 +26,6 @@ package org.javanetworkanalyzer.alg;
 
 import org.javanetworkanalyzer.data.VWCent;
 import org.javanetworkanalyzer.data.WeightedPathLengthData;
-import java.util.PriorityQueue;
 import java.util.Stack;
 
 import org.javanetworkanalyzer.model.EdgeSPT;
@@ -61,7 +60,23 @@ public class DijkstraForCentrality<E extends EdgeSPT> extends Dijkstra<VWCent, E
     public DijkstraForCentrality(
             Graph<VWCent, E> graph,
             Stack<VWCent> stack) {
-        super(graph);
+        this(graph, stack, new HeapDijkstraQueue<VWCent>(graph));
+    }
+
+    /**
+     * Constructs a new {@link DijkstraForCentrality} object using the given
+     * queue.
+     *
+     * @param graph The graph.
+     * @param stack The stack which will return nodes ordered by non-increasing
+     *              distance from startNode.
+     * @param queue The queue.
+     */
+    public DijkstraForCentrality(
+            Graph<VWCent, E> graph,
+            Stack<VWCent> stack,
+            DijkstraQueue<VWCent> queue) {
+        super(graph, queue);
         this.stack = stack;
         this.pathsFromStartNode = new WeightedPathLengthData();
     }
@@ -116,7 +131,7 @@ public class DijkstraForCentrality<E extends EdgeSPT> extends Dijkstra<VWCent, E
     @Override
     protected void shortestPathSoFarUpdate(VWCent startNode, VWCent u, VWCent v,
                                            Double uvWeight,
-                                           E e, PriorityQueue<VWCent> queue) {
+                                           E e, DijkstraQueue<VWCent> queue) {
         // Reset the number of shortest paths
         v.setSPCount(u.getSPCount());
         super.shortestPathSoFarUpdate(startNode, u, v, uvWeight, e, queue);
@@ -0,0 +1,345 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.alg;
+
+import org.javanetworkanalyzer.data.SearchState;
+import org.javanetworkanalyzer.model.CSRGraph;
+
+import java.util.Arrays;
+
+/**
+ * Direction-optimizing Breadth First Search (Beamer, Asanovi&#263; and
+ * Patterson, 2012) on a {@link CSRGraph}.
+ *
+ * <p> A top-down step scans the arcs leaving the frontier, as an ordinary
+ * BFS does. A bottom-up step instead lets every unvisited vertex look for a
+ * parent among its incoming arcs, testing membership in a bitset of the
+ * frontier. On low diameter graphs most arcs leaving a large frontier lead
+ * to visited vertices, so switching to bottom-up steps while the frontier
+ * is large avoids scanning them. The visited set is a bitset as well.
+ *
+ * <p> By default only BFS levels are computed, and a bottom-up step stops at
+ * the first parent found. If a {@link SearchState} is given, distances,
+ * shortest path counts and predecessors are recorded in it as well, as
+ * needed for betweenness; every incoming arc must then be scanned, so
+ * bottom-up steps are only taken when they scan fewer arcs.
+ *
+ * @author Adam Gouge
+ */
+public class DirectionOptimizingBFS {
+
+    /**
+     * Switch to bottom-up steps when the arcs leaving the frontier exceed the
+     * arcs left to explore divided by this.
+     */
+    private static final int ALPHA = 14;
+    /**
+     * Switch back to top-down steps when the frontier is smaller than the
+     * number of vertices divided by this.
+     */
+    private static final int BETA = 24;
+
+    /**
+     * The graph.
+     */
+    private final CSRGraph<?, ?> graph;
+    /**
+     * The reversed graph, whose arcs are the incoming arcs of the graph.
+     */
+    private final CSRGraph<?, ?> reversed;
+    /**
+     * State in which to record distances, shortest path counts and
+     * predecessors, or null.
+     */
+    private final SearchState state;
+    /**
+     * Level of each visited vertex.
+     */
+    private final int[] level;
+    /**
+     * Visited vertices, in order of discovery; level l occupies
+     * [levelStart[l], levelStart[l + 1]).
+     */
+    private final int[] order;
+    private int[] levelStart = new int[16];
+    /**
+     * Number of levels of the last search.
+     */
+    private int levelCount;
+    /**
+     * Number of vertices visited by the last search.
+     */
+    private int visitedCount;
+    /**
+     * Bitsets of the visited vertices and of the current frontier.
+     */
+    private final long[] visited;
+    private final long[] frontier;
+    /**
+     * Number of bottom-up steps taken by the last search.
+     */
+    private int bottomUpSteps;
+
+    /**
+     * Constructs a BFS which computes levels only.
+     *
+     * @param graph The graph
+     */
+    public DirectionOptimizingBFS(CSRGraph<?, ?> graph) {
+        this(graph, null);
+    }
+
+    /**
+     * Constructs a BFS which also records distances, shortest path counts
+     * and predecessors in the given state.
+     *
+     * @param graph The graph
+     * @param state The state, or null to compute levels only
+     */
+    public DirectionOptimizingBFS(CSRGraph<?, ?> graph, SearchState state) {
+        this.graph = graph;
+        if (graph.getOrientation() == CSRGraph.DIRECTED) {
+            reversed = graph.withOrientation(CSRGraph.REVERSED);
+        } else if (graph.getOrientation() == CSRGraph.REVERSED) {
+            reversed = graph.withOrientation(CSRGraph.DIRECTED);
+        } else {
+            reversed = graph;
+        }
+        this.state = state;
+        final int n = graph.getVertexCount();
+        level = new int[n];
+        order = new int[n];
+        visited = new long[(n + 63) >>> 6];
+        frontier = new long[visited.length];
+    }
+
+    /**
+     * Does a breadth first search from the given source.
+     *
+     * @param source Source vertex index
+     */
+    public void calculate(int source) {
+        final int n = graph.getVertexCount();
+        Arrays.fill(visited, 0L);
+        if (state != null) {
+            state.reset();
+            state.setDistance(source, 0.0);
+            state.setSigma(source, 1);
+        }
+        bottomUpSteps = 0;
+        levelCount = 0;
+        visitedCount = 0;
+        visit(source, 0);
+        // Arcs leaving the frontier, and arcs into unvisited vertices.
+        long frontierArcs = graph.endArc(source) - graph.firstArc(source);
+        long unexploredArcs = graph.getArcCount();
+        boolean bottomUp = false;
+        int start = 0;
+        while (start < visitedCount) {
+            if (levelCount + 1 == levelStart.length) {
+                levelStart = Arrays.copyOf(levelStart, 2 * levelStart.length);
+            }
+            levelStart[levelCount++] = start;
+            final int end = visitedCount;
+            final int size = end - start;
+            if (!bottomUp) {
+                bottomUp = (state == null)
+                        ? frontierArcs > unexploredArcs / ALPHA
+                        : frontierArcs > unexploredArcs;
+            } else {
+                bottomUp = size >= n / BETA;
+            }
+            if (bottomUp) {
+                bottomUpStep(start, end);
+                bottomUpSteps++;
+            } else {
+                topDownStep(start, end);
+            }
+            frontierArcs = 0;
+            for (int i = end; i < visitedCount; i++) {
+                final int v = order[i];
+                frontierArcs += graph.endArc(v) - graph.firstArc(v);
+                unexploredArcs -= reversed.endArc(v) - reversed.firstArc(v);
+            }
+            start = end;
+        }
+        levelStart[levelCount] = visitedCount;
+    }
+
+    /**
+     * Marks v as visited at the given level.
+     */
+    private void visit(int v, int l) {
+        visited[v >>> 6] |= 1L << v;
+        level[v] = l;
+        order[visitedCount++] = v;
+        if (state != null && l > 0) {
+            state.setDistance(v, l);
+        }
+    }
+
+    private boolean isVisited(int v) {
+        return (visited[v >>> 6] & (1L << v)) != 0;
+    }
+
+    /**
+     * Scans the arcs leaving the frontier order[start..end).
+     */
+    private void topDownStep(int start, int end) {
+        final int next = level[order[start]] + 1;
+        for (int i = start; i < end; i++) {
+            final int u = order[i];
+            final int arcEnd = graph.endArc(u);
+            for (int arc = graph.firstArc(u); arc < arcEnd; arc++) {
+                final int v = graph.arcTarget(arc);
+                if (!isVisited(v)) {
+                    visit(v, next);
+                } else if (state == null || level[v] != next) {
+                    continue;
+                }
+                if (state != null) {
+                    state.addSigma(v, state.getSigma(u));
+                    state.addPredecessor(v, u, arc);
+                }
+            }
+        }
+    }
+
+    /**
+     * Lets every unvisited vertex look for parents in the frontier
+     * order[start..end).
+     */
+    private void bottomUpStep(int start, int end) {
+        final int n = graph.getVertexCount();
+        for (int i = start; i < end; i++) {
+            final int u = order[i];
+            frontier[u >>> 6] |= 1L << u;
+        }
+        final int next = level[order[start]] + 1;
+        for (int w = 0; w < visited.length; w++) {
+            long unvisited = ~visited[w];
+            while (unvisited != 0) {
+                final int v = (w << 6) + Long.numberOfTrailingZeros(unvisited);
+                unvisited &= unvisited - 1;
+                if (v >= n) {
+                    break;
+                }
+                final int arcEnd = reversed.endArc(v);
+                for (int arc = reversed.firstArc(v); arc < arcEnd; arc++) {
+                    final int u = reversed.arcTarget(arc);
+                    if ((frontier[u >>> 6] & (1L << u)) == 0) {
+                        continue;
+                    }
+                    if (!isVisited(v)) {
+                        visit(v, next);
+                    }
+                    if (state == null) {
+                        break;
+                    }
+                    // Arcs of all orientations share one index space, so
+                    // this arc also identifies the edge from u to v.
+                    state.addSigma(v, state.getSigma(u));
+                    state.addPredecessor(v, u, arc);
+                }
+            }
+        }
+        for (int i = start; i < end; i++) {
+            final int u = order[i];
+            frontier[u >>> 6] &= ~(1L << u);
+        }
+    }
+
+    /**
+     * Returns the BFS level of the given vertex in the last search, or -1 if
+     * it was not reached.
+     *
+     * @param v Vertex index
+     * @return The level of v
+     */
+    public int getLevel(int v) {
+        return isVisited(v) ? level[v] : -1;
+    }
+
+    /**
+     * Returns true if the given vertex was reached by the last search.
+     *
+     * @param v Vertex index
+     * @return True if v was reached
+     */
+    public boolean isReached(int v) {
+        return isVisited(v);
+    }
+
+    /**
+     * Returns the number of vertices reached by the last search.
+     *
+     * @return The number of vertices reached
+     */
+    public int getReachedCount() {
+        return visitedCount;
+    }
+
+    /**
+     * Returns the i-th vertex reached by the last search, in order of
+     * non-decreasing level.
+     *
+     * @param i Index
+     * @return The i-th vertex reached
+     */
+    public int getReached(int i) {
+        return order[i];
+    }
+
+    /**
+     * Returns the number of levels of the last search (one more than the
+     * eccentricity of the source).
+     *
+     * @return The number of levels
+     */
+    public int getLevelCount() {
+        return levelCount;
+    }
+
+    /**
+     * Returns the index of the first vertex of the given level in the order
+     * of {@link #getReached(int)}; the vertices of level l are those from
+     * getLevelStart(l) to getLevelStart(l + 1).
+     *
+     * @param l Level, from 0 to the number of levels
+     * @return The index of the first vertex of level l
+     */
+    public int getLevelStart(int l) {
+        return levelStart[l];
+    }
+
+    /**
+     * Returns the number of bottom-up steps taken by the last search.
+     *
+     * @return The number of bottom-up steps
+     */
+    public int getBottomUpSteps() {
+        return bottomUpSteps;
+    }
+}
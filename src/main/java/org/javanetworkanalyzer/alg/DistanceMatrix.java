@@ -0,0 +1,286 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.alg;
+
+import org.javanetworkanalyzer.model.CSRGraph;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+
+/**
+ * Computes the matrix of shortest path distances from a list of sources to a
+ * list of targets into primitive storage, as an alternative to
+ * {@link Dijkstra#manyToMany}, which boxes every distance.
+ *
+ * <p> The distance from sources[i] to targets[j] is stored at position
+ * i * targets.length + j of a dense {@code double[]} or {@link DoubleBuffer}
+ * (e.g. a direct buffer from {@link #allocateDirect(int, int)} or a
+ * memory-mapped file for matrices too large for the heap), or the rows are
+ * streamed to a {@link RowHandler} as they are computed so that the matrix
+ * is never held in memory. Unreachable targets have distance infinity.
+ *
+ * <p> Rows are computed in parallel (see {@link #setThreads(int)}), each
+ * thread reusing its own search state. On a {@link CSRGraph}, each row is
+ * a Dijkstra search stopped once all targets are settled; on a
+ * {@link ContractionHierarchy}, a backward search is first run from each
+ * target to fill buckets shared by all threads, and each row is then a
+ * small forward search scanning them (see {@link CHQuery}).
+ *
+ * @author Adam Gouge
+ */
+public class DistanceMatrix {
+
+    /**
+     * Receives the rows of a distance matrix.
+     */
+    public interface RowHandler {
+
+        /**
+         * Receives the distances from one source to all targets. Calls are
+         * serialized but rows arrive in no particular order; the array is
+         * reused after this method returns.
+         *
+         * @param source    The position of the source in the source list
+         * @param distances The distance to each target, by position in the
+         *                  target list
+         */
+        void row(int source, double[] distances);
+    }
+
+    /**
+     * The graph, or null.
+     */
+    private final CSRGraph<?, ?> graph;
+    /**
+     * The contraction hierarchy, or null.
+     */
+    private final ContractionHierarchy ch;
+    /**
+     * Number of threads.
+     */
+    private int threads = 1;
+
+    /**
+     * Computes distances with Dijkstra searches on the given graph.
+     *
+     * @param graph The graph
+     */
+    public DistanceMatrix(CSRGraph<?, ?> graph) {
+        this.graph = graph;
+        this.ch = null;
+    }
+
+    /**
+     * Computes distances with bucket-based queries on the given contraction
+     * hierarchy.
+     *
+     * @param ch The contraction hierarchy
+     */
+    public DistanceMatrix(ContractionHierarchy ch) {
+        this.graph = null;
+        this.ch = ch;
+    }
+
+    /**
+     * Sets the number of threads (1 by default).
+     *
+     * @param threads The number of threads
+     */
+    public void setThreads(int threads) {
+        this.threads = ParallelRunner.checkThreads(threads);
+    }
+
+    /**
+     * Returns the number of threads.
+     *
+     * @return The number of threads
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Allocates an off-heap buffer large enough for the given matrix.
+     *
+     * @param sources Number of sources
+     * @param targets Number of targets
+     * @return A direct buffer of sources * targets doubles
+     */
+    public static DoubleBuffer allocateDirect(int sources, int targets) {
+        checkSize(sources, targets, Integer.MAX_VALUE / 8);
+        return ByteBuffer.allocateDirect(8 * sources * targets)
+                .order(ByteOrder.nativeOrder()).asDoubleBuffer();
+    }
+
+    /**
+     * Computes the distance matrix into a new array.
+     *
+     * @param sources Source vertex indices
+     * @param targets Target vertex indices
+     * @return The distances in row-major order
+     */
+    public double[] compute(int[] sources, int[] targets) {
+        checkSize(sources.length, targets.length, Integer.MAX_VALUE);
+        final double[] matrix = new double[sources.length * targets.length];
+        run(sources, targets, new RowHandler() {
+            @Override
+            public void row(int source, double[] distances) {
+                System.arraycopy(distances, 0, matrix,
+                                 source * distances.length, distances.length);
+            }
+        });
+        return matrix;
+    }
+
+    /**
+     * Computes the distance matrix into the given buffer, starting at
+     * position 0 regardless of the buffer's position.
+     *
+     * @param sources Source vertex indices
+     * @param targets Target vertex indices
+     * @param matrix  Buffer of at least sources.length * targets.length
+     *                doubles
+     */
+    public void compute(int[] sources, int[] targets,
+                        final DoubleBuffer matrix) {
+        checkSize(sources.length, targets.length, matrix.capacity());
+        run(sources, targets, new RowHandler() {
+            @Override
+            public void row(int source, double[] distances) {
+                // Absolute puts do not move the shared position.
+                final int offset = source * distances.length;
+                for (int j = 0; j < distances.length; j++) {
+                    matrix.put(offset + j, distances[j]);
+                }
+            }
+        });
+    }
+
+    /**
+     * Computes the distance matrix, passing each row to the given handler
+     * as soon as it is computed.
+     *
+     * @param sources Source vertex indices
+     * @param targets Target vertex indices
+     * @param handler The handler
+     */
+    public void compute(int[] sources, int[] targets,
+                        final RowHandler handler) {
+        run(sources, targets, new RowHandler() {
+            @Override
+            public void row(int source, double[] distances) {
+                synchronized (handler) {
+                    handler.row(source, distances);
+                }
+            }
+        });
+    }
+
+    private static void checkSize(int sources, int targets, long capacity) {
+        if ((long) sources * targets > capacity) {
+            throw new IllegalArgumentException("A " + sources + " x "
+                    + targets + " matrix does not fit in " + capacity
+                    + " doubles.");
+        }
+    }
+
+    /**
+     * Computes the rows on a thread pool, passing them to the given handler
+     * from the worker threads.
+     */
+    private void run(final int[] sources, final int[] targets,
+                     final RowHandler handler) {
+        final CHQuery.Buckets buckets =
+                ch == null ? null : new CHQuery(ch).buckets(targets);
+        final boolean[] isTarget = ch == null
+                ? new boolean[graph.getVertexCount()] : null;
+        int distinctTargets = 0;
+        if (isTarget != null) {
+            for (int t : targets) {
+                if (!isTarget[t]) {
+                    isTarget[t] = true;
+                    distinctTargets++;
+                }
+            }
+        }
+        final int targetCount = distinctTargets;
+        ParallelRunner.run(threads, sources.length,
+                "computing a distance matrix",
+                new ParallelRunner.Task<Void>() {
+                    @Override
+                    public Void call(ParallelRunner.Items items) {
+                        final double[] row = new double[targets.length];
+                        final CHQuery query =
+                                ch == null ? null : new CHQuery(ch);
+                        final TargetDijkstra dijkstra = ch == null
+                                ? new TargetDijkstra(graph, isTarget,
+                                                     targetCount)
+                                : null;
+                        int i;
+                        while ((i = items.next()) >= 0) {
+                            if (query != null) {
+                                query.scan(buckets, sources[i], row);
+                            } else {
+                                dijkstra.calculate(sources[i]);
+                                for (int j = 0; j < targets.length; j++) {
+                                    row[j] = dijkstra.getDistance(targets[j]);
+                                }
+                            }
+                            handler.row(i, row);
+                        }
+                        return null;
+                    }
+                });
+    }
+
+    /**
+     * A Dijkstra search which stops once all targets are settled.
+     */
+    private static final class TargetDijkstra extends CSRDijkstra {
+
+        private final boolean[] isTarget;
+        private final int targetCount;
+        private int remaining;
+
+        TargetDijkstra(CSRGraph<?, ?> graph, boolean[] isTarget,
+                       int targetCount) {
+            super(graph);
+            this.isTarget = isTarget;
+            this.targetCount = targetCount;
+        }
+
+        @Override
+        protected void init(int source) {
+            super.init(source);
+            remaining = targetCount;
+        }
+
+        @Override
+        protected boolean settleStep(int u) {
+            return isTarget[u] && --remaining == 0;
+        }
+    }
+}
@@ -0,0 +1,401 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.alg;
+
+import org.javanetworkanalyzer.data.IndexedDaryHeap;
+import org.javanetworkanalyzer.model.CSRGraph;
+
+import java.util.Arrays;
+
+/**
+ * Dijkstra's algorithm from one or several sources on a {@link CSRGraph}
+ * whose shortest-path tree is repaired, rather than recomputed, when edge
+ * weights change.
+ *
+ * <p> {@link #calculate(int[])} computes, for each vertex, the distance to
+ * its closest source, which source that is and the arc of the shortest-path
+ * tree leading to it. When several sources are equally close, the source at
+ * the smallest position in the array wins.
+ *
+ * <p> After the weights of some edges have been changed in the graph,
+ * {@link #update(int...)} repairs the results in the manner of Ramalingam and
+ * Reps. The vertices below a tree edge which got longer lose their distance;
+ * each is given the best distance offered by its in-neighbours outside that
+ * region, and so is the head of every edge which got shorter. A Dijkstra
+ * search from these vertices then propagates the changes, relaxing arcs only
+ * where they improve a distance. The cost of an update is therefore
+ * proportional to the size of the region whose distances change, together
+ * with its neighbourhood, rather than to the size of the graph. The vertices
+ * whose results may have changed are available from
+ * {@link #getChangedCount()} and {@link #getChanged(int)}.
+ *
+ * @author Adam Gouge
+ */
+public class DynamicDijkstra {
+
+    /**
+     * The graph.
+     */
+    private final CSRGraph<?, ?> graph;
+    /**
+     * The graph with its arcs reversed, giving the in-arcs of each vertex.
+     */
+    private final CSRGraph<?, ?> reversed;
+    /**
+     * Distance from the closest source.
+     */
+    private final double[] distance;
+    /**
+     * Position of the closest source, or -1 if unreached.
+     */
+    private final int[] origin;
+    /**
+     * Parent in the shortest-path tree and index of the edge leading from
+     * it, or -1 for sources and unreached vertices.
+     */
+    private final int[] parent;
+    private final int[] parentEdge;
+    /**
+     * Position of each vertex in the array of sources, or -1.
+     */
+    private final int[] sourcePosition;
+    /**
+     * Dijkstra queue.
+     */
+    private final IndexedDaryHeap queue;
+    /**
+     * Vertices whose results may have changed in the last call, marked with
+     * the current epoch.
+     */
+    private final int[] changed;
+    private final int[] changedMark;
+    private int changedCount;
+    /**
+     * Vertices which lost their distance in the current update, marked with
+     * the current epoch.
+     */
+    private final int[] affected;
+    private final int[] affectedMark;
+    private int epoch;
+
+    /**
+     * Constructor.
+     *
+     * @param graph The graph
+     */
+    public DynamicDijkstra(CSRGraph<?, ?> graph) {
+        this.graph = graph;
+        if (graph.getOrientation() == CSRGraph.DIRECTED) {
+            reversed = graph.withOrientation(CSRGraph.REVERSED);
+        } else if (graph.getOrientation() == CSRGraph.REVERSED) {
+            reversed = graph.withOrientation(CSRGraph.DIRECTED);
+        } else {
+            reversed = graph;
+        }
+        final int n = graph.getVertexCount();
+        distance = new double[n];
+        origin = new int[n];
+        parent = new int[n];
+        parentEdge = new int[n];
+        sourcePosition = new int[n];
+        queue = new IndexedDaryHeap(n);
+        changed = new int[n];
+        changedMark = new int[n];
+        affected = new int[n];
+        affectedMark = new int[n];
+    }
+
+    /**
+     * Does a Dijkstra search from the given sources to all other vertices.
+     * Every reached vertex is reported as changed.
+     *
+     * @param sources Source vertex indices
+     */
+    public void calculate(int[] sources) {
+        nextEpoch();
+        Arrays.fill(distance, Double.POSITIVE_INFINITY);
+        Arrays.fill(origin, -1);
+        Arrays.fill(parent, -1);
+        Arrays.fill(parentEdge, -1);
+        Arrays.fill(sourcePosition, -1);
+        queue.clear();
+        for (int i = 0; i < sources.length; i++) {
+            final int s = sources[i];
+            // A repeated source keeps its first position.
+            if (sourcePosition[s] < 0) {
+                sourcePosition[s] = i;
+                reset(s);
+            }
+        }
+        propagate();
+    }
+
+    /**
+     * Sets the weights of the given edges in the graph and repairs the
+     * results.
+     *
+     * @param edges   Edge indices
+     * @param weights The new weights
+     */
+    public void setEdgeWeights(int[] edges, double[] weights) {
+        if (edges.length != weights.length) {
+            throw new IllegalArgumentException(
+                    "There must be one weight per edge.");
+        }
+        for (int i = 0; i < edges.length; i++) {
+            graph.setEdgeWeight(edges[i], weights[i]);
+        }
+        update(edges);
+    }
+
+    /**
+     * Repairs the results after the weights of the given edges have been
+     * changed in the graph.
+     *
+     * @param edges Indices of the edges whose weights changed
+     */
+    public void update(int... edges) {
+        nextEpoch();
+        queue.clear();
+        int affectedCount = 0;
+        // Tree edges which got longer invalidate the subtrees below them.
+        for (int e : edges) {
+            final int head = treeHead(e);
+            if (head >= 0 && affectedMark[head] != epoch
+                    && distance[parent[head]] + graph.edgeWeight(e)
+                    > distance[head]) {
+                affectedMark[head] = epoch;
+                affected[affectedCount++] = head;
+            }
+        }
+        for (int i = 0; i < affectedCount; i++) {
+            final int u = affected[i];
+            final int end = graph.endArc(u);
+            for (int arc = graph.firstArc(u); arc < end; arc++) {
+                final int v = graph.arcTarget(arc);
+                if (parent[v] == u && parentEdge[v] == graph.arcEdge(arc)
+                        && affectedMark[v] != epoch) {
+                    affectedMark[v] = epoch;
+                    affected[affectedCount++] = v;
+                }
+            }
+        }
+        for (int i = 0; i < affectedCount; i++) {
+            final int v = affected[i];
+            reset(v);
+            markChanged(v);
+        }
+        // Each invalidated vertex takes the best distance offered from
+        // outside the invalidated region.
+        for (int i = 0; i < affectedCount; i++) {
+            final int v = affected[i];
+            final int end = reversed.endArc(v);
+            for (int arc = reversed.firstArc(v); arc < end; arc++) {
+                final int u = reversed.arcTarget(arc);
+                if (affectedMark[u] != epoch) {
+                    relax(u, v, reversed.arcEdge(arc), reversed.arcWeight(arc));
+                }
+            }
+        }
+        // Edges which got shorter may improve their heads.
+        for (int e : edges) {
+            final int source = graph.edgeSource(e);
+            final int target = graph.edgeTarget(e);
+            final double weight = graph.edgeWeight(e);
+            relax(source, target, e, weight);
+            if (graph.getOrientation() == CSRGraph.UNDIRECTED) {
+                relax(target, source, e, weight);
+            }
+        }
+        propagate();
+    }
+
+    /**
+     * Resets the given vertex to distance 0 from itself if it is a source,
+     * and to unreached otherwise. A source has a parent only when it is
+     * equally close to a source at a smaller position, over arcs of weight
+     * zero.
+     *
+     * @param v Vertex index
+     */
+    private void reset(int v) {
+        parent[v] = -1;
+        parentEdge[v] = -1;
+        origin[v] = sourcePosition[v];
+        if (origin[v] >= 0) {
+            distance[v] = 0.0;
+            queue.update(v, 0.0);
+        } else {
+            distance[v] = Double.POSITIVE_INFINITY;
+        }
+    }
+
+    /**
+     * Returns the vertex whose tree edge is the given edge, or -1 if it is not
+     * in the shortest-path tree.
+     *
+     * @param e Edge index
+     * @return The head of e in the tree
+     */
+    private int treeHead(int e) {
+        final int source = graph.edgeSource(e);
+        final int target = graph.edgeTarget(e);
+        if (parentEdge[target] == e && parent[target] == source) {
+            return target;
+        }
+        if (graph.getOrientation() == CSRGraph.UNDIRECTED
+                && parentEdge[source] == e && parent[source] == target) {
+            return source;
+        }
+        return -1;
+    }
+
+    /**
+     * Offers v the path through u over the given edge, and queues v if this
+     * improves its distance or, at equal distance, its source.
+     *
+     * @param u      Tail
+     * @param v      Head
+     * @param edge   Edge index
+     * @param weight Edge weight
+     */
+    private void relax(int u, int v, int edge, double weight) {
+        final double candidate = distance[u] + weight;
+        if (candidate < distance[v] || (candidate == distance[v]
+                && candidate < Double.POSITIVE_INFINITY
+                && origin[u] < origin[v])) {
+            distance[v] = candidate;
+            origin[v] = origin[u];
+            parent[v] = u;
+            parentEdge[v] = edge;
+            queue.update(v, candidate);
+        }
+    }
+
+    /**
+     * Settles the queued vertices and the vertices they improve.
+     */
+    private void propagate() {
+        while (!queue.isEmpty()) {
+            final int u = queue.poll();
+            markChanged(u);
+            final int end = graph.endArc(u);
+            for (int arc = graph.firstArc(u); arc < end; arc++) {
+                relax(u, graph.arcTarget(arc), graph.arcEdge(arc),
+                      graph.arcWeight(arc));
+            }
+        }
+    }
+
+    private void markChanged(int v) {
+        if (changedMark[v] != epoch) {
+            changedMark[v] = epoch;
+            changed[changedCount++] = v;
+        }
+    }
+
+    private void nextEpoch() {
+        changedCount = 0;
+        if (++epoch == 0) {
+            Arrays.fill(changedMark, 0);
+            Arrays.fill(affectedMark, 0);
+            epoch = 1;
+        }
+    }
+
+    /**
+     * Returns the graph.
+     *
+     * @return The graph
+     */
+    public CSRGraph<?, ?> getGraph() {
+        return graph;
+    }
+
+    /**
+     * Returns the distance from the given vertex to its closest source, or
+     * infinity if it is not reached.
+     *
+     * @param v Vertex index
+     * @return The distance to v
+     */
+    public double getDistance(int v) {
+        return distance[v];
+    }
+
+    /**
+     * Returns the position of the closest source to the given vertex in the
+     * array of sources, or -1 if it is not reached.
+     *
+     * @param v Vertex index
+     * @return The position of the closest source
+     */
+    public int getOrigin(int v) {
+        return origin[v];
+    }
+
+    /**
+     * Returns the parent of the given vertex in the shortest-path tree, or -1
+     * for sources and unreached vertices.
+     *
+     * @param v Vertex index
+     * @return The parent of v
+     */
+    public int getParent(int v) {
+        return parent[v];
+    }
+
+    /**
+     * Returns the index of the edge leading to the given vertex in the
+     * shortest-path tree, or -1 for sources and unreached vertices.
+     *
+     * @param v Vertex index
+     * @return The tree edge of v
+     */
+    public int getParentEdge(int v) {
+        return parentEdge[v];
+    }
+
+    /**
+     * Returns the number of vertices whose results may have changed in the
+     * last call to {@link #calculate(int[])} or {@link #update(int...)}.
+     *
+     * @return The number of changed vertices
+     */
+    public int getChangedCount() {
+        return changedCount;
+    }
+
+    /**
+     * Returns the i-th vertex whose results may have changed in the last
+     * call.
+     *
+     * @param i Index, less than {@link #getChangedCount()}
+     * @return Vertex index
+     */
+    public int getChanged(int i) {
+        return changed[i];
+    }
+}
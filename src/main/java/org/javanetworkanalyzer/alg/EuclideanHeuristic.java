@@ -0,0 +1,77 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.alg;
+
+/**
+ * The straight-line distance between the planar coordinates of two vertices
+ * divided by the maximum speed, which is a lower bound on the travel time
+ * between them (or on their distance, for a speed of 1) provided that no
+ * edge is shorter than the straight line between its endpoints.
+ *
+ * @author Adam Gouge
+ */
+public class EuclideanHeuristic implements AStarHeuristic {
+
+    /**
+     * Coordinates of each vertex, by vertex index.
+     */
+    private final double[] x;
+    private final double[] y;
+    /**
+     * Inverse of the maximum speed.
+     */
+    private final double inverseSpeed;
+
+    /**
+     * Constructor.
+     *
+     * @param x        The x-coordinate of each vertex, by vertex index
+     * @param y        The y-coordinate of each vertex, by vertex index
+     * @param maxSpeed The maximum speed, in coordinate units per unit of
+     *                 edge weight
+     */
+    public EuclideanHeuristic(double[] x, double[] y, double maxSpeed) {
+        if (x.length != y.length) {
+            throw new IllegalArgumentException(
+                    "There must be as many x- as y-coordinates.");
+        }
+        if (!(maxSpeed > 0)) {
+            throw new IllegalArgumentException(
+                    "The maximum speed must be positive.");
+        }
+        this.x = x;
+        this.y = y;
+        this.inverseSpeed = 1.0 / maxSpeed;
+    }
+
+    @Override
+    public double estimate(int u, int target) {
+        final double dx = x[u] - x[target];
+        final double dy = y[u] - y[target];
+        final double d = Math.sqrt(dx * dx + dy * dy) * inverseSpeed;
+        // Vertices without coordinates give no information.
+        return d == d ? d : 0.0;
+    }
+}
@@ -25,6 +25,7 @@
 package org.javanetworkanalyzer.alg;
 
 import org.javanetworkanalyzer.data.VPred;
+import org.javanetworkanalyzer.model.CSRGraph;
 import org.javanetworkanalyzer.model.EdgeSPT;
 import org.javanetworkanalyzer.model.TraversalGraph;
 import org.jgrapht.DirectedGraph;
@@ -50,6 +51,11 @@ public abstract class GraphSearchAlgorithm<V extends VPred, E extends EdgeSPT>
      * The graph on which to calculate shortest paths.
      */
     protected final Graph<V, E> graph;
+    /**
+     * The graph if it is a {@link CSRGraph}, in which case subclasses may
+     * traverse its arcs directly; null otherwise.
+     */
+    protected final CSRGraph<?, ?> csr;
     /**
      * Current start node
      */
@@ -63,6 +69,7 @@ public abstract class GraphSearchAlgorithm<V extends VPred, E extends EdgeSPT>
      */
     public GraphSearchAlgorithm(Graph<V, E> graph) {
         this.graph = graph;
+        this.csr = (graph instanceof CSRGraph) ? (CSRGraph<?, ?>) graph : null;
     }
 
     /**
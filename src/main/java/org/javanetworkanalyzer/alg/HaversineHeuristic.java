@@ -0,0 +1,96 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.alg;
+
+/**
+ * The great-circle distance between the longitude/latitude coordinates of two
+ * vertices divided by the maximum speed; see {@link EuclideanHeuristic}.
+ *
+ * @author Adam Gouge
+ */
+public class HaversineHeuristic implements AStarHeuristic {
+
+    /**
+     * Mean radius of the earth in meters.
+     */
+    public static final double EARTH_RADIUS = 6371008.8;
+    /**
+     * Longitude and latitude of each vertex in radians, by vertex index.
+     */
+    private final double[] longitudes;
+    private final double[] latitudes;
+    /**
+     * Cosine of the latitude of each vertex.
+     */
+    private final double[] cosLatitudes;
+    /**
+     * Earth radius divided by the maximum speed.
+     */
+    private final double scale;
+
+    /**
+     * Constructor.
+     *
+     * @param longitudes The longitude of each vertex in degrees, by vertex
+     *                   index
+     * @param latitudes  The latitude of each vertex in degrees, by vertex
+     *                   index
+     * @param maxSpeed   The maximum speed, in meters per unit of edge weight
+     */
+    public HaversineHeuristic(double[] longitudes, double[] latitudes,
+                              double maxSpeed) {
+        if (longitudes.length != latitudes.length) {
+            throw new IllegalArgumentException(
+                    "There must be as many longitudes as latitudes.");
+        }
+        if (!(maxSpeed > 0)) {
+            throw new IllegalArgumentException(
+                    "The maximum speed must be positive.");
+        }
+        final int n = longitudes.length;
+        this.longitudes = new double[n];
+        this.latitudes = new double[n];
+        this.cosLatitudes = new double[n];
+        for (int u = 0; u < n; u++) {
+            this.longitudes[u] = Math.toRadians(longitudes[u]);
+            this.latitudes[u] = Math.toRadians(latitudes[u]);
+            this.cosLatitudes[u] = Math.cos(this.latitudes[u]);
+        }
+        this.scale = EARTH_RADIUS / maxSpeed;
+    }
+
+    @Override
+    public double estimate(int u, int target) {
+        final double sinLat = Math.sin(
+                0.5 * (latitudes[target] - latitudes[u]));
+        final double sinLon = Math.sin(
+                0.5 * (longitudes[target] - longitudes[u]));
+        final double a = sinLat * sinLat
+                + cosLatitudes[u] * cosLatitudes[target] * sinLon * sinLon;
+        final double d = 2 * scale * Math.asin(Math.sqrt(Math.min(1.0, a)));
+        // Vertices without coordinates give no information.
+        return d == d ? d : 0.0;
+    }
+}
@@ -0,0 +1,214 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.alg;
+
+import org.javanetworkanalyzer.data.IndexedDaryHeap;
+import org.javanetworkanalyzer.data.VDijkstra;
+import org.javanetworkanalyzer.model.CSRGraph;
+import org.jgrapht.Graph;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A {@link DijkstraQueue} backed by an {@link IndexedDaryHeap}, so that
+ * decreasing the distance of a queued vertex takes O(log n) time. This is the
+ * default queue of {@link Dijkstra}.
+ *
+ * <p> On a {@link CSRGraph} the heap is keyed by CSR vertex index. On other
+ * graphs, the vertices are numbered densely once, from the vertex set of the
+ * graph. A vertex added to the graph later is numbered when it is first
+ * queued, and {@link #clear()} numbers the vertices afresh only if the
+ * vertex set has changed size since, which also drops any removed vertices.
+ * Callers which know the index of a vertex, such as {@link Dijkstra} on a CSR
+ * graph, can use {@link #update(int, VDijkstra)} and {@link #pollIndex()} to
+ * avoid looking it up.
+ *
+ * @param <V> Vertex
+ * @author Adam Gouge
+ */
+public class HeapDijkstraQueue<V extends VDijkstra> implements DijkstraQueue<V> {
+
+    /**
+     * The heap.
+     */
+    private final IndexedDaryHeap heap;
+    /**
+     * The graph.
+     */
+    private final Graph<V, ?> graph;
+    /**
+     * The graph if it is a {@link CSRGraph}; null otherwise.
+     */
+    private final CSRGraph<?, ?> csr;
+    /**
+     * Index of each vertex (null for a CSR graph).
+     */
+    private final Map<V, Integer> indices;
+    /**
+     * Vertex of each index (null for a CSR graph).
+     */
+    private Object[] vertices;
+
+    /**
+     * Constructs a queue for the given graph using a heap of the default
+     * arity.
+     *
+     * @param graph The graph
+     */
+    public HeapDijkstraQueue(Graph<V, ?> graph) {
+        this(graph, IndexedDaryHeap.DEFAULT_ARITY);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param graph The graph
+     * @param arity Arity of the heap
+     */
+    public HeapDijkstraQueue(Graph<V, ?> graph, int arity) {
+        this.graph = graph;
+        if (graph instanceof CSRGraph) {
+            csr = (CSRGraph<?, ?>) graph;
+            heap = new IndexedDaryHeap(csr.getVertexCount(), arity);
+            indices = null;
+        } else {
+            csr = null;
+            final int n = Math.max(16, graph.vertexSet().size());
+            heap = new IndexedDaryHeap(n, arity);
+            indices = new HashMap<V, Integer>(2 * n);
+            vertices = new Object[n];
+            number();
+        }
+    }
+
+    /**
+     * Numbers the vertices of the graph from 0, forgetting any previous
+     * numbering.
+     */
+    private void number() {
+        Arrays.fill(vertices, 0, indices.size(), null);
+        indices.clear();
+        for (V v : graph.vertexSet()) {
+            append(v);
+        }
+    }
+
+    @Override
+    public void clear() {
+        heap.clear();
+        // Vertices were added or removed since the numbering was made.
+        if (csr == null && indices.size() != graph.vertexSet().size()) {
+            number();
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return heap.isEmpty();
+    }
+
+    @Override
+    public V poll() {
+        return vertex(heap.poll());
+    }
+
+    @Override
+    public void update(V v) {
+        heap.update(indexOf(v), v.getDistance());
+    }
+
+    /**
+     * Removes a vertex of smallest distance and returns its index, which is
+     * its CSR vertex index if this queue is keyed by a {@link CSRGraph}.
+     *
+     * @return The index of a vertex of smallest distance
+     */
+    public int pollIndex() {
+        return heap.poll();
+    }
+
+    /**
+     * Returns the vertex with the given index.
+     *
+     * @param index Index
+     * @return The vertex with the given index
+     */
+    public V vertex(int index) {
+        return (V) (csr != null ? csr.vertex(index) : vertices[index]);
+    }
+
+    /**
+     * Same as {@link #update(VDijkstra)} for a vertex whose index is already
+     * known, which saves looking it up.
+     *
+     * @param index The index of v
+     * @param v     Vertex
+     */
+    public void update(int index, V v) {
+        heap.update(index, v.getDistance());
+    }
+
+    /**
+     * Returns true if this queue is keyed by the vertex indices of the given
+     * graph.
+     *
+     * @param graph Graph
+     * @return True if the indices of this queue are those of the graph
+     */
+    boolean isKeyedBy(Graph<?, ?> graph) {
+        return csr != null && csr == graph;
+    }
+
+    /**
+     * Returns the index of the given vertex, numbering it if it was added to
+     * the graph after the numbering was made.
+     */
+    private int indexOf(V v) {
+        if (csr != null) {
+            return csr.indexOfID(v.getID());
+        }
+        final Integer index = indices.get(v);
+        return index != null ? index : append(v);
+    }
+
+    /**
+     * Gives the given vertex the next index.
+     *
+     * @param v Vertex
+     * @return Its index
+     */
+    private int append(V v) {
+        final int index = indices.size();
+        indices.put(v, index);
+        if (index == vertices.length) {
+            vertices = Arrays.copyOf(vertices, 2 * index);
+        }
+        vertices[index] = v;
+        heap.ensureCapacity(index + 1);
+        return index;
+    }
+}
@@ -0,0 +1,294 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.alg;
+
+import org.javanetworkanalyzer.model.CSRGraph;
+
+import java.util.Arrays;
+
+/**
+ * Computes isochrones (service areas) on a {@link CSRGraph}: for each of
+ * several increasing cutoffs, the vertices within that distance of an origin
+ * and the arcs which are only partially traversed within it.
+ *
+ * <p> All cutoffs are answered by a single Dijkstra search limited by the
+ * largest one. Since vertices are settled in order of distance, the vertices
+ * within cutoff c are the first {@link #getReachedCount(int)
+ * getReachedCount(c)} settled ones. An arc from a vertex u within the cutoff
+ * whose length exceeds what is left of the cutoff at u is partially
+ * traversed, and its fractional reach is (cutoff - d(u)) / w(arc). The cost
+ * of {@link #calculate(int)} is proportional to the area reached rather than
+ * to the size of the graph.
+ *
+ * <p> {@link #calculateAll(int[], Handler)} computes the isochrones of many
+ * origins in parallel (see {@link #setThreads(int)}).
+ *
+ * @author Adam Gouge
+ */
+public class Isochrone {
+
+    /**
+     * Receives the isochrones of a batch of origins.
+     */
+    public interface Handler {
+
+        /**
+         * Receives the isochrones of one origin. Calls are serialized but
+         * origins arrive in no particular order; the isochrone is reused
+         * after this method returns.
+         *
+         * @param origin    The position of the origin in the origin list
+         * @param isochrone The isochrones of the origin
+         */
+        void isochrone(int origin, Isochrone isochrone);
+    }
+
+    /**
+     * The graph.
+     */
+    private final CSRGraph<?, ?> graph;
+    /**
+     * Cutoffs, in increasing order.
+     */
+    private final double[] cutoffs;
+    /**
+     * The search.
+     */
+    private final CSRDijkstra dijkstra;
+    /**
+     * Number of vertices within each cutoff.
+     */
+    private final int[] reachedCounts;
+    /**
+     * Partially traversed arcs of each cutoff c, from partialOffsets[c] to
+     * partialOffsets[c + 1], and their fractional reach.
+     */
+    private final int[] partialOffsets;
+    private int[] partialArcs = new int[16];
+    private double[] partialFractions = new double[16];
+    /**
+     * Number of threads used by {@link #calculateAll}.
+     */
+    private int threads = 1;
+
+    /**
+     * Constructor.
+     *
+     * @param graph   The graph
+     * @param cutoffs Non-negative cutoffs in increasing order
+     */
+    public Isochrone(CSRGraph<?, ?> graph, double... cutoffs) {
+        if (cutoffs.length == 0) {
+            throw new IllegalArgumentException("At least one cutoff is "
+                    + "required.");
+        }
+        for (int c = 0; c < cutoffs.length; c++) {
+            if (!(cutoffs[c] >= 0) || (c > 0 && cutoffs[c] <= cutoffs[c - 1])) {
+                throw new IllegalArgumentException("Cutoffs must be "
+                        + "non-negative and increasing.");
+            }
+        }
+        this.graph = graph;
+        this.cutoffs = cutoffs.clone();
+        dijkstra = new CSRDijkstra(graph);
+        reachedCounts = new int[cutoffs.length];
+        partialOffsets = new int[cutoffs.length + 1];
+    }
+
+    /**
+     * Sets the number of threads used by {@link #calculateAll} (1 by
+     * default).
+     *
+     * @param threads The number of threads
+     */
+    public void setThreads(int threads) {
+        this.threads = ParallelRunner.checkThreads(threads);
+    }
+
+    /**
+     * Computes the isochrones of the given origin.
+     *
+     * @param origin Origin vertex index
+     */
+    public void calculate(int origin) {
+        dijkstra.calculate(origin, cutoffs[cutoffs.length - 1]);
+        final int settledCount = dijkstra.getSettledCount();
+        int reached = 0;
+        int partialCount = 0;
+        for (int c = 0; c < cutoffs.length; c++) {
+            final double cutoff = cutoffs[c];
+            while (reached < settledCount && dijkstra.getDistance(
+                    dijkstra.getSettled(reached)) <= cutoff) {
+                reached++;
+            }
+            reachedCounts[c] = reached;
+            partialOffsets[c] = partialCount;
+            for (int i = 0; i < reached; i++) {
+                final int u = dijkstra.getSettled(i);
+                final double left = cutoff - dijkstra.getDistance(u);
+                if (left <= 0) {
+                    continue;
+                }
+                final int end = graph.endArc(u);
+                for (int arc = graph.firstArc(u); arc < end; arc++) {
+                    final double weight = graph.arcWeight(arc);
+                    if (weight > left) {
+                        if (partialCount == partialArcs.length) {
+                            partialArcs = Arrays.copyOf(
+                                    partialArcs, 2 * partialCount);
+                            partialFractions = Arrays.copyOf(
+                                    partialFractions, 2 * partialCount);
+                        }
+                        partialArcs[partialCount] = arc;
+                        partialFractions[partialCount++] = left / weight;
+                    }
+                }
+            }
+        }
+        partialOffsets[cutoffs.length] = partialCount;
+    }
+
+    /**
+     * Computes the isochrones of each of the given origins and passes them
+     * to the given handler, using one {@link Isochrone} per thread. The
+     * results of this object are not modified.
+     *
+     * @param origins Origin vertex indices
+     * @param handler The handler
+     */
+    public void calculateAll(final int[] origins, final Handler handler) {
+        ParallelRunner.run(threads, origins.length, "computing isochrones",
+                new ParallelRunner.Task<Void>() {
+                    @Override
+                    public Void call(ParallelRunner.Items items) {
+                        final Isochrone isochrone =
+                                new Isochrone(graph, cutoffs);
+                        int i;
+                        while ((i = items.next()) >= 0) {
+                            isochrone.calculate(origins[i]);
+                            synchronized (handler) {
+                                handler.isochrone(i, isochrone);
+                            }
+                        }
+                        return null;
+                    }
+                });
+    }
+
+    /**
+     * Returns the graph.
+     *
+     * @return The graph
+     */
+    public CSRGraph<?, ?> getGraph() {
+        return graph;
+    }
+
+    /**
+     * Returns the number of cutoffs.
+     *
+     * @return The number of cutoffs
+     */
+    public int getCutoffCount() {
+        return cutoffs.length;
+    }
+
+    /**
+     * Returns the given cutoff.
+     *
+     * @param c Cutoff index
+     * @return The cutoff
+     */
+    public double getCutoff(int c) {
+        return cutoffs[c];
+    }
+
+    /**
+     * Returns the number of vertices within the given cutoff of the last
+     * origin.
+     *
+     * @param c Cutoff index
+     * @return The number of vertices within cutoff c
+     */
+    public int getReachedCount(int c) {
+        return reachedCounts[c];
+    }
+
+    /**
+     * Returns the i-th closest vertex to the last origin; it is within cutoff
+     * c if i &lt; getReachedCount(c).
+     *
+     * @param i Index, less than the reached count of the largest cutoff
+     * @return Vertex index
+     */
+    public int getReached(int i) {
+        return dijkstra.getSettled(i);
+    }
+
+    /**
+     * Returns the distance from the last origin to the given vertex, or
+     * infinity if it is beyond the largest cutoff.
+     *
+     * @param v Vertex index
+     * @return The distance to v
+     */
+    public double getDistance(int v) {
+        return dijkstra.isSettled(v)
+                ? dijkstra.getDistance(v) : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Returns the number of arcs partially traversed within the given cutoff.
+     *
+     * @param c Cutoff index
+     * @return The number of partially traversed arcs
+     */
+    public int getPartialArcCount(int c) {
+        return partialOffsets[c + 1] - partialOffsets[c];
+    }
+
+    /**
+     * Returns the i-th arc partially traversed within the given cutoff.
+     *
+     * @param c Cutoff index
+     * @param i Index, less than {@link #getPartialArcCount(int)}
+     * @return Arc index
+     */
+    public int getPartialArc(int c, int i) {
+        return partialArcs[partialOffsets[c] + i];
+    }
+
+    /**
+     * Returns the fraction of the i-th partially traversed arc of the given
+     * cutoff which is within the cutoff, from its source.
+     *
+     * @param c Cutoff index
+     * @param i Index, less than {@link #getPartialArcCount(int)}
+     * @return The fractional reach, in (0, 1)
+     */
+    public double getPartialFraction(int c, int i) {
+        return partialFractions[partialOffsets[c] + i];
+    }
+}
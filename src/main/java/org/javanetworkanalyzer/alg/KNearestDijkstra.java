@@ -0,0 +1,324 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.alg;
+
+import org.javanetworkanalyzer.model.CSRGraph;
+
+import java.util.Arrays;
+
+/**
+ * Finds, for each vertex of a {@link CSRGraph}, its k closest sources among
+ * a set of sources, in a single multi-label Dijkstra search.
+ *
+ * <p> A label is a (distance, source) pair. All sources start with a label
+ * at distance 0 and labels are settled in order of increasing distance,
+ * each vertex accepting at most one label per source and at most k labels
+ * in all; a vertex with k labels no longer propagates new ones, since any
+ * vertex reached through it has k sources at least as close. Each vertex
+ * is therefore settled at most k times.
+ *
+ * <p> Sources are identified by their position in the array passed to
+ * {@link #calculate(int[])}. Labels at the same distance are ordered by
+ * source position, so equally close sources are reported in that order.
+ * The results are kept in primitive arrays of n * k entries, the i-th
+ * closest source of vertex v being at position v * k + i.
+ *
+ * @author Adam Gouge
+ */
+public class KNearestDijkstra {
+
+    /**
+     * The graph.
+     */
+    private final CSRGraph<?, ?> graph;
+    /**
+     * Maximum number of sources to find per vertex.
+     */
+    private final int k;
+    /**
+     * Number of settled labels of each vertex.
+     */
+    private final int[] count;
+    /**
+     * Source position of each settled label, by vertex * k + i.
+     */
+    private final int[] origins;
+    /**
+     * Distance of each settled label, by vertex * k + i.
+     */
+    private final double[] distances;
+    /**
+     * Vertices with at least one settled label, in order of their first.
+     */
+    private final int[] reached;
+    /**
+     * Marks the sources while they are queued.
+     */
+    private final boolean[] isSource;
+    /**
+     * Number of vertices with at least one settled label.
+     */
+    private int reachedCount;
+    /**
+     * Binary heap of tentative labels: their distance, vertex and source.
+     */
+    private double[] heapDistance;
+    private int[] heapVertex;
+    private int[] heapSource;
+    /**
+     * Number of labels in the heap.
+     */
+    private int heapSize;
+
+    /**
+     * Constructor.
+     *
+     * @param graph The graph
+     * @param k     Maximum number of sources to find per vertex
+     */
+    public KNearestDijkstra(CSRGraph<?, ?> graph, int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be positive.");
+        }
+        this.graph = graph;
+        this.k = k;
+        final int n = graph.getVertexCount();
+        if ((long) n * k > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                    "Too many labels: " + n + " x " + k + ".");
+        }
+        count = new int[n];
+        origins = new int[n * k];
+        distances = new double[n * k];
+        Arrays.fill(origins, -1);
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        reached = new int[n];
+        isSource = new boolean[n];
+        final int capacity = Math.max(16, n);
+        heapDistance = new double[capacity];
+        heapVertex = new int[capacity];
+        heapSource = new int[capacity];
+    }
+
+    /**
+     * Finds the k closest sources of every vertex.
+     *
+     * @param sources Source vertex indices
+     */
+    public void calculate(int[] sources) {
+        calculate(sources, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Finds the k closest sources of every vertex among those at distance at
+     * most the given radius.
+     *
+     * @param sources Source vertex indices
+     * @param radius  Radius by which to limit the search
+     */
+    public void calculate(int[] sources, double radius) {
+        for (int i = 0; i < reachedCount; i++) {
+            final int v = reached[i];
+            Arrays.fill(origins, v * k, v * k + count[v], -1);
+            Arrays.fill(distances, v * k, v * k + count[v],
+                        Double.POSITIVE_INFINITY);
+            count[v] = 0;
+        }
+        reachedCount = 0;
+        heapSize = 0;
+        for (int i = 0; i < sources.length; i++) {
+            // A repeated source keeps its first position.
+            if (!isSource[sources[i]]) {
+                isSource[sources[i]] = true;
+                push(0.0, sources[i], i);
+            }
+        }
+        for (int source : sources) {
+            isSource[source] = false;
+        }
+        while (heapSize > 0 && heapDistance[0] <= radius) {
+            final double d = heapDistance[0];
+            final int u = heapVertex[0];
+            final int s = heapSource[0];
+            pop();
+            if (count[u] == k || hasSource(u, s)) {
+                continue;
+            }
+            if (count[u] == 0) {
+                reached[reachedCount++] = u;
+            }
+            origins[u * k + count[u]] = s;
+            distances[u * k + count[u]] = d;
+            count[u]++;
+            final int end = graph.endArc(u);
+            for (int arc = graph.firstArc(u); arc < end; arc++) {
+                final int v = graph.arcTarget(arc);
+                if (count[v] < k && !hasSource(v, s)) {
+                    push(d + graph.arcWeight(arc), v, s);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns true if v has a settled label from the given source.
+     */
+    private boolean hasSource(int v, int source) {
+        final int end = v * k + count[v];
+        for (int i = v * k; i < end; i++) {
+            if (origins[i] == source) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns true if label a comes before label b.
+     */
+    private boolean before(int a, int b) {
+        return heapDistance[a] < heapDistance[b]
+                || (heapDistance[a] == heapDistance[b]
+                    && heapSource[a] < heapSource[b]);
+    }
+
+    private void push(double distance, int v, int source) {
+        if (heapSize == heapVertex.length) {
+            final int capacity = 2 * heapSize;
+            heapDistance = Arrays.copyOf(heapDistance, capacity);
+            heapVertex = Arrays.copyOf(heapVertex, capacity);
+            heapSource = Arrays.copyOf(heapSource, capacity);
+        }
+        int i = heapSize++;
+        set(i, distance, v, source);
+        while (i > 0 && before(i, (i - 1) / 2)) {
+            swap(i, (i - 1) / 2);
+            i = (i - 1) / 2;
+        }
+    }
+
+    private void pop() {
+        heapSize--;
+        set(0, heapDistance[heapSize], heapVertex[heapSize],
+            heapSource[heapSize]);
+        int i = 0;
+        while (true) {
+            final int left = 2 * i + 1;
+            if (left >= heapSize) {
+                break;
+            }
+            int min = left;
+            if (left + 1 < heapSize && before(left + 1, left)) {
+                min = left + 1;
+            }
+            if (!before(min, i)) {
+                break;
+            }
+            swap(i, min);
+            i = min;
+        }
+    }
+
+    private void set(int i, double distance, int v, int source) {
+        heapDistance[i] = distance;
+        heapVertex[i] = v;
+        heapSource[i] = source;
+    }
+
+    private void swap(int i, int j) {
+        final double distance = heapDistance[i];
+        final int v = heapVertex[i];
+        final int source = heapSource[i];
+        set(i, heapDistance[j], heapVertex[j], heapSource[j]);
+        set(j, distance, v, source);
+    }
+
+    /**
+     * Returns k.
+     *
+     * @return The maximum number of sources found per vertex
+     */
+    public int getK() {
+        return k;
+    }
+
+    /**
+     * Returns the number of sources found for the given vertex by the last
+     * search, at most k.
+     *
+     * @param v Vertex index
+     * @return The number of sources found for v
+     */
+    public int getCount(int v) {
+        return count[v];
+    }
+
+    /**
+     * Returns the position of the i-th closest source to the given vertex in
+     * the array of sources of the last search, or -1 if fewer than i + 1
+     * sources were found.
+     *
+     * @param v Vertex index
+     * @param i Rank, from 0 to k - 1
+     * @return The position of the i-th closest source
+     */
+    public int getOrigin(int v, int i) {
+        return origins[v * k + i];
+    }
+
+    /**
+     * Returns the distance from the given vertex to its i-th closest source,
+     * or infinity if fewer than i + 1 sources were found.
+     *
+     * @param v Vertex index
+     * @param i Rank, from 0 to k - 1
+     * @return The distance to the i-th closest source
+     */
+    public double getDistance(int v, int i) {
+        return distances[v * k + i];
+    }
+
+    /**
+     * Returns the source positions of the last search, the i-th closest
+     * source of vertex v being at v * k + i and missing ones being -1. The
+     * array is overwritten by the next search.
+     *
+     * @return The source positions
+     */
+    public int[] getOrigins() {
+        return origins;
+    }
+
+    /**
+     * Returns the distances of the last search, the distance to the i-th
+     * closest source of vertex v being at v * k + i and missing ones being
+     * infinity. The array is overwritten by the next search.
+     *
+     * @return The distances
+     */
+    public double[] getDistances() {
+        return distances;
+    }
+}
@@ -0,0 +1,296 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.alg;
+
+import org.javanetworkanalyzer.model.BinaryFile;
+import org.javanetworkanalyzer.model.CSRGraph;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * The ALT heuristic (A*, landmarks and the triangle inequality) of Goldberg
+ * and Harrelson.
+ *
+ * <p> For each of a few landmarks l, the distances d(l, v) from l and
+ * d(v, l) to l are precomputed for every vertex v. By the triangle
+ * inequality, d(u, t) &ge; d(l, t) - d(l, u) and d(u, t) &ge; d(u, l) -
+ * d(t, l), and the estimate is the largest of these bounds. Landmarks are
+ * chosen by farthest selection: each new landmark is the vertex farthest
+ * from the landmarks chosen so far.
+ *
+ * <p> The tables take 2kn doubles (kn for undirected graphs) and can be
+ * saved with {@link #write(File)} and memory-mapped back with
+ * {@link #read(File, CSRGraph)}, so that they need only be computed once per
+ * graph.
+ *
+ * @author Adam Gouge
+ */
+public class Landmarks implements AStarHeuristic {
+
+    /**
+     * Magic number ("JNAL").
+     */
+    private static final int MAGIC = 0x4A4E414C;
+    /**
+     * Format version.
+     */
+    private static final int VERSION = 1;
+    /**
+     * Name of the format, for error messages.
+     */
+    private static final String FORMAT = "landmark";
+    /**
+     * Header size in bytes.
+     */
+    private static final int HEADER_SIZE = 24;
+    /**
+     * Number of vertices.
+     */
+    private final int n;
+    /**
+     * Landmark vertex indices.
+     */
+    private final int[] landmarks;
+    /**
+     * Distances from each landmark, by vertex index.
+     */
+    private final DoubleBuffer[] from;
+    /**
+     * Distances to each landmark, by vertex index; the same as from for
+     * undirected graphs.
+     */
+    private final DoubleBuffer[] to;
+
+    private Landmarks(int n, int[] landmarks, DoubleBuffer[] from,
+                      DoubleBuffer[] to) {
+        this.n = n;
+        this.landmarks = landmarks;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Chooses the given number of landmarks by farthest selection and
+     * computes their distance tables.
+     *
+     * @param graph The graph
+     * @param count Number of landmarks
+     * @return The landmarks
+     */
+    public static Landmarks select(CSRGraph<?, ?> graph, int count) {
+        final int n = graph.getVertexCount();
+        if (count < 1 || count > n) {
+            throw new IllegalArgumentException("The number of landmarks must "
+                    + "be between 1 and the number of vertices.");
+        }
+        final boolean undirected =
+                graph.getOrientation() == CSRGraph.UNDIRECTED;
+        // Landmarks are chosen on the undirected graph so that they are
+        // far away in both directions.
+        final CSRDijkstra selection = new CSRDijkstra(
+                graph.withOrientation(CSRGraph.UNDIRECTED));
+        final CSRDijkstra forward = new CSRDijkstra(graph);
+        final CSRDijkstra backward = undirected ? forward : new CSRDijkstra(
+                graph.withOrientation(
+                graph.getOrientation() == CSRGraph.DIRECTED
+                ? CSRGraph.REVERSED : CSRGraph.DIRECTED));
+        final double[] nearest = new double[n];
+        Arrays.fill(nearest, Double.POSITIVE_INFINITY);
+        final int[] landmarks = new int[count];
+        final DoubleBuffer[] from = new DoubleBuffer[count];
+        final DoubleBuffer[] to = undirected ? from : new DoubleBuffer[count];
+        // Start from the vertex farthest from vertex 0.
+        int next = farthest(selection, 0, nearest, false);
+        for (int l = 0; l < count; l++) {
+            landmarks[l] = next;
+            from[l] = DoubleBuffer.wrap(distances(forward, next));
+            if (!undirected) {
+                to[l] = DoubleBuffer.wrap(distances(backward, next));
+            }
+            if (l + 1 < count) {
+                next = farthest(selection, next, nearest, true);
+            }
+        }
+        return new Landmarks(n, landmarks, from, to);
+    }
+
+    /**
+     * Searches from the given vertex and returns the vertex farthest from
+     * all landmarks so far; unreachable vertices count as farthest.
+     *
+     * @param dijkstra The search on the undirected graph
+     * @param source   The vertex to search from
+     * @param nearest  Distance of each vertex to the nearest landmark
+     * @param update   Whether the source is a landmark
+     * @return The farthest vertex
+     */
+    private static int farthest(CSRDijkstra dijkstra, int source,
+                                double[] nearest, boolean update) {
+        dijkstra.calculate(source);
+        int best = source;
+        double bestDistance = -1;
+        for (int v = 0; v < nearest.length; v++) {
+            double d = dijkstra.getDistance(v);
+            if (update) {
+                nearest[v] = Math.min(nearest[v], d);
+                d = nearest[v];
+            }
+            if (d > bestDistance && d > 0) {
+                best = v;
+                bestDistance = d;
+            }
+        }
+        return best;
+    }
+
+    private static double[] distances(CSRDijkstra dijkstra, int source) {
+        dijkstra.calculate(source);
+        final double[] distances = new double[dijkstra.getGraph()
+                .getVertexCount()];
+        for (int v = 0; v < distances.length; v++) {
+            distances[v] = dijkstra.getDistance(v);
+        }
+        return distances;
+    }
+
+    @Override
+    public double estimate(int u, int target) {
+        double best = 0.0;
+        for (int l = 0; l < landmarks.length; l++) {
+            final DoubleBuffer dFrom = from[l];
+            final double fromU = dFrom.get(u);
+            final double fromT = dFrom.get(target);
+            // Infinite distances give no information.
+            if (fromT != Double.POSITIVE_INFINITY
+                    && fromU != Double.POSITIVE_INFINITY) {
+                best = Math.max(best, fromT - fromU);
+            }
+            final DoubleBuffer dTo = to[l];
+            final double toU = dTo.get(u);
+            final double toT = dTo.get(target);
+            if (toT != Double.POSITIVE_INFINITY
+                    && toU != Double.POSITIVE_INFINITY) {
+                best = Math.max(best, toU - toT);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the landmark vertex indices.
+     *
+     * @return The landmark vertex indices
+     */
+    public int[] getLandmarks() {
+        return landmarks.clone();
+    }
+
+    /**
+     * Writes the landmarks and their distance tables to the given file.
+     *
+     * @param file The file
+     * @throws IOException If the file could not be written
+     */
+    public void write(File file) throws IOException {
+        final boolean undirected = to == from;
+        final RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.setLength(0);
+            final BinaryFile out = new BinaryFile(raf.getChannel())
+                    .putHeader(MAGIC, VERSION, HEADER_SIZE, landmarks.length,
+                               n, undirected ? 1 : 0)
+                    .putInts(IntBuffer.wrap(landmarks));
+            for (int l = 0; l < landmarks.length; l++) {
+                out.putDoubles(from[l]);
+                if (!undirected) {
+                    out.putDoubles(to[l]);
+                }
+            }
+            out.flush();
+        } finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * Maps the landmarks and distance tables in the given file, which must
+     * have been computed on the given graph.
+     *
+     * @param file  The file
+     * @param graph The graph
+     * @return The landmarks
+     * @throws IOException If the file could not be read or does not match
+     *                     the graph
+     */
+    public static Landmarks read(File file, CSRGraph<?, ?> graph)
+            throws IOException {
+        final RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            final FileChannel channel = raf.getChannel();
+            final ByteBuffer header = BinaryFile.readHeader(
+                    channel, file, FORMAT, MAGIC, VERSION, HEADER_SIZE);
+            final int count = header.getInt();
+            final int n = header.getInt();
+            final boolean undirected = header.getInt() == 1;
+            if (n != graph.getVertexCount()
+                    || undirected != (graph.getOrientation()
+                    == CSRGraph.UNDIRECTED)) {
+                throw new IOException(
+                        "The landmark file does not match the graph.");
+            }
+            final int rows = undirected ? count : 2 * count;
+            if (count < 1) {
+                throw new IOException("Truncated landmark file.");
+            }
+            BinaryFile.checkSize(channel, FORMAT,
+                                 HEADER_SIZE + 4L * count + 8L * n * rows);
+            final int[] landmarks = new int[count];
+            BinaryFile.mapInts(channel, HEADER_SIZE, count).get(landmarks);
+            final DoubleBuffer[] from = new DoubleBuffer[count];
+            final DoubleBuffer[] to =
+                    undirected ? from : new DoubleBuffer[count];
+            long position = HEADER_SIZE + 4L * count;
+            for (int l = 0; l < count; l++) {
+                from[l] = BinaryFile.mapDoubles(channel, position, n);
+                position += 8L * n;
+                if (!undirected) {
+                    to[l] = BinaryFile.mapDoubles(channel, position, n);
+                    position += 8L * n;
+                }
+            }
+            return new Landmarks(n, landmarks, from, to);
+        } finally {
+            // The mappings remain valid after the channel is closed.
+            raf.close();
+        }
+    }
+}
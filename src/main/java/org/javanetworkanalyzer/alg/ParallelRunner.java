@@ -0,0 +1,165 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.alg;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shares numbered items between the threads of a fixed pool: each thread
+ * runs the same {@link Task}, which sets up its own state and then takes
+ * items from the shared {@link Items} until there are none left.
+ *
+ * @author Adam Gouge
+ */
+public final class ParallelRunner {
+
+    private ParallelRunner() {
+    }
+
+    /**
+     * Checks a number of threads given to a setThreads method.
+     *
+     * @param threads The number of threads
+     * @return The number of threads
+     * @throws IllegalArgumentException If it is not positive
+     */
+    public static int checkThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException(
+                    "The number of threads must be positive.");
+        }
+        return threads;
+    }
+
+    /**
+     * Runs the given task on up to the given number of threads, but no more
+     * than there are items. On a single thread the task runs on the calling
+     * thread.
+     *
+     * @param threads  Maximum number of threads
+     * @param count    Number of items
+     * @param activity What the task does, for error messages (e.g.
+     *                 "computing isochrones")
+     * @param task     The task
+     * @param <T>      Result type
+     * @return The results of the threads
+     * @throws IllegalStateException If the task failed or the calling thread
+     *                               was interrupted
+     */
+    public static <T> List<T> run(int threads, int count, String activity,
+                                  final Task<T> task) {
+        final int poolSize = Math.min(threads, Math.max(1, count));
+        final Items items = new Items(count);
+        final List<T> results = new ArrayList<T>(poolSize);
+        if (poolSize == 1) {
+            try {
+                results.add(task.call(items));
+            } catch (RuntimeException ex) {
+                throw ex;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(
+                        "Interrupted while " + activity + ".", ex);
+            } catch (Exception ex) {
+                throw new IllegalStateException(
+                        "Error while " + activity + ".", ex);
+            }
+            return results;
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(poolSize);
+        try {
+            final List<Future<T>> futures = new ArrayList<Future<T>>(poolSize);
+            for (int t = 0; t < poolSize; t++) {
+                futures.add(executor.submit(new Callable<T>() {
+                    @Override
+                    public T call() throws Exception {
+                        return task.call(items);
+                    }
+                }));
+            }
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(
+                    "Interrupted while " + activity + ".", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException(
+                    "Error while " + activity + ".", ex.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return results;
+    }
+
+    /**
+     * The work done by each thread.
+     *
+     * @param <T> Result type
+     */
+    public interface Task<T> {
+
+        /**
+         * Takes items until there are none left and returns the result of
+         * this thread.
+         *
+         * @param items The items shared between the threads
+         * @return The result of this thread
+         * @throws Exception If the work failed
+         */
+        T call(Items items) throws Exception;
+    }
+
+    /**
+     * Items 0 to count - 1, handed out once each.
+     */
+    public static final class Items {
+
+        private final AtomicInteger next = new AtomicInteger();
+        private final int count;
+
+        private Items(int count) {
+            this.count = count;
+        }
+
+        /**
+         * Returns the next item, or -1 if there are none left.
+         *
+         * @return The next item, or -1
+         */
+        public int next() {
+            final int item = next.getAndIncrement();
+            return item < count ? item : -1;
+        }
+    }
+}
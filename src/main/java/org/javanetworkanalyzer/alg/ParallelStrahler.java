@@ -0,0 +1,376 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.alg;
+
+import org.javanetworkanalyzer.data.VId;
+import org.javanetworkanalyzer.data.VStrahler;
+import org.javanetworkanalyzer.model.CSRGraph;
+import org.jgrapht.Graph;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Calculates the Strahler numbers and Shreve magnitudes of all the nodes of a
+ * forest, such as a river network made of many independent catchments, in
+ * parallel.
+ *
+ * <p> Each tree is given by its root (outlet); edges may be oriented either
+ * way, or not at all, since the forest is traversed as an undirected graph.
+ * The graph is assumed to be a forest with one root per tree; if it is not,
+ * this algorithm will return results, but they will be false.
+ *
+ * <p> The computation has two phases. First the trees are handed out to the
+ * threads, which traverse each one breadth-first from its root to find the
+ * parent and the number of children of every node. A tree smaller than
+ * {@link #setLargeTreeSize(int) the large tree size} is then finished by the
+ * same thread, in reverse breadth-first order. The leaves of the large trees
+ * are collected and, in the second phase, handed out to the threads in
+ * chunks: each thread climbs from its leaf towards the root, decrementing an
+ * atomic counter of unfinished children on the way, and stops at the first
+ * node which still has unfinished children. The thread which finishes the
+ * last child of a node goes on to finish the node itself, so each node is
+ * finished exactly once, after all of its children, without recursion.
+ *
+ * <p> When the vertices are {@link VStrahler}s, the results are also stored
+ * in them.
+ *
+ * @see DFSForStrahler
+ * @see http://en.wikipedia.org/wiki/Strahler_number
+ *
+ * @author Adam Gouge
+ */
+public class ParallelStrahler {
+
+    /**
+     * Default number of nodes from which a tree is shared between threads.
+     */
+    public static final int DEFAULT_LARGE_TREE_SIZE = 1 << 16;
+    /**
+     * Number of leaves handed out at a time in the second phase.
+     */
+    private static final int LEAF_CHUNK = 256;
+    /**
+     * What this class does, for error messages.
+     */
+    private static final String ACTIVITY = "computing Strahler numbers";
+    /**
+     * Parent of an unreached node.
+     */
+    private static final int UNREACHED = -2;
+    /**
+     * Parent of a root.
+     */
+    private static final int ROOT = -1;
+    /**
+     * The graph, viewed as undirected.
+     */
+    private final CSRGraph<?, ?> graph;
+    /**
+     * Whether the vertices are {@link VStrahler}s.
+     */
+    private final boolean storeInVertices;
+    /**
+     * Parent of each node.
+     */
+    private final int[] parent;
+    /**
+     * Number of children of each node.
+     */
+    private final int[] childCount;
+    /**
+     * Strahler number of each node.
+     */
+    private final int[] strahler;
+    /**
+     * Shreve magnitude of each node.
+     */
+    private final int[] shreve;
+    /**
+     * Number of threads.
+     */
+    private int threads = 1;
+    /**
+     * Number of nodes from which a tree is shared between threads.
+     */
+    private int largeTreeSize = DEFAULT_LARGE_TREE_SIZE;
+
+    /**
+     * Constructor. Graphs which are not {@link CSRGraph}s are copied.
+     *
+     * @param graph The forest
+     */
+    public ParallelStrahler(Graph<? extends VId, ?> graph) {
+        this.graph = CSRGraph.fromAnyGraph(graph)
+                .withOrientation(CSRGraph.UNDIRECTED);
+        final int n = this.graph.getVertexCount();
+        storeInVertices = n > 0 && this.graph.vertex(0) instanceof VStrahler;
+        parent = new int[n];
+        childCount = new int[n];
+        strahler = new int[n];
+        shreve = new int[n];
+    }
+
+    /**
+     * Sets the number of threads (1 by default).
+     *
+     * @param threads The number of threads
+     */
+    public void setThreads(int threads) {
+        this.threads = ParallelRunner.checkThreads(threads);
+    }
+
+    /**
+     * Sets the number of nodes from which a tree is shared between threads
+     * rather than finished by the thread which traversed it
+     * ({@link #DEFAULT_LARGE_TREE_SIZE} by default).
+     *
+     * @param largeTreeSize The large tree size
+     */
+    public void setLargeTreeSize(int largeTreeSize) {
+        if (largeTreeSize < 1) {
+            throw new IllegalArgumentException(
+                    "The large tree size must be positive.");
+        }
+        this.largeTreeSize = largeTreeSize;
+    }
+
+    /**
+     * Calculates the Strahler numbers and Shreve magnitudes of the nodes of
+     * the trees with the given roots.
+     *
+     * @param roots The roots
+     */
+    public void calculate(Collection<? extends VId> roots) {
+        final int[] indices = new int[roots.size()];
+        int i = 0;
+        for (VId root : roots) {
+            indices[i++] = graph.indexOfID(root.getID());
+        }
+        calculate(indices);
+    }
+
+    /**
+     * Calculates the Strahler numbers and Shreve magnitudes of the nodes of
+     * the trees with the given roots. Nodes in no such tree get -1.
+     *
+     * @param roots Vertex indices of the roots
+     */
+    public void calculate(final int[] roots) {
+        Arrays.fill(parent, UNREACHED);
+        Arrays.fill(childCount, 0);
+        Arrays.fill(strahler, -1);
+        Arrays.fill(shreve, -1);
+        final List<int[]> leaves = ParallelRunner.run(
+                threads, roots.length, ACTIVITY,
+                new ParallelRunner.Task<int[]>() {
+                    @Override
+                    public int[] call(ParallelRunner.Items items) {
+                        return traverseTrees(roots, items);
+                    }
+                });
+        int leafCount = 0;
+        for (int[] l : leaves) {
+            leafCount += l[0];
+        }
+        if (leafCount == 0) {
+            return;
+        }
+        final int[] allLeaves = new int[leafCount];
+        leafCount = 0;
+        for (int[] l : leaves) {
+            System.arraycopy(l, 1, allLeaves, leafCount, l[0]);
+            leafCount += l[0];
+        }
+        final AtomicIntegerArray pending = new AtomicIntegerArray(childCount);
+        ParallelRunner.run(
+                threads, (leafCount + LEAF_CHUNK - 1) / LEAF_CHUNK, ACTIVITY,
+                new ParallelRunner.Task<Void>() {
+                    @Override
+                    public Void call(ParallelRunner.Items chunks) {
+                        climbFromLeaves(allLeaves, chunks, pending);
+                        return null;
+                    }
+                });
+    }
+
+    /**
+     * First phase: traverses the trees whose roots are handed out as items,
+     * finishes the small ones and returns the leaves of the large ones,
+     * preceded by their number.
+     *
+     * @param roots    The roots
+     * @param items    Indices of the roots to traverse
+     * @return The number of leaves of the large trees followed by the leaves
+     */
+    private int[] traverseTrees(int[] roots, ParallelRunner.Items items) {
+        int[] queue = new int[16];
+        int[] leaves = new int[16];
+        int leafCount = 0;
+        int r;
+        while ((r = items.next()) >= 0) {
+            final int root = roots[r];
+            if (parent[root] != UNREACHED) {
+                continue;
+            }
+            parent[root] = ROOT;
+            queue[0] = root;
+            int size = 1;
+            for (int head = 0; head < size; head++) {
+                final int u = queue[head];
+                final int end = graph.endArc(u);
+                for (int arc = graph.firstArc(u); arc < end; arc++) {
+                    final int v = graph.arcTarget(arc);
+                    if (parent[v] == UNREACHED) {
+                        parent[v] = u;
+                        childCount[u]++;
+                        if (size == queue.length) {
+                            queue = Arrays.copyOf(queue, 2 * size);
+                        }
+                        queue[size++] = v;
+                    }
+                }
+            }
+            if (size < largeTreeSize) {
+                for (int i = size - 1; i >= 0; i--) {
+                    finish(queue[i]);
+                }
+            } else {
+                for (int i = 0; i < size; i++) {
+                    if (childCount[queue[i]] == 0) {
+                        if (leafCount + 1 == leaves.length) {
+                            leaves = Arrays.copyOf(leaves, 2 * leaves.length);
+                        }
+                        leaves[++leafCount] = queue[i];
+                    }
+                }
+            }
+        }
+        leaves[0] = leafCount;
+        return leaves;
+    }
+
+    /**
+     * Second phase: finishes the leaves handed out in chunks and
+     * climbs from each towards its root for as long as it finishes the last
+     * child of the parent.
+     *
+     * @param leaves   The leaves of the large trees
+     * @param chunks   Indices of the chunks of {@link #LEAF_CHUNK} leaves to
+     *                 climb from
+     * @param pending  Number of unfinished children of each node
+     */
+    private void climbFromLeaves(int[] leaves, ParallelRunner.Items chunks,
+                                 AtomicIntegerArray pending) {
+        int chunk;
+        while ((chunk = chunks.next()) >= 0) {
+            final int start = chunk * LEAF_CHUNK;
+            final int end = Math.min(leaves.length, start + LEAF_CHUNK);
+            for (int i = start; i < end; i++) {
+                int u = leaves[i];
+                finish(u);
+                // The atomic decrement publishes the results of u to the
+                // thread which finishes its parent.
+                while (parent[u] != ROOT
+                        && pending.decrementAndGet(parent[u]) == 0) {
+                    u = parent[u];
+                    finish(u);
+                }
+            }
+        }
+    }
+
+    /**
+     * Calculates the Strahler number and Shreve magnitude of the given node
+     * from those of its children.
+     *
+     * @param u The node
+     */
+    private void finish(int u) {
+        int max = 0;
+        int maxCount = 0;
+        int magnitude = 0;
+        final int end = graph.endArc(u);
+        for (int arc = graph.firstArc(u); arc < end; arc++) {
+            final int child = graph.arcTarget(arc);
+            if (parent[child] == u) {
+                final int s = strahler[child];
+                if (s > max) {
+                    max = s;
+                    maxCount = 1;
+                } else if (s == max) {
+                    maxCount++;
+                }
+                magnitude += shreve[child];
+            }
+        }
+        if (magnitude == 0) {
+            // A leaf.
+            strahler[u] = 1;
+            shreve[u] = 1;
+        } else {
+            strahler[u] = maxCount > 1 ? max + 1 : max;
+            shreve[u] = magnitude;
+        }
+        if (storeInVertices) {
+            final VStrahler vertex = (VStrahler) graph.vertex(u);
+            vertex.setStrahlerNumber(strahler[u]);
+            vertex.setShreveMagnitude(shreve[u]);
+        }
+    }
+
+    /**
+     * Returns the graph, whose vertex indices are used by this class.
+     *
+     * @return The graph
+     */
+    public CSRGraph<?, ?> getGraph() {
+        return graph;
+    }
+
+    /**
+     * Returns the Strahler number of the given node, or -1 if it is in none
+     * of the trees.
+     *
+     * @param u Vertex index
+     * @return The Strahler number of u
+     */
+    public int getStrahlerNumber(int u) {
+        return strahler[u];
+    }
+
+    /**
+     * Returns the Shreve magnitude of the given node, i.e. the number of
+     * leaves in its subtree, or -1 if it is in none of the trees.
+     *
+     * @param u Vertex index
+     * @return The Shreve magnitude of u
+     */
+    public int getShreveMagnitude(int u) {
+        return shreve[u];
+    }
+}
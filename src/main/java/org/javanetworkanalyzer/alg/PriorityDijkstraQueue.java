@@ -0,0 +1,86 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.alg;
+
+import org.javanetworkanalyzer.data.VDijkstra;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/**
+ * A {@link DijkstraQueue} backed by a {@link PriorityQueue}. Updating a queued
+ * vertex takes O(n) time since it must first be found and removed; prefer
+ * {@link HeapDijkstraQueue} except for comparison purposes.
+ *
+ * @param <V> Vertex
+ * @author Adam Gouge
+ */
+public class PriorityDijkstraQueue<V extends VDijkstra>
+        implements DijkstraQueue<V> {
+
+    /**
+     * The queue.
+     */
+    private final PriorityQueue<V> queue;
+
+    /**
+     * Constructor.
+     *
+     * @param initialCapacity Initial capacity
+     */
+    public PriorityDijkstraQueue(int initialCapacity) {
+        queue = new PriorityQueue<V>(
+                Math.max(1, initialCapacity),
+                new Comparator<V>() {
+                    @Override
+                    public int compare(V v1, V v2) {
+                        return Double.compare(
+                                v1.getDistance(),
+                                v2.getDistance());
+                    }
+                });
+    }
+
+    @Override
+    public void clear() {
+        queue.clear();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    @Override
+    public V poll() {
+        return queue.poll();
+    }
+
+    @Override
+    public void update(V v) {
+        queue.remove(v);
+        queue.add(v);
+    }
+}
@@ -24,13 +24,14 @@
  */
 package org.javanetworkanalyzer.analyzers;
 
+import java.util.Collection;
 import java.util.Set;
-import org.javanetworkanalyzer.alg.DijkstraForAccessibility;
+import org.javanetworkanalyzer.alg.DynamicDijkstra;
+import org.javanetworkanalyzer.alg.KNearestDijkstra;
 import org.javanetworkanalyzer.data.VAccess;
+import org.javanetworkanalyzer.model.CSRGraph;
 import org.javanetworkanalyzer.model.EdgeSPT;
-import org.jgrapht.DirectedGraph;
 import org.jgrapht.Graph;
-import org.jgrapht.graph.EdgeReversedGraph;
 
 /**
  * Calculates, for each vertex, the (distance to the) closest destination among
@@ -44,6 +45,25 @@ public class AccessibilityAnalyzer<E extends EdgeSPT> extends GeneralizedGraphAn
      * The set of destinations.
      */
     private Set<VAccess> destinations;
+    /**
+     * Ids of the destinations, in the order in which they are passed to the
+     * searches.
+     */
+    private int[] destinationIds;
+    /**
+     * Results of {@link #computeNearest}: the graph searched, k, and the ids
+     * of and distances to the nearest destinations by vertex index * k + i.
+     */
+    private CSRGraph<?, ?> nearestGraph;
+    private int nearestK;
+    private int[] nearestIds;
+    private double[] nearestDistances;
+    /**
+     * The search of {@link #compute()}, kept so that it can be repaired by
+     * {@link #updateEdgeWeights(Collection)}, and the graph it searched.
+     */
+    private DynamicDijkstra search;
+    private CSRGraph<?, ?> searchGraph;
 
     /**
      * Constructor: sets the graph.
@@ -59,29 +79,231 @@ public class AccessibilityAnalyzer<E extends EdgeSPT> extends GeneralizedGraphAn
 
     /**
      * Performs accessibility analysis.
+     * <p/>
+     * All destinations are seeded at distance 0 in a single
+     * {@link DynamicDijkstra} on the reversed graph, so the analysis costs
+     * one search rather than one per destination. Graphs which are not
+     * {@link CSRGraph}s are first copied into one. When several destinations
+     * are equally close, the first one in the iteration order of the set of
+     * destinations is chosen.
+     * <p/>
+     * The search is kept, so that the results can be repaired by
+     * {@link #updateEdgeWeights(Collection)} when edge weights change.
      */
     public void compute() {
-        // If the graph is directed, then reverse it.
-        Graph<VAccess, E> g;
-        if (graph instanceof DirectedGraph) {
-            g = new EdgeReversedGraph<VAccess, E>((DirectedGraph) graph);
-        } else {
-            g = graph;
-        }
-        // Obtain a Dijkstra algorithm on the reversed graph.
-        DijkstraForAccessibility<E> dijkstra =
-                new DijkstraForAccessibility<E>(g);
-        // Now shortest paths from each destination the reversed graph
-        // correspond to shortest paths to each destination in the original
+        searchGraph = csr();
+        // Shortest paths from the destinations in the reversed graph
+        // correspond to shortest paths to the destinations in the original
         // graph.
+        search = new DynamicDijkstra(reversed(searchGraph));
+        search.calculate(destinationIndices(searchGraph));
+        storeChanged();
+    }
+
+    /**
+     * Repairs the results of {@link #compute()} after the weights of the
+     * given edges have changed, at a cost which depends on the part of the
+     * graph whose closest destinations change rather than on its size.
+     * <p/>
+     * The new weights are read from the graph. When the graph is a
+     * {@link CSRGraph}, they must have been set with
+     * {@link CSRGraph#setEdgeWeight(int, double)}, which also updates the
+     * {@link org.javanetworkanalyzer.model.Edge} objects; otherwise setting
+     * them on the edges is enough. A weight of infinity closes an edge.
+     *
+     * @param edges The edges whose weights changed
+     */
+    public void updateEdgeWeights(Collection<? extends E> edges) {
+        if (search == null) {
+            throw new IllegalStateException(
+                    "The accessibility has not been computed.");
+        }
+        final int[] indices = new int[edges.size()];
+        int i = 0;
+        for (E edge : edges) {
+            final int index = searchGraph.indexOfEdge(edge);
+            if (index < 0) {
+                throw new IllegalArgumentException(
+                        "Edge " + edge + " is not contained in the graph.");
+            }
+            if (searchGraph != graph) {
+                searchGraph.setEdgeWeight(index, graph.getEdgeWeight(edge));
+            }
+            indices[i++] = index;
+        }
+        search.update(indices);
+        storeChanged();
+    }
+
+    /**
+     * Sets the closest destination of each vertex changed by the last search
+     * or update.
+     */
+    private void storeChanged() {
+        for (int k = 0; k < search.getChangedCount(); k++) {
+            final int v = search.getChanged(k);
+            final VAccess vertex = (VAccess) searchGraph.vertex(v);
+            final int origin = search.getOrigin(v);
+            vertex.setClosestDestinationId(
+                    origin < 0 ? -1 : destinationIds[origin]);
+            vertex.setDistanceToClosestDestination(search.getDistance(v));
+        }
+    }
+
+    /**
+     * Finds the k closest destinations of each vertex within the given
+     * radius with a single {@link KNearestDijkstra} on the reversed graph.
+     * <p/>
+     * The results are available from
+     * {@link #getNearestDestinationId(VAccess, int)} and the related methods;
+     * the closest destination is also set on each vertex reached, as by
+     * {@link #compute()}. Equally close destinations are ranked in the
+     * iteration order of the set of destinations.
+     *
+     * @param k      Number of destinations to find per vertex
+     * @param radius Radius by which to limit the search
+     */
+    public void computeNearest(int k, double radius) {
+        final CSRGraph<?, ?> csr = csr();
+        final KNearestDijkstra dijkstra =
+                new KNearestDijkstra(reversed(csr), k);
+        dijkstra.calculate(destinationIndices(csr), radius);
+        final int[] origins = dijkstra.getOrigins();
+        nearestIds = new int[origins.length];
+        for (int i = 0; i < origins.length; i++) {
+            nearestIds[i] = origins[i] < 0 ? -1 : destinationIds[origins[i]];
+        }
+        nearestDistances = dijkstra.getDistances();
+        nearestK = k;
+        nearestGraph = csr;
+        for (int v = 0; v < csr.getVertexCount(); v++) {
+            if (dijkstra.getCount(v) > 0) {
+                final VAccess vertex = (VAccess) csr.vertex(v);
+                vertex.setClosestDestinationId(nearestIds[v * k]);
+                vertex.setDistanceToClosestDestination(
+                        nearestDistances[v * k]);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of destinations found for the given vertex by
+     * {@link #computeNearest}.
+     *
+     * @param v Vertex
+     * @return The number of destinations found for v, at most k
+     */
+    public int getNearestDestinationCount(VAccess v) {
+        final int offset = nearestOffset(v);
+        int count = 0;
+        while (count < nearestK && nearestIds[offset + count] >= 0) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the id of the i-th closest destination of the given vertex found
+     * by {@link #computeNearest}, or -1 if fewer than i + 1 were found.
+     *
+     * @param v Vertex
+     * @param i Rank, from 0 to k - 1
+     * @return The id of the i-th closest destination
+     */
+    public int getNearestDestinationId(VAccess v, int i) {
+        return nearestIds[nearestOffset(v) + i];
+    }
+
+    /**
+     * Returns the distance from the given vertex to its i-th closest
+     * destination found by {@link #computeNearest}, or infinity if fewer than
+     * i + 1 were found.
+     *
+     * @param v Vertex
+     * @param i Rank, from 0 to k - 1
+     * @return The distance to the i-th closest destination
+     */
+    public double getNearestDestinationDistance(VAccess v, int i) {
+        return nearestDistances[nearestOffset(v) + i];
+    }
+
+    /**
+     * Returns the ids of the destinations found by {@link #computeNearest}:
+     * the i-th closest destination of the vertex with the j-th smallest id
+     * is at j * k + i, and missing destinations are -1.
+     *
+     * @return The ids of the nearest destinations
+     */
+    public int[] getNearestDestinationIds() {
+        checkNearest();
+        return nearestIds;
+    }
+
+    /**
+     * Returns the distances to the destinations found by
+     * {@link #computeNearest}, in the order of
+     * {@link #getNearestDestinationIds()}; missing destinations are at
+     * distance infinity.
+     *
+     * @return The distances to the nearest destinations
+     */
+    public double[] getNearestDestinationDistances() {
+        checkNearest();
+        return nearestDistances;
+    }
+
+    private int nearestOffset(VAccess v) {
+        checkNearest();
+        final int index = nearestGraph.indexOfID(v.getID());
+        if (index < 0) {
+            throw new IllegalArgumentException(
+                    "Vertex " + v.getID() + " is not contained in the graph.");
+        }
+        return index * nearestK;
+    }
+
+    private void checkNearest() {
+        if (nearestIds == null) {
+            throw new IllegalStateException(
+                    "The nearest destinations have not been computed.");
+        }
+    }
+
+    /**
+     * Returns the graph as a {@link CSRGraph}, copying it if necessary.
+     */
+    private CSRGraph<?, ?> csr() {
+        if (graph instanceof CSRGraph) {
+            return (CSRGraph<?, ?>) graph;
+        }
+        return CSRGraph.fromAnyGraph(graph);
+    }
+
+    /**
+     * Returns the reversed view of the given graph.
+     */
+    private static CSRGraph<?, ?> reversed(CSRGraph<?, ?> csr) {
+        if (csr.getOrientation() == CSRGraph.DIRECTED) {
+            return csr.withOrientation(CSRGraph.REVERSED);
+        } else if (csr.getOrientation() == CSRGraph.REVERSED) {
+            return csr.withOrientation(CSRGraph.DIRECTED);
+        }
+        return csr;
+    }
+
+    /**
+     * Returns the vertex indices of the destinations in the given graph and
+     * records their ids in the same order.
+     */
+    private int[] destinationIndices(CSRGraph<?, ?> csr) {
+        final int[] indices = new int[destinations.size()];
+        destinationIds = new int[indices.length];
+        int i = 0;
         for (VAccess dest : destinations) {
-            // Update the distance of each destination to itself.
-            dest.setClosestDestinationId(dest.getID());
-            dest.setDistanceToClosestDestination(0.0);
-            // Calculate all shortest paths from this destination and update
-            // the closest destination accordingly.
-            dijkstra.calculate(dest);
+            destinationIds[i] = dest.getID();
+            indices[i++] = csr.indexOfID(dest.getID());
         }
+        return indices;
     }
 
     /**
@@ -0,0 +1,93 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.analyzers;
+
+import org.javanetworkanalyzer.alg.DirectionOptimizingBFS;
+import org.javanetworkanalyzer.data.SearchState;
+import org.javanetworkanalyzer.model.CSRGraph;
+
+/**
+ * A {@link CentralityWorker} which uses a Breadth-First Search (BFS) to
+ * calculate all shortest paths on unweighted graphs. The search is a
+ * {@link DirectionOptimizingBFS}, which switches to bottom-up steps when
+ * they scan fewer arcs than top-down ones.
+ *
+ * @author Adam Gouge
+ */
+class BFSCentralityWorker extends CentralityWorker {
+
+    /**
+     * The search, which records its results in {@link #state}.
+     */
+    private final DirectionOptimizingBFS bfs;
+    /**
+     * Sum of the distances from the current source.
+     */
+    private double totalLength;
+
+    /**
+     * Constructor.
+     *
+     * @param graph     The graph
+     * @param closeness Array in which to store the closeness of each source
+     * @param harmonicCloseness Array in which to store the harmonic closeness
+     *                          of each source
+     */
+    BFSCentralityWorker(CSRGraph<?, ?> graph, double[] closeness,
+                        double[] harmonicCloseness) {
+        super(graph, new SearchState(graph.getVertexCount()), closeness,
+              harmonicCloseness);
+        bfs = new DirectionOptimizingBFS(graph, state);
+    }
+
+    @Override
+    protected void search(int source) {
+        bfs.calculate(source);
+        totalLength = 0.0;
+        for (int l = 1; l < bfs.getLevelCount(); l++) {
+            totalLength += (double) l
+                    * (bfs.getLevelStart(l + 1) - bfs.getLevelStart(l));
+        }
+    }
+
+    @Override
+    protected int reachedCount() {
+        return bfs.getReachedCount();
+    }
+
+    @Override
+    protected int reached(int i) {
+        return bfs.getReached(i);
+    }
+
+    @Override
+    protected double closeness() {
+        final int reachable = bfs.getReachedCount() - 1;
+        if (reachable == graph.getVertexCount() - 1 && totalLength > 0) {
+            return 1 / (totalLength / reachable);
+        }
+        return 0.0;
+    }
+}
@@ -0,0 +1,287 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.analyzers;
+
+import org.javanetworkanalyzer.data.SearchState;
+import org.javanetworkanalyzer.model.CSRGraph;
+
+import java.util.Arrays;
+
+/**
+ * Computes the betweenness and closeness contributions of a sequence of source
+ * vertices on a {@link CSRGraph}, keeping all per-source state (shortest path
+ * counts, dependencies, distances, predecessors) in a {@link SearchState}
+ * owned by this worker so that several workers can run concurrently on the
+ * same graph.
+ *
+ * <p> Betweenness contributions are summed into per-worker partial arrays which
+ * are added to the global totals by {@link #commit}. Each source may be given
+ * a weight by which its contributions are multiplied, as when estimating
+ * betweenness from a sample of sources.
+ *
+ * @author Adam Gouge
+ */
+abstract class CentralityWorker {
+
+    /**
+     * The graph.
+     */
+    protected final CSRGraph<?, ?> graph;
+    /**
+     * Search state: distances, shortest path counts, dependencies and
+     * predecessors from the current source.
+     */
+    protected final SearchState state;
+    /**
+     * Sum of the dependencies of the current source on the shortest path
+     * edges leaving each vertex (this differs from the vertex dependency only
+     * in multigraphs).
+     */
+    private final double[] edgeDelta;
+    /**
+     * The last vertex for which each vertex was counted as a predecessor;
+     * used to count predecessors reached through parallel edges only once.
+     */
+    private final int[] predMark;
+    /**
+     * Closeness of each source, shared by all workers (each source is handled
+     * by exactly one worker).
+     */
+    private final double[] closeness;
+    /**
+     * Harmonic closeness of each source, shared like {@link #closeness}.
+     */
+    private final double[] harmonicCloseness;
+    /**
+     * Partial vertex betweenness.
+     */
+    private final double[] vertexBetweenness;
+    /**
+     * Partial edge betweenness.
+     */
+    private final double[] edgeBetweenness;
+    /**
+     * Partial sums of the squares of the weighted contributions of each
+     * source to vertex betweenness, or null if not recorded.
+     */
+    private double[] squares;
+
+    /**
+     * Constructor.
+     *
+     * @param graph     The graph
+     * @param state     Search state used by {@link #search}
+     * @param closeness Array in which to store the closeness of each source
+     * @param harmonicCloseness Array in which to store the harmonic closeness
+     *                          of each source
+     */
+    CentralityWorker(CSRGraph<?, ?> graph, SearchState state,
+                     double[] closeness, double[] harmonicCloseness) {
+        this.graph = graph;
+        this.state = state;
+        this.closeness = closeness;
+        this.harmonicCloseness = harmonicCloseness;
+        final int n = graph.getVertexCount();
+        edgeDelta = new double[n];
+        predMark = new int[n];
+        vertexBetweenness = new double[n];
+        edgeBetweenness = new double[graph.getEdgeCount()];
+    }
+
+    /**
+     * Calculates all shortest paths from the given source, recording
+     * shortest path counts and predecessors in {@link #state}.
+     *
+     * @param source Source vertex index
+     */
+    protected abstract void search(int source);
+
+    /**
+     * Returns the number of vertices reached by the last search.
+     *
+     * @return The number of vertices reached by the last search
+     */
+    protected abstract int reachedCount();
+
+    /**
+     * Returns the i-th vertex reached by the last search, in order of
+     * non-decreasing distance from the source.
+     *
+     * @param i Index
+     * @return The i-th vertex reached by the last search
+     */
+    protected abstract int reached(int i);
+
+    /**
+     * Returns the closeness of the last source {@link #search} was called on.
+     *
+     * @return The closeness of the last source
+     */
+    protected abstract double closeness();
+
+    /**
+     * Returns the harmonic closeness of the last source {@link #search} was
+     * called on (see {@link org.javanetworkanalyzer.data.VCent#getHarmonicCloseness()}).
+     *
+     * @return The harmonic closeness of the last source
+     */
+    protected double harmonicCloseness() {
+        final int n = graph.getVertexCount();
+        if (n < 2) {
+            return 0.0;
+        }
+        double sum = 0.0;
+        final int count = reachedCount();
+        for (int i = 1; i < count; i++) {
+            final double distance = state.getDistance(reached(i));
+            if (distance > 0) {
+                sum += 1 / distance;
+            }
+        }
+        return sum / (n - 1);
+    }
+
+    /**
+     * Adds the contribution of the given source to the partial betweenness
+     * values and records its closeness.
+     *
+     * @param source Source vertex index
+     */
+    void contributeFrom(int source) {
+        contributeFrom(source, 1.0);
+    }
+
+    /**
+     * Adds the contribution of the given source, multiplied by the given
+     * weight, to the partial betweenness values and records its closeness.
+     *
+     * @param source Source vertex index
+     * @param weight Weight of the source
+     */
+    void contributeFrom(int source, double weight) {
+        search(source);
+        closeness[source] = closeness();
+        harmonicCloseness[source] = harmonicCloseness();
+        accumulateDependencies(source, weight);
+    }
+
+    /**
+     * Sets whether to record the sums of the squares of the weighted
+     * contributions of each source to vertex betweenness, which are needed
+     * to estimate their variance.
+     *
+     * @param recordSquares True to record the sums of squares
+     */
+    void setRecordSquares(boolean recordSquares) {
+        squares = recordSquares ? new double[graph.getVertexCount()] : null;
+    }
+
+    /**
+     * Adds the partial betweenness values to the given totals and clears
+     * them.
+     *
+     * @param vertexTotals Vertex betweenness totals
+     * @param edgeTotals   Edge betweenness totals
+     */
+    void commit(double[] vertexTotals, double[] edgeTotals) {
+        commit(vertexTotals, edgeTotals, null);
+    }
+
+    /**
+     * Adds the partial betweenness values and sums of squares to the given
+     * totals and clears them.
+     *
+     * @param vertexTotals Vertex betweenness totals
+     * @param edgeTotals   Edge betweenness totals
+     * @param squareTotals Totals of the sums of squares, or null if they are
+     *                     not needed
+     */
+    void commit(double[] vertexTotals, double[] edgeTotals,
+                double[] squareTotals) {
+        for (int i = 0; i < vertexTotals.length; i++) {
+            vertexTotals[i] += vertexBetweenness[i];
+        }
+        for (int i = 0; i < edgeTotals.length; i++) {
+            edgeTotals[i] += edgeBetweenness[i];
+        }
+        Arrays.fill(vertexBetweenness, 0.0);
+        Arrays.fill(edgeBetweenness, 0.0);
+        if (squares != null) {
+            if (squareTotals != null) {
+                for (int i = 0; i < squareTotals.length; i++) {
+                    squareTotals[i] += squares[i];
+                }
+            }
+            Arrays.fill(squares, 0.0);
+        }
+    }
+
+    /**
+     * Visits every reached vertex in order of non-increasing distance from
+     * the source, accumulating dependencies and their contributions to vertex
+     * and edge betweenness.
+     *
+     * <p> As in {@link GraphAnalyzer}, a predecessor reached through several
+     * parallel edges contributes to vertex dependencies once, while each of
+     * the parallel edges receives its own edge dependency.
+     *
+     * @param source Source vertex index
+     * @param weight Weight of the source
+     */
+    private void accumulateDependencies(int source, double weight) {
+        final int count = reachedCount();
+        for (int i = 0; i < count; i++) {
+            final int v = reached(i);
+            edgeDelta[v] = 0.0;
+            predMark[v] = -1;
+        }
+        for (int i = count - 1; i >= 0; i--) {
+            final int w = reached(i);
+            final double sigmaW = state.getSigma(w);
+            final double deltaW = state.getDelta(w);
+            for (int entry = state.firstPredecessor(w); entry >= 0;
+                 entry = state.nextPredecessor(entry)) {
+                final int v = state.predecessorVertex(entry);
+                final double sigmaFactor = state.getSigma(v) / sigmaW;
+                if (predMark[v] != w) {
+                    predMark[v] = w;
+                    state.addDelta(v, sigmaFactor * (1 + deltaW));
+                }
+                final double edgeDependency =
+                        sigmaFactor * (1 + edgeDelta[w]);
+                edgeDelta[v] += edgeDependency;
+                edgeBetweenness[graph.arcEdge(state.predecessorArc(entry))]
+                        += weight * edgeDependency;
+            }
+            if (w != source) {
+                final double contribution = weight * deltaW;
+                vertexBetweenness[w] += contribution;
+                if (squares != null) {
+                    squares[w] += contribution * contribution;
+                }
+            }
+        }
+    }
+}
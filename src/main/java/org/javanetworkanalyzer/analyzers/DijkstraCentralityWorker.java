@@ -0,0 +1,92 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.analyzers;
+
+import org.javanetworkanalyzer.alg.CSRDijkstra;
+import org.javanetworkanalyzer.model.CSRGraph;
+
+/**
+ * A {@link CentralityWorker} which uses Dijkstra's algorithm to calculate all
+ * shortest paths on weighted graphs.
+ *
+ * @author Adam Gouge
+ */
+class DijkstraCentralityWorker extends CentralityWorker {
+
+    /**
+     * Dijkstra's algorithm, whose search state is shared with this worker.
+     */
+    private final CSRDijkstra dijkstra;
+
+    /**
+     * Constructor.
+     *
+     * @param graph     The graph
+     * @param closeness Array in which to store the closeness of each source
+     * @param harmonicCloseness Array in which to store the harmonic closeness
+     *                          of each source
+     */
+    DijkstraCentralityWorker(CSRGraph<?, ?> graph, double[] closeness,
+                             double[] harmonicCloseness) {
+        this(new CSRDijkstra(graph), closeness, harmonicCloseness);
+    }
+
+    private DijkstraCentralityWorker(CSRDijkstra dijkstra,
+                                     double[] closeness,
+                                     double[] harmonicCloseness) {
+        super(dijkstra.getGraph(), dijkstra.getState(), closeness,
+              harmonicCloseness);
+        this.dijkstra = dijkstra;
+        dijkstra.setRecordPredecessors(true);
+    }
+
+    @Override
+    protected void search(int source) {
+        dijkstra.calculate(source);
+    }
+
+    @Override
+    protected int reachedCount() {
+        return dijkstra.getSettledCount();
+    }
+
+    @Override
+    protected int reached(int i) {
+        return dijkstra.getSettled(i);
+    }
+
+    @Override
+    protected double closeness() {
+        final int reachable = dijkstra.getSettledCount() - 1;
+        double totalLength = 0.0;
+        for (int i = 1; i <= reachable; i++) {
+            totalLength += dijkstra.getDistance(dijkstra.getSettled(i));
+        }
+        if (reachable == graph.getVertexCount() - 1 && totalLength > 0.0) {
+            return 1 / (totalLength / reachable);
+        }
+        return 0.0;
+    }
+}
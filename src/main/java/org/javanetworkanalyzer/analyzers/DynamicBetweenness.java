@@ -0,0 +1,441 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.analyzers;
+
+import org.javanetworkanalyzer.alg.ParallelRunner;
+import org.javanetworkanalyzer.data.VCent;
+import org.javanetworkanalyzer.data.VId;
+import org.javanetworkanalyzer.model.BinaryFile;
+import org.javanetworkanalyzer.model.CSRGraph;
+import org.javanetworkanalyzer.model.EdgeCent;
+import org.jgrapht.Graph;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Maintains betweenness and closeness on a weighted graph whose edge weights
+ * change, such as a road network with closures, without recomputing the
+ * contributions of every source.
+ *
+ * <p> The distances from every source are stored after
+ * {@link #computeAll()}. When the weights of some edges change, a source is
+ * affected only if one of the changed arcs was on one of its shortest paths
+ * (d(a) + old weight = d(b)) or could now be (d(a) + new weight &lt;= d(b));
+ * the shortest-path DAGs of all other sources, and so their contributions,
+ * are unchanged. Only the affected sources are searched again: once with the
+ * old weights, to subtract their old contributions, and once with the new
+ * ones, to add their new contributions and store their new distances. The
+ * detection costs one pass over the stored distances per changed edge.
+ *
+ * <p> Since the structure of a {@link CSRGraph} is fixed, an edge is deleted
+ * by giving it an infinite weight and inserted by giving a finite weight to
+ * such a closed edge.
+ *
+ * <p> The stored distances take 8 n<sup>2</sup> bytes. They are kept on the
+ * heap, or in a memory-mapped file given to the constructor so that the
+ * operating system can page them out.
+ *
+ * @author Adam Gouge
+ */
+public class DynamicBetweenness {
+
+    /**
+     * Tolerance used by the searches to recognize equally short paths.
+     */
+    private static final double TOLERANCE = 0.000000001;
+    /**
+     * The graph.
+     */
+    private final CSRGraph<?, ?> graph;
+    /**
+     * Number of vertices.
+     */
+    private final int n;
+    /**
+     * Distances from each source: row s of block s / rowsPerBlock.
+     */
+    private final DoubleBuffer[] blocks;
+    private final int rowsPerBlock;
+    /**
+     * Results, before normalization.
+     */
+    private final double[] closeness;
+    private final double[] harmonicCloseness;
+    private final double[] vertexBetweenness;
+    private final double[] edgeBetweenness;
+    /**
+     * Number of threads.
+     */
+    private int threads = 1;
+    /**
+     * Whether {@link #computeAll()} has been called.
+     */
+    private boolean computed = false;
+    /**
+     * Number of sources searched again by the last update.
+     */
+    private int affectedCount;
+
+    /**
+     * Constructor storing the distances on the heap. Graphs which are not
+     * {@link CSRGraph}s are copied, keeping their vertex and edge objects.
+     *
+     * @param graph The graph
+     */
+    public DynamicBetweenness(Graph<? extends VId, ?> graph) {
+        this.graph = CSRGraph.fromAnyGraph(graph);
+        n = this.graph.getVertexCount();
+        rowsPerBlock = rowsPerBlock(n);
+        blocks = new DoubleBuffer[(n + rowsPerBlock - 1) / rowsPerBlock];
+        for (int b = 0; b < blocks.length; b++) {
+            blocks[b] = DoubleBuffer.allocate(rowCount(b) * n);
+        }
+        closeness = new double[n];
+        harmonicCloseness = new double[n];
+        vertexBetweenness = new double[n];
+        edgeBetweenness = new double[this.graph.getEdgeCount()];
+    }
+
+    /**
+     * Constructor storing the distances in the given file, which is
+     * overwritten.
+     *
+     * @param graph The graph
+     * @param file  The file in which to store the distances
+     * @throws IOException If the file could not be mapped
+     */
+    public DynamicBetweenness(Graph<? extends VId, ?> graph, File file)
+            throws IOException {
+        this.graph = CSRGraph.fromAnyGraph(graph);
+        n = this.graph.getVertexCount();
+        rowsPerBlock = rowsPerBlock(n);
+        blocks = new DoubleBuffer[(n + rowsPerBlock - 1) / rowsPerBlock];
+        final RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.setLength(0);
+            final FileChannel channel = raf.getChannel();
+            for (int b = 0; b < blocks.length; b++) {
+                // The mappings remain valid once the file is closed.
+                blocks[b] = BinaryFile.mapDoubles(
+                        channel, FileChannel.MapMode.READ_WRITE,
+                        8L * b * rowsPerBlock * n, rowCount(b) * n);
+            }
+        } finally {
+            raf.close();
+        }
+        closeness = new double[n];
+        harmonicCloseness = new double[n];
+        vertexBetweenness = new double[n];
+        edgeBetweenness = new double[this.graph.getEdgeCount()];
+    }
+
+    /**
+     * Returns the number of rows of n distances which fit in a buffer.
+     */
+    private static int rowsPerBlock(int n) {
+        return Math.max(1, (Integer.MAX_VALUE / 8) / Math.max(1, n));
+    }
+
+    /**
+     * Returns the number of rows in the given block.
+     */
+    private int rowCount(int block) {
+        return Math.min(rowsPerBlock, n - block * rowsPerBlock);
+    }
+
+    /**
+     * Sets the number of threads (1 by default).
+     *
+     * @param threads The number of threads
+     */
+    public void setThreads(int threads) {
+        this.threads = ParallelRunner.checkThreads(threads);
+    }
+
+    /**
+     * Computes the contributions of all sources and stores their distances.
+     */
+    public void computeAll() {
+        Arrays.fill(vertexBetweenness, 0.0);
+        Arrays.fill(edgeBetweenness, 0.0);
+        final int[] sources = new int[n];
+        for (int s = 0; s < n; s++) {
+            sources[s] = s;
+        }
+        contribute(sources, 1.0, true);
+        affectedCount = n;
+        computed = true;
+    }
+
+    /**
+     * Sets the weights of the given edges and updates the results.
+     *
+     * @param edges   Edge indices
+     * @param weights The new weights; infinity deletes an edge
+     */
+    public void setEdgeWeights(int[] edges, double[] weights) {
+        if (edges.length != weights.length) {
+            throw new IllegalArgumentException(
+                    "There must be one weight per edge.");
+        }
+        if (!computed) {
+            throw new IllegalStateException(
+                    "The betweenness has not been computed.");
+        }
+        final int[] affected = affectedSources(edges, weights);
+        affectedCount = affected.length;
+        contribute(affected, -1.0, false);
+        for (int i = 0; i < edges.length; i++) {
+            graph.setEdgeWeight(edges[i], weights[i]);
+        }
+        contribute(affected, 1.0, true);
+    }
+
+    /**
+     * Sets the weight of the given edge and updates the results.
+     *
+     * @param e      Edge index
+     * @param weight The new weight; infinity deletes the edge
+     */
+    public void setEdgeWeight(int e, double weight) {
+        setEdgeWeights(new int[]{e}, new double[]{weight});
+    }
+
+    /**
+     * Returns the sources whose shortest-path DAGs the given weight changes
+     * may modify.
+     *
+     * @param edges   Edge indices
+     * @param weights The new weights
+     * @return The affected sources
+     */
+    private int[] affectedSources(int[] edges, double[] weights) {
+        final boolean undirected =
+                graph.getOrientation() == CSRGraph.UNDIRECTED;
+        // Look the changed edges up once rather than once per source: the
+        // weight of an edge is a scan of the out-arcs of its source.
+        final int k = edges.length;
+        final int[] a = new int[k];
+        final int[] b = new int[k];
+        final double[] oldWeights = new double[k];
+        for (int i = 0; i < k; i++) {
+            a[i] = graph.edgeSource(edges[i]);
+            b[i] = graph.edgeTarget(edges[i]);
+            oldWeights[i] = graph.edgeWeight(edges[i]);
+        }
+        final int[] affected = new int[n];
+        int count = 0;
+        for (int s = 0; s < n; s++) {
+            final DoubleBuffer block = blocks[s / rowsPerBlock];
+            final int offset = (s % rowsPerBlock) * n;
+            for (int i = 0; i < k; i++) {
+                final double da = block.get(offset + a[i]);
+                final double db = block.get(offset + b[i]);
+                if (affects(da, db, oldWeights[i], weights[i])
+                        || (undirected
+                        && affects(db, da, oldWeights[i], weights[i]))) {
+                    affected[count++] = s;
+                    break;
+                }
+            }
+        }
+        return Arrays.copyOf(affected, count);
+    }
+
+    /**
+     * Returns true if changing the weight of an arc from a to b at the given
+     * distances from a source may change the shortest-path DAG of the source.
+     */
+    private static boolean affects(double da, double db, double oldWeight,
+                                   double newWeight) {
+        if (da == Double.POSITIVE_INFINITY || oldWeight == newWeight) {
+            return false;
+        }
+        return Math.abs(da + oldWeight - db) < TOLERANCE
+                || da + newWeight < db + TOLERANCE;
+    }
+
+    /**
+     * Adds the contributions of the given sources, multiplied by the given
+     * weight, to the results, and stores their distances if asked to.
+     *
+     * @param sources        Source vertex indices
+     * @param weight         Weight of the contributions
+     * @param storeDistances Whether to store the distances
+     */
+    private void contribute(final int[] sources, final double weight,
+                            final boolean storeDistances) {
+        ParallelRunner.run(threads, sources.length, "updating betweenness",
+                new ParallelRunner.Task<Void>() {
+                    @Override
+                    public Void call(ParallelRunner.Items items) {
+                        final DijkstraCentralityWorker worker =
+                                new DijkstraCentralityWorker(
+                                graph, closeness, harmonicCloseness);
+                        int i;
+                        while ((i = items.next()) >= 0) {
+                            final int s = sources[i];
+                            worker.contributeFrom(s, weight);
+                            if (storeDistances) {
+                                final DoubleBuffer block =
+                                        blocks[s / rowsPerBlock];
+                                final int offset = (s % rowsPerBlock) * n;
+                                for (int v = 0; v < n; v++) {
+                                    block.put(offset + v,
+                                              worker.state.getDistance(v));
+                                }
+                            }
+                        }
+                        synchronized (DynamicBetweenness.this) {
+                            worker.commit(vertexBetweenness, edgeBetweenness);
+                        }
+                        return null;
+                    }
+                });
+    }
+
+    /**
+     * Stores the results in the vertex and edge objects, if they are
+     * {@link VCent}s and {@link EdgeCent}s, normalizing betweenness as
+     * {@link GraphAnalyzer} does.
+     */
+    public void storeResults() {
+        final double[] vertexValues = normalize(vertexBetweenness);
+        for (int v = 0; v < n; v++) {
+            final Object vertex = graph.vertex(v);
+            if (vertex instanceof VCent) {
+                final VCent cent = (VCent) vertex;
+                cent.setCloseness(closeness[v]);
+                cent.setHarmonicCloseness(harmonicCloseness[v]);
+                cent.setBetweenness(vertexValues[v]);
+            }
+        }
+        if (!graph.hasEdgeObjects()) {
+            return;
+        }
+        final double[] edgeValues = normalize(edgeBetweenness);
+        for (int e = 0; e < edgeValues.length; e++) {
+            final Object edge = graph.edge(e);
+            if (edge instanceof EdgeCent) {
+                ((EdgeCent) edge).setBetweenness(edgeValues[e]);
+            }
+        }
+    }
+
+    /**
+     * Returns the given values scaled to [0, 1], or unchanged if they are all
+     * equal.
+     */
+    private static double[] normalize(double[] values) {
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (double value : values) {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        final double[] normalized = values.clone();
+        if (max > min) {
+            for (int i = 0; i < normalized.length; i++) {
+                normalized[i] = (normalized[i] - min) / (max - min);
+            }
+        }
+        return normalized;
+    }
+
+    /**
+     * Returns the graph, whose vertex and edge indices are used by this class.
+     *
+     * @return The graph
+     */
+    public CSRGraph<?, ?> getGraph() {
+        return graph;
+    }
+
+    /**
+     * Returns the number of sources searched again by the last update, or n
+     * after {@link #computeAll()}.
+     *
+     * @return The number of affected sources
+     */
+    public int getAffectedCount() {
+        return affectedCount;
+    }
+
+    /**
+     * Returns the betweenness of the given vertex, before normalization.
+     *
+     * @param v Vertex index
+     * @return The betweenness of v
+     */
+    public double getBetweenness(int v) {
+        return vertexBetweenness[v];
+    }
+
+    /**
+     * Returns the betweenness of the given edge, before normalization.
+     *
+     * @param e Edge index
+     * @return The betweenness of e
+     */
+    public double getEdgeBetweenness(int e) {
+        return edgeBetweenness[e];
+    }
+
+    /**
+     * Returns the closeness of the given vertex.
+     *
+     * @param v Vertex index
+     * @return The closeness of v
+     */
+    public double getCloseness(int v) {
+        return closeness[v];
+    }
+
+    /**
+     * Returns the harmonic closeness of the given vertex.
+     *
+     * @param v Vertex index
+     * @return The harmonic closeness of v
+     */
+    public double getHarmonicCloseness(int v) {
+        return harmonicCloseness[v];
+    }
+
+    /**
+     * Returns the stored distance from the given source to the given vertex.
+     *
+     * @param s Source vertex index
+     * @param v Vertex index
+     * @return The distance from s to v
+     */
+    public double getDistance(int s, int v) {
+        return blocks[s / rowsPerBlock].get((s % rowsPerBlock) * n + v);
+    }
+}
@@ -26,19 +26,22 @@ package org.javanetworkanalyzer.analyzers;
 
 import org.javanetworkanalyzer.alg.CentralityAlg;
 import org.javanetworkanalyzer.alg.GraphSearchAlgorithm;
+import org.javanetworkanalyzer.alg.ParallelRunner;
 import org.javanetworkanalyzer.data.PathLengthData;
 import org.javanetworkanalyzer.data.VCent;
 import org.javanetworkanalyzer.data.VDist;
+import org.javanetworkanalyzer.model.CSRGraph;
 import org.javanetworkanalyzer.model.Edge;
 import org.javanetworkanalyzer.model.EdgeCent;
-import org.javanetworkanalyzer.model.TraversalGraph;
 import org.javanetworkanalyzer.progress.NullProgressMonitor;
 import org.javanetworkanalyzer.progress.ProgressMonitor;
 import org.jgrapht.Graph;
+import org.jgrapht.Graphs;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
 import java.util.Set;
 import java.util.Stack;
 
@@ -67,6 +70,59 @@ public abstract class GraphAnalyzer<V extends VCent, E extends EdgeCent, S exten
     // When accumulating dependencies, this stack will return vertices
     // in order of non-increasing distance from startNode.
     protected final Stack<V> stack;
+    /**
+     * Number of source vertices handled as a single unit of work in parallel
+     * mode. This must not depend on the number of threads: partial
+     * betweenness values are summed block by block in block order, which is
+     * what makes the results independent of the number of threads.
+     */
+    private static final int BLOCK_SIZE = 64;
+    /**
+     * Number of threads to use, or 0 to run the original single-threaded
+     * algorithm on the vertex objects.
+     */
+    private int threads = 0;
+    /**
+     * Sampling strategy drawing every pivot with the same probability.
+     */
+    public static final int UNIFORM = 1;
+    /**
+     * Sampling strategy drawing pivots with probability proportional to their
+     * out-degree.
+     */
+    public static final int DEGREE_PROPORTIONAL = 2;
+    /**
+     * Number of samples taken before the first adaptive stopping test.
+     */
+    private static final int FIRST_CHECKPOINT = 64;
+    /**
+     * Sampling strategy, or 0 to compute exact values.
+     */
+    private int samplingStrategy = 0;
+    /**
+     * Number of pivots to sample, or 0 for adaptive sampling.
+     */
+    private int samples;
+    /**
+     * Maximum error of adaptive sampling.
+     */
+    private double epsilon;
+    /**
+     * Failure probability of adaptive sampling.
+     */
+    private double delta;
+    /**
+     * Seed of the random number generator used to draw pivots.
+     */
+    private long seed;
+    /**
+     * Number of pivots sampled by the last call to {@link #computeAll()}.
+     */
+    private int sampleCount = 0;
+    /**
+     * Error bound achieved by the last adaptive sampling run.
+     */
+    private double errorBound = Double.NaN;
 
     /**
      * Initializes a new instance of a graph analyzer with the given
@@ -104,6 +160,139 @@ public abstract class GraphAnalyzer<V extends VCent, E extends EdgeCent, S exten
         this(graph, new NullProgressMonitor());
     }
 
+    /**
+     * Sets the number of threads used by {@link #computeAll()}.
+     *
+     * <p> With a positive number of threads, source vertices are partitioned
+     * into blocks which are processed on a thread pool of the given size. All
+     * per-source scratch state is kept by each thread rather than on the
+     * vertices, and partial betweenness values are reduced in block order, so
+     * that the results are bit-for-bit identical for any positive number of
+     * threads. The default value of 0 runs the original single-threaded
+     * algorithm.
+     *
+     * @param threads The number of threads, or 0
+     */
+    public void setThreads(int threads) {
+        if (threads < 0) {
+            throw new IllegalArgumentException(
+                    "The number of threads must be non-negative.");
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * Returns the number of threads used by {@link #computeAll()}.
+     *
+     * @return The number of threads, or 0 for the original single-threaded
+     *         algorithm
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Makes {@link #computeAll()} estimate betweenness from the given number
+     * of pivots drawn at random with replacement, rather than computing it
+     * exactly from every vertex.
+     *
+     * <p> The contribution of each pivot is weighted by the inverse of the
+     * probability of drawing it, so that the estimated betweenness of each
+     * vertex and edge (before normalization) is unbiased. Closeness is only
+     * computed for the vertices drawn as pivots; the closeness values of the
+     * other vertices are left unchanged. The pivots depend only on the graph and the
+     * seed, so that the results do not depend on the number of threads (the
+     * parallel algorithm is used, on a single thread if the number of threads
+     * is 0).
+     *
+     * @param strategy {@link #UNIFORM} or {@link #DEGREE_PROPORTIONAL}
+     * @param samples  The number of pivots to draw
+     * @param seed     The seed of the random number generator
+     */
+    public void setSampling(int strategy, int samples, long seed) {
+        checkStrategy(strategy);
+        if (samples <= 0) {
+            throw new IllegalArgumentException(
+                    "The number of samples must be positive.");
+        }
+        this.samplingStrategy = strategy;
+        this.samples = samples;
+        this.seed = seed;
+    }
+
+    /**
+     * Makes {@link #computeAll()} estimate betweenness from pivots drawn at
+     * random as in {@link #setSampling(int, int, long)}, drawing pivots until
+     * the estimated betweenness of every vertex is within epsilon of its
+     * exact value with probability at least 1 - delta.
+     *
+     * <p> Betweenness is here measured before normalization and divided by
+     * n(n - 1), so that it lies between 0 and 1. The number of samples is
+     * doubled until an error bound combining Hoeffding's inequality with the
+     * empirical Bernstein bound (which is much tighter for vertices of low
+     * betweenness) falls below epsilon for every vertex, or until Hoeffding's
+     * inequality alone guarantees the error; a union bound over all the
+     * vertices and tests makes the guarantee hold for the result returned,
+     * whenever sampling stops.
+     *
+     * @param strategy {@link #UNIFORM} or {@link #DEGREE_PROPORTIONAL}
+     * @param epsilon  The maximum error
+     * @param delta    The maximum failure probability
+     * @param seed     The seed of the random number generator
+     */
+    public void setAdaptiveSampling(int strategy, double epsilon, double delta,
+                                    long seed) {
+        checkStrategy(strategy);
+        if (!(epsilon > 0 && epsilon < 1)) {
+            throw new IllegalArgumentException(
+                    "Epsilon must be between 0 and 1.");
+        }
+        if (!(delta > 0 && delta < 1)) {
+            throw new IllegalArgumentException(
+                    "Delta must be between 0 and 1.");
+        }
+        this.samplingStrategy = strategy;
+        this.samples = 0;
+        this.epsilon = epsilon;
+        this.delta = delta;
+        this.seed = seed;
+    }
+
+    /**
+     * Makes {@link #computeAll()} compute exact values (the default).
+     */
+    public void setExact() {
+        samplingStrategy = 0;
+    }
+
+    /**
+     * Returns the number of pivots drawn by the last call to
+     * {@link #computeAll()} in sampling mode.
+     *
+     * @return The number of pivots drawn, or 0 if the values are exact
+     */
+    public int getSampleCount() {
+        return sampleCount;
+    }
+
+    /**
+     * Returns the error bound (in the sense of
+     * {@link #setAdaptiveSampling(int, double, double, long)}) achieved by
+     * the last call to {@link #computeAll()} in adaptive sampling mode.
+     *
+     * @return The error bound, or NaN if adaptive sampling was not used
+     */
+    public double getErrorBound() {
+        return errorBound;
+    }
+
+    private static void checkStrategy(int strategy) {
+        if (strategy != UNIFORM && strategy != DEGREE_PROPORTIONAL) {
+            throw new IllegalArgumentException(
+                    "Unknown sampling strategy " + strategy + ".");
+        }
+    }
+
     /**
      * Performs graph analysis and stores the results in a hash map, mapping
      * each node to a data structure holding the results of the analysis.
@@ -112,6 +301,17 @@ public abstract class GraphAnalyzer<V extends VCent, E extends EdgeCent, S exten
             IllegalAccessException, IllegalArgumentException,
             InvocationTargetException {
 
+        sampleCount = 0;
+        errorBound = Double.NaN;
+        if (samplingStrategy != 0) {
+            computeSampled();
+            return;
+        }
+        if (threads > 0) {
+            computeAllInParallel();
+            return;
+        }
+
         long startTime = System.currentTimeMillis();
 
         // ***** GLOBAL INITIALIZATION *************************
@@ -138,6 +338,324 @@ public abstract class GraphAnalyzer<V extends VCent, E extends EdgeCent, S exten
         normalizeBetweenness();
     }
 
+    /**
+     * Parallel version of {@link #computeAll()}; see {@link #setThreads(int)}.
+     */
+    private void computeAllInParallel() {
+        final long startTime = System.currentTimeMillis();
+        pm.setProgress(0, startTime);
+
+        final CSRGraph<?, ?> csr = CSRGraph.fromAnyGraph(graph);
+        final int n = csr.getVertexCount();
+        final double[] closeness = new double[n];
+        final double[] harmonicCloseness = new double[n];
+        final double[] vertexBetweenness = new double[n];
+        final double[] edgeBetweenness = new double[csr.getEdgeCount()];
+
+        contribute(csr, null, null, n, closeness, harmonicCloseness,
+                   vertexBetweenness, edgeBetweenness, null, startTime, 0, n);
+
+        // Store the results.
+        for (int i = 0; i < n; i++) {
+            final V v = (V) csr.vertex(i);
+            v.setCloseness(closeness[i]);
+            v.setHarmonicCloseness(harmonicCloseness[i]);
+            v.accumulateBetweenness(vertexBetweenness[i]);
+        }
+        for (int i = 0; i < edgeBetweenness.length; i++) {
+            ((E) csr.edge(i)).accumulateBetweenness(edgeBetweenness[i]);
+        }
+
+        // ***** NORMALIZATION **********************************
+        normalizeBetweenness();
+    }
+
+    /**
+     * Sampling version of {@link #computeAll()}; see
+     * {@link #setSampling(int, int, long)} and
+     * {@link #setAdaptiveSampling(int, double, double, long)}.
+     */
+    private void computeSampled() {
+        final long startTime = System.currentTimeMillis();
+        pm.setProgress(0, startTime);
+
+        final CSRGraph<?, ?> csr = CSRGraph.fromAnyGraph(graph);
+        final int n = csr.getVertexCount();
+        if (n == 0) {
+            return;
+        }
+        final PivotSampler sampler =
+                new PivotSampler(csr, samplingStrategy, seed);
+        final boolean adaptive = samples == 0;
+        final double[] closeness = new double[n];
+        Arrays.fill(closeness, Double.NaN);
+        final double[] harmonicCloseness = new double[n];
+        final double[] vertexBetweenness = new double[n];
+        final double[] edgeBetweenness = new double[csr.getEdgeCount()];
+        final double[] squares = adaptive ? new double[n] : null;
+
+        // The sample sizes at which to stop or test whether to stop. The
+        // last one is the size guaranteeing the error by Hoeffding's
+        // inequality, which depends on the number of tests through the
+        // union bound.
+        int maxSamples = samples;
+        int checkpoints = 1;
+        double logTerm = 0;
+        if (adaptive) {
+            for (int i = 0; i < 4; i++) {
+                logTerm = Math.log(8.0 * n * checkpoints / delta);
+                maxSamples = sampler.hoeffdingSampleSize(epsilon, logTerm);
+                checkpoints = 1 + (maxSamples > FIRST_CHECKPOINT
+                        ? (int) Math.ceil(Math.log((double) maxSamples
+                                / FIRST_CHECKPOINT) / Math.log(2))
+                        : 0);
+            }
+            logTerm = Math.log(8.0 * n * checkpoints / delta);
+            maxSamples = sampler.hoeffdingSampleSize(epsilon, logTerm);
+        }
+
+        int k = 0;
+        int target = adaptive ? Math.min(FIRST_CHECKPOINT, maxSamples)
+                : maxSamples;
+        while (true) {
+            final int count = target - k;
+            final int[] sources = new int[count];
+            final double[] weights = new double[count];
+            for (int i = 0; i < count; i++) {
+                sources[i] = sampler.next();
+                weights[i] = sampler.weight(sources[i]);
+            }
+            final int done = contribute(
+                    csr, sources, weights, count, closeness, harmonicCloseness,
+                    vertexBetweenness, edgeBetweenness, squares,
+                    startTime, k, maxSamples);
+            k += done;
+            if (done < count || !adaptive) {
+                break;
+            }
+            errorBound = maxErrorBound(sampler, k, vertexBetweenness,
+                                       squares, logTerm);
+            if (errorBound <= epsilon || k >= maxSamples) {
+                break;
+            }
+            target = (int) Math.min(maxSamples, 2L * k);
+        }
+        sampleCount = k;
+        LOGGER.info("Estimated betweenness from {} samples.", k);
+
+        // Store the results.
+        for (int i = 0; i < n; i++) {
+            final V v = (V) csr.vertex(i);
+            if (!Double.isNaN(closeness[i])) {
+                v.setCloseness(closeness[i]);
+                v.setHarmonicCloseness(harmonicCloseness[i]);
+            }
+            if (k > 0) {
+                v.accumulateBetweenness(vertexBetweenness[i] / k);
+            }
+        }
+        if (k > 0) {
+            for (int i = 0; i < edgeBetweenness.length; i++) {
+                ((E) csr.edge(i)).accumulateBetweenness(
+                        edgeBetweenness[i] / k);
+            }
+        }
+
+        // ***** NORMALIZATION **********************************
+        normalizeBetweenness();
+    }
+
+    /**
+     * Returns the largest error bound on the estimated betweenness of any
+     * vertex after the given number of samples.
+     *
+     * @param sampler           The sampler
+     * @param k                 The number of samples
+     * @param vertexBetweenness The sums of the weighted contributions
+     * @param squares           The sums of their squares
+     * @param logTerm           The log term of the bound
+     * @return The largest error bound
+     */
+    private static double maxErrorBound(PivotSampler sampler, int k,
+                                        double[] vertexBetweenness,
+                                        double[] squares, double logTerm) {
+        final int n = vertexBetweenness.length;
+        final double scale = (double) n * (n - 1);
+        double max = 0.0;
+        for (int i = 0; i < n; i++) {
+            final double mean = vertexBetweenness[i] / scale / k;
+            final double variance = k > 1
+                    ? Math.max(0.0, (squares[i] / (scale * scale)
+                                     - k * mean * mean) / (k - 1))
+                    : 0.0;
+            max = Math.max(max, sampler.errorBound(k, variance, logTerm));
+        }
+        return max;
+    }
+
+    /**
+     * Adds the contributions of the given sources to the given totals on a
+     * thread pool (see {@link #setThreads(int)}).
+     *
+     * @param csr               The graph
+     * @param sources           The sources, or null for all vertices in
+     *                          order
+     * @param weights           The weight of each source, or null for 1
+     * @param count             The number of sources
+     * @param closeness         Array in which to store the closeness of each
+     *                          source
+     * @param harmonicCloseness Array in which to store the harmonic closeness
+     *                          of each source
+     * @param vertexBetweenness Vertex betweenness totals
+     * @param edgeBetweenness   Edge betweenness totals
+     * @param squares           Totals of the sums of squares of the
+     *                          contributions to vertex betweenness, or null
+     *                          if they are not needed
+     * @param startTime         Start time for the progress monitor
+     * @param progressBase      Number of sources already handled
+     * @param progressTotal     Total number of sources to be handled
+     * @return The number of sources handled, which is less than count only
+     *         if the task was cancelled
+     */
+    private int contribute(final CSRGraph<?, ?> csr,
+                           final int[] sources, final double[] weights,
+                           final int count, final double[] closeness,
+                           final double[] harmonicCloseness,
+                           double[] vertexBetweenness,
+                           double[] edgeBetweenness, final double[] squares,
+                           long startTime, long progressBase,
+                           long progressTotal) {
+        final int blockCount = (count + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        final BlockCommitter committer = new BlockCommitter(
+                vertexBetweenness, edgeBetweenness, squares, count,
+                csr.getVertexCount(), startTime, progressBase, progressTotal);
+
+        ParallelRunner.run(Math.max(1, threads), blockCount,
+                "running parallel graph analysis",
+                new ParallelRunner.Task<Void>() {
+                    @Override
+                    public Void call(ParallelRunner.Items items)
+                            throws InterruptedException {
+                        final CentralityWorker worker =
+                                createWorker(csr, closeness,
+                                             harmonicCloseness);
+                        worker.setRecordSquares(squares != null);
+                        int block;
+                        while ((block = items.next()) >= 0) {
+                            boolean done = false;
+                            try {
+                                if (!pm.isCancelled()) {
+                                    final int end = Math.min(
+                                            count, (block + 1) * BLOCK_SIZE);
+                                    for (int i = block * BLOCK_SIZE; i < end; i++) {
+                                        if (sources == null) {
+                                            worker.contributeFrom(i);
+                                        } else {
+                                            worker.contributeFrom(
+                                                    sources[i], weights[i]);
+                                        }
+                                    }
+                                    done = true;
+                                }
+                            } finally {
+                                // Always take our turn, even on failure, so
+                                // that the other threads are not blocked.
+                                committer.commit(block, done ? worker : null);
+                            }
+                        }
+                        return null;
+                    }
+                });
+        return committer.getCommittedCount();
+    }
+
+    /**
+     * Creates a worker computing centrality contributions on the given CSR
+     * copy of the graph for use in parallel mode.
+     *
+     * @param csr       CSR copy of the graph
+     * @param closeness Array in which to store the closeness of each source
+     * @param harmonicCloseness Array in which to store the harmonic closeness
+     *                          of each source
+     * @return A new worker
+     */
+    abstract CentralityWorker createWorker(CSRGraph<?, ?> csr,
+                                           double[] closeness,
+                                           double[] harmonicCloseness);
+
+    /**
+     * Adds the partial results of each block of sources to the totals in
+     * block order, updating the progress monitor as it goes.
+     */
+    private final class BlockCommitter {
+
+        private final double[] vertexTotals;
+        private final double[] edgeTotals;
+        private final double[] squareTotals;
+        private final int count;
+        private final int n;
+        private final long startTime;
+        private final long progressBase;
+        private final long progressTotal;
+        /**
+         * The next block to be committed.
+         */
+        private int nextBlock = 0;
+        /**
+         * The number of sources whose contributions have been committed,
+         * which, once a block is skipped, stops increasing.
+         */
+        private int committedCount = 0;
+        private boolean skipped = false;
+
+        BlockCommitter(double[] vertexTotals, double[] edgeTotals,
+                       double[] squareTotals, int count, int n,
+                       long startTime, long progressBase, long progressTotal) {
+            this.vertexTotals = vertexTotals;
+            this.edgeTotals = edgeTotals;
+            this.squareTotals = squareTotals;
+            this.count = count;
+            this.n = n;
+            this.startTime = startTime;
+            this.progressBase = progressBase;
+            this.progressTotal = progressTotal;
+        }
+
+        /**
+         * Waits until all previous blocks have been committed, then adds the
+         * partial results of the given worker (if not null) to the totals.
+         *
+         * @param block  The block
+         * @param worker The worker holding the partial results of the block,
+         *               or null if the block was skipped
+         * @throws InterruptedException If interrupted while waiting
+         */
+        synchronized void commit(int block, CentralityWorker worker)
+                throws InterruptedException {
+            while (nextBlock != block) {
+                wait();
+            }
+            if (worker != null) {
+                worker.commit(vertexTotals, edgeTotals, squareTotals);
+                if (!skipped) {
+                    committedCount = Math.min(count, (block + 1) * BLOCK_SIZE);
+                }
+            } else {
+                skipped = true;
+            }
+            nextBlock++;
+            // Progress is reported on a scale of n, as set by the analyzers.
+            final long handled = Math.min(count, (long) nextBlock * BLOCK_SIZE);
+            pm.setProgress(Math.min(n, (progressBase + handled) * n
+                                       / progressTotal), startTime);
+            notifyAll();
+        }
+
+        synchronized int getCommittedCount() {
+            return committedCount;
+        }
+    }
+
     /**
      * Calculates the contribution of the given node to the betweenness and
      * closeness values of all the other nodes.
@@ -157,8 +675,7 @@ public abstract class GraphAnalyzer<V extends VCent, E extends EdgeCent, S exten
         calculateClosenessForNode(startNode, alg.getPaths());
         // Use the recursion formula to update the dependency
         // values and their contributions to betweenness values.
-        TraversalGraph<V, E> sPT = alg.reconstructTraversalGraph();
-        accumulateDependencies(startNode, sPT);
+        accumulateDependencies(startNode);
         // ***** END CENTRALITY CONTRIBUTION CALCULATION ******
     }
 
@@ -175,7 +692,8 @@ public abstract class GraphAnalyzer<V extends VCent, E extends EdgeCent, S exten
     /**
      * Given a node and its path length data calculated in
      * {@link #calculateCentralityMeasures(int)}, this method calculates its
-     * closeness centrality (or "out" closeness centrality for digraphs).
+     * closeness centrality (or "out" closeness centrality for digraphs) and
+     * its harmonic closeness centrality.
      *
      * @param node  The given node.
      * @param paths Its path length data.
@@ -198,6 +716,10 @@ public abstract class GraphAnalyzer<V extends VCent, E extends EdgeCent, S exten
                 : 0.0;
         // Store it.
         node.setCloseness(closeness);
+        // Harmonic closeness is also defined when some nodes are unreachable.
+        node.setHarmonicCloseness((nodeCount > 1)
+                ? paths.getInverseLengthSum() / (nodeCount - 1)
+                : 0.0);
     }
 
     /**
@@ -205,12 +727,13 @@ public abstract class GraphAnalyzer<V extends VCent, E extends EdgeCent, S exten
      * startNode on every node and their contributions to the betweenness values
      * of every node except startNode. Node that all these values are contained
      * in the appropriate {@link V} of {@link #nodeBetweenness}.
+     * <p/>
+     * Shortest path edges are read directly from the predecessor edges of
+     * each node, so no shortest path tree needs to be built.
      *
      * @param startNode The start node.
      */
-    private void accumulateDependencies(
-            V startNode,
-            TraversalGraph<V, E> shortestPathTree) {
+    private void accumulateDependencies(V startNode) {
 
         // *** Here we update
         // *** (A) the dependency of startNode on the other nodes.
@@ -235,11 +758,11 @@ public abstract class GraphAnalyzer<V extends VCent, E extends EdgeCent, S exten
                         / w.getSPCount());
                 final double depContribution = sigmaFactor * (1 + w.getDependency());
                 predecessor.accumulateDependency(depContribution);
-
-                // EDGE BETWEENNESS
-                accumEdgeBetw(predecessor, w, sigmaFactor, shortestPathTree);
             }
 
+            // EDGE BETWEENNESS
+            accumEdgeBetw(w);
+
             // (The betweenness of w cannot receive contributions from
             // the dependency of w on w, by the definition of dependency.)
             if (w != startNode) {
@@ -253,27 +776,28 @@ public abstract class GraphAnalyzer<V extends VCent, E extends EdgeCent, S exten
     }
 
     /**
-     * Accumulate edge dependencies and betweenness.
+     * Accumulate the dependencies and betweenness of the shortest path edges
+     * entering w.
+     * <p/>
+     * Since w is popped after every vertex it precedes on shortest paths, the
+     * dependencies of the shortest path edges leaving w have already been
+     * summed into {@link VCent#getEdgeDependency()}, so this takes time
+     * linear in the number of predecessor edges of w. The dependency of
+     * startNode on each edge is also stored on the edge itself; it is
+     * overwritten for each start node.
      *
-     * @param predecessor      Predecessor of vertex w
-     * @param w                Vertex w
-     * @param sigmaFactor      Sigma factor for weighting
-     * @param shortestPathTree SP"T"
-     */
-    private void accumEdgeBetw(
-            V predecessor,
-            V w,
-            double sigmaFactor,
-            TraversalGraph<V, E> shortestPathTree) {
-        for (E sPTEdge : shortestPathTree.getAllEdges(predecessor, w)) {
-            double depSumFromOutgoing = 0.0;
-            for (E outEdge : shortestPathTree.outgoingEdgesOf(w)) {
-                depSumFromOutgoing += outEdge.getDependency();
-            }
-            sPTEdge.accumulateDependency(sigmaFactor * (1 + depSumFromOutgoing));
-            // It's okay to accumulate dependencies in the SPT, but the
-            // betweenness values have to be accumulated to the base graph!
-            sPTEdge.getBaseGraphEdge().accumulateBetweenness(sPTEdge.getDependency());
+     * @param w Vertex w
+     */
+    private void accumEdgeBetw(V w) {
+        final double factor = 1 + w.getEdgeDependency();
+        final double wSPCount = w.getSPCount();
+        for (E e : (Set<E>) w.getPredecessorEdges()) {
+            final V predecessor = Graphs.getOppositeVertex(graph, e, w);
+            final double edgeDependency =
+                    predecessor.getSPCount() / wSPCount * factor;
+            predecessor.accumulateEdgeDependency(edgeDependency);
+            e.setDependency(edgeDependency);
+            e.accumulateBetweenness(edgeDependency);
         }
     }
 
@@ -0,0 +1,227 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.analyzers;
+
+import org.javanetworkanalyzer.data.HyperLogLogCounters;
+import org.javanetworkanalyzer.data.VUCent;
+import org.javanetworkanalyzer.model.CSRGraph;
+import org.javanetworkanalyzer.model.EdgeCent;
+import org.javanetworkanalyzer.progress.NullProgressMonitor;
+import org.javanetworkanalyzer.progress.ProgressMonitor;
+import org.jgrapht.Graph;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Estimates the closeness and harmonic closeness of every vertex of an
+ * unweighted graph in a few linear passes over the edges, using HyperLogLog
+ * counters to approximate the size of the ball of each radius around each
+ * vertex (HyperBall; Boldi and Vigna, <i>In-core computation of geometric
+ * centralities with HyperBall</i>, 2013).
+ *
+ * <p> The counter of each vertex at iteration t estimates the number of
+ * vertices at distance at most t from it, and is obtained as the union of its
+ * counter and the counters of its (out-)neighbours at iteration t - 1; the
+ * differences between successive estimates give the number of vertices at
+ * each distance. The number of iterations is the (out-)eccentricity of the
+ * graph plus one, and memory use is 2 * 2<sup>log2m</sup> bytes per vertex.
+ * Unlike {@link UnweightedGraphAnalyzer}, this does not compute betweenness.
+ *
+ * <p> The harmonic closeness stored in each vertex is an estimate of
+ * {@link VUCent#getHarmonicCloseness()}. The closeness stored is an estimate
+ * of the inverse of the average distance to the reachable vertices, which
+ * coincides with {@link VUCent#getCloseness()} on strongly connected graphs
+ * (and is not set to zero on other graphs).
+ *
+ * @author Adam Gouge
+ */
+public class HyperBallAnalyzer<E extends EdgeCent>
+        extends GeneralizedGraphAnalyzer<VUCent, E> {
+
+    /**
+     * Default base 2 logarithm of the number of registers per counter, giving
+     * a relative standard deviation of 13% on the ball sizes.
+     */
+    public static final int DEFAULT_LOG2M = 6;
+    /**
+     * Progress monitor.
+     */
+    private final ProgressMonitor pm;
+    /**
+     * A logger.
+     */
+    private static final Logger LOGGER =
+            LoggerFactory.getLogger(HyperBallAnalyzer.class);
+    /**
+     * Base 2 logarithm of the number of registers per counter.
+     */
+    private int log2m = DEFAULT_LOG2M;
+    /**
+     * Seed of the hash function.
+     */
+    private long seed = 0;
+    /**
+     * Number of iterations performed by the last call to
+     * {@link #computeAll()}.
+     */
+    private int iterations = 0;
+
+    /**
+     * Initializes a new instance of a HyperBall analyzer with the given
+     * {@link ProgressMonitor}.
+     *
+     * @param graph The graph to be analyzed.
+     * @param pm    The {@link ProgressMonitor} to be used.
+     */
+    public HyperBallAnalyzer(Graph<VUCent, E> graph, ProgressMonitor pm) {
+        super(graph);
+        this.pm = pm;
+    }
+
+    /**
+     * Initializes a new instance of a HyperBall analyzer that doesn't keep
+     * track of progress.
+     *
+     * @param graph The graph to be analyzed.
+     */
+    public HyperBallAnalyzer(Graph<VUCent, E> graph) {
+        this(graph, new NullProgressMonitor());
+    }
+
+    /**
+     * Sets the base 2 logarithm of the number of registers per counter. Each
+     * increment halves the variance of the estimates and doubles the memory
+     * used.
+     *
+     * @param log2m Base 2 logarithm of the number of registers per counter,
+     *              between {@link HyperLogLogCounters#MIN_LOG2M} and
+     *              {@link HyperLogLogCounters#MAX_LOG2M}
+     */
+    public void setLog2m(int log2m) {
+        if (log2m < HyperLogLogCounters.MIN_LOG2M
+                || log2m > HyperLogLogCounters.MAX_LOG2M) {
+            throw new IllegalArgumentException("log2m must be between "
+                    + HyperLogLogCounters.MIN_LOG2M + " and "
+                    + HyperLogLogCounters.MAX_LOG2M + ".");
+        }
+        this.log2m = log2m;
+    }
+
+    /**
+     * Sets the seed of the hash function used by the counters.
+     *
+     * @param seed Seed
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Returns the number of iterations performed by the last call to
+     * {@link #computeAll()}.
+     *
+     * @return The number of iterations
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Estimates the closeness and harmonic closeness of every vertex and
+     * stores them in the vertices.
+     */
+    public void computeAll() {
+        pm.startTask("HyperBall closeness", nodeCount);
+        final long startTime = System.currentTimeMillis();
+        pm.setProgress(0, startTime);
+
+        final CSRGraph<?, ?> csr = CSRGraph.fromAnyGraph(graph);
+        final int n = csr.getVertexCount();
+        HyperLogLogCounters current = new HyperLogLogCounters(n, log2m, seed);
+        HyperLogLogCounters next = new HyperLogLogCounters(n, log2m, seed);
+        // The estimated size of the ball around each vertex, which is kept
+        // non-decreasing.
+        final double[] ballSize = new double[n];
+        final double[] totalDistance = new double[n];
+        final double[] harmonicSum = new double[n];
+        boolean[] changed = new boolean[n];
+        boolean[] nextChanged = new boolean[n];
+        for (int u = 0; u < n; u++) {
+            current.add(u, u);
+            ballSize[u] = 1;
+            changed[u] = true;
+        }
+
+        iterations = 0;
+        int changedCount = n;
+        while (changedCount > 0 && !pm.isCancelled()) {
+            iterations++;
+            next.copyFrom(current);
+            changedCount = 0;
+            for (int u = 0; u < n; u++) {
+                boolean uChanged = false;
+                final int end = csr.endArc(u);
+                for (int arc = csr.firstArc(u); arc < end; arc++) {
+                    final int v = csr.arcTarget(arc);
+                    // A counter which did not change in the last iteration
+                    // was already merged into ours in the last iteration.
+                    if (changed[v] && next.union(u, current, v)) {
+                        uChanged = true;
+                    }
+                }
+                nextChanged[u] = uChanged;
+                if (uChanged) {
+                    changedCount++;
+                    final double estimate =
+                            Math.max(ballSize[u], next.estimate(u));
+                    final double reached = estimate - ballSize[u];
+                    totalDistance[u] += iterations * reached;
+                    harmonicSum[u] += reached / iterations;
+                    ballSize[u] = estimate;
+                }
+            }
+            HyperLogLogCounters counters = current;
+            current = next;
+            next = counters;
+            boolean[] flags = changed;
+            changed = nextChanged;
+            nextChanged = flags;
+            pm.setProgress(nodeCount - changedCount, startTime);
+        }
+        LOGGER.info("HyperBall converged after {} iterations.", iterations);
+
+        // Store the results.
+        for (int u = 0; u < n; u++) {
+            final VUCent vertex = (VUCent) csr.vertex(u);
+            vertex.setCloseness(totalDistance[u] > 0
+                    ? (ballSize[u] - 1) / totalDistance[u]
+                    : 0.0);
+            vertex.setHarmonicCloseness(n > 1
+                    ? harmonicSum[u] / (n - 1)
+                    : 0.0);
+        }
+        pm.endTask();
+    }
+}
@@ -0,0 +1,355 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.analyzers;
+
+import org.javanetworkanalyzer.alg.ParallelRunner;
+import org.javanetworkanalyzer.data.VUCent;
+import org.javanetworkanalyzer.model.CSRGraph;
+import org.javanetworkanalyzer.model.EdgeCent;
+import org.javanetworkanalyzer.progress.NullProgressMonitor;
+import org.javanetworkanalyzer.progress.ProgressMonitor;
+import org.jgrapht.Graph;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Calculates the exact closeness, harmonic closeness and eccentricity of
+ * every vertex of an unweighted graph, and its diameter, with bit-parallel
+ * multi-source BFS (MS-BFS; Then et al., <i>The more the merrier: efficient
+ * multi-source graph traversal</i>, 2014).
+ *
+ * <p> Sources are processed in batches of 64 * k, where k is the number of
+ * words per batch (see {@link #setWordsPerBatch(int)}). Within a batch, each
+ * vertex holds k words of bits for the sources which have seen it and for
+ * those whose frontier it is in, so that one scan of the arcs of a vertex
+ * advances the BFS of every source of the batch at once. Batches are
+ * distributed over threads (see {@link #setThreads(int)}), each with its own
+ * bitsets of 3 * k words per vertex.
+ *
+ * <p> Closeness and harmonic closeness are those of
+ * {@link UnweightedGraphAnalyzer}; betweenness is not computed. The
+ * eccentricity of a vertex is the largest distance from it to a vertex it
+ * reaches, and the diameter is the largest eccentricity.
+ *
+ * @author Adam Gouge
+ */
+public class MultiSourceBFSAnalyzer<E extends EdgeCent>
+        extends GeneralizedGraphAnalyzer<VUCent, E> {
+
+    /**
+     * Default number of 64-bit words per batch.
+     */
+    public static final int DEFAULT_WORDS_PER_BATCH = 4;
+    /**
+     * Progress monitor.
+     */
+    private final ProgressMonitor pm;
+    /**
+     * Number of 64-bit words per batch.
+     */
+    private int wordsPerBatch = DEFAULT_WORDS_PER_BATCH;
+    /**
+     * Number of threads.
+     */
+    private int threads = 1;
+    /**
+     * The graph searched by the last call to {@link #computeAll()}.
+     */
+    private CSRGraph<?, ?> csr;
+    /**
+     * Eccentricity of each vertex, by index in {@link #csr}.
+     */
+    private int[] eccentricity;
+    /**
+     * Largest eccentricity.
+     */
+    private int diameter;
+
+    /**
+     * Initializes a new instance of an MS-BFS analyzer with the given
+     * {@link ProgressMonitor}.
+     *
+     * @param graph The graph to be analyzed.
+     * @param pm    The {@link ProgressMonitor} to be used.
+     */
+    public MultiSourceBFSAnalyzer(Graph<VUCent, E> graph,
+                                  ProgressMonitor pm) {
+        super(graph);
+        this.pm = pm;
+    }
+
+    /**
+     * Initializes a new instance of an MS-BFS analyzer that doesn't keep
+     * track of progress.
+     *
+     * @param graph The graph to be analyzed.
+     */
+    public MultiSourceBFSAnalyzer(Graph<VUCent, E> graph) {
+        this(graph, new NullProgressMonitor());
+    }
+
+    /**
+     * Sets the number of 64-bit words per batch, so that 64 times this many
+     * sources are searched at once.
+     *
+     * @param wordsPerBatch Number of words per batch
+     */
+    public void setWordsPerBatch(int wordsPerBatch) {
+        if (wordsPerBatch < 1) {
+            throw new IllegalArgumentException(
+                    "The number of words per batch must be positive.");
+        }
+        this.wordsPerBatch = wordsPerBatch;
+    }
+
+    /**
+     * Sets the number of threads (1 by default).
+     *
+     * @param threads The number of threads
+     */
+    public void setThreads(int threads) {
+        this.threads = ParallelRunner.checkThreads(threads);
+    }
+
+    /**
+     * Returns the number of threads.
+     *
+     * @return The number of threads
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Calculates the closeness, harmonic closeness and eccentricity of every
+     * vertex and the diameter, storing closeness and harmonic closeness in
+     * the vertices.
+     */
+    public void computeAll() {
+        pm.startTask("MS-BFS closeness", nodeCount);
+        final long startTime = System.currentTimeMillis();
+        pm.setProgress(0, startTime);
+
+        csr = CSRGraph.fromAnyGraph(graph);
+        final int n = csr.getVertexCount();
+        final double[] closeness = new double[n];
+        final double[] harmonicCloseness = new double[n];
+        eccentricity = new int[n];
+
+        final int batchSize = 64 * wordsPerBatch;
+        final int batchCount = (n + batchSize - 1) / batchSize;
+        final AtomicInteger done = new AtomicInteger();
+        ParallelRunner.run(threads, batchCount, "running MS-BFS analysis",
+                new ParallelRunner.Task<Void>() {
+                    @Override
+                    public Void call(ParallelRunner.Items items) {
+                        final Batch batch = new Batch(csr, wordsPerBatch);
+                        int b;
+                        while (!pm.isCancelled() && (b = items.next()) >= 0) {
+                            final int first = b * batchSize;
+                            final int count = Math.min(batchSize, n - first);
+                            batch.search(first, count, closeness,
+                                         harmonicCloseness, eccentricity);
+                            pm.setProgress(done.addAndGet(count), startTime);
+                        }
+                        return null;
+                    }
+                });
+
+        diameter = 0;
+        for (int u = 0; u < n; u++) {
+            diameter = Math.max(diameter, eccentricity[u]);
+            final VUCent vertex = (VUCent) csr.vertex(u);
+            vertex.setCloseness(closeness[u]);
+            vertex.setHarmonicCloseness(harmonicCloseness[u]);
+        }
+        pm.endTask();
+    }
+
+    /**
+     * Returns the eccentricity of the given vertex computed by the last call
+     * to {@link #computeAll()}.
+     *
+     * @param v Vertex
+     * @return The eccentricity of v
+     */
+    public int getEccentricity(VUCent v) {
+        checkComputed();
+        final int u = csr.indexOfID(v.getID());
+        if (u < 0) {
+            throw new IllegalArgumentException(
+                    "Vertex " + v.getID() + " is not contained in the graph.");
+        }
+        return eccentricity[u];
+    }
+
+    /**
+     * Returns the diameter computed by the last call to {@link #computeAll()}.
+     *
+     * @return The diameter
+     */
+    public int getDiameter() {
+        checkComputed();
+        return diameter;
+    }
+
+    private void checkComputed() {
+        if (eccentricity == null) {
+            throw new IllegalStateException(
+                    "computeAll must be called first.");
+        }
+    }
+
+    /**
+     * The bitsets of one thread, reused from batch to batch.
+     */
+    private static final class Batch {
+
+        private final CSRGraph<?, ?> graph;
+        /**
+         * Number of words per vertex.
+         */
+        private final int k;
+        /**
+         * Bits of the sources which have seen, have in their frontier, and
+         * will have in their next frontier each vertex, by vertex * k + word.
+         */
+        private final long[] seen;
+        private long[] visit;
+        private long[] visitNext;
+        /**
+         * Number of vertices reached, sum of distances, sum of inverse
+         * distances and current distance of each source of the batch.
+         */
+        private final int[] reached;
+        private final long[] totalDistance;
+        private final double[] harmonicSum;
+        private final int[] lastDistance;
+
+        Batch(CSRGraph<?, ?> graph, int k) {
+            this.graph = graph;
+            this.k = k;
+            final int n = graph.getVertexCount();
+            if ((long) n * k > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException(
+                        "Too many words per batch for " + n + " vertices.");
+            }
+            seen = new long[n * k];
+            visit = new long[n * k];
+            visitNext = new long[n * k];
+            reached = new int[64 * k];
+            totalDistance = new long[64 * k];
+            harmonicSum = new double[64 * k];
+            lastDistance = new int[64 * k];
+        }
+
+        /**
+         * Searches from the sources first to first + count - 1 and stores
+         * their results.
+         */
+        void search(int first, int count, double[] closeness,
+                    double[] harmonicCloseness, int[] eccentricity) {
+            final int n = graph.getVertexCount();
+            Arrays.fill(seen, 0L);
+            Arrays.fill(visit, 0L);
+            Arrays.fill(visitNext, 0L);
+            Arrays.fill(reached, 0);
+            Arrays.fill(totalDistance, 0L);
+            Arrays.fill(harmonicSum, 0.0);
+            Arrays.fill(lastDistance, 0);
+            for (int i = 0; i < count; i++) {
+                final int bit = (first + i) * k + (i >>> 6);
+                seen[bit] |= 1L << i;
+                visit[bit] |= 1L << i;
+            }
+            int distance = 0;
+            boolean active = count > 0;
+            while (active) {
+                distance++;
+                // Push the frontier bits of every vertex to its neighbours.
+                for (int u = 0; u < n; u++) {
+                    final int uw = u * k;
+                    boolean any = false;
+                    for (int w = 0; w < k; w++) {
+                        if (visit[uw + w] != 0) {
+                            any = true;
+                            break;
+                        }
+                    }
+                    if (!any) {
+                        continue;
+                    }
+                    final int end = graph.endArc(u);
+                    for (int arc = graph.firstArc(u); arc < end; arc++) {
+                        final int vw = graph.arcTarget(arc) * k;
+                        for (int w = 0; w < k; w++) {
+                            visitNext[vw + w] |= visit[uw + w];
+                        }
+                    }
+                }
+                // Keep only the sources seeing each vertex for the first
+                // time.
+                active = false;
+                final double inverse = 1.0 / distance;
+                for (int v = 0; v < n; v++) {
+                    final int vw = v * k;
+                    for (int w = 0; w < k; w++) {
+                        long bits = visitNext[vw + w] & ~seen[vw + w];
+                        visitNext[vw + w] = bits;
+                        if (bits == 0) {
+                            continue;
+                        }
+                        seen[vw + w] |= bits;
+                        active = true;
+                        while (bits != 0) {
+                            final int i = (w << 6)
+                                    + Long.numberOfTrailingZeros(bits);
+                            bits &= bits - 1;
+                            reached[i]++;
+                            totalDistance[i] += distance;
+                            harmonicSum[i] += inverse;
+                            lastDistance[i] = distance;
+                        }
+                    }
+                }
+                final long[] swap = visit;
+                visit = visitNext;
+                visitNext = swap;
+                Arrays.fill(visitNext, 0L);
+            }
+            for (int i = 0; i < count; i++) {
+                final int source = first + i;
+                closeness[source] = reached[i] == n - 1 && totalDistance[i] > 0
+                        ? reached[i] / (double) totalDistance[i]
+                        : 0.0;
+                harmonicCloseness[source] = n > 1
+                        ? harmonicSum[i] / (n - 1)
+                        : 0.0;
+                eccentricity[source] = lastDistance[i];
+            }
+        }
+    }
+}
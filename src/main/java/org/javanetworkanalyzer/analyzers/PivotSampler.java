@@ -0,0 +1,186 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.analyzers;
+
+import org.javanetworkanalyzer.model.CSRGraph;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Draws random pivots (source vertices) with replacement for approximate
+ * betweenness, either uniformly or with probability proportional to their
+ * out-degree, and provides the weight by which each pivot's contribution must
+ * be multiplied to obtain an unbiased estimate of the exact betweenness.
+ *
+ * <p> Also provides the confidence bounds used for adaptive stopping. The
+ * estimate of the betweenness of a vertex v, normalized by n(n - 1), is the
+ * mean of the samples X_i = weight(s_i) &delta;<sub>s_i</sub>(v) / (n(n - 1)),
+ * which lie in [0, {@link #range()}].
+ *
+ * @author Adam Gouge
+ */
+class PivotSampler {
+
+    /**
+     * Number of vertices.
+     */
+    private final int n;
+    /**
+     * Random number generator.
+     */
+    private final Random random;
+    /**
+     * Cumulative out-degrees, or null for uniform sampling.
+     */
+    private final long[] cumulativeDegrees;
+    /**
+     * Largest weight of any pivot which can be drawn.
+     */
+    private final double maxWeight;
+
+    /**
+     * Constructor.
+     *
+     * @param csr      The graph
+     * @param strategy {@link GraphAnalyzer#UNIFORM} or
+     *                 {@link GraphAnalyzer#DEGREE_PROPORTIONAL}
+     * @param seed     Seed
+     */
+    PivotSampler(CSRGraph<?, ?> csr, int strategy, long seed) {
+        n = csr.getVertexCount();
+        random = new Random(seed);
+        if (strategy == GraphAnalyzer.DEGREE_PROPORTIONAL) {
+            cumulativeDegrees = new long[n];
+            long total = 0;
+            int minDegree = Integer.MAX_VALUE;
+            for (int u = 0; u < n; u++) {
+                final int degree = csr.endArc(u) - csr.firstArc(u);
+                total += degree;
+                cumulativeDegrees[u] = total;
+                if (degree > 0 && degree < minDegree) {
+                    minDegree = degree;
+                }
+            }
+            if (total == 0) {
+                throw new IllegalStateException(
+                        "Degree-proportional sampling requires edges.");
+            }
+            maxWeight = (double) total / minDegree;
+        } else if (strategy == GraphAnalyzer.UNIFORM) {
+            cumulativeDegrees = null;
+            maxWeight = n;
+        } else {
+            throw new IllegalArgumentException(
+                    "Unknown sampling strategy " + strategy + ".");
+        }
+    }
+
+    /**
+     * Draws a pivot.
+     *
+     * @return The index of a random vertex
+     */
+    int next() {
+        if (cumulativeDegrees == null) {
+            return random.nextInt(n);
+        }
+        final long total = cumulativeDegrees[n - 1];
+        // Random.nextLong is not uniform on a range, so use a double.
+        final long r = Math.min(total - 1,
+                                (long) (random.nextDouble() * total));
+        int u = Arrays.binarySearch(cumulativeDegrees, r + 1);
+        if (u < 0) {
+            u = -u - 1;
+        } else {
+            // Skip back over vertices of degree zero.
+            while (u > 0 && cumulativeDegrees[u - 1] == r + 1) {
+                u--;
+            }
+        }
+        return u;
+    }
+
+    /**
+     * Returns the inverse of the probability of drawing the given pivot.
+     *
+     * @param u Vertex index
+     * @return The weight of u
+     */
+    double weight(int u) {
+        if (cumulativeDegrees == null) {
+            return n;
+        }
+        final long degree = cumulativeDegrees[u]
+                - (u > 0 ? cumulativeDegrees[u - 1] : 0);
+        return (double) cumulativeDegrees[n - 1] / degree;
+    }
+
+    /**
+     * Returns an upper bound on the samples X_i.
+     *
+     * @return An upper bound on the samples
+     */
+    double range() {
+        return n > 2 ? maxWeight * (n - 2) / ((double) n * (n - 1)) : 0.0;
+    }
+
+    /**
+     * Returns the number of samples after which Hoeffding's inequality
+     * guarantees the given error with the given log term.
+     *
+     * @param epsilon Maximum error
+     * @param logTerm ln(2 / failure probability)
+     * @return The number of samples needed
+     */
+    int hoeffdingSampleSize(double epsilon, double logTerm) {
+        final double range = range();
+        final double k = Math.ceil(range * range * logTerm
+                / (2 * epsilon * epsilon));
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, k));
+    }
+
+    /**
+     * Returns a two-sided error bound on the mean of k samples with the given
+     * sample variance: the smaller of Hoeffding's bound and the empirical
+     * Bernstein bound of Maurer and Pontil, each of which fails with
+     * probability at most 2 exp(-logTerm).
+     *
+     * @param k        Number of samples
+     * @param variance Sample variance
+     * @param logTerm  ln(2 / failure probability of each bound)
+     * @return The error bound
+     */
+    double errorBound(int k, double variance, double logTerm) {
+        final double range = range();
+        final double hoeffding = range * Math.sqrt(logTerm / (2.0 * k));
+        if (k < 2) {
+            return hoeffding;
+        }
+        final double bernstein = Math.sqrt(2 * variance * logTerm / k)
+                + 7 * range * logTerm / (3.0 * (k - 1));
+        return Math.min(hoeffding, bernstein);
+    }
+}
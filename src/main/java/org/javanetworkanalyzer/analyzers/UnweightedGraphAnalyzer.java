@@ -28,6 +28,7 @@ import org.javanetworkanalyzer.alg.BFSForCentrality;
 import org.javanetworkanalyzer.alg.GraphSearchAlgorithm;
 import org.javanetworkanalyzer.data.VUCent;
 import org.javanetworkanalyzer.data.UnweightedPathLengthData;
+import org.javanetworkanalyzer.model.CSRGraph;
 import org.javanetworkanalyzer.model.EdgeCent;
 import org.javanetworkanalyzer.progress.NullProgressMonitor;
 import org.javanetworkanalyzer.progress.ProgressMonitor;
@@ -92,6 +93,13 @@ public class UnweightedGraphAnalyzer<E extends EdgeCent>
         return bfs;
     }
 
+    @Override
+    CentralityWorker createWorker(CSRGraph<?, ?> csr,
+                                  double[] closeness,
+                                  double[] harmonicCloseness) {
+        return new BFSCentralityWorker(csr, closeness, harmonicCloseness);
+    }
+
     @Override
     public void computeAll() throws InstantiationException,
             IllegalAccessException, IllegalArgumentException,
@@ -28,6 +28,7 @@ import org.javanetworkanalyzer.alg.DijkstraForCentrality;
 import org.javanetworkanalyzer.alg.GraphSearchAlgorithm;
 import org.javanetworkanalyzer.data.VWCent;
 import org.javanetworkanalyzer.data.WeightedPathLengthData;
+import org.javanetworkanalyzer.model.CSRGraph;
 import org.javanetworkanalyzer.model.EdgeCent;
 import org.javanetworkanalyzer.progress.NullProgressMonitor;
 import org.javanetworkanalyzer.progress.ProgressMonitor;
@@ -100,6 +101,13 @@ public class WeightedGraphAnalyzer<E extends EdgeCent>
         return dijkstra;
     }
 
+    @Override
+    CentralityWorker createWorker(CSRGraph<?, ?> csr,
+                                  double[] closeness,
+                                  double[] harmonicCloseness) {
+        return new DijkstraCentralityWorker(csr, closeness, harmonicCloseness);
+    }
+
     @Override
     public void computeAll() throws InstantiationException,
             IllegalAccessException, IllegalArgumentException,
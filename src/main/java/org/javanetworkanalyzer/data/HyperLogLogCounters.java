@@ -0,0 +1,235 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.data;
+
+/**
+ * An array of HyperLogLog counters, each estimating the number of distinct
+ * int elements added to it, stored as a single byte array of registers.
+ *
+ * <p> Each counter uses 2<sup>log2m</sup> one-byte registers and has a
+ * relative standard deviation of about 1.04 / sqrt(2<sup>log2m</sup>). The
+ * union of two counters is their register-wise maximum, which is what makes
+ * them suitable for computing neighbourhood functions (Flajolet et al.,
+ * <i>HyperLogLog: the analysis of a near-optimal cardinality estimation
+ * algorithm</i>, 2007; Boldi and Vigna, <i>In-core computation of geometric
+ * centralities with HyperBall</i>, 2013).
+ *
+ * @author Adam Gouge
+ */
+public class HyperLogLogCounters {
+
+    /**
+     * Smallest supported log2m.
+     */
+    public static final int MIN_LOG2M = 4;
+    /**
+     * Largest supported log2m.
+     */
+    public static final int MAX_LOG2M = 16;
+    /**
+     * Number of counters.
+     */
+    private final int size;
+    /**
+     * Base 2 logarithm of the number of registers per counter.
+     */
+    private final int log2m;
+    /**
+     * Number of registers per counter.
+     */
+    private final int m;
+    /**
+     * Seed of the hash function.
+     */
+    private final long seed;
+    /**
+     * Registers; those of counter i are [i m, (i + 1) m).
+     */
+    private final byte[] registers;
+    /**
+     * Bias correction constant times m<sup>2</sup>.
+     */
+    private final double alphaMM;
+
+    /**
+     * Constructor.
+     *
+     * @param size  Number of counters
+     * @param log2m Base 2 logarithm of the number of registers per counter
+     * @param seed  Seed of the hash function; counters can only be merged
+     *              with counters using the same seed
+     */
+    public HyperLogLogCounters(int size, int log2m, long seed) {
+        if (log2m < MIN_LOG2M || log2m > MAX_LOG2M) {
+            throw new IllegalArgumentException("log2m must be between "
+                    + MIN_LOG2M + " and " + MAX_LOG2M + ".");
+        }
+        if ((long) size << log2m > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                    "Too many registers: reduce log2m.");
+        }
+        this.size = size;
+        this.log2m = log2m;
+        this.m = 1 << log2m;
+        this.seed = seed;
+        this.registers = new byte[size * m];
+        final double alpha;
+        if (m == 16) {
+            alpha = 0.673;
+        } else if (m == 32) {
+            alpha = 0.697;
+        } else if (m == 64) {
+            alpha = 0.709;
+        } else {
+            alpha = 0.7213 / (1 + 1.079 / m);
+        }
+        alphaMM = alpha * m * m;
+    }
+
+    /**
+     * Returns the number of counters.
+     *
+     * @return The number of counters
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of registers per counter.
+     *
+     * @return The number of registers per counter
+     */
+    public int getRegisterCount() {
+        return m;
+    }
+
+    /**
+     * Returns the relative standard deviation of the estimates.
+     *
+     * @return The relative standard deviation of the estimates
+     */
+    public double getRelativeStandardDeviation() {
+        return 1.04 / Math.sqrt(m);
+    }
+
+    /**
+     * Adds an element to a counter.
+     *
+     * @param counter Counter
+     * @param element Element
+     */
+    public void add(int counter, int element) {
+        final long hash = hash(element);
+        final int register = counter * m + (int) (hash >>> (64 - log2m));
+        // The remaining bits, with a sentinel bit so that the rank is at
+        // most 65 - log2m.
+        final long rest = (hash << log2m) | (1L << (log2m - 1));
+        final byte rank = (byte) (Long.numberOfLeadingZeros(rest) + 1);
+        if (registers[register] < rank) {
+            registers[register] = rank;
+        }
+    }
+
+    /**
+     * Replaces a counter by its union with a counter of another array
+     * (possibly this one).
+     *
+     * @param counter       Counter
+     * @param source        Array containing the other counter
+     * @param sourceCounter Other counter
+     * @return True if the counter changed
+     */
+    public boolean union(int counter, HyperLogLogCounters source,
+                         int sourceCounter) {
+        if (source.log2m != log2m || source.seed != seed) {
+            throw new IllegalArgumentException(
+                    "Counters with different parameters cannot be merged.");
+        }
+        final byte[] other = source.registers;
+        final int offset = counter * m;
+        final int otherOffset = sourceCounter * m;
+        boolean changed = false;
+        for (int i = 0; i < m; i++) {
+            if (registers[offset + i] < other[otherOffset + i]) {
+                registers[offset + i] = other[otherOffset + i];
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Copies all counters of another array of the same size.
+     *
+     * @param source Array to copy
+     */
+    public void copyFrom(HyperLogLogCounters source) {
+        if (source.size != size || source.log2m != log2m
+                || source.seed != seed) {
+            throw new IllegalArgumentException(
+                    "Counters with different parameters cannot be copied.");
+        }
+        System.arraycopy(source.registers, 0, registers, 0, registers.length);
+    }
+
+    /**
+     * Returns the estimated number of distinct elements added to a counter.
+     *
+     * @param counter Counter
+     * @return The estimated number of distinct elements
+     */
+    public double estimate(int counter) {
+        final int offset = counter * m;
+        double sum = 0.0;
+        int zeros = 0;
+        for (int i = 0; i < m; i++) {
+            final int register = registers[offset + i];
+            if (register == 0) {
+                zeros++;
+            }
+            sum += 1.0 / (1L << register);
+        }
+        final double estimate = alphaMM / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            // Small range correction: linear counting.
+            return m * Math.log((double) m / zeros);
+        }
+        return estimate;
+    }
+
+    /**
+     * Hashes an element to 64 bits (the finalizer of SplitMix64).
+     *
+     * @param element Element
+     * @return The hash
+     */
+    private long hash(int element) {
+        long z = seed + (element + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,308 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.data;
+
+import java.util.Arrays;
+
+/**
+ * An indexed d-ary min-heap of int keys in the range {@code [0, capacity)}
+ * with primitive double priorities.
+ *
+ * <p> Since the position of each key in the heap is recorded, {@link #update}
+ * (insert, decrease-key or increase-key) and {@link #remove} take
+ * O(d log<sub>d</sub> n) time instead of the O(n) required by
+ * {@link java.util.PriorityQueue#remove(Object)}. Keys are typically dense
+ * vertex indices.
+ *
+ * @author Adam Gouge
+ */
+public class IndexedDaryHeap {
+
+    /**
+     * Default arity; a 4-ary heap has half the height of a binary heap and
+     * its children fit in a single cache line.
+     */
+    public static final int DEFAULT_ARITY = 4;
+    /**
+     * Arity.
+     */
+    private final int arity;
+    /**
+     * Keys in heap order.
+     */
+    private int[] keys;
+    /**
+     * Priorities in heap order.
+     */
+    private double[] priorities;
+    /**
+     * Position of each key in the heap, or -1 if it is not in the heap.
+     */
+    private int[] positions;
+    /**
+     * Number of keys in the heap.
+     */
+    private int size;
+
+    /**
+     * Constructs a heap with the default arity.
+     *
+     * @param capacity Keys must be less than the capacity
+     */
+    public IndexedDaryHeap(int capacity) {
+        this(capacity, DEFAULT_ARITY);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param capacity Keys must be less than the capacity
+     * @param arity    Number of children of each node; at least 2
+     */
+    public IndexedDaryHeap(int capacity, int arity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Negative capacity.");
+        }
+        if (arity < 2) {
+            throw new IllegalArgumentException("The arity must be at least 2.");
+        }
+        this.arity = arity;
+        keys = new int[capacity];
+        priorities = new double[capacity];
+        positions = new int[capacity];
+        Arrays.fill(positions, -1);
+    }
+
+    /**
+     * Returns the capacity.
+     *
+     * @return The capacity
+     */
+    public int capacity() {
+        return positions.length;
+    }
+
+    /**
+     * Grows the heap so that it can hold keys less than the given capacity.
+     *
+     * @param capacity The new capacity
+     */
+    public void ensureCapacity(int capacity) {
+        final int oldCapacity = positions.length;
+        if (capacity > oldCapacity) {
+            final int newCapacity = Math.max(capacity, 2 * oldCapacity);
+            keys = Arrays.copyOf(keys, newCapacity);
+            priorities = Arrays.copyOf(priorities, newCapacity);
+            positions = Arrays.copyOf(positions, newCapacity);
+            Arrays.fill(positions, oldCapacity, newCapacity, -1);
+        }
+    }
+
+    /**
+     * Returns the number of keys in the heap.
+     *
+     * @return The number of keys in the heap
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns true if the heap is empty.
+     *
+     * @return True if the heap is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Empties the heap in O(size) time.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[keys[i]] = -1;
+        }
+        size = 0;
+    }
+
+    /**
+     * Returns true if the given key is in the heap.
+     *
+     * @param key Key
+     * @return True if the given key is in the heap
+     */
+    public boolean contains(int key) {
+        return positions[key] >= 0;
+    }
+
+    /**
+     * Returns the priority of the given key, which must be in the heap.
+     *
+     * @param key Key
+     * @return The priority of the given key
+     */
+    public double priority(int key) {
+        final int position = positions[key];
+        if (position < 0) {
+            throw new IllegalArgumentException("Key " + key
+                    + " is not in the heap.");
+        }
+        return priorities[position];
+    }
+
+    /**
+     * Inserts the given key with the given priority, or changes its priority
+     * if it is already in the heap.
+     *
+     * @param key      Key
+     * @param priority Priority
+     */
+    public void update(int key, double priority) {
+        final int position = positions[key];
+        if (position < 0) {
+            siftUp(size++, key, priority);
+        } else if (priority < priorities[position]) {
+            siftUp(position, key, priority);
+        } else {
+            siftDown(position, key, priority);
+        }
+    }
+
+    /**
+     * Returns the key with the smallest priority without removing it.
+     *
+     * @return The key with the smallest priority
+     */
+    public int peek() {
+        checkNotEmpty();
+        return keys[0];
+    }
+
+    /**
+     * Returns the smallest priority.
+     *
+     * @return The smallest priority
+     */
+    public double peekPriority() {
+        checkNotEmpty();
+        return priorities[0];
+    }
+
+    /**
+     * Removes and returns the key with the smallest priority.
+     *
+     * @return The key with the smallest priority
+     */
+    public int poll() {
+        checkNotEmpty();
+        final int min = keys[0];
+        positions[min] = -1;
+        size--;
+        if (size > 0) {
+            siftDown(0, keys[size], priorities[size]);
+        }
+        return min;
+    }
+
+    /**
+     * Removes the given key from the heap if it is present.
+     *
+     * @param key Key
+     * @return True if the key was in the heap
+     */
+    public boolean remove(int key) {
+        final int position = positions[key];
+        if (position < 0) {
+            return false;
+        }
+        positions[key] = -1;
+        size--;
+        if (position < size) {
+            final int last = keys[size];
+            final double lastPriority = priorities[size];
+            if (lastPriority < priorities[position]) {
+                siftUp(position, last, lastPriority);
+            } else {
+                siftDown(position, last, lastPriority);
+            }
+        }
+        return true;
+    }
+
+    private void checkNotEmpty() {
+        if (size == 0) {
+            throw new IllegalStateException("The heap is empty.");
+        }
+    }
+
+    /**
+     * Moves the hole at the given position up until the given key can be
+     * placed in it.
+     */
+    private void siftUp(int position, int key, double priority) {
+        while (position > 0) {
+            final int parent = (position - 1) / arity;
+            if (priorities[parent] <= priority) {
+                break;
+            }
+            place(position, keys[parent], priorities[parent]);
+            position = parent;
+        }
+        place(position, key, priority);
+    }
+
+    /**
+     * Moves the hole at the given position down until the given key can be
+     * placed in it.
+     */
+    private void siftDown(int position, int key, double priority) {
+        while (true) {
+            final int first = arity * position + 1;
+            if (first >= size) {
+                break;
+            }
+            final int end = Math.min(first + arity, size);
+            int min = first;
+            for (int child = first + 1; child < end; child++) {
+                if (priorities[child] < priorities[min]) {
+                    min = child;
+                }
+            }
+            if (priorities[min] >= priority) {
+                break;
+            }
+            place(position, keys[min], priorities[min]);
+            position = min;
+        }
+        place(position, key, priority);
+    }
+
+    private void place(int position, int key, double priority) {
+        keys[position] = key;
+        priorities[position] = priority;
+        positions[key] = position;
+    }
+}
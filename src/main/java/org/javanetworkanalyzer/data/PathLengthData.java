@@ -36,6 +36,11 @@ public abstract class PathLengthData<T extends Number> {
      * Number of shortest path lengths accumulated in this instance.
      */
     protected int count;
+    /**
+     * Sum of the inverses of the positive shortest path lengths accumulated
+     * in this instance.
+     */
+    protected double inverseLengthSum;
     /**
      * Error message to be given when no shortest path lengths have been
      * accumulated.
@@ -48,6 +53,7 @@ public abstract class PathLengthData<T extends Number> {
      */
     public PathLengthData() {
         count = 0;
+        inverseLengthSum = 0.0;
     }
 
     /**
@@ -55,6 +61,7 @@ public abstract class PathLengthData<T extends Number> {
      */
     public void clear() {
         count = 0;
+        inverseLengthSum = 0.0;
     }
 
     /**
@@ -73,6 +80,17 @@ public abstract class PathLengthData<T extends Number> {
      */
     public abstract void addSPLength(T length);
 
+    /**
+     * Gets the sum of the inverses of the shortest path lengths, ignoring
+     * lengths of zero (used for harmonic closeness).
+     *
+     * @return Sum of the inverses of the positive shortest path lengths
+     *         accumulated in this instance.
+     */
+    public double getInverseLengthSum() {
+        return inverseLengthSum;
+    }
+
     /**
      * Longest among the shortest path lengths added to this data instance.
      *
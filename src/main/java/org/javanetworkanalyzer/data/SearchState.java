@@ -0,0 +1,334 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.data;
+
+import java.util.Arrays;
+
+/**
+ * Per-search vertex state stored as primitive arrays indexed by dense vertex
+ * index (e.g. a {@link org.javanetworkanalyzer.model.CSRGraph} index), as an
+ * alternative to storing it on vertex objects.
+ *
+ * <p> Holds a distance, a shortest path count (sigma) and a dependency (delta)
+ * for each vertex, and a flat buffer of predecessor entries (predecessor
+ * vertex and arc) chained per vertex.
+ *
+ * <p> {@link #reset()} takes O(1) time: each vertex carries the epoch in which
+ * it was last touched, and is reset lazily the first time it is touched in a
+ * new epoch. All setters touch the vertex; getters return the default values
+ * for untouched vertices. The vertices touched since the last reset are
+ * available in the order in which they were first touched.
+ *
+ * @author Adam Gouge
+ */
+public class SearchState {
+
+    /**
+     * Distance of each vertex.
+     */
+    private final double[] distance;
+    /**
+     * Number of shortest paths to each vertex.
+     */
+    private final long[] sigma;
+    /**
+     * Dependency of each vertex.
+     */
+    private final double[] delta;
+    /**
+     * Epoch in which each vertex was last touched.
+     */
+    private final int[] stamp;
+    /**
+     * Current epoch.
+     */
+    private int epoch = 1;
+    /**
+     * Vertices touched in the current epoch, in order.
+     */
+    private final int[] touched;
+    /**
+     * Number of vertices touched in the current epoch.
+     */
+    private int touchedCount;
+    /**
+     * First predecessor entry of each vertex, or -1.
+     */
+    private final int[] predHead;
+    /**
+     * Predecessor vertex of each entry.
+     */
+    private int[] predVertex;
+    /**
+     * Arc of each entry.
+     */
+    private int[] predArc;
+    /**
+     * Next entry of the same vertex, or -1.
+     */
+    private int[] predNext;
+    /**
+     * Number of predecessor entries in use.
+     */
+    private int predCount;
+
+    /**
+     * Constructor.
+     *
+     * @param vertexCount Number of vertices
+     */
+    public SearchState(int vertexCount) {
+        distance = new double[vertexCount];
+        sigma = new long[vertexCount];
+        delta = new double[vertexCount];
+        stamp = new int[vertexCount];
+        touched = new int[vertexCount];
+        predHead = new int[vertexCount];
+        final int capacity = Math.max(16, vertexCount);
+        predVertex = new int[capacity];
+        predArc = new int[capacity];
+        predNext = new int[capacity];
+    }
+
+    /**
+     * Returns the number of vertices.
+     *
+     * @return The number of vertices
+     */
+    public int getVertexCount() {
+        return stamp.length;
+    }
+
+    /**
+     * Resets every vertex to its default state in O(1) time.
+     */
+    public void reset() {
+        if (++epoch == Integer.MAX_VALUE) {
+            Arrays.fill(stamp, 0);
+            epoch = 1;
+        }
+        touchedCount = 0;
+        predCount = 0;
+    }
+
+    /**
+     * Touches the given vertex, resetting it first if this is the first time
+     * it is touched since the last {@link #reset()}.
+     *
+     * @param v Vertex index
+     * @return True iff this is the first time v is touched since the last
+     *         reset
+     */
+    public boolean touch(int v) {
+        if (stamp[v] == epoch) {
+            return false;
+        }
+        stamp[v] = epoch;
+        distance[v] = Double.POSITIVE_INFINITY;
+        sigma[v] = 0;
+        delta[v] = 0.0;
+        predHead[v] = -1;
+        touched[touchedCount++] = v;
+        return true;
+    }
+
+    /**
+     * Returns true if the given vertex has been touched since the last reset.
+     *
+     * @param v Vertex index
+     * @return True if v has been touched since the last reset
+     */
+    public boolean isTouched(int v) {
+        return stamp[v] == epoch;
+    }
+
+    /**
+     * Returns the number of vertices touched since the last reset.
+     *
+     * @return The number of vertices touched since the last reset
+     */
+    public int getTouchedCount() {
+        return touchedCount;
+    }
+
+    /**
+     * Returns the i-th vertex touched since the last reset.
+     *
+     * @param i Index in the touched list
+     * @return The i-th vertex touched since the last reset
+     */
+    public int getTouched(int i) {
+        return touched[i];
+    }
+
+    /**
+     * Returns the distance of the given vertex (infinity if untouched).
+     *
+     * @param v Vertex index
+     * @return The distance of v
+     */
+    public double getDistance(int v) {
+        return stamp[v] == epoch ? distance[v] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Sets the distance of the given vertex.
+     *
+     * @param v        Vertex index
+     * @param distance New distance
+     */
+    public void setDistance(int v, double distance) {
+        touch(v);
+        this.distance[v] = distance;
+    }
+
+    /**
+     * Returns the number of shortest paths to the given vertex.
+     *
+     * @param v Vertex index
+     * @return The number of shortest paths to v
+     */
+    public long getSigma(int v) {
+        return stamp[v] == epoch ? sigma[v] : 0;
+    }
+
+    /**
+     * Sets the number of shortest paths to the given vertex.
+     *
+     * @param v     Vertex index
+     * @param sigma New number of shortest paths
+     */
+    public void setSigma(int v, long sigma) {
+        touch(v);
+        this.sigma[v] = sigma;
+    }
+
+    /**
+     * Adds to the number of shortest paths to the given vertex.
+     *
+     * @param v     Vertex index
+     * @param sigma Number of shortest paths to add
+     */
+    public void addSigma(int v, long sigma) {
+        touch(v);
+        this.sigma[v] += sigma;
+    }
+
+    /**
+     * Returns the dependency of the given vertex.
+     *
+     * @param v Vertex index
+     * @return The dependency of v
+     */
+    public double getDelta(int v) {
+        return stamp[v] == epoch ? delta[v] : 0.0;
+    }
+
+    /**
+     * Adds to the dependency of the given vertex.
+     *
+     * @param v     Vertex index
+     * @param delta Dependency to add
+     */
+    public void addDelta(int v, double delta) {
+        touch(v);
+        this.delta[v] += delta;
+    }
+
+    /**
+     * Records u as a predecessor of v through the given arc.
+     *
+     * @param v   Vertex index
+     * @param u   Predecessor vertex index
+     * @param arc Arc from u to v
+     */
+    public void addPredecessor(int v, int u, int arc) {
+        touch(v);
+        if (predCount == predVertex.length) {
+            final int capacity = 2 * predCount;
+            predVertex = Arrays.copyOf(predVertex, capacity);
+            predArc = Arrays.copyOf(predArc, capacity);
+            predNext = Arrays.copyOf(predNext, capacity);
+        }
+        predVertex[predCount] = u;
+        predArc[predCount] = arc;
+        predNext[predCount] = predHead[v];
+        predHead[v] = predCount;
+        predCount++;
+    }
+
+    /**
+     * Removes all predecessors of the given vertex. (Their entries are only
+     * reclaimed by the next reset.)
+     *
+     * @param v Vertex index
+     */
+    public void clearPredecessors(int v) {
+        touch(v);
+        predHead[v] = -1;
+    }
+
+    /**
+     * Returns the first predecessor entry of the given vertex, or -1 if it has
+     * no predecessors.
+     *
+     * @param v Vertex index
+     * @return The first predecessor entry of v
+     */
+    public int firstPredecessor(int v) {
+        return stamp[v] == epoch ? predHead[v] : -1;
+    }
+
+    /**
+     * Returns the predecessor entry following the given one for the same
+     * vertex, or -1.
+     *
+     * @param entry Predecessor entry
+     * @return The next predecessor entry
+     */
+    public int nextPredecessor(int entry) {
+        return predNext[entry];
+    }
+
+    /**
+     * Returns the predecessor vertex of the given entry.
+     *
+     * @param entry Predecessor entry
+     * @return The predecessor vertex index
+     */
+    public int predecessorVertex(int entry) {
+        return predVertex[entry];
+    }
+
+    /**
+     * Returns the arc of the given entry.
+     *
+     * @param entry Predecessor entry
+     * @return The arc from the predecessor
+     */
+    public int predecessorArc(int entry) {
+        return predArc[entry];
+    }
+}
@@ -95,6 +95,23 @@ public interface VCent<V extends VCent, E> extends VPred<V, E> {
      */
     void accumulateDependency(double additionalDependency);
 
+    /**
+     * Gets the sum of the dependencies of the shortest path edges leaving
+     * this node (this differs from {@link #getDependency()} only in
+     * multigraphs).
+     *
+     * @return The sum of the dependencies of the outgoing shortest path edges
+     */
+    double getEdgeDependency();
+
+    /**
+     * Accumulates the sum of the dependencies of the shortest path edges
+     * leaving this node.
+     *
+     * @param additionalDependency Dependency of an outgoing shortest path edge
+     */
+    void accumulateEdgeDependency(double additionalDependency);
+
     /**
      * Gets the betweenness value for this node.
      *
@@ -131,4 +148,21 @@ public interface VCent<V extends VCent, E> extends VPred<V, E> {
      * @param closeness The closeness to set.
      */
     void setCloseness(double closeness);
+
+    /**
+     * Returns the harmonic closeness: the sum of the inverse distances to
+     * the nodes reachable from this node, divided by the number of other
+     * nodes. Unlike {@link #getCloseness()}, this is meaningful in
+     * disconnected graphs.
+     *
+     * @return The harmonic closeness.
+     */
+    double getHarmonicCloseness();
+
+    /**
+     * Sets the harmonic closeness.
+     *
+     * @param harmonicCloseness The harmonic closeness to set.
+     */
+    void setHarmonicCloseness(double harmonicCloseness);
 }
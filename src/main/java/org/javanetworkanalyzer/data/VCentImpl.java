@@ -40,6 +40,10 @@ public class VCentImpl extends VPredImpl implements VCent {
      * Dependency of this node on any other vertex.
      */
     protected double dependency = 0.0;
+    /**
+     * Sum of the dependencies of the shortest path edges leaving this node.
+     */
+    protected double edgeDependency = 0.0;
     /**
      * Betweenness value of this node.
      */
@@ -48,10 +52,14 @@ public class VCentImpl extends VPredImpl implements VCent {
      * Closeness value of this node.
      */
     private double closeness = 0.0;
+    /**
+     * Harmonic closeness value of this node.
+     */
+    private double harmonicCloseness = 0.0;
 
     /**
      * Constructor: sets the id; sets the shortest paths count, dependency,
-     * betweenness and closeness to zero.
+     * betweenness and closeness values to zero.
      *
      * @param id Node id
      */
@@ -63,12 +71,14 @@ public class VCentImpl extends VPredImpl implements VCent {
     public void reset() {
         spCount = 0;
         dependency = 0.0;
+        edgeDependency = 0.0;
     }
 
     @Override
     public void setSource() {
         spCount = 1;
         dependency = 0.0;
+        edgeDependency = 0.0;
     }
 
     @Override
@@ -96,6 +106,16 @@ public class VCentImpl extends VPredImpl implements VCent {
         dependency += additionalDependency;
     }
 
+    @Override
+    public double getEdgeDependency() {
+        return edgeDependency;
+    }
+
+    @Override
+    public void accumulateEdgeDependency(double additionalDependency) {
+        edgeDependency += additionalDependency;
+    }
+
     @Override
     public double getBetweenness() {
         return betweenness;
@@ -120,4 +140,14 @@ public class VCentImpl extends VPredImpl implements VCent {
     public void setCloseness(double closeness) {
         this.closeness = closeness;
     }
+
+    @Override
+    public double getHarmonicCloseness() {
+        return harmonicCloseness;
+    }
+
+    @Override
+    public void setHarmonicCloseness(double harmonicCloseness) {
+        this.harmonicCloseness = harmonicCloseness;
+    }
 }
@@ -35,6 +35,10 @@ public class VStrahler<E> extends VDFS<VStrahler, E> {
      * The Strahler number of this node.
      */
     private int strahlerNumber = -1;
+    /**
+     * The Shreve magnitude of this node.
+     */
+    private int shreveMagnitude = -1;
 
     /**
      * Constructor: sets the id.
@@ -62,4 +66,23 @@ public class VStrahler<E> extends VDFS<VStrahler, E> {
     public void setStrahlerNumber(int strahlerNumber) {
         this.strahlerNumber = strahlerNumber;
     }
+
+    /**
+     * Gets the Shreve magnitude of this node: the number of leaves (sources)
+     * upstream of it.
+     *
+     * @return The Shreve magnitude of this node.
+     */
+    public int getShreveMagnitude() {
+        return shreveMagnitude;
+    }
+
+    /**
+     * Sets the Shreve magnitude of this node.
+     *
+     * @param shreveMagnitude
+     */
+    public void setShreveMagnitude(int shreveMagnitude) {
+        this.shreveMagnitude = shreveMagnitude;
+    }
 }
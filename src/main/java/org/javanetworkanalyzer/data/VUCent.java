@@ -96,6 +96,16 @@ public class VUCent<E> extends VBFS<VUCent, E> implements VCent<VUCent, E> {
         vCent.accumulateDependency(additionalDependency);
     }
 
+    @Override
+    public double getEdgeDependency() {
+        return vCent.getEdgeDependency();
+    }
+
+    @Override
+    public void accumulateEdgeDependency(double additionalDependency) {
+        vCent.accumulateEdgeDependency(additionalDependency);
+    }
+
     @Override
     public double getBetweenness() {
         return vCent.getBetweenness();
@@ -120,4 +130,14 @@ public class VUCent<E> extends VBFS<VUCent, E> implements VCent<VUCent, E> {
     public void setCloseness(double closeness) {
         vCent.setCloseness(closeness);
     }
+
+    @Override
+    public double getHarmonicCloseness() {
+        return vCent.getHarmonicCloseness();
+    }
+
+    @Override
+    public void setHarmonicCloseness(double harmonicCloseness) {
+        vCent.setHarmonicCloseness(harmonicCloseness);
+    }
 }
@@ -60,6 +60,9 @@ public class WeightedPathLengthData extends PathLengthData<Double> {
     public void addSPLength(Double length) {
         count++;
         totalLength += length;
+        if (length > 0) {
+            inverseLengthSum += 1.0 / length;
+        }
         if (maxLength < length) {
             maxLength = length;
         }
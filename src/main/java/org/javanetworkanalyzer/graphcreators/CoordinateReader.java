@@ -0,0 +1,134 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.graphcreators;
+
+import org.javanetworkanalyzer.model.CSRGraph;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Reads vertex coordinates from the geometry column of a csv file produced
+ * by OrbisGIS, for use by the goal-directed searches
+ * ({@link org.javanetworkanalyzer.alg.EuclideanHeuristic} and
+ * {@link org.javanetworkanalyzer.alg.HaversineHeuristic}).
+ *
+ * <p> Each edge's geometry is a WKT (MULTI)LINESTRING; its first point gives
+ * the coordinates of the start node and its last point those of the end
+ * node.
+ *
+ * @author Adam Gouge
+ */
+public class CoordinateReader {
+
+    /**
+     * Geometry column name.
+     */
+    public static final String GEOMETRY = "the_geom";
+    /**
+     * CSV file.
+     */
+    private final String csvFile;
+    /**
+     * Column names.
+     */
+    private final String geometryField;
+    private final String startNodeField;
+    private final String endNodeField;
+
+    /**
+     * Constructs a reader for the default column names.
+     *
+     * @param csvFile The csv file
+     */
+    public CoordinateReader(String csvFile) {
+        this(csvFile, GEOMETRY, GraphCreator.START_NODE,
+             GraphCreator.END_NODE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param csvFile        The csv file
+     * @param geometryField  Geometry column name
+     * @param startNodeField Start node column name
+     * @param endNodeField   End node column name
+     */
+    public CoordinateReader(String csvFile, String geometryField,
+                            String startNodeField, String endNodeField) {
+        this.csvFile = csvFile;
+        this.geometryField = geometryField;
+        this.startNodeField = startNodeField;
+        this.endNodeField = endNodeField;
+    }
+
+    /**
+     * Reads the coordinates of the vertices of the given graph. The file is
+     * parsed by a {@link MappedCSVEdgeReader}, so the coordinates and the
+     * edges are read with the same quoting rules.
+     *
+     * @param graph The graph
+     * @return The x-coordinates (longitudes) and y-coordinates (latitudes)
+     *         by vertex index; NaN for vertices without coordinates
+     * @throws IOException If the file cannot be read
+     */
+    public double[][] read(final CSRGraph<?, ?> graph) throws IOException {
+        final int n = graph.getVertexCount();
+        final double[] x = new double[n];
+        final double[] y = new double[n];
+        Arrays.fill(x, Double.NaN);
+        Arrays.fill(y, Double.NaN);
+        new MappedCSVEdgeReader(csvFile, startNodeField, endNodeField, null)
+                .read(geometryField, new MappedCSVEdgeReader.FieldHandler() {
+            @Override
+            public void edge(int startNode, int endNode, double weight,
+                             String wkt) {
+                final int open = wkt.indexOf('(');
+                if (open < 0) {
+                    return;
+                }
+                final String[] points = wkt.substring(open)
+                        .replace("(", "").replace(")", "").split(",");
+                set(graph, startNode, points[0], x, y);
+                set(graph, endNode, points[points.length - 1], x, y);
+            }
+        });
+        return new double[][]{x, y};
+    }
+
+    /**
+     * Sets the coordinates of the vertex with the given id to the given WKT
+     * point.
+     */
+    private static void set(CSRGraph<?, ?> graph, int id, String point,
+                            double[] x, double[] y) {
+        final int u = graph.indexOfID(id);
+        if (u >= 0) {
+            final String[] coordinates = point.trim().split("\\s+");
+            x[u] = Double.parseDouble(coordinates[0]);
+            y[u] = Double.parseDouble(coordinates[1]);
+        }
+    }
+}
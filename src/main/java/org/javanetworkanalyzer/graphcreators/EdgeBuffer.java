@@ -0,0 +1,131 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.graphcreators;
+
+import java.util.Arrays;
+
+/**
+ * A growable buffer of edges (start node id, end node id and weight) stored
+ * in primitive arrays, in the order in which they were read.
+ *
+ * @author Adam Gouge
+ */
+public class EdgeBuffer implements MappedCSVEdgeReader.EdgeHandler {
+
+    private int[] startNodes;
+    private int[] endNodes;
+    private double[] weights;
+    private int size = 0;
+
+    /**
+     * Constructor.
+     *
+     * @param capacity Initial capacity
+     */
+    public EdgeBuffer(int capacity) {
+        capacity = Math.max(capacity, 16);
+        startNodes = new int[capacity];
+        endNodes = new int[capacity];
+        weights = new double[capacity];
+    }
+
+    @Override
+    public void edge(int startNode, int endNode, double weight) {
+        ensureCapacity(size + 1);
+        startNodes[size] = startNode;
+        endNodes[size] = endNode;
+        weights[size] = weight;
+        size++;
+    }
+
+    /**
+     * Appends all the edges of another buffer.
+     *
+     * @param other The other buffer
+     */
+    public void append(EdgeBuffer other) {
+        ensureCapacity(size + other.size);
+        System.arraycopy(other.startNodes, 0, startNodes, size, other.size);
+        System.arraycopy(other.endNodes, 0, endNodes, size, other.size);
+        System.arraycopy(other.weights, 0, weights, size, other.size);
+        size += other.size;
+    }
+
+    /**
+     * Removes all the edges.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > startNodes.length) {
+            final int newCapacity = (int) Math.min(Integer.MAX_VALUE,
+                    Math.max(capacity, 2L * startNodes.length));
+            startNodes = Arrays.copyOf(startNodes, newCapacity);
+            endNodes = Arrays.copyOf(endNodes, newCapacity);
+            weights = Arrays.copyOf(weights, newCapacity);
+        }
+    }
+
+    /**
+     * Returns the number of edges.
+     *
+     * @return The number of edges
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the start node id of the i-th edge.
+     *
+     * @param i Index
+     * @return The start node id of the i-th edge
+     */
+    public int getStartNode(int i) {
+        return startNodes[i];
+    }
+
+    /**
+     * Returns the end node id of the i-th edge.
+     *
+     * @param i Index
+     * @return The end node id of the i-th edge
+     */
+    public int getEndNode(int i) {
+        return endNodes[i];
+    }
+
+    /**
+     * Returns the weight of the i-th edge.
+     *
+     * @param i Index
+     * @return The weight of the i-th edge
+     */
+    public double getWeight(int i) {
+        return weights[i];
+    }
+}
@@ -27,11 +27,8 @@ package org.javanetworkanalyzer.graphcreators;
 import org.javanetworkanalyzer.data.VId;
 import org.javanetworkanalyzer.model.*;
 
-import java.io.BufferedReader;
-import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
-import java.util.Scanner;
+import java.io.IOException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -70,13 +67,10 @@ public class GraphCreator<V extends VId, E extends EdgeID> {
      */
     private final String csvFile;
     /**
-     * Start node index.
+     * Number of threads used to parse the csv file, or 0 to parse it while
+     * loading the edges.
      */
-    protected static int startNodeIndex = -1;
-    /**
-     * End node index.
-     */
-    protected static int endNodeIndex = -1;
+    private int threads = 0;
     /**
      * Specifies a directed graph.
      */
@@ -89,12 +83,6 @@ public class GraphCreator<V extends VId, E extends EdgeID> {
      * Specifies an undirected graph.
      */
     public static final int UNDIRECTED = 3;
-    /**
-     * The csv produced by OrbisGIS uses a semicolon delimiter.
-     */
-    protected static final String SEPARATOR = ";";
-    protected static final String DOUBLE_QUOTES = "\"";
-    protected static final String EMPTY_STRING = "";
     /**
      * A logger.
      */
@@ -120,6 +108,34 @@ public class GraphCreator<V extends VId, E extends EdgeID> {
         this.edgeClass = edgeClass;
     }
 
+    /**
+     * Sets the number of threads used to parse the csv file.
+     *
+     * <p> With a positive number of threads, the file is split into ranges of
+     * lines which are parsed in parallel into primitive edge buffers, and the
+     * graph is then built from the merged buffers in a single pass. The edges
+     * are added in the same order as when parsing on the calling thread (the
+     * default, with 0 threads), so the graphs are identical.
+     *
+     * @param threads The number of threads, or 0
+     */
+    public void setThreads(int threads) {
+        if (threads < 0) {
+            throw new IllegalArgumentException(
+                    "The number of threads must be non-negative.");
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * Returns the number of threads used to parse the csv file.
+     *
+     * @return The number of threads, or 0
+     */
+    public int getThreads() {
+        return threads;
+    }
+
     /**
      * Returns a new graph from a csv file produced in OrbisGIS as the
      * {@code output.edges} table given by {@code ST_Graph}.
@@ -134,82 +150,97 @@ public class GraphCreator<V extends VId, E extends EdgeID> {
 
         long start = System.currentTimeMillis();
 
-        // Get a scanner on the csv file.
-        Scanner scanner = getScannerOnCSVFile(csvFile);
-
-        // Initialize the indices of the start_node, end_node, and weight.
-        initializeIndices(scanner);
-
         // Initialize a graph.
-        KeyedGraph<V, E> graph = initializeGraph();
+        final KeyedGraph<V, E> graph = initializeGraph();
+        // Should we reverse the edge orientation?
+        final boolean reverse = (orientation == REVERSED);
 
         // Load the edges from the input file.
-        loadEdges(scanner, graph);
+        readEdges(new MappedCSVEdgeReader.EdgeHandler() {
+            @Override
+            public void edge(int startNode, int endNode, double weight) {
+                loadEdge(graph, startNode, endNode, weight, reverse);
+            }
+        });
 
         long stop = System.currentTimeMillis();
         LOGGER.info("({} ms) Created graph from CSV.", (stop - start));
 
-        // Close the scanner.
-        scanner.close();
-
-        // Return the grpah.
+        // Return the graph.
         return graph;
     }
 
     /**
-     * Gets a {@link Scanner} on the given csv file that will be used to parse
-     * the file.
-     *
-     * @param path The path of the csv file.
+     * Returns a new immutable {@link CSRGraph} from a csv file produced in
+     * OrbisGIS as the {@code output.edges} table given by {@code ST_Graph}.
+     * The edges are read straight into primitive arrays, without building an
+     * intermediate JGraphT graph.
      *
-     * @return The {@link Scanner}.
+     * @return The graph.
      *
      * @throws FileNotFoundException
+     * @throws NoSuchMethodException
      */
-    private Scanner getScannerOnCSVFile(String path) throws
-            FileNotFoundException {
-        // Open the edges file.
-        File edgesFile = new File(path);
-        // We use a BufferedReader for efficiency.
-        BufferedReader bufferedReader =
-                new BufferedReader(
-                new FileReader(
-                edgesFile));
-        // Get a scanner on the edges file.
-        Scanner scanner = new Scanner(bufferedReader);
-        return scanner;
+    public CSRGraph<V, E> loadCSRGraph()
+            throws FileNotFoundException, NoSuchMethodException {
+
+        long start = System.currentTimeMillis();
+
+        final CSRGraph.Builder<V, E> builder =
+                new CSRGraph.Builder<V, E>(vertexClass, edgeClass);
+        readEdges(new MappedCSVEdgeReader.EdgeHandler() {
+            @Override
+            public void edge(int startNode, int endNode, double weight) {
+                builder.addEdge(startNode, endNode, weight, -1);
+            }
+        });
+
+        // Edge-reversed graphs are a view on the same arrays.
+        CSRGraph<V, E> graph = builder.build(orientation);
+
+        long stop = System.currentTimeMillis();
+        LOGGER.info("({} ms) Created CSR graph from CSV.", (stop - start));
+
+        return graph;
     }
 
     /**
-     * Initialize the start node and end node indices by reading the first line
-     * of the csv file.
+     * Returns the name of the weight column.
      *
-     * @param scanner The scanner that will read the first line of the csv file.
+     * @return The name of the weight column, or null for unweighted graphs.
      */
-    protected void initializeIndices(Scanner scanner) {
-        String[] row = scanner.nextLine().split(SEPARATOR);
-        // Go through the first line and recover the indices.
-        for (int i = 0; i < row.length; i++) {
-            // Note: We have to get rid of the quotation marks.
-            if (row[i].replace(DOUBLE_QUOTES, EMPTY_STRING)
-                    .equals(START_NODE)) {
-                startNodeIndex = i;
-            } else if (row[i].replace(DOUBLE_QUOTES, EMPTY_STRING)
-                    .equals(END_NODE)) {
-                endNodeIndex = i;
-            }
-        }
+    protected String getWeightField() {
+        return null;
     }
 
     /**
-     * Replaces " by the empty string.
+     * Reads the edges of the csv file with a {@link MappedCSVEdgeReader},
+     * on {@link #threads} threads if positive.
      *
-     * @param s The {@link String} to be parsed.
+     * @param handler The handler to which to pass the edges.
      *
-     * @return The given {@link String} with no quotes.
+     * @throws FileNotFoundException
      */
-    protected String deleteDoubleQuotes(String s) {
-        return s.replace(DOUBLE_QUOTES, EMPTY_STRING);
+    private void readEdges(MappedCSVEdgeReader.EdgeHandler handler)
+            throws FileNotFoundException {
+        final MappedCSVEdgeReader reader = new MappedCSVEdgeReader(
+                csvFile, START_NODE, END_NODE, getWeightField());
+        try {
+            if (threads == 0) {
+                reader.read(handler);
+            } else {
+                final EdgeBuffer edges = reader.read(threads);
+                for (int i = 0; i < edges.size(); i++) {
+                    handler.edge(edges.getStartNode(i), edges.getEndNode(i),
+                                 edges.getWeight(i));
+                }
+            }
+        } catch (FileNotFoundException ex) {
+            throw ex;
+        } catch (IOException ex) {
+            throw new IllegalStateException(
+                    "Could not read " + csvFile + ".", ex);
+        }
     }
 
     /**
@@ -232,44 +263,23 @@ public class GraphCreator<V extends VId, E extends EdgeID> {
         return graph;
     }
 
-    /**
-     * Loads all edges into the graph.
-     *
-     * @param scanner The scanner that will parse the csv file.
-     * @param graph   The graph.
-     *
-     * @return The graph.
-     */
-    private KeyedGraph<V, E> loadEdges(Scanner scanner,
-                                       KeyedGraph<V, E> graph) {
-        // Should we reverse the edge orientation?
-        boolean reverse = (orientation == REVERSED) ? true : false;
-        // Go through the file and add each edge.
-        while (scanner.hasNextLine()) {
-            // Split the line.
-            String[] row = scanner.nextLine().split(SEPARATOR);
-            loadEdge(row, graph, reverse);
-        }
-        return graph;
-    }
-
     /**
      * Loads an edge into the graph.
      *
-     * @param row     The row from which to load the edge.
-     * @param graph   The graph to which the edges will be added.
-     * @param reverse {@code true} iff the edge orientation should be reversed.
+     * @param graph     The graph to which the edges will be added.
+     * @param startNode The start node id.
+     * @param endNode   The end node id.
+     * @param weight    The weight; 1.0 for unweighted graphs.
+     * @param reverse   {@code true} iff the edge orientation should be
+     *                  reversed.
      *
      * @return The newly loaded edge.
      */
-    protected E loadEdge(String[] row,
-                         KeyedGraph<V, E> graph,
+    protected E loadEdge(KeyedGraph<V, E> graph,
+                         int startNode,
+                         int endNode,
+                         double weight,
                          boolean reverse) {
-        // Note: We have to get rid of the quotation marks.
-        int startNode = Integer.parseInt(
-                deleteDoubleQuotes(row[startNodeIndex]));
-        int endNode = Integer.parseInt(
-                deleteDoubleQuotes(row[endNodeIndex]));
         // Add the edge to the graph.
         E edge;
         if (reverse) {
@@ -0,0 +1,769 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.graphcreators;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Reads the edges of a csv file produced by OrbisGIS by memory-mapping the
+ * file and parsing the start node, end node and (optionally) weight columns
+ * straight from its bytes, so that no {@link String} is created per line.
+ *
+ * <p> Fields are separated by semicolons and may be enclosed in double quotes,
+ * in which case they may contain semicolons, line breaks and escaped
+ * ({@code ""}) double quotes. Files larger than the mapping window are mapped
+ * one window at a time.
+ *
+ * <p> {@link #read(int)} splits the file into byte ranges which are parsed in
+ * parallel into {@link EdgeBuffer}s. Each range starts after the first line
+ * break following its nominal start and ends with the line containing its
+ * nominal end. Since a line break inside a quoted field cannot be recognized
+ * without reading the file from the start, the start of each range is then
+ * checked against the end of the previous one, and ranges which started in the
+ * wrong place are parsed again.
+ *
+ * @author Adam Gouge
+ */
+public class MappedCSVEdgeReader {
+
+    /**
+     * Receives the edges read from the file, in order.
+     */
+    public interface EdgeHandler {
+
+        /**
+         * Handles an edge.
+         *
+         * @param startNode Start node id
+         * @param endNode   End node id
+         * @param weight    Weight, or 1.0 if no weight column was requested
+         */
+        void edge(int startNode, int endNode, double weight);
+    }
+
+    /**
+     * Receives the edges read from the file along with the value of one
+     * other column, in order.
+     */
+    public interface FieldHandler {
+
+        /**
+         * Handles an edge.
+         *
+         * @param startNode Start node id
+         * @param endNode   End node id
+         * @param weight    Weight, or 1.0 if no weight column was requested
+         * @param value     Value of the requested column, without its
+         *                  enclosing quotes
+         */
+        void edge(int startNode, int endNode, double weight, String value);
+    }
+
+    private static final byte SEPARATOR = ';';
+    private static final byte QUOTE = '"';
+    private static final byte NEWLINE = '\n';
+    private static final byte RETURN = '\r';
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    /**
+     * Default size of the part of the file mapped at once.
+     */
+    private static final int DEFAULT_WINDOW = 1 << 30;
+    /**
+     * Default minimum size of a range parsed by a single thread.
+     */
+    private static final int DEFAULT_MIN_CHUNK = 1 << 20;
+    /**
+     * Number of ranges per thread, so that threads finishing early can help.
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+    /**
+     * Powers of ten which are exactly representable as doubles.
+     */
+    private static final double[] POWERS_OF_TEN = new double[23];
+
+    static {
+        POWERS_OF_TEN[0] = 1.0;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+    /**
+     * The csv file.
+     */
+    private final File file;
+    private final String startNodeField;
+    private final String endNodeField;
+    /**
+     * Weight column name, or null.
+     */
+    private final String weightField;
+    /**
+     * Size of the part of the file mapped at once.
+     */
+    private final int window;
+    /**
+     * Minimum size of a range parsed by a single thread.
+     */
+    private final int minChunk;
+    private int startNodeIndex;
+    private int endNodeIndex;
+    private int weightIndex;
+    /**
+     * Name and index of the column passed to a {@link FieldHandler}, or null
+     * and -1.
+     */
+    private String valueField;
+    private int valueIndex;
+    /**
+     * One more than the largest of the column indices above.
+     */
+    private int requiredColumns;
+
+    /**
+     * Constructor.
+     *
+     * @param csvFile        The csv file
+     * @param startNodeField Start node column name
+     * @param endNodeField   End node column name
+     * @param weightField    Weight column name, or null for unweighted graphs
+     */
+    public MappedCSVEdgeReader(String csvFile, String startNodeField,
+                               String endNodeField, String weightField) {
+        this(csvFile, startNodeField, endNodeField, weightField,
+             DEFAULT_WINDOW, DEFAULT_MIN_CHUNK);
+    }
+
+    /**
+     * Constructor with a given mapping window and minimum range size (for
+     * testing).
+     */
+    MappedCSVEdgeReader(String csvFile, String startNodeField,
+                        String endNodeField, String weightField, int window,
+                        int minChunk) {
+        this.file = new File(csvFile);
+        this.startNodeField = startNodeField;
+        this.endNodeField = endNodeField;
+        this.weightField = weightField;
+        this.window = window;
+        this.minChunk = minChunk;
+    }
+
+    /**
+     * Reads all the edges of the file, passing them to the given handler.
+     *
+     * @param handler The handler
+     * @throws IOException If the file cannot be read
+     */
+    public void read(EdgeHandler handler) throws IOException {
+        valueField = null;
+        final RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            final FileChannel channel = raf.getChannel();
+            final long size = channel.size();
+            readChunk(channel, readHeader(channel), size, handler, null);
+        } finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * Reads all the edges of the file along with the value of the given
+     * column, passing them to the given handler. The value is parsed with
+     * the same quoting rules as the other columns, so it may contain
+     * semicolons, line breaks and escaped double quotes.
+     *
+     * @param field   Name of the column whose value is passed to the handler
+     * @param handler The handler
+     * @throws IOException If the file cannot be read
+     */
+    public void read(String field, FieldHandler handler) throws IOException {
+        if (field == null) {
+            throw new IllegalArgumentException("Please specify a column.");
+        }
+        valueField = field;
+        final RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            final FileChannel channel = raf.getChannel();
+            final long size = channel.size();
+            readChunk(channel, readHeader(channel), size, null, handler);
+        } finally {
+            raf.close();
+            valueField = null;
+        }
+    }
+
+    /**
+     * Reads all the edges of the file on the given number of threads (see
+     * above).
+     *
+     * @param threads The number of threads
+     * @return The edges, in the order in which they appear in the file
+     * @throws IOException If the file cannot be read
+     */
+    public EdgeBuffer read(int threads) throws IOException {
+        if (threads < 1) {
+            throw new IllegalArgumentException(
+                    "The number of threads must be positive.");
+        }
+        valueField = null;
+        final RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            final FileChannel channel = raf.getChannel();
+            final long size = channel.size();
+            final long headerEnd = readHeader(channel);
+            final long dataSize = size - headerEnd;
+            final int chunkCount = (int) Math.max(1, Math.min(
+                    (long) threads * CHUNKS_PER_THREAD, dataSize / minChunk));
+            final long[] nominalStarts = new long[chunkCount + 1];
+            for (int i = 0; i <= chunkCount; i++) {
+                nominalStarts[i] = headerEnd + dataSize * i / chunkCount;
+            }
+
+            final List<Chunk> chunks = parseChunks(
+                    channel, size, headerEnd, nominalStarts, threads);
+
+            // Merge the chunks in order, parsing those which started in the
+            // wrong place again.
+            long total = 0;
+            for (Chunk chunk : chunks) {
+                total += chunk.edges.size();
+            }
+            final EdgeBuffer edges = new EdgeBuffer(
+                    (int) Math.min(Integer.MAX_VALUE - 8, total));
+            long expectedStart = headerEnd;
+            for (int i = 0; i < chunkCount; i++) {
+                final Chunk chunk = chunks.get(i);
+                if (chunk.failed || chunk.start != expectedStart) {
+                    chunk.edges.clear();
+                    chunk.end = readChunk(channel, expectedStart,
+                                          nominalStarts[i + 1], chunk.edges,
+                                          null);
+                }
+                edges.append(chunk.edges);
+                chunk.edges = null;
+                expectedStart = chunk.end;
+            }
+            return edges;
+        } finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * The edges of a range of the file.
+     */
+    private static final class Chunk {
+
+        /**
+         * Position of the first line.
+         */
+        private long start;
+        /**
+         * Position of the first line of the next range.
+         */
+        private long end;
+        private EdgeBuffer edges;
+        /**
+         * True if parsing failed, presumably because of a wrong start.
+         */
+        private boolean failed;
+    }
+
+    /**
+     * Parses the given ranges on a thread pool.
+     */
+    private List<Chunk> parseChunks(final FileChannel channel,
+                                    final long size, final long headerEnd,
+                                    final long[] nominalStarts, int threads)
+            throws IOException {
+        final int chunkCount = nominalStarts.length - 1;
+        final ExecutorService executor = Executors.newFixedThreadPool(
+                Math.min(threads, chunkCount));
+        try {
+            final List<Future<Chunk>> futures =
+                    new ArrayList<Future<Chunk>>(chunkCount);
+            for (int i = 0; i < chunkCount; i++) {
+                final int index = i;
+                futures.add(executor.submit(new Callable<Chunk>() {
+                    @Override
+                    public Chunk call() throws IOException {
+                        final long nominalEnd = nominalStarts[index + 1];
+                        final Chunk chunk = new Chunk();
+                        chunk.start = (index == 0) ? headerEnd
+                                : nextLineStart(channel, size,
+                                                nominalStarts[index]);
+                        chunk.edges = new EdgeBuffer((int) Math.min(
+                                1 << 20, (nominalEnd - chunk.start) / 32));
+                        try {
+                            chunk.end = readChunk(channel, chunk.start,
+                                                  nominalEnd, chunk.edges,
+                                                  null);
+                        } catch (RuntimeException ex) {
+                            if (index == 0) {
+                                throw ex;
+                            }
+                            chunk.failed = true;
+                        }
+                        return chunk;
+                    }
+                }));
+            }
+            final List<Chunk> chunks = new ArrayList<Chunk>(chunkCount);
+            for (Future<Chunk> future : futures) {
+                chunks.add(future.get());
+            }
+            return chunks;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(
+                    "Interrupted while reading " + file + ".", ex);
+        } catch (ExecutionException ex) {
+            final Throwable cause = ex.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(
+                    "Could not read " + file + ".", cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns the position following the first line break at or after the
+     * given position - 1, or the size of the file if there is none.
+     */
+    private long nextLineStart(FileChannel channel, long size, long position)
+            throws IOException {
+        position--;
+        while (position < size) {
+            final int limit = (int) Math.min(window, size - position);
+            final MappedByteBuffer buffer = channel.map(
+                    FileChannel.MapMode.READ_ONLY, position, limit);
+            for (int p = 0; p < limit; p++) {
+                if (buffer.get(p) == NEWLINE) {
+                    return position + p + 1;
+                }
+            }
+            position += limit;
+        }
+        return size;
+    }
+
+    /**
+     * Reads the header line and initializes the column indices.
+     *
+     * @return The position of the first line after the header
+     */
+    private long readHeader(FileChannel channel) throws IOException {
+        final long size = channel.size();
+        if (size == 0) {
+            throw new IllegalArgumentException(file + " is empty.");
+        }
+        final int limit = (int) Math.min(window, size);
+        final int end = readHeader(channel.map(FileChannel.MapMode.READ_ONLY,
+                                               0, limit),
+                                   limit, limit == size);
+        if (end == 0) {
+            throw new IllegalStateException("The header of " + file
+                    + " is longer than the mapping window.");
+        }
+        return end;
+    }
+
+    /**
+     * Reads the lines starting before the given end, passing their edges to
+     * the given handler.
+     *
+     * @param channel      The file
+     * @param start        Position of the first line
+     * @param nominalEnd   Position before which the last line starts
+     * @param handler      The handler, or null
+     * @param fieldHandler The handler if the value of a column is requested,
+     *                     or null
+     * @return The position of the first line starting at or after
+     *         nominalEnd (or the size of the file)
+     * @throws IOException If the file cannot be read
+     */
+    private long readChunk(FileChannel channel, long start, long nominalEnd,
+                           EdgeHandler handler, FieldHandler fieldHandler)
+            throws IOException {
+        final long size = channel.size();
+        long position = start;
+        while (position < nominalEnd) {
+            final int limit = (int) Math.min(window, size - position);
+            final boolean last = position + limit == size;
+            final MappedByteBuffer buffer = channel.map(
+                    FileChannel.MapMode.READ_ONLY, position, limit);
+            int pos = 0;
+            int next;
+            while (position + pos < nominalEnd && pos < limit
+                    && (next = readLine(buffer, pos, limit, last, handler,
+                                        fieldHandler)) >= 0) {
+                pos = next;
+            }
+            if (pos == 0) {
+                throw new IllegalStateException("Line at byte "
+                        + position + " of " + file
+                        + " is longer than the mapping window.");
+            }
+            position += pos;
+        }
+        return position;
+    }
+
+    /**
+     * Reads the header line and initializes the column indices.
+     *
+     * @return The position of the next line, or 0 if the header is not
+     *         complete in this window
+     */
+    private int readHeader(MappedByteBuffer buffer, int limit, boolean last) {
+        startNodeIndex = -1;
+        endNodeIndex = -1;
+        weightIndex = -1;
+        valueIndex = -1;
+        int field = 0;
+        int p = 0;
+        while (true) {
+            final int fieldStart = p;
+            p = fieldEnd(buffer, p, limit);
+            if (p == limit && !last) {
+                return 0;
+            }
+            final String name = unquote(buffer, fieldStart, p);
+            if (name.equals(startNodeField)) {
+                startNodeIndex = field;
+            } else if (name.equals(endNodeField)) {
+                endNodeIndex = field;
+            } else if (name.equals(weightField)) {
+                weightIndex = field;
+            } else if (name.equals(valueField)) {
+                valueIndex = field;
+            }
+            field++;
+            if (p == limit || buffer.get(p) == NEWLINE) {
+                break;
+            }
+            p++;
+        }
+        checkColumn(startNodeIndex, startNodeField);
+        checkColumn(endNodeIndex, endNodeField);
+        if (weightField != null) {
+            checkColumn(weightIndex, weightField);
+        }
+        if (valueField != null) {
+            checkColumn(valueIndex, valueField);
+        }
+        requiredColumns = 1 + Math.max(Math.max(weightIndex, valueIndex),
+                                       Math.max(startNodeIndex, endNodeIndex));
+        return p < limit ? p + 1 : p;
+    }
+
+    private void checkColumn(int index, String name) {
+        if (index < 0) {
+            throw new IllegalArgumentException(
+                    "No column " + name + " in " + file + ".");
+        }
+    }
+
+    /**
+     * Reads the line starting at the given position and passes its edge to
+     * whichever handler is not null.
+     *
+     * @return The position of the next line, or -1 if the line is not
+     *         complete in this window
+     */
+    private int readLine(MappedByteBuffer buffer, int pos, int limit,
+                         boolean last, EdgeHandler handler,
+                         FieldHandler fieldHandler) {
+        int startNode = 0;
+        int endNode = 0;
+        double weight = 1.0;
+        int valueStart = -1;
+        int valueEnd = -1;
+        int field = 0;
+        int p = pos;
+        while (true) {
+            final int fieldStart = p;
+            p = fieldEnd(buffer, p, limit);
+            if (p == limit && !last) {
+                return -1;
+            }
+            if (field == startNodeIndex) {
+                startNode = parseInt(buffer, fieldStart, p);
+            } else if (field == endNodeIndex) {
+                endNode = parseInt(buffer, fieldStart, p);
+            } else if (field == weightIndex) {
+                weight = parseDouble(buffer, fieldStart, p);
+            } else if (field == valueIndex) {
+                valueStart = fieldStart;
+                valueEnd = p;
+            }
+            field++;
+            if (p == limit || buffer.get(p) == NEWLINE) {
+                break;
+            }
+            p++;
+        }
+        final int next = p < limit ? p + 1 : p;
+        if (field == 1 && isBlank(buffer, pos, p)) {
+            return next;
+        }
+        if (field < requiredColumns) {
+            throw new IllegalArgumentException("Too few columns in "
+                    + file + ": " + unquote(buffer, pos, p));
+        }
+        if (fieldHandler != null) {
+            fieldHandler.edge(startNode, endNode, weight,
+                              value(buffer, valueStart, valueEnd));
+        } else {
+            handler.edge(startNode, endNode, weight);
+        }
+        return next;
+    }
+
+    /**
+     * Returns the position of the separator or newline ending the field
+     * starting at the given position, or limit.
+     */
+    private static int fieldEnd(MappedByteBuffer buffer, int p, int limit) {
+        boolean quoted = false;
+        while (p < limit) {
+            final byte b = buffer.get(p);
+            if (b == QUOTE) {
+                // An escaped quote toggles twice.
+                quoted = !quoted;
+            } else if (!quoted && (b == SEPARATOR || b == NEWLINE)) {
+                break;
+            }
+            p++;
+        }
+        return p;
+    }
+
+    private static boolean isBlank(MappedByteBuffer buffer, int from, int to) {
+        for (int p = from; p < to; p++) {
+            if (!isSkipped(buffer.get(p))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns true for the bytes around a number which are ignored.
+     */
+    private static boolean isSkipped(byte b) {
+        return b == QUOTE || b == ' ' || b == '\t' || b == RETURN;
+    }
+
+    /**
+     * Parses an int, ignoring surrounding quotes and whitespace.
+     */
+    private static int parseInt(MappedByteBuffer buffer, int from, int to) {
+        while (from < to && isSkipped(buffer.get(from))) {
+            from++;
+        }
+        while (to > from && isSkipped(buffer.get(to - 1))) {
+            to--;
+        }
+        if (from == to) {
+            throw new NumberFormatException("Empty node id.");
+        }
+        final boolean negative = buffer.get(from) == '-';
+        int p = (negative || buffer.get(from) == '+') ? from + 1 : from;
+        if (p == to) {
+            throw numberFormatException(buffer, from, to);
+        }
+        long value = 0;
+        for (; p < to; p++) {
+            final int digit = buffer.get(p) - '0';
+            if (digit < 0 || digit > 9) {
+                throw numberFormatException(buffer, from, to);
+            }
+            value = value * 10 + digit;
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                throw numberFormatException(buffer, from, to);
+            }
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) {
+            throw numberFormatException(buffer, from, to);
+        }
+        return (int) value;
+    }
+
+    /**
+     * Parses a double, ignoring surrounding quotes and whitespace.
+     *
+     * <p> Decimal numbers with at most 15 significant digits and small
+     * exponents are converted exactly without allocation (a single
+     * multiplication or division of exactly representable doubles is
+     * correctly rounded); anything else is handed to
+     * {@link Double#parseDouble(String)}.
+     */
+    private static double parseDouble(MappedByteBuffer buffer,
+                                      int from, int to) {
+        while (from < to && isSkipped(buffer.get(from))) {
+            from++;
+        }
+        while (to > from && isSkipped(buffer.get(to - 1))) {
+            to--;
+        }
+        int p = from;
+        final boolean negative = p < to && buffer.get(p) == '-';
+        if (p < to && (negative || buffer.get(p) == '+')) {
+            p++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean seenDigit = false;
+        boolean seenPoint = false;
+        for (; p < to; p++) {
+            final byte b = buffer.get(p);
+            if (b >= '0' && b <= '9') {
+                seenDigit = true;
+                if (mantissa != 0 || b != '0') {
+                    digits++;
+                }
+                if (digits > 15) {
+                    return slowParseDouble(buffer, from, to);
+                }
+                mantissa = mantissa * 10 + (b - '0');
+                if (seenPoint) {
+                    exponent--;
+                }
+            } else if (b == '.' && !seenPoint) {
+                seenPoint = true;
+            } else {
+                break;
+            }
+        }
+        if (!seenDigit) {
+            return slowParseDouble(buffer, from, to);
+        }
+        if (p < to) {
+            final byte b = buffer.get(p);
+            if (b != 'e' && b != 'E') {
+                return slowParseDouble(buffer, from, to);
+            }
+            p++;
+            final boolean negativeExponent = p < to && buffer.get(p) == '-';
+            if (p < to && (negativeExponent || buffer.get(p) == '+')) {
+                p++;
+            }
+            if (p == to) {
+                return slowParseDouble(buffer, from, to);
+            }
+            int e = 0;
+            for (; p < to; p++) {
+                final int digit = buffer.get(p) - '0';
+                if (digit < 0 || digit > 9 || e > 1000) {
+                    return slowParseDouble(buffer, from, to);
+                }
+                e = e * 10 + digit;
+            }
+            exponent += negativeExponent ? -e : e;
+        }
+        double value;
+        if (mantissa == 0) {
+            value = 0.0;
+        } else if (exponent >= 0 && exponent < POWERS_OF_TEN.length) {
+            value = mantissa * POWERS_OF_TEN[exponent];
+        } else if (exponent < 0 && -exponent < POWERS_OF_TEN.length) {
+            value = mantissa / POWERS_OF_TEN[-exponent];
+        } else {
+            return slowParseDouble(buffer, from, to);
+        }
+        return negative ? -value : value;
+    }
+
+    private static double slowParseDouble(MappedByteBuffer buffer,
+                                          int from, int to) {
+        return Double.parseDouble(unquote(buffer, from, to));
+    }
+
+    private static NumberFormatException numberFormatException(
+            MappedByteBuffer buffer, int from, int to) {
+        return new NumberFormatException(
+                "For input string: \"" + unquote(buffer, from, to) + "\"");
+    }
+
+    /**
+     * Returns the value of the field held by the given bytes, removing the
+     * quotes around quoted parts, unescaping doubled quotes and dropping
+     * carriage returns outside quotes.
+     */
+    private static String value(MappedByteBuffer buffer, int from, int to) {
+        final byte[] bytes = new byte[to - from];
+        int length = 0;
+        boolean quoted = false;
+        for (int p = from; p < to; p++) {
+            final byte b = buffer.get(p);
+            if (b == QUOTE) {
+                if (quoted && p + 1 < to && buffer.get(p + 1) == QUOTE) {
+                    bytes[length++] = QUOTE;
+                    p++;
+                } else {
+                    quoted = !quoted;
+                }
+            } else if (quoted || b != RETURN) {
+                bytes[length++] = b;
+            }
+        }
+        return new String(bytes, 0, length, UTF_8);
+    }
+
+    /**
+     * Returns the given bytes as a string without double quotes and carriage
+     * returns (only used for headers, errors and unusual numbers).
+     */
+    private static String unquote(MappedByteBuffer buffer, int from, int to) {
+        final StringBuilder builder = new StringBuilder(to - from);
+        for (int p = from; p < to; p++) {
+            final byte b = buffer.get(p);
+            if (b != QUOTE && b != RETURN) {
+                builder.append((char) (b & 0xFF));
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -30,7 +30,6 @@ import static org.javanetworkanalyzer.graphcreators.GraphCreator.UNDIRECTED;
 import org.javanetworkanalyzer.model.*;
 
 import java.io.FileNotFoundException;
-import java.util.Scanner;
 
 /**
  * Creates weighted JGraphT graphs from a csv file produced by OrbisGIS.
@@ -44,10 +43,6 @@ public class WeightedGraphCreator<V extends VId, E extends Edge>
      * Weight column name.
      */
     private final String weightField;
-    /**
-     * Weight index.
-     */
-    protected static int weightFieldIndex = -1;
 
     /**
      * Initializes a new {@link WeightedGraphCreator}.
@@ -71,29 +66,9 @@ public class WeightedGraphCreator<V extends VId, E extends Edge>
         return (WeightedKeyedGraph<V, E>) super.loadGraph();
     }
 
-    /**
-     * Initialize the start node, end node, and weight indices by reading the
-     * first line of the csv file.
-     *
-     * @param scanner The scanner that will read the first line of the csv file.
-     */
     @Override
-    protected void initializeIndices(Scanner scanner) {
-        String[] row = scanner.nextLine().split(SEPARATOR);
-        // Go through the first line and recover the indices.
-        for (int i = 0; i < row.length; i++) {
-            // Note: We have to get rid of the quotation marks.
-            if (row[i].replace(DOUBLE_QUOTES, EMPTY_STRING)
-                    .equals(START_NODE)) {
-                startNodeIndex = i;
-            } else if (row[i].replace(DOUBLE_QUOTES, EMPTY_STRING)
-                    .equals(END_NODE)) {
-                endNodeIndex = i;
-            } else if (row[i].replace(DOUBLE_QUOTES, EMPTY_STRING)
-                    .equals(weightField)) {
-                weightFieldIndex = i;
-            }
-        }
+    protected String getWeightField() {
+        return weightField;
     }
 
     @Override
@@ -112,19 +87,22 @@ public class WeightedGraphCreator<V extends VId, E extends Edge>
     /**
      * Loads a weighted edge into the graph.
      *
-     * @param row     The row from which to load the edge.
-     * @param graph   The graph to which the edges will be added.
-     * @param reverse {@code true} iff the edge orientation should be reversed.
+     * @param graph     The graph to which the edges will be added.
+     * @param startNode The start node id.
+     * @param endNode   The end node id.
+     * @param weight    The weight.
+     * @param reverse   {@code true} iff the edge orientation should be
+     *                  reversed.
      *
      * @return The newly loaded edge.
      */
     @Override
-    protected E loadEdge(String[] row,
-                         KeyedGraph<V, E> graph,
+    protected E loadEdge(KeyedGraph<V, E> graph,
+                         int startNode,
+                         int endNode,
+                         double weight,
                          boolean reverse) {
-        E edge = super.loadEdge(row, graph, reverse);
-        double weight = Double.parseDouble(
-                deleteDoubleQuotes(row[weightFieldIndex]));
+        E edge = super.loadEdge(graph, startNode, endNode, weight, reverse);
         edge.setWeight(weight);
         return edge;
     }
@@ -0,0 +1,260 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Helpers for the memory-mapped binary formats of {@link CSRGraphFile},
+ * {@link org.javanetworkanalyzer.alg.ContractionHierarchy} and
+ * {@link org.javanetworkanalyzer.alg.Landmarks}: a little-endian header
+ * (magic number, version, then format-specific ints) followed by int and
+ * double arrays.
+ *
+ * <p> A {@link BinaryFile} writes such a file through a single buffer; the
+ * static methods check a header and map the arrays back.
+ *
+ * @author Adam Gouge
+ */
+public final class BinaryFile {
+
+    /**
+     * Byte order of every format.
+     */
+    public static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+    /**
+     * Size of the write buffer.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+
+    /**
+     * Creates a writer appending to the given channel. Call {@link #flush()}
+     * once everything is written.
+     *
+     * @param channel The channel
+     */
+    public BinaryFile(FileChannel channel) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ORDER);
+    }
+
+    /**
+     * Writes a header of the given size: the magic number, the version and
+     * the given fields, padded with zeros.
+     *
+     * @param magic      Magic number
+     * @param version    Format version
+     * @param headerSize Header size in bytes
+     * @param fields     Format-specific fields
+     * @return This writer
+     * @throws IOException If the file could not be written
+     */
+    public BinaryFile putHeader(int magic, int version, int headerSize,
+                                int... fields) throws IOException {
+        if (4 * (2 + fields.length) > headerSize) {
+            throw new IllegalArgumentException("Too many header fields.");
+        }
+        putInt(magic).putInt(version);
+        for (int field : fields) {
+            putInt(field);
+        }
+        for (int i = 2 + fields.length; i < headerSize / 4; i++) {
+            putInt(0);
+        }
+        return this;
+    }
+
+    /**
+     * Writes an int.
+     *
+     * @param value The value
+     * @return This writer
+     * @throws IOException If the file could not be written
+     */
+    public BinaryFile putInt(int value) throws IOException {
+        if (buffer.remaining() < 4) {
+            flush();
+        }
+        buffer.putInt(value);
+        return this;
+    }
+
+    /**
+     * Writes all the ints of the given buffer, regardless of its position.
+     *
+     * @param values The values
+     * @return This writer
+     * @throws IOException If the file could not be written
+     */
+    public BinaryFile putInts(IntBuffer values) throws IOException {
+        final IntBuffer source = values.duplicate();
+        source.rewind();
+        while (source.hasRemaining()) {
+            if (buffer.remaining() < 4) {
+                flush();
+            }
+            buffer.putInt(source.get());
+        }
+        return this;
+    }
+
+    /**
+     * Writes all the doubles of the given buffer, regardless of its position.
+     *
+     * @param values The values
+     * @return This writer
+     * @throws IOException If the file could not be written
+     */
+    public BinaryFile putDoubles(DoubleBuffer values) throws IOException {
+        final DoubleBuffer source = values.duplicate();
+        source.rewind();
+        while (source.hasRemaining()) {
+            if (buffer.remaining() < 8) {
+                flush();
+            }
+            buffer.putDouble(source.get());
+        }
+        return this;
+    }
+
+    /**
+     * Writes out everything buffered so far.
+     *
+     * @throws IOException If the file could not be written
+     */
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Reads the header of the given size and checks its magic number and
+     * version.
+     *
+     * @param channel    The channel
+     * @param file       The file, for error messages
+     * @param format     Name of the format, for error messages
+     * @param magic      Expected magic number
+     * @param version    Expected version
+     * @param headerSize Header size in bytes
+     * @return The header, positioned on the first format-specific field
+     * @throws IOException If the header could not be read or does not match
+     */
+    public static ByteBuffer readHeader(FileChannel channel, File file,
+                                        String format, int magic,
+                                        int version, int headerSize)
+            throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(headerSize).order(ORDER);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) {
+                break;
+            }
+        }
+        header.flip();
+        if (header.limit() < headerSize || header.getInt() != magic) {
+            throw new IOException(file + " is not a " + format + " file.");
+        }
+        final int stored = header.getInt();
+        if (stored != version) {
+            throw new IOException("Unsupported " + format + " file version "
+                    + stored + ".");
+        }
+        return header;
+    }
+
+    /**
+     * Checks that the file has exactly the expected size.
+     *
+     * @param channel  The channel
+     * @param format   Name of the format, for error messages
+     * @param expected Expected size in bytes
+     * @throws IOException If the file has another size
+     */
+    public static void checkSize(FileChannel channel, String format,
+                                 long expected) throws IOException {
+        if (channel.size() != expected) {
+            throw new IOException("Truncated " + format + " file.");
+        }
+    }
+
+    /**
+     * Maps count ints read-only.
+     *
+     * @param channel  The channel
+     * @param position Position in bytes
+     * @param count    Number of ints
+     * @return The ints
+     * @throws IOException If the file could not be mapped
+     */
+    public static IntBuffer mapInts(FileChannel channel, long position,
+                                    int count) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, 4L * count)
+                .order(ORDER).asIntBuffer();
+    }
+
+    /**
+     * Maps count doubles read-only.
+     *
+     * @param channel  The channel
+     * @param position Position in bytes
+     * @param count    Number of doubles
+     * @return The doubles
+     * @throws IOException If the file could not be mapped
+     */
+    public static DoubleBuffer mapDoubles(FileChannel channel, long position,
+                                          int count) throws IOException {
+        return mapDoubles(channel, FileChannel.MapMode.READ_ONLY, position,
+                          count);
+    }
+
+    /**
+     * Maps count doubles with the given mode.
+     *
+     * @param channel  The channel
+     * @param mode     The mapping mode
+     * @param position Position in bytes
+     * @param count    Number of doubles
+     * @return The doubles
+     * @throws IOException If the file could not be mapped
+     */
+    public static DoubleBuffer mapDoubles(FileChannel channel,
+                                          FileChannel.MapMode mode,
+                                          long position, int count)
+            throws IOException {
+        return channel.map(mode, position, 8L * count)
+                .order(ORDER).asDoubleBuffer();
+    }
+}
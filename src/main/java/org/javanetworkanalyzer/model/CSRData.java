@@ -0,0 +1,209 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.model;
+
+import org.javanetworkanalyzer.data.VId;
+import org.jgrapht.EdgeFactory;
+
+import java.lang.reflect.Constructor;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The storage shared by all the orientation views of a {@link CSRGraph}.
+ *
+ * <p> The arrays are held in {@link IntBuffer}s and {@link DoubleBuffer}s so
+ * that they can either wrap Java arrays or be memory-mapped from a file (see
+ * {@link CSRGraphFile}). Vertex objects may be created lazily, all at once,
+ * the first time one is needed, so that algorithms using only the primitive
+ * traversal API never create them.
+ *
+ * @param <V> Vertex
+ * @param <E> Edge
+ * @author Adam Gouge
+ */
+final class CSRData<V extends VId, E extends EdgeID> {
+
+    /**
+     * Vertex ids in increasing order, by vertex index.
+     */
+    final IntBuffer ids;
+    /**
+     * See {@link CSRGraph#offsets}.
+     */
+    final IntBuffer offsets;
+    /**
+     * See {@link CSRGraph#middles}.
+     */
+    final IntBuffer middles;
+    /**
+     * See {@link CSRGraph#targets}.
+     */
+    final IntBuffer targets;
+    /**
+     * See {@link CSRGraph#weights}.
+     */
+    final DoubleBuffer weights;
+    /**
+     * See {@link CSRGraph#arcEdges}.
+     */
+    final IntBuffer arcEdges;
+    /**
+     * See {@link CSRGraph#edgeSources}.
+     */
+    final IntBuffer edgeSources;
+    /**
+     * See {@link CSRGraph#edgeTargets}.
+     */
+    final IntBuffer edgeTargets;
+    /**
+     * Edge id of each edge, or null if the ids are those of the edge
+     * objects.
+     */
+    final IntBuffer edgeIDs;
+    /**
+     * Edges, by edge index, or null.
+     */
+    final Object[] edges;
+    /**
+     * Edge factory, or null.
+     */
+    final EdgeFactory<V, E> edgeFactory;
+    /**
+     * Vertex constructor used to create the vertices lazily, or null.
+     */
+    private final Constructor<? extends V> vertexConstructor;
+    /**
+     * Vertices, by vertex index; null until created.
+     */
+    private volatile Object[] vertices;
+    /**
+     * Map of edges to edge indices, built on first use.
+     */
+    private volatile Map<E, Integer> edgeIndices;
+
+    /**
+     * Constructor.
+     *
+     * @param ids               Vertex ids in increasing order
+     * @param vertices          Vertices, or null to create them lazily
+     * @param vertexConstructor Vertex constructor (if vertices is null)
+     * @param offsets           Arc offsets
+     * @param middles           Arc middles
+     * @param targets           Arc targets
+     * @param weights           Arc weights
+     * @param arcEdges          Arc edges
+     * @param edgeSources       Edge sources
+     * @param edgeTargets       Edge targets
+     * @param edgeIDs           Edge ids, or null
+     * @param edges             Edges, or null
+     * @param edgeFactory       Edge factory, or null
+     */
+    CSRData(IntBuffer ids, Object[] vertices,
+            Constructor<? extends V> vertexConstructor,
+            IntBuffer offsets, IntBuffer middles, IntBuffer targets,
+            DoubleBuffer weights, IntBuffer arcEdges, IntBuffer edgeSources,
+            IntBuffer edgeTargets, IntBuffer edgeIDs, Object[] edges,
+            EdgeFactory<V, E> edgeFactory) {
+        if (vertices == null && vertexConstructor == null) {
+            throw new IllegalArgumentException(
+                    "Either vertices or a vertex constructor are required.");
+        }
+        this.ids = ids;
+        this.vertices = vertices;
+        this.vertexConstructor = vertexConstructor;
+        this.offsets = offsets;
+        this.middles = middles;
+        this.targets = targets;
+        this.weights = weights;
+        this.arcEdges = arcEdges;
+        this.edgeSources = edgeSources;
+        this.edgeTargets = edgeTargets;
+        this.edgeIDs = edgeIDs;
+        this.edges = edges;
+        this.edgeFactory = edgeFactory;
+    }
+
+    /**
+     * Returns the vertices, creating them if necessary.
+     *
+     * @return The vertices
+     */
+    Object[] vertices() {
+        Object[] result = vertices;
+        if (result == null) {
+            synchronized (this) {
+                result = vertices;
+                if (result == null) {
+                    result = createVertices();
+                    vertices = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns true if the vertex objects have been created.
+     *
+     * @return True if the vertex objects have been created
+     */
+    boolean hasVertices() {
+        return vertices != null;
+    }
+
+    private Object[] createVertices() {
+        final int n = ids.limit();
+        final Object[] result = new Object[n];
+        try {
+            for (int u = 0; u < n; u++) {
+                result[u] = vertexConstructor.newInstance(ids.get(u));
+            }
+        } catch (Exception ex) {
+            throw new IllegalStateException(
+                    "Could not create the vertices.", ex);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the map of edges to edge indices, building it if necessary.
+     *
+     * @return The map of edges to edge indices
+     */
+    Map<E, Integer> edgeIndices() {
+        Map<E, Integer> map = edgeIndices;
+        if (map == null) {
+            map = new HashMap<E, Integer>(2 * edges.length);
+            for (int e = 0; e < edges.length; e++) {
+                map.put((E) edges[e], e);
+            }
+            edgeIndices = map;
+        }
+        return map;
+    }
+}
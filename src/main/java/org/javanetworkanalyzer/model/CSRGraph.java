@@ -0,0 +1,1122 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.model;
+
+import org.javanetworkanalyzer.data.VId;
+import org.jgrapht.DirectedGraph;
+import org.jgrapht.EdgeFactory;
+import org.jgrapht.Graph;
+import org.jgrapht.graph.AbstractGraph;
+import org.jgrapht.graph.ClassBasedEdgeFactory;
+
+import java.lang.reflect.Constructor;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * An immutable graph stored in Compressed Sparse Row (CSR) format.
+ *
+ * <p> Vertices are numbered densely from 0 to {@code n - 1} in increasing
+ * order of their ids, and edges from 0 to {@code m - 1}. Every edge is stored
+ * as two <i>arcs</i>: an out-arc at its source and an in-arc at its target.
+ * The arcs of vertex {@code u} are contiguous: first its out-arcs, then its
+ * in-arcs. The directed, edge-reversed and undirected orientations of the
+ * graph are therefore all views on the same arrays, differing only in which
+ * part of each vertex's arc range they iterate (see {@link #firstArc} and
+ * {@link #endArc}).
+ *
+ * <p> Algorithms should use the primitive traversal API:
+ * <pre>
+ * for (int a = g.firstArc(u); a &lt; g.endArc(u); a++) {
+ *     int v = g.arcTarget(a);
+ *     double w = g.arcWeight(a);
+ *     ...
+ * }
+ * </pre>
+ * The {@link Graph} methods are provided so that existing algorithms work
+ * unchanged; edge-based methods require the graph to have been built with
+ * edge objects. The graph structure cannot be modified, but edge weights can.
+ *
+ * @param <V> Vertex
+ * @param <E> Edge
+ * @author Adam Gouge
+ */
+public abstract class CSRGraph<V extends VId, E extends EdgeID>
+        extends AbstractGraph<V, E>
+        implements WeightedKeyedGraph<V, E> {
+
+    /**
+     * Specifies the directed orientation.
+     */
+    public static final int DIRECTED = 1;
+    /**
+     * Specifies the edge-reversed orientation.
+     */
+    public static final int REVERSED = 2;
+    /**
+     * Specifies the undirected orientation.
+     */
+    public static final int UNDIRECTED = 3;
+    private static final String IMMUTABLE =
+            "A CSR graph cannot be modified.";
+    private static final String NO_EDGES =
+            "This CSR graph was built without edge objects.";
+    /**
+     * Orientation of this view.
+     */
+    protected final int orientation;
+    /**
+     * Storage shared by all views.
+     */
+    protected final CSRData<V, E> data;
+    /**
+     * Vertex ids in increasing order, by vertex index.
+     */
+    protected final IntBuffer ids;
+    /**
+     * The arcs of vertex u occupy positions offsets[u] to offsets[u + 1] - 1;
+     * length n + 1.
+     */
+    protected final IntBuffer offsets;
+    /**
+     * The out-arcs of vertex u occupy positions offsets[u] to middles[u] - 1
+     * and its in-arcs positions middles[u] to offsets[u + 1] - 1.
+     */
+    protected final IntBuffer middles;
+    /**
+     * Index of the vertex at the other end of each arc.
+     */
+    protected final IntBuffer targets;
+    /**
+     * Weight of each arc.
+     */
+    protected final DoubleBuffer weights;
+    /**
+     * Edge index of each arc.
+     */
+    protected final IntBuffer arcEdges;
+    /**
+     * Source vertex index of each edge (as stored).
+     */
+    protected final IntBuffer edgeSources;
+    /**
+     * Target vertex index of each edge (as stored).
+     */
+    protected final IntBuffer edgeTargets;
+    /**
+     * Edges, by edge index, or null.
+     */
+    protected final Object[] edges;
+    /**
+     * Edge factory, or null.
+     */
+    protected final EdgeFactory<V, E> edgeFactory;
+    /**
+     * Unmodifiable vertex set.
+     */
+    private final Set<V> vertexSet;
+
+    /**
+     * Constructor.
+     *
+     * @param orientation The orientation of this view
+     * @param data        The storage, which may be shared with other views
+     */
+    CSRGraph(int orientation, CSRData<V, E> data) {
+        if (orientation != DIRECTED && orientation != REVERSED
+                && orientation != UNDIRECTED) {
+            throw new IllegalArgumentException("Please enter a valid "
+                    + "orientation: 1, 2 or 3.");
+        }
+        this.orientation = orientation;
+        this.data = data;
+        this.ids = data.ids;
+        this.offsets = data.offsets;
+        this.middles = data.middles;
+        this.targets = data.targets;
+        this.weights = data.weights;
+        this.arcEdges = data.arcEdges;
+        this.edgeSources = data.edgeSources;
+        this.edgeTargets = data.edgeTargets;
+        this.edges = data.edges;
+        this.edgeFactory = data.edgeFactory;
+        this.vertexSet = new IndexedSet<V>(ids.limit()) {
+            @Override
+            V get(int i) {
+                return vertex(i);
+            }
+        };
+    }
+
+    /**
+     * Creates a view of the given graph with the given orientation, sharing
+     * all arrays.
+     *
+     * @param g           The graph
+     * @param orientation The orientation
+     */
+    protected CSRGraph(CSRGraph<V, E> g, int orientation) {
+        this(orientation, g.data);
+    }
+
+    /**
+     * Creates a CSR graph with the given orientation.
+     */
+    static <V extends VId, E extends EdgeID> CSRGraph<V, E> create(
+            int orientation, CSRData<V, E> data) {
+        if (orientation == UNDIRECTED) {
+            return new UndirectedCSRGraph<V, E>(orientation, data);
+        } else {
+            return new DirectedCSRGraph<V, E>(orientation, data);
+        }
+    }
+
+    /**
+     * Copies the given graph into a new CSR graph, keeping its vertex and edge
+     * objects. The result is directed if the given graph is directed and
+     * undirected otherwise.
+     *
+     * @param graph The graph
+     * @param <V>   Vertex
+     * @param <E>   Edge
+     * @return A CSR copy of the given graph
+     */
+    public static <V extends VId, E extends EdgeID> CSRGraph<V, E> fromGraph(
+            Graph<V, E> graph) {
+        return (CSRGraph<V, E>) fromAnyGraph(graph);
+    }
+
+    /**
+     * Same as {@link #fromGraph(Graph)} for graphs whose vertex and edge types
+     * are not known to be {@link VId}s and {@link EdgeID}s at compile time,
+     * such as those of the analyzers. The given graph is returned if it is
+     * already a CSR graph.
+     *
+     * @param graph The graph
+     * @return A CSR copy of the given graph
+     * @throws IllegalArgumentException If a vertex is not a {@link VId} or an
+     *                                  edge is not an {@link EdgeID}
+     */
+    public static CSRGraph<?, ?> fromAnyGraph(Graph<?, ?> graph) {
+        if (graph instanceof CSRGraph) {
+            return (CSRGraph<?, ?>) graph;
+        }
+        return copy(graph);
+    }
+
+    /**
+     * Copies the given graph; see {@link #fromAnyGraph(Graph)}.
+     */
+    private static <V, E> CSRGraph<VId, EdgeID> copy(Graph<V, E> graph) {
+        final Object[] vertices = graph.vertexSet().toArray();
+        for (Object v : vertices) {
+            if (!(v instanceof VId)) {
+                throw new IllegalArgumentException(
+                        "Vertex " + v + " has no id.");
+            }
+        }
+        Arrays.sort(vertices, new java.util.Comparator<Object>() {
+            @Override
+            public int compare(Object v1, Object v2) {
+                final int id1 = ((VId) v1).getID();
+                final int id2 = ((VId) v2).getID();
+                return id1 < id2 ? -1 : (id1 == id2 ? 0 : 1);
+            }
+        });
+        final int n = vertices.length;
+        final int[] ids = new int[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = ((VId) vertices[i]).getID();
+            if (i > 0 && ids[i] == ids[i - 1]) {
+                throw new IllegalArgumentException(
+                        "Duplicate vertex id " + ids[i] + ".");
+            }
+        }
+        final int m = graph.edgeSet().size();
+        final Object[] edges = new Object[m];
+        final int[] sources = new int[m];
+        final int[] targets = new int[m];
+        final double[] weights = new double[m];
+        int e = 0;
+        for (E edge : graph.edgeSet()) {
+            if (!(edge instanceof EdgeID)) {
+                throw new IllegalArgumentException(
+                        "Edge " + edge + " has no id.");
+            }
+            edges[e] = edge;
+            sources[e] = Arrays.binarySearch(
+                    ids, ((VId) graph.getEdgeSource(edge)).getID());
+            targets[e] = Arrays.binarySearch(
+                    ids, ((VId) graph.getEdgeTarget(edge)).getID());
+            weights[e] = graph.getEdgeWeight(edge);
+            e++;
+        }
+        final int orientation = (graph instanceof DirectedGraph)
+                ? DIRECTED : UNDIRECTED;
+        // The edge factory creates edges of the types checked above.
+        return assemble(orientation, ids, vertices, null, sources, targets,
+                        weights, null, edges,
+                        (EdgeFactory<VId, EdgeID>) (EdgeFactory<?, ?>)
+                        graph.getEdgeFactory());
+    }
+
+    /**
+     * Sorts the given edges into arcs and creates the graph.
+     *
+     * @param orientation  The orientation
+     * @param ids          Vertex ids in increasing order
+     * @param vertices     Vertices, or null to create them lazily
+     * @param vConstructor Vertex constructor (if vertices is null)
+     * @param sources      Source vertex index of each edge
+     * @param targets      Target vertex index of each edge
+     * @param weights      Weight of each edge
+     * @param edgeIDs      Edge id of each edge, or null
+     * @param edges        Edges, or null
+     * @param edgeFactory  Edge factory, or null
+     * @return The new graph
+     */
+    static <V extends VId, E extends EdgeID> CSRGraph<V, E> assemble(
+            int orientation, int[] ids, Object[] vertices,
+            Constructor<? extends V> vConstructor,
+            int[] sources, int[] targets, double[] weights, int[] edgeIDs,
+            Object[] edges, EdgeFactory<V, E> edgeFactory) {
+        final int n = ids.length;
+        final int m = sources.length;
+        // Count the out- and in-arcs of each vertex.
+        final int[] outDegrees = new int[n];
+        final int[] offsets = new int[n + 1];
+        for (int e = 0; e < m; e++) {
+            outDegrees[sources[e]]++;
+            offsets[sources[e] + 1]++;
+            offsets[targets[e] + 1]++;
+        }
+        for (int u = 0; u < n; u++) {
+            offsets[u + 1] += offsets[u];
+        }
+        final int[] middles = new int[n];
+        final int[] nextOut = new int[n];
+        final int[] nextIn = new int[n];
+        for (int u = 0; u < n; u++) {
+            middles[u] = offsets[u] + outDegrees[u];
+            nextOut[u] = offsets[u];
+            nextIn[u] = middles[u];
+        }
+        // Fill in the arcs in edge order.
+        final int[] arcTargets = new int[2 * m];
+        final double[] arcWeights = new double[2 * m];
+        final int[] arcEdges = new int[2 * m];
+        for (int e = 0; e < m; e++) {
+            final int out = nextOut[sources[e]]++;
+            arcTargets[out] = targets[e];
+            arcWeights[out] = weights[e];
+            arcEdges[out] = e;
+            final int in = nextIn[targets[e]]++;
+            arcTargets[in] = sources[e];
+            arcWeights[in] = weights[e];
+            arcEdges[in] = e;
+        }
+        return create(orientation, new CSRData<V, E>(
+                IntBuffer.wrap(ids), vertices, vConstructor,
+                IntBuffer.wrap(offsets), IntBuffer.wrap(middles),
+                IntBuffer.wrap(arcTargets), DoubleBuffer.wrap(arcWeights),
+                IntBuffer.wrap(arcEdges), IntBuffer.wrap(sources),
+                IntBuffer.wrap(targets),
+                edgeIDs == null ? null : IntBuffer.wrap(edgeIDs),
+                edges, edgeFactory));
+    }
+
+    /**
+     * Returns a view of this graph with the given orientation, sharing all
+     * arrays with this graph.
+     *
+     * @param newOrientation {@link #DIRECTED}, {@link #REVERSED} or
+     *                       {@link #UNDIRECTED}
+     * @return A view of this graph with the given orientation
+     */
+    public CSRGraph<V, E> withOrientation(int newOrientation) {
+        if (newOrientation == orientation) {
+            return this;
+        } else if (newOrientation == UNDIRECTED) {
+            return new UndirectedCSRGraph<V, E>(this, newOrientation);
+        } else {
+            return new DirectedCSRGraph<V, E>(this, newOrientation);
+        }
+    }
+
+    /**
+     * Returns the orientation of this view.
+     *
+     * @return {@link #DIRECTED}, {@link #REVERSED} or {@link #UNDIRECTED}
+     */
+    public int getOrientation() {
+        return orientation;
+    }
+
+    // ***** PRIMITIVE TRAVERSAL API ****************************************
+
+    /**
+     * Returns the number of vertices.
+     *
+     * @return The number of vertices
+     */
+    public int getVertexCount() {
+        return ids.limit();
+    }
+
+    /**
+     * Returns the number of edges.
+     *
+     * @return The number of edges
+     */
+    public int getEdgeCount() {
+        return edgeSources.limit();
+    }
+
+    /**
+     * Returns the number of arcs in this orientation: the number of edges if
+     * directed, twice that if undirected.
+     *
+     * @return The number of arcs in this orientation
+     */
+    public int getArcCount() {
+        return orientation == UNDIRECTED
+                ? 2 * edgeSources.limit() : edgeSources.limit();
+    }
+
+    /**
+     * Returns the first outgoing arc of the given vertex in this orientation
+     * (the first incident arc if undirected).
+     *
+     * @param u Vertex index
+     * @return The first outgoing arc of u
+     */
+    public int firstArc(int u) {
+        return (orientation == REVERSED) ? middles.get(u) : offsets.get(u);
+    }
+
+    /**
+     * Returns one more than the last outgoing arc of the given vertex in this
+     * orientation (the last incident arc if undirected).
+     *
+     * @param u Vertex index
+     * @return The end of the outgoing arcs of u
+     */
+    public int endArc(int u) {
+        return (orientation == DIRECTED) ? middles.get(u) : offsets.get(u + 1);
+    }
+
+    /**
+     * Returns the index of the vertex this arc leads to.
+     *
+     * @param arc Arc
+     * @return The index of the vertex this arc leads to
+     */
+    public int arcTarget(int arc) {
+        return targets.get(arc);
+    }
+
+    /**
+     * Returns the weight of the given arc.
+     *
+     * @param arc Arc
+     * @return The weight of the given arc
+     */
+    public double arcWeight(int arc) {
+        return weights.get(arc);
+    }
+
+    /**
+     * Returns the index of the edge the given arc belongs to.
+     *
+     * @param arc Arc
+     * @return The index of the edge the given arc belongs to
+     */
+    public int arcEdge(int arc) {
+        return arcEdges.get(arc);
+    }
+
+    /**
+     * Returns the id of the vertex with the given index.
+     *
+     * @param u Vertex index
+     * @return The id of the vertex with the given index
+     */
+    public int getID(int u) {
+        return ids.get(u);
+    }
+
+    /**
+     * Returns the index of the vertex with the given id, or a negative number
+     * if there is no such vertex.
+     *
+     * @param id Vertex id
+     * @return The index of the vertex with the given id
+     */
+    public int indexOfID(int id) {
+        int low = 0;
+        int high = ids.limit() - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final int midID = ids.get(mid);
+            if (midID < id) {
+                low = mid + 1;
+            } else if (midID > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of the given vertex, or -1 if it is not contained in
+     * this graph.
+     *
+     * @param v Vertex
+     * @return The index of the given vertex
+     */
+    public int indexOf(V v) {
+        if (v == null) {
+            return -1;
+        }
+        // A vertex cannot belong to this graph before its vertices exist.
+        if (!data.hasVertices()) {
+            return -1;
+        }
+        final int u = indexOfID(v.getID());
+        return (u >= 0 && data.vertices()[u] == v) ? u : -1;
+    }
+
+    /**
+     * Returns the vertex with the given index.
+     *
+     * @param u Vertex index
+     * @return The vertex with the given index
+     */
+    public V vertex(int u) {
+        return (V) data.vertices()[u];
+    }
+
+    /**
+     * Returns the edge with the given index.
+     *
+     * @param e Edge index
+     * @return The edge with the given index
+     */
+    public E edge(int e) {
+        if (edges == null) {
+            throw new UnsupportedOperationException(NO_EDGES);
+        }
+        return (E) edges[e];
+    }
+
+    /**
+     * Returns true if this graph was built with edge objects.
+     *
+     * @return True if this graph was built with edge objects
+     */
+    public boolean hasEdgeObjects() {
+        return edges != null;
+    }
+
+    /**
+     * Returns the id of the edge with the given index.
+     *
+     * @param e Edge index
+     * @return The id of the edge, or -1 if it has none
+     */
+    public int getEdgeID(int e) {
+        if (data.edgeIDs != null) {
+            return data.edgeIDs.get(e);
+        }
+        return edges == null ? -1 : ((EdgeID) edges[e]).getID();
+    }
+
+    /**
+     * Returns the index of the given edge, or -1 if it is not contained in
+     * this graph.
+     *
+     * @param e Edge
+     * @return The index of the given edge
+     */
+    public int indexOf(E e) {
+        return indexOfEdge(e);
+    }
+
+    /**
+     * Same as {@link #indexOf(EdgeID)} for an edge whose type is not known
+     * at compile time.
+     *
+     * @param e Edge
+     * @return The index of the given edge, or -1 if it is not contained in
+     *         this graph
+     */
+    public int indexOfEdge(Object e) {
+        final Integer index = edgeIndices().get(e);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Returns the index of the source of the given edge in this orientation.
+     *
+     * @param e Edge index
+     * @return The index of the source of the given edge
+     */
+    public int edgeSource(int e) {
+        return orientation == REVERSED ? edgeTargets.get(e)
+                : edgeSources.get(e);
+    }
+
+    /**
+     * Returns the index of the target of the given edge in this orientation.
+     *
+     * @param e Edge index
+     * @return The index of the target of the given edge
+     */
+    public int edgeTarget(int e) {
+        return orientation == REVERSED ? edgeSources.get(e)
+                : edgeTargets.get(e);
+    }
+
+    /**
+     * Returns the weight of the given edge.
+     *
+     * @param e Edge index
+     * @return The weight of the given edge
+     */
+    public double edgeWeight(int e) {
+        return weights.get(outArc(e));
+    }
+
+    /**
+     * Sets the weight of the given edge.
+     *
+     * @param e      Edge index
+     * @param weight The new weight
+     */
+    public void setEdgeWeight(int e, double weight) {
+        weights.put(outArc(e), weight);
+        weights.put(inArc(e), weight);
+        if (edges != null && edges[e] instanceof Edge) {
+            ((Edge) edges[e]).setWeight(weight);
+        }
+    }
+
+    /**
+     * Returns the out-arc of the given edge.
+     */
+    private int outArc(int e) {
+        final int u = edgeSources.get(e);
+        for (int arc = offsets.get(u); arc < middles.get(u); arc++) {
+            if (arcEdges.get(arc) == e) {
+                return arc;
+            }
+        }
+        throw new IllegalStateException("Missing out-arc of edge " + e + ".");
+    }
+
+    /**
+     * Returns the in-arc of the given edge.
+     */
+    private int inArc(int e) {
+        final int u = edgeTargets.get(e);
+        for (int arc = middles.get(u); arc < offsets.get(u + 1); arc++) {
+            if (arcEdges.get(arc) == e) {
+                return arc;
+            }
+        }
+        throw new IllegalStateException("Missing in-arc of edge " + e + ".");
+    }
+
+    /**
+     * Returns the map of edges to edge indices, building it if necessary.
+     */
+    private Map<E, Integer> edgeIndices() {
+        if (edges == null) {
+            throw new UnsupportedOperationException(NO_EDGES);
+        }
+        return data.edgeIndices();
+    }
+
+    /**
+     * Returns the index of the given vertex, throwing an exception if it is
+     * not contained in this graph.
+     */
+    protected int checkedIndexOf(V v) {
+        final int u = indexOf(v);
+        if (u < 0) {
+            throw new IllegalArgumentException("no such vertex in graph");
+        }
+        return u;
+    }
+
+    /**
+     * Returns the index of the given edge, throwing an exception if it is
+     * not contained in this graph.
+     */
+    private int checkedIndexOf(E e) {
+        final int index = indexOf(e);
+        if (index < 0) {
+            throw new IllegalArgumentException("no such edge in graph");
+        }
+        return index;
+    }
+
+    /**
+     * Returns an unmodifiable set of the edges of the given arcs of u.
+     *
+     * @param u          Vertex index
+     * @param first      First arc
+     * @param end        End arc
+     * @param skipLoopIn Whether to skip the in-arcs of self-loops (so that
+     *                   self-loops are counted once in undirected views)
+     * @return The edges
+     */
+    protected Set<E> arcEdgeSet(final int u, final int first, final int end,
+                                final boolean skipLoopIn) {
+        if (edges == null) {
+            throw new UnsupportedOperationException(NO_EDGES);
+        }
+        return new AbstractSet<E>() {
+            @Override
+            public Iterator<E> iterator() {
+                return new Iterator<E>() {
+                    private int arc = advance(first);
+
+                    private int advance(int a) {
+                        while (skipLoopIn && a < end && a >= middles.get(u)
+                                && targets.get(a) == u) {
+                            a++;
+                        }
+                        return a;
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        return arc < end;
+                    }
+
+                    @Override
+                    public E next() {
+                        if (arc >= end) {
+                            throw new NoSuchElementException();
+                        }
+                        final E e = (E) edges[arcEdges.get(arc)];
+                        arc = advance(arc + 1);
+                        return e;
+                    }
+
+                    @Override
+                    public void remove() {
+                        throw new UnsupportedOperationException(IMMUTABLE);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                int size = end - first;
+                if (skipLoopIn) {
+                    for (int a = Math.max(first, middles.get(u)); a < end; a++) {
+                        if (targets.get(a) == u) {
+                            size--;
+                        }
+                    }
+                }
+                return size;
+            }
+        };
+    }
+
+    // ***** GRAPH API ******************************************************
+
+    @Override
+    public boolean addVertex(int id) {
+        throw new UnsupportedOperationException(IMMUTABLE);
+    }
+
+    @Override
+    public V getVertex(int id) {
+        final int u = indexOfID(id);
+        return u >= 0 ? vertex(u) : null;
+    }
+
+    @Override
+    public E addEdge(int source, int target) {
+        throw new UnsupportedOperationException(IMMUTABLE);
+    }
+
+    @Override
+    public E addEdge(int source, int target, int edgeID) {
+        throw new UnsupportedOperationException(IMMUTABLE);
+    }
+
+    @Override
+    public Set<E> getAllEdges(V sourceVertex, V targetVertex) {
+        final int u = indexOf(sourceVertex);
+        final int v = indexOf(targetVertex);
+        if (u < 0 || v < 0) {
+            return null;
+        }
+        final Set<E> result = new HashSet<E>();
+        for (int arc = firstArc(u); arc < endArc(u); arc++) {
+            if (targets.get(arc) == v) {
+                result.add(edge(arcEdges.get(arc)));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public E getEdge(V sourceVertex, V targetVertex) {
+        final int u = indexOf(sourceVertex);
+        final int v = indexOf(targetVertex);
+        if (u < 0 || v < 0) {
+            return null;
+        }
+        for (int arc = firstArc(u); arc < endArc(u); arc++) {
+            if (targets.get(arc) == v) {
+                return edge(arcEdges.get(arc));
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public EdgeFactory<V, E> getEdgeFactory() {
+        return edgeFactory;
+    }
+
+    @Override
+    public E addEdge(V sourceVertex, V targetVertex) {
+        throw new UnsupportedOperationException(IMMUTABLE);
+    }
+
+    @Override
+    public boolean addEdge(V sourceVertex, V targetVertex, E e) {
+        throw new UnsupportedOperationException(IMMUTABLE);
+    }
+
+    @Override
+    public boolean addVertex(V v) {
+        throw new UnsupportedOperationException(IMMUTABLE);
+    }
+
+    @Override
+    public boolean containsEdge(E e) {
+        return edges != null && indexOf(e) >= 0;
+    }
+
+    @Override
+    public boolean containsVertex(V v) {
+        return indexOf(v) >= 0;
+    }
+
+    @Override
+    public Set<E> edgeSet() {
+        if (edges == null) {
+            throw new UnsupportedOperationException(NO_EDGES);
+        }
+        return new IndexedSet<E>(edges.length) {
+            @Override
+            E get(int i) {
+                return (E) edges[i];
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return edgeIndices().containsKey(o);
+            }
+        };
+    }
+
+    @Override
+    public boolean removeAllEdges(Collection<? extends E> edges) {
+        throw new UnsupportedOperationException(IMMUTABLE);
+    }
+
+    @Override
+    public Set<E> removeAllEdges(V sourceVertex, V targetVertex) {
+        throw new UnsupportedOperationException(IMMUTABLE);
+    }
+
+    @Override
+    public boolean removeAllVertices(Collection<? extends V> vertices) {
+        throw new UnsupportedOperationException(IMMUTABLE);
+    }
+
+    @Override
+    public E removeEdge(V sourceVertex, V targetVertex) {
+        throw new UnsupportedOperationException(IMMUTABLE);
+    }
+
+    @Override
+    public boolean removeEdge(E e) {
+        throw new UnsupportedOperationException(IMMUTABLE);
+    }
+
+    @Override
+    public boolean removeVertex(V v) {
+        throw new UnsupportedOperationException(IMMUTABLE);
+    }
+
+    @Override
+    public Set<V> vertexSet() {
+        return vertexSet;
+    }
+
+    @Override
+    public V getEdgeSource(E e) {
+        return vertex(edgeSource(checkedIndexOf(e)));
+    }
+
+    @Override
+    public V getEdgeTarget(E e) {
+        return vertex(edgeTarget(checkedIndexOf(e)));
+    }
+
+    @Override
+    public double getEdgeWeight(E e) {
+        return edgeWeight(checkedIndexOf(e));
+    }
+
+    @Override
+    public void setEdgeWeight(E e, double weight) {
+        setEdgeWeight(checkedIndexOf(e), weight);
+    }
+
+    /**
+     * An unmodifiable set of distinct elements given by index.
+     */
+    private abstract class IndexedSet<T> extends AbstractSet<T> {
+
+        private final int size;
+
+        IndexedSet(int size) {
+            this.size = size;
+        }
+
+        /**
+         * Returns the element with the given index.
+         */
+        abstract T get(int i);
+
+        @Override
+        public Iterator<T> iterator() {
+            return new Iterator<T>() {
+                private int i = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return i < size;
+                }
+
+                @Override
+                public T next() {
+                    if (i >= size) {
+                        throw new NoSuchElementException();
+                    }
+                    return get(i++);
+                }
+
+                @Override
+                public void remove() {
+                    throw new UnsupportedOperationException(IMMUTABLE);
+                }
+            };
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof VId && indexOf((V) o) >= 0;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * Builds a {@link CSRGraph} from edges given by vertex ids, without
+     * creating an intermediate JGraphT graph.
+     *
+     * @param <V> Vertex
+     * @param <E> Edge
+     */
+    public static class Builder<V extends VId, E extends EdgeID> {
+
+        private final Constructor<? extends V> vConstructor;
+        private final Class<? extends E> edgeClass;
+        private int[] sources = new int[16];
+        private int[] targets = new int[16];
+        private double[] weights = new double[16];
+        private int[] edgeIDs = new int[16];
+        private int edgeCount = 0;
+        private int[] isolated = new int[0];
+        private int isolatedCount = 0;
+
+        /**
+         * Constructor.
+         *
+         * @param vertexClass The vertex class; must have a V(Integer)
+         *                    constructor
+         * @param edgeClass   The edge class, or null to build a graph without
+         *                    edge objects
+         * @throws NoSuchMethodException If the vertex class does not have a
+         *                               V(Integer) constructor
+         */
+        public Builder(Class<? extends V> vertexClass,
+                       Class<? extends E> edgeClass)
+                throws NoSuchMethodException {
+            this.vConstructor = vertexClass.getConstructor(Integer.class);
+            this.edgeClass = edgeClass;
+        }
+
+        /**
+         * Adds an edge.
+         *
+         * @param source Source vertex id
+         * @param target Target vertex id
+         * @param weight Weight
+         * @param edgeID Edge id
+         * @return This builder
+         */
+        public Builder<V, E> addEdge(int source, int target, double weight,
+                                     int edgeID) {
+            if (edgeCount == sources.length) {
+                final int capacity = 2 * edgeCount;
+                sources = Arrays.copyOf(sources, capacity);
+                targets = Arrays.copyOf(targets, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+                edgeIDs = Arrays.copyOf(edgeIDs, capacity);
+            }
+            sources[edgeCount] = source;
+            targets[edgeCount] = target;
+            weights[edgeCount] = weight;
+            edgeIDs[edgeCount] = edgeID;
+            edgeCount++;
+            return this;
+        }
+
+        /**
+         * Adds a vertex, which need not be incident to any edge.
+         *
+         * @param id Vertex id
+         * @return This builder
+         */
+        public Builder<V, E> addVertex(int id) {
+            if (isolatedCount == isolated.length) {
+                isolated = Arrays.copyOf(isolated,
+                                         Math.max(16, 2 * isolatedCount));
+            }
+            isolated[isolatedCount++] = id;
+            return this;
+        }
+
+        /**
+         * Returns the number of edges added so far.
+         *
+         * @return The number of edges added so far
+         */
+        public int getEdgeCount() {
+            return edgeCount;
+        }
+
+        /**
+         * Builds the graph.
+         *
+         * @param orientation {@link CSRGraph#DIRECTED},
+         *                    {@link CSRGraph#REVERSED} or
+         *                    {@link CSRGraph#UNDIRECTED}
+         * @return The new graph
+         */
+        public CSRGraph<V, E> build(int orientation) {
+            // Collect the distinct vertex ids in increasing order.
+            int[] ids = new int[2 * edgeCount + isolatedCount];
+            System.arraycopy(sources, 0, ids, 0, edgeCount);
+            System.arraycopy(targets, 0, ids, edgeCount, edgeCount);
+            System.arraycopy(isolated, 0, ids, 2 * edgeCount, isolatedCount);
+            Arrays.sort(ids);
+            int n = 0;
+            for (int i = 0; i < ids.length; i++) {
+                if (n == 0 || ids[i] != ids[n - 1]) {
+                    ids[n++] = ids[i];
+                }
+            }
+            ids = Arrays.copyOf(ids, n);
+            // Without edge objects, the vertices are only created on demand.
+            Object[] vertices = null;
+            if (edgeClass != null) {
+                vertices = new Object[n];
+                try {
+                    for (int u = 0; u < n; u++) {
+                        vertices[u] = vConstructor.newInstance(ids[u]);
+                    }
+                } catch (Exception ex) {
+                    throw new IllegalStateException(
+                            "Could not create the vertices.", ex);
+                }
+            }
+            // Translate ids to indices.
+            final int[] sourceIndices = new int[edgeCount];
+            final int[] targetIndices = new int[edgeCount];
+            for (int e = 0; e < edgeCount; e++) {
+                sourceIndices[e] = Arrays.binarySearch(ids, sources[e]);
+                targetIndices[e] = Arrays.binarySearch(ids, targets[e]);
+            }
+            Object[] edges = null;
+            EdgeFactory<V, E> edgeFactory = null;
+            if (edgeClass != null) {
+                edgeFactory = new ClassBasedEdgeFactory<V, E>(edgeClass);
+                edges = new Object[edgeCount];
+                for (int e = 0; e < edgeCount; e++) {
+                    final E edge = edgeFactory.createEdge(
+                            (V) vertices[sourceIndices[e]],
+                            (V) vertices[targetIndices[e]]);
+                    edge.setID(edgeIDs[e]);
+                    if (edge instanceof Edge) {
+                        ((Edge) edge).setWeight(weights[e]);
+                    }
+                    edges[e] = edge;
+                }
+            }
+            return assemble(orientation, ids, vertices, vConstructor,
+                            sourceIndices, targetIndices,
+                            Arrays.copyOf(weights, edgeCount),
+                            Arrays.copyOf(edgeIDs, edgeCount),
+                            edges, edgeFactory);
+        }
+    }
+}
@@ -0,0 +1,295 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.model;
+
+import org.javanetworkanalyzer.data.VId;
+import org.jgrapht.EdgeFactory;
+import org.jgrapht.Graph;
+import org.jgrapht.graph.ClassBasedEdgeFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Constructor;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Reads and writes {@link CSRGraph}s in a binary format which is
+ * memory-mapped rather than parsed, so that a large graph can be loaded in
+ * constant time and shared between processes through the page cache.
+ *
+ * <p> The file is little-endian and written with {@link BinaryFile}. A
+ * header of {@link #HEADER_SIZE} bytes (magic number, version, orientation,
+ * vertex count n and edge count m) is followed by the arrays of the graph:
+ * vertex ids (n ints), offsets (n + 1), middles (n), arc targets (2m), arc
+ * edges (2m), edge sources (m), edge targets (m), edge ids (m) and arc
+ * weights (2m doubles). Since every arc is stored both as an out-arc and as
+ * an in-arc, any orientation can be viewed without copying.
+ *
+ * <p> Vertex objects are only created when first needed, so algorithms using
+ * the primitive traversal API of {@link CSRGraph} never create them. The
+ * weights are mapped privately (or copied if the file is read-only): they may
+ * be modified with {@link CSRGraph#setEdgeWeight(int, double)} but the
+ * changes are not written back to the file.
+ *
+ * @author Adam Gouge
+ */
+public final class CSRGraphFile {
+
+    /**
+     * Magic number ("JNAC").
+     */
+    private static final int MAGIC = 0x4A4E4143;
+    /**
+     * Format version.
+     */
+    private static final int VERSION = 1;
+    /**
+     * Name of the format, for error messages.
+     */
+    private static final String FORMAT = "CSR graph";
+    /**
+     * Header size in bytes.
+     */
+    static final int HEADER_SIZE = 32;
+
+    private CSRGraphFile() {
+    }
+
+    /**
+     * Writes the given graph to the given file. Edges without an id are
+     * written with id -1.
+     *
+     * @param graph The graph
+     * @param file  The file
+     * @throws IOException If the file could not be written
+     */
+    public static void write(Graph<? extends VId, ? extends EdgeID> graph,
+                             File file) throws IOException {
+        final CSRGraph<?, ?> csr = CSRGraph.fromGraph(graph);
+        final CSRData<?, ?> data = csr.data;
+        final int n = csr.getVertexCount();
+        final int m = csr.getEdgeCount();
+        checkSize(n, m);
+        final int[] edgeIDs = new int[m];
+        for (int e = 0; e < m; e++) {
+            edgeIDs[e] = csr.getEdgeID(e);
+        }
+        final RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.setLength(0);
+            new BinaryFile(raf.getChannel())
+                    .putHeader(MAGIC, VERSION, HEADER_SIZE,
+                               csr.getOrientation() == CSRGraph.UNDIRECTED
+                               ? CSRGraph.UNDIRECTED : CSRGraph.DIRECTED,
+                               0, n, m)
+                    .putInts(data.ids)
+                    .putInts(data.offsets)
+                    .putInts(data.middles)
+                    .putInts(data.targets)
+                    .putInts(data.arcEdges)
+                    .putInts(data.edgeSources)
+                    .putInts(data.edgeTargets)
+                    .putInts(IntBuffer.wrap(edgeIDs))
+                    .putDoubles(data.weights)
+                    .flush();
+        } finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * Maps the graph in the given file, without edge objects, with the
+     * orientation it was written with.
+     *
+     * @param file        The file
+     * @param vertexClass The vertex class, which must have a constructor
+     *                    taking the vertex id
+     * @param <V>         Vertex
+     * @param <E>         Edge
+     * @return The graph
+     * @throws IOException           If the file could not be read
+     * @throws NoSuchMethodException If the vertex class has no suitable
+     *                               constructor
+     */
+    public static <V extends VId, E extends EdgeID> CSRGraph<V, E> map(
+            File file, Class<? extends V> vertexClass)
+            throws IOException, NoSuchMethodException {
+        return map(file, 0, vertexClass, null);
+    }
+
+    /**
+     * Maps the graph in the given file with the given orientation. If an edge
+     * class is given, the vertex and edge objects are created immediately
+     * (the structure itself is still mapped); otherwise the vertex objects
+     * are created on first use.
+     *
+     * @param file        The file
+     * @param orientation {@link CSRGraph#DIRECTED}, {@link CSRGraph#REVERSED}
+     *                    or {@link CSRGraph#UNDIRECTED}, or 0 for the
+     *                    orientation the graph was written with
+     * @param vertexClass The vertex class, which must have a constructor
+     *                    taking the vertex id
+     * @param edgeClass   The edge class, or null for no edge objects
+     * @param <V>         Vertex
+     * @param <E>         Edge
+     * @return The graph
+     * @throws IOException           If the file could not be read
+     * @throws NoSuchMethodException If the vertex class has no suitable
+     *                               constructor
+     */
+    public static <V extends VId, E extends EdgeID> CSRGraph<V, E> map(
+            File file, int orientation, Class<? extends V> vertexClass,
+            Class<? extends E> edgeClass)
+            throws IOException, NoSuchMethodException {
+        final Constructor<? extends V> vConstructor =
+                vertexClass.getConstructor(Integer.class);
+        // A private mapping requires a channel opened for writing.
+        final boolean writable = file.canWrite();
+        final RandomAccessFile raf =
+                new RandomAccessFile(file, writable ? "rw" : "r");
+        try {
+            final FileChannel channel = raf.getChannel();
+            final ByteBuffer header = BinaryFile.readHeader(
+                    channel, file, FORMAT, MAGIC, VERSION, HEADER_SIZE);
+            final int stored = header.getInt();
+            header.getInt();
+            final int n = header.getInt();
+            final int m = header.getInt();
+            checkSize(n, m);
+            BinaryFile.checkSize(channel, FORMAT, HEADER_SIZE
+                    + 4L * (3L * n + 1 + 7L * m) + 8L * 2 * m);
+            long position = HEADER_SIZE;
+            final IntBuffer ids = BinaryFile.mapInts(channel, position, n);
+            position += 4L * n;
+            final IntBuffer offsets =
+                    BinaryFile.mapInts(channel, position, n + 1);
+            position += 4L * (n + 1);
+            final IntBuffer middles = BinaryFile.mapInts(channel, position, n);
+            position += 4L * n;
+            final IntBuffer targets =
+                    BinaryFile.mapInts(channel, position, 2 * m);
+            position += 8L * m;
+            final IntBuffer arcEdges =
+                    BinaryFile.mapInts(channel, position, 2 * m);
+            position += 8L * m;
+            final IntBuffer edgeSources =
+                    BinaryFile.mapInts(channel, position, m);
+            position += 4L * m;
+            final IntBuffer edgeTargets =
+                    BinaryFile.mapInts(channel, position, m);
+            position += 4L * m;
+            final IntBuffer edgeIDs = BinaryFile.mapInts(channel, position, m);
+            position += 4L * m;
+            final DoubleBuffer weights = mapWeights(
+                    channel, position, 2 * m, writable);
+
+            Object[] vertices = null;
+            Object[] edges = null;
+            EdgeFactory<V, E> edgeFactory = null;
+            if (edgeClass != null) {
+                vertices = new Object[n];
+                try {
+                    for (int u = 0; u < n; u++) {
+                        vertices[u] = vConstructor.newInstance(ids.get(u));
+                    }
+                } catch (Exception ex) {
+                    throw new IllegalStateException(
+                            "Could not create the vertices.", ex);
+                }
+                edgeFactory = new ClassBasedEdgeFactory<V, E>(
+                        (Class<E>) edgeClass);
+                edges = new Object[m];
+                for (int e = 0; e < m; e++) {
+                    final E edge = edgeFactory.createEdge(
+                            (V) vertices[edgeSources.get(e)],
+                            (V) vertices[edgeTargets.get(e)]);
+                    edge.setID(edgeIDs.get(e));
+                    if (edge instanceof Edge) {
+                        ((Edge) edge).setWeight(
+                                weights.get(firstOutArc(
+                                offsets, middles, arcEdges, edgeSources, e)));
+                    }
+                    edges[e] = edge;
+                }
+            }
+            return CSRGraph.create(
+                    orientation == 0 ? stored : orientation, new CSRData<V, E>(
+                    ids, vertices, vConstructor, offsets, middles, targets,
+                    weights, arcEdges, edgeSources, edgeTargets, edgeIDs,
+                    edges, edgeFactory));
+        } finally {
+            // The mappings remain valid after the channel is closed.
+            raf.close();
+        }
+    }
+
+    /**
+     * Returns the out-arc of edge e.
+     */
+    private static int firstOutArc(IntBuffer offsets, IntBuffer middles,
+                                   IntBuffer arcEdges, IntBuffer edgeSources,
+                                   int e) {
+        final int u = edgeSources.get(e);
+        for (int arc = offsets.get(u); arc < middles.get(u); arc++) {
+            if (arcEdges.get(arc) == e) {
+                return arc;
+            }
+        }
+        throw new IllegalStateException("Edge " + e + " has no out-arc.");
+    }
+
+    /**
+     * Checks that every section fits in a single mapping.
+     */
+    private static void checkSize(int n, int m) throws IOException {
+        if (n < 0 || m < 0 || n == Integer.MAX_VALUE
+                || 16L * m > Integer.MAX_VALUE) {
+            throw new IOException("Graph too large for a CSR graph file: "
+                    + n + " vertices, " + m + " edges.");
+        }
+    }
+
+    /**
+     * Maps the weights privately so that setEdgeWeight does not write
+     * through, or copies them if the file is read-only.
+     */
+    private static DoubleBuffer mapWeights(FileChannel channel, long position,
+                                           int count, boolean writable)
+            throws IOException {
+        if (writable) {
+            return BinaryFile.mapDoubles(
+                    channel, FileChannel.MapMode.PRIVATE, position, count);
+        }
+        final DoubleBuffer mapped =
+                BinaryFile.mapDoubles(channel, position, count);
+        final double[] weights = new double[count];
+        mapped.get(weights);
+        return DoubleBuffer.wrap(weights);
+    }
+}
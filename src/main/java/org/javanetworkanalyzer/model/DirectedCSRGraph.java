@@ -0,0 +1,101 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.model;
+
+import org.javanetworkanalyzer.data.VId;
+
+import java.util.Set;
+
+/**
+ * A directed (or edge-reversed) {@link CSRGraph}.
+ *
+ * @author Adam Gouge
+ */
+public class DirectedCSRGraph<V extends VId, E extends EdgeID>
+        extends CSRGraph<V, E>
+        implements DirectedG<V, E> {
+
+    DirectedCSRGraph(int orientation, CSRData<V, E> data) {
+        super(orientation, data);
+        if (orientation == UNDIRECTED) {
+            throw new IllegalArgumentException(
+                    "A directed CSR graph must be directed or reversed.");
+        }
+    }
+
+    DirectedCSRGraph(CSRGraph<V, E> g, int orientation) {
+        super(g, orientation);
+    }
+
+    /**
+     * Returns the first incoming arc of the given vertex.
+     *
+     * @param u Vertex index
+     * @return The first incoming arc of u
+     */
+    public int firstInArc(int u) {
+        return (orientation == REVERSED) ? offsets.get(u) : middles.get(u);
+    }
+
+    /**
+     * Returns one more than the last incoming arc of the given vertex.
+     *
+     * @param u Vertex index
+     * @return The end of the incoming arcs of u
+     */
+    public int endInArc(int u) {
+        return (orientation == REVERSED) ? middles.get(u) : offsets.get(u + 1);
+    }
+
+    @Override
+    public int inDegreeOf(V vertex) {
+        final int u = checkedIndexOf(vertex);
+        return endInArc(u) - firstInArc(u);
+    }
+
+    @Override
+    public Set<E> incomingEdgesOf(V vertex) {
+        final int u = checkedIndexOf(vertex);
+        return arcEdgeSet(u, firstInArc(u), endInArc(u), false);
+    }
+
+    @Override
+    public int outDegreeOf(V vertex) {
+        final int u = checkedIndexOf(vertex);
+        return endArc(u) - firstArc(u);
+    }
+
+    @Override
+    public Set<E> outgoingEdgesOf(V vertex) {
+        final int u = checkedIndexOf(vertex);
+        return arcEdgeSet(u, firstArc(u), endArc(u), false);
+    }
+
+    @Override
+    public Set<E> edgesOf(V vertex) {
+        final int u = checkedIndexOf(vertex);
+        return arcEdgeSet(u, offsets.get(u), offsets.get(u + 1), true);
+    }
+}
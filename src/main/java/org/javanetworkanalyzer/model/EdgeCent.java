@@ -24,6 +24,10 @@ public class EdgeCent extends Edge<EdgeCent> {
         dependency += additionalDependency;
     }
 
+    public void setDependency(double dependency) {
+        this.dependency = dependency;
+    }
+
     public double getBetweenness() {
         return betweenness;
     }
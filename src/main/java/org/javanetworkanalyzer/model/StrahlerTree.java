@@ -25,15 +25,26 @@
 package org.javanetworkanalyzer.model;
 
 import org.javanetworkanalyzer.data.VStrahler;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import org.jgrapht.EdgeFactory;
+import org.jgrapht.Graphs;
 import org.jgrapht.graph.DirectedPseudograph;
 import org.jgrapht.graph.SimpleGraph;
 
 /**
  * A tree for use in the Strahler algorithm.
  *
+ * <p> Once {@link #calculateStrahlerNumbers()} has been called, the tree keeps
+ * its Strahler numbers up to date as tributaries are added with
+ * {@link #addEdge(int, int)} and removed with {@link #removeEdge(int, int)}.
+ * Only the Strahler numbers on the path from the edit to the root can change,
+ * and they are recalculated upwards until one is unchanged, so an edit
+ * usually costs a few steps rather than a traversal of the whole tree. Edges
+ * added or removed by other methods are not taken into account.
+ *
  * @param <E> Edge class.
  *
  * @author Adam Gouge
@@ -48,6 +59,13 @@ public class StrahlerTree<E> extends SimpleGraph<VStrahler, E> {
      * Map of ids to vertices.
      */
     private final Map<Integer, VStrahler> nodeMap;
+    /**
+     * Map of the nodes of the tree whose Strahler numbers are maintained to
+     * their parents (null for the root); empty until
+     * {@link #calculateStrahlerNumbers()} is called.
+     */
+    private final Map<VStrahler, VStrahler> parentMap =
+            new HashMap<VStrahler, VStrahler>();
 
     /**
      * @see AbstractBaseGraph
@@ -103,6 +121,7 @@ public class StrahlerTree<E> extends SimpleGraph<VStrahler, E> {
         VStrahler candidate = getVertex(id);
         if (candidate != null) {
             rootVertex = candidate;
+            parentMap.clear();
         } else {
             throw new IllegalStateException(
                     "This vertex does not exist!");
@@ -121,6 +140,11 @@ public class StrahlerTree<E> extends SimpleGraph<VStrahler, E> {
     /**
      * Add an edge from the vertex with id source to the vertex with id target.
      *
+     * <p> If Strahler numbers are being maintained and one of the vertices is
+     * in the tree, the other one, along with anything connected to it, is
+     * attached to the tree as a tributary and the Strahler numbers are
+     * updated.
+     *
      * @param source Source id.
      * @param target Target Id.
      *
@@ -133,6 +157,185 @@ public class StrahlerTree<E> extends SimpleGraph<VStrahler, E> {
         if (!containsVertex(getVertex(target))) {
             addVertex(target);
         }
-        return addEdge(getVertex(source), getVertex(target));
+        final VStrahler sourceNode = getVertex(source);
+        final VStrahler targetNode = getVertex(target);
+        final boolean sourceInTree = parentMap.containsKey(sourceNode);
+        final boolean targetInTree = parentMap.containsKey(targetNode);
+        if (sourceInTree && targetInTree) {
+            throw new IllegalStateException(
+                    "An edge between two nodes of the tree would create a "
+                    + "cycle!");
+        }
+        final E edge = addEdge(sourceNode, targetNode);
+        if (edge != null) {
+            if (sourceInTree) {
+                attach(targetNode, sourceNode);
+            } else if (targetInTree) {
+                attach(sourceNode, targetNode);
+            }
+        }
+        return edge;
+    }
+
+    /**
+     * Remove the edge between the vertices with ids source and target.
+     *
+     * <p> If Strahler numbers are being maintained and the edge is in the
+     * tree, the tributary it connected is detached from the tree (its nodes
+     * get a Strahler number of -1) and the Strahler numbers are updated.
+     *
+     * @param source Source id.
+     * @param target Target Id.
+     *
+     * @return The removed edge, or null if there was no such edge.
+     */
+    public E removeEdge(int source, int target) {
+        final VStrahler sourceNode = getVertex(source);
+        final VStrahler targetNode = getVertex(target);
+        if (sourceNode == null || targetNode == null) {
+            return null;
+        }
+        final E edge = removeEdge(sourceNode, targetNode);
+        if (edge != null && parentMap.containsKey(sourceNode)
+                && parentMap.containsKey(targetNode)) {
+            if (parentMap.get(targetNode) == sourceNode) {
+                detach(targetNode);
+                propagate(sourceNode);
+            } else {
+                detach(sourceNode);
+                propagate(targetNode);
+            }
+        }
+        return edge;
+    }
+
+    /**
+     * Calculates the Strahler numbers of the nodes connected to the root
+     * vertex and maintains them from now on.
+     */
+    public void calculateStrahlerNumbers() {
+        if (rootVertex == null) {
+            throw new IllegalStateException("The root vertex is not set!");
+        }
+        for (VStrahler node : parentMap.keySet()) {
+            node.setStrahlerNumber(-1);
+        }
+        parentMap.clear();
+        attach(rootVertex, null);
+    }
+
+    /**
+     * Returns the parent of the given node in the tree, or null if it is the
+     * root or Strahler numbers are not being maintained for it.
+     *
+     * @param node The node.
+     *
+     * @return The parent of the given node.
+     */
+    public VStrahler getParent(VStrahler node) {
+        return parentMap.get(node);
+    }
+
+    /**
+     * Attaches the given node and the nodes connected to it outside the tree
+     * as a subtree of the given parent, calculates their Strahler numbers and
+     * updates those of the parent and its ancestors.
+     *
+     * @param top    The top of the subtree.
+     * @param parent Its parent, or null for the root.
+     */
+    private void attach(VStrahler top, VStrahler parent) {
+        // Breadth-first, so that children follow their parents.
+        final List<VStrahler> order = new ArrayList<VStrahler>();
+        parentMap.put(top, parent);
+        order.add(top);
+        for (int i = 0; i < order.size(); i++) {
+            final VStrahler node = order.get(i);
+            for (E edge : edgesOf(node)) {
+                final VStrahler neighbor =
+                        Graphs.getOppositeVertex(this, edge, node);
+                if (!parentMap.containsKey(neighbor)) {
+                    parentMap.put(neighbor, node);
+                    order.add(neighbor);
+                }
+            }
+        }
+        for (int i = order.size() - 1; i >= 0; i--) {
+            final VStrahler node = order.get(i);
+            node.setStrahlerNumber(strahlerNumberOf(node));
+        }
+        if (parent != null) {
+            propagate(parent);
+        }
+    }
+
+    /**
+     * Detaches the subtree rooted at the given node from the tree.
+     *
+     * @param top The top of the subtree.
+     */
+    private void detach(VStrahler top) {
+        final List<VStrahler> stack = new ArrayList<VStrahler>();
+        stack.add(top);
+        while (!stack.isEmpty()) {
+            final VStrahler node = stack.remove(stack.size() - 1);
+            for (E edge : edgesOf(node)) {
+                final VStrahler neighbor =
+                        Graphs.getOppositeVertex(this, edge, node);
+                if (parentMap.get(neighbor) == node) {
+                    stack.add(neighbor);
+                }
+            }
+            parentMap.remove(node);
+            node.setStrahlerNumber(-1);
+        }
+    }
+
+    /**
+     * Recalculates the Strahler numbers from the given node upwards, stopping
+     * at the first one which is unchanged.
+     *
+     * @param node The node.
+     */
+    private void propagate(VStrahler node) {
+        while (node != null) {
+            final int strahlerNumber = strahlerNumberOf(node);
+            if (strahlerNumber == node.getStrahlerNumber()) {
+                return;
+            }
+            node.setStrahlerNumber(strahlerNumber);
+            node = parentMap.get(node);
+        }
+    }
+
+    /**
+     * Calculates the Strahler number of the given node from those of its
+     * children.
+     *
+     * @param node The node.
+     *
+     * @return The Strahler number of the given node.
+     */
+    private int strahlerNumberOf(VStrahler node) {
+        final VStrahler parent = parentMap.get(node);
+        int max = 0;
+        int maxCount = 0;
+        for (E edge : edgesOf(node)) {
+            final VStrahler child = Graphs.getOppositeVertex(this, edge, node);
+            if (child != parent) {
+                final int s = child.getStrahlerNumber();
+                if (s > max) {
+                    max = s;
+                    maxCount = 1;
+                } else if (s == max) {
+                    maxCount++;
+                }
+            }
+        }
+        if (maxCount == 0) {
+            // A leaf.
+            return 1;
+        }
+        return maxCount > 1 ? max + 1 : max;
     }
 }
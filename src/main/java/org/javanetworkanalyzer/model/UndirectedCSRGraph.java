@@ -0,0 +1,68 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.model;
+
+import org.javanetworkanalyzer.data.VId;
+
+import java.util.Set;
+
+/**
+ * An undirected {@link CSRGraph}.
+ *
+ * @author Adam Gouge
+ */
+public class UndirectedCSRGraph<V extends VId, E extends EdgeID>
+        extends CSRGraph<V, E>
+        implements UndirectedG<V, E> {
+
+    UndirectedCSRGraph(int orientation, CSRData<V, E> data) {
+        super(orientation, data);
+        if (orientation != UNDIRECTED) {
+            throw new IllegalArgumentException(
+                    "An undirected CSR graph must be undirected.");
+        }
+    }
+
+    UndirectedCSRGraph(CSRGraph<V, E> g, int orientation) {
+        super(g, orientation);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p> As in JGraphT, self-loops count twice.
+     */
+    @Override
+    public int degreeOf(V vertex) {
+        final int u = checkedIndexOf(vertex);
+        return endArc(u) - firstArc(u);
+    }
+
+    @Override
+    public Set<E> edgesOf(V vertex) {
+        final int u = checkedIndexOf(vertex);
+        return arcEdgeSet(u, firstArc(u), endArc(u), true);
+    }
+}
@@ -0,0 +1,202 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.alg;
+
+import org.javanetworkanalyzer.data.VWCent;
+import org.javanetworkanalyzer.graphcreators.CoordinateReader;
+import org.javanetworkanalyzer.graphcreators.GraphCreator;
+import org.javanetworkanalyzer.graphcreators.WeightedGraphCreator;
+import org.javanetworkanalyzer.model.CSRGraph;
+import org.javanetworkanalyzer.model.Edge;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link AStar} with the Euclidean and landmark heuristics against
+ * Dijkstra's algorithm.
+ *
+ * @author Adam Gouge
+ */
+public class AStarTest {
+
+    private static final double TOLERANCE = 0.000000001;
+    private static final int SIDE = 30;
+    private static final AStarHeuristic ZERO = new AStarHeuristic() {
+        @Override
+        public double estimate(int u, int target) {
+            return 0.0;
+        }
+    };
+
+    @Test
+    public void testEuclidean() {
+        double[][] coordinates = new double[2][];
+        CSRGraph<VWCent, Edge> graph = grid(new Random(1), coordinates);
+        AStarHeuristic euclidean = new EuclideanHeuristic(
+                coordinates[0], coordinates[1], 1.0);
+        int[] settled = check(graph, euclidean, new Random(2));
+        // Far fewer vertices are settled than by Dijkstra.
+        assertTrue(2 * settled[1] < settled[0]);
+    }
+
+    @Test
+    public void testLandmarks() throws Exception {
+        CSRGraph<VWCent, Edge> graph = grid(new Random(3), new double[2][]);
+        for (int orientation = CSRGraph.DIRECTED;
+             orientation <= CSRGraph.UNDIRECTED; orientation++) {
+            CSRGraph<VWCent, Edge> g = graph.withOrientation(orientation);
+            Landmarks landmarks = Landmarks.select(g, 8);
+            int[] settled = check(g, landmarks, new Random(4));
+            assertTrue(2 * settled[1] < settled[0]);
+
+            // The tables read back from disk give the same estimates.
+            File file = File.createTempFile("landmarks", ".alt");
+            try {
+                landmarks.write(file);
+                Landmarks read = Landmarks.read(file, g);
+                assertArrayEquals(landmarks.getLandmarks(),
+                                  read.getLandmarks());
+                for (int u = 0; u < g.getVertexCount(); u += 7) {
+                    for (int t = 0; t < g.getVertexCount(); t += 11) {
+                        assertEquals(landmarks.estimate(u, t),
+                                     read.estimate(u, t), 0.0);
+                    }
+                }
+            } finally {
+                file.delete();
+            }
+        }
+    }
+
+    @Test
+    public void testGraph2D() throws Exception {
+        String filename = "./files/graph2D.edges.csv";
+        CSRGraph<VWCent, Edge> graph = new WeightedGraphCreator<VWCent, Edge>(
+                filename, GraphCreator.UNDIRECTED, VWCent.class, Edge.class,
+                "length").loadCSRGraph();
+        double[][] coordinates = new CoordinateReader(filename).read(graph);
+        check(graph, new EuclideanHeuristic(
+                coordinates[0], coordinates[1], 1.0), new Random(5));
+    }
+
+    /**
+     * Compares A* with the given heuristic to Dijkstra on random queries and
+     * returns the number of vertices settled by each.
+     */
+    private static int[] check(CSRGraph<VWCent, Edge> graph,
+                               AStarHeuristic heuristic, Random random) {
+        AStar dijkstra = new AStar(graph, ZERO);
+        AStar aStar = new AStar(graph, heuristic);
+        int[] settled = new int[2];
+        int n = graph.getVertexCount();
+        for (int i = 0; i < 50; i++) {
+            int s = random.nextInt(n);
+            int t = random.nextInt(n);
+            double expected = dijkstra.calculate(s, t);
+            assertEquals(expected, aStar.calculate(s, t), TOLERANCE);
+            settled[0] += dijkstra.getSettledCount();
+            settled[1] += aStar.getSettledCount();
+            int[] path = aStar.getPath();
+            if (expected == Double.POSITIVE_INFINITY) {
+                assertEquals(0, path.length);
+                continue;
+            }
+            assertEquals(s, path[0]);
+            assertEquals(t, path[path.length - 1]);
+            double length = 0.0;
+            for (int j = 1; j < path.length; j++) {
+                double best = Double.POSITIVE_INFINITY;
+                for (int arc = graph.firstArc(path[j - 1]);
+                     arc < graph.endArc(path[j - 1]); arc++) {
+                    if (graph.arcTarget(arc) == path[j]) {
+                        best = Math.min(best, graph.arcWeight(arc));
+                    }
+                }
+                length += best;
+            }
+            assertEquals(expected, length, TOLERANCE);
+        }
+        return settled;
+    }
+
+    /**
+     * Returns a directed grid with jittered vertex coordinates, random edge
+     * directions and edge weights at least the Euclidean edge length.
+     */
+    private static CSRGraph<VWCent, Edge> grid(Random random,
+                                               double[][] coordinates) {
+        int n = SIDE * SIDE;
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = i % SIDE + 0.3 * random.nextDouble();
+            y[i] = i / SIDE + 0.3 * random.nextDouble();
+        }
+        CSRGraph.Builder<VWCent, Edge> builder;
+        try {
+            builder = new CSRGraph.Builder<VWCent, Edge>(
+                    VWCent.class, Edge.class);
+        } catch (NoSuchMethodException ex) {
+            throw new IllegalStateException(ex);
+        }
+        int id = 1;
+        for (int i = 0; i < n; i++) {
+            if (i % SIDE + 1 < SIDE) {
+                addEdges(builder, random, x, y, i, i + 1, id);
+                id += 2;
+            }
+            if (i + SIDE < n) {
+                addEdges(builder, random, x, y, i, i + SIDE, id);
+                id += 2;
+            }
+        }
+        coordinates[0] = x;
+        coordinates[1] = y;
+        return builder.build(CSRGraph.DIRECTED);
+    }
+
+    /**
+     * Adds an edge between u and v in a random direction, and most of the
+     * time one in the opposite direction too.
+     */
+    private static void addEdges(CSRGraph.Builder<VWCent, Edge> builder,
+                                 Random random, double[] x, double[] y,
+                                 int u, int v, int id) {
+        double length = Math.hypot(x[u] - x[v], y[u] - y[v]);
+        boolean forward = random.nextBoolean();
+        builder.addEdge(forward ? u : v, forward ? v : u,
+                        length * (1 + 0.2 * random.nextDouble()), id);
+        if (random.nextInt(10) > 0) {
+            builder.addEdge(forward ? v : u, forward ? u : v,
+                            length * (1 + 0.2 * random.nextDouble()), id + 1);
+        }
+    }
+}
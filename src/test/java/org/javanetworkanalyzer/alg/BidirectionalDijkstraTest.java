@@ -0,0 +1,216 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.alg;
+
+import org.javanetworkanalyzer.data.VDijkstra;
+import org.javanetworkanalyzer.model.CSRGraph;
+import org.javanetworkanalyzer.model.DirectedWeightedPseudoG;
+import org.javanetworkanalyzer.model.Edge;
+import org.javanetworkanalyzer.model.KeyedGraph;
+import org.javanetworkanalyzer.model.WeightedPseudoG;
+import org.jgrapht.DirectedGraph;
+import org.jgrapht.Graph;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link BidirectionalDijkstra} against unidirectional Dijkstra on
+ * random graphs.
+ *
+ * @author Adam Gouge
+ */
+public class BidirectionalDijkstraTest {
+
+    private static final double TOLERANCE = 0.000000001;
+    private static final int VERTICES = 40;
+    private static final int EDGES = 100;
+
+    @Test
+    public void testDirected() throws NoSuchMethodException {
+        DirectedWeightedPseudoG<VDijkstra, Edge> g =
+                new DirectedWeightedPseudoG<VDijkstra, Edge>(
+                VDijkstra.class, Edge.class);
+        fill(g, new Random(1));
+        check(g);
+    }
+
+    @Test
+    public void testUndirected() throws NoSuchMethodException {
+        WeightedPseudoG<VDijkstra, Edge> g =
+                new WeightedPseudoG<VDijkstra, Edge>(
+                VDijkstra.class, Edge.class);
+        fill(g, new Random(2));
+        check(g);
+    }
+
+    @Test
+    public void testCSR() throws NoSuchMethodException {
+        DirectedWeightedPseudoG<VDijkstra, Edge> g =
+                new DirectedWeightedPseudoG<VDijkstra, Edge>(
+                VDijkstra.class, Edge.class);
+        fill(g, new Random(3));
+        CSRGraph<VDijkstra, Edge> csr = CSRGraph.fromGraph(g);
+        check(csr);
+        check(csr.withOrientation(CSRGraph.REVERSED));
+        check(csr.withOrientation(CSRGraph.UNDIRECTED));
+    }
+
+    @Test
+    public void testUnreachable() throws NoSuchMethodException {
+        DirectedWeightedPseudoG<VDijkstra, Edge> g =
+                new DirectedWeightedPseudoG<VDijkstra, Edge>(
+                VDijkstra.class, Edge.class);
+        g.addEdge(1, 2).setWeight(1.0);
+        g.addEdge(3, 2).setWeight(1.0);
+        BidirectionalDijkstra<VDijkstra, Edge> dijkstra =
+                new BidirectionalDijkstra<VDijkstra, Edge>(g);
+        assertEquals(Double.POSITIVE_INFINITY,
+                     dijkstra.calculate(g.getVertex(1), g.getVertex(3)),
+                     TOLERANCE);
+        assertTrue(dijkstra.getPath().isEmpty());
+        assertTrue(dijkstra.getPathVertices().isEmpty());
+        assertEquals(1.0, dijkstra.calculate(g.getVertex(3), g.getVertex(2)),
+                     TOLERANCE);
+        assertEquals(1, dijkstra.getPath().size());
+    }
+
+    @Test
+    public void testModifiedGraph() throws NoSuchMethodException {
+        DirectedWeightedPseudoG<VDijkstra, Edge> g =
+                new DirectedWeightedPseudoG<VDijkstra, Edge>(
+                VDijkstra.class, Edge.class);
+        g.addEdge(1, 2, 1).setWeight(1.0);
+        g.addEdge(2, 3, 2).setWeight(1.0);
+        Dijkstra<VDijkstra, Edge> dijkstra = new Dijkstra<VDijkstra, Edge>(g);
+        assertEquals(2.0, dijkstra.oneToOneBidirectional(g.getVertex(1), g.getVertex(3)),
+                     TOLERANCE);
+        // Replace vertex 3 by vertex 4, keeping the vertex count.
+        g.removeVertex(g.getVertex(3));
+        g.addEdge(2, 4, 3).setWeight(1.0);
+        assertEquals(2.0, dijkstra.oneToOneBidirectional(g.getVertex(1), g.getVertex(4)),
+                     TOLERANCE);
+        assertEquals(Double.POSITIVE_INFINITY,
+                     dijkstra.oneToOneBidirectional(g.getVertex(2), g.getVertex(1)),
+                     TOLERANCE);
+        // A shorter path through a new vertex between known endpoints.
+        g.addEdge(1, 5, 4).setWeight(0.5);
+        g.addEdge(5, 4, 5).setWeight(0.5);
+        assertEquals(1.0, dijkstra.oneToOneBidirectional(g.getVertex(1), g.getVertex(4)),
+                     TOLERANCE);
+    }
+
+    @Test
+    public void testOneToOneContract() throws NoSuchMethodException {
+        DirectedWeightedPseudoG<VDijkstra, Edge> g =
+                new DirectedWeightedPseudoG<VDijkstra, Edge>(
+                VDijkstra.class, Edge.class);
+        g.addEdge(1, 2, 1).setWeight(1.0);
+        g.addEdge(2, 3, 2).setWeight(2.0);
+        g.addEdge(1, 3, 3).setWeight(4.0);
+        VDijkstra v1 = g.getVertex(1);
+        VDijkstra v2 = g.getVertex(2);
+        VDijkstra v3 = g.getVertex(3);
+        Dijkstra<VDijkstra, Edge> dijkstra = new Dijkstra<VDijkstra, Edge>(g);
+
+        // oneToOne and a single-target oneToMany store the distance and the
+        // predecessors in the vertex objects.
+        assertEquals(3.0, dijkstra.oneToOne(v1, v3), TOLERANCE);
+        assertEquals(3.0, v3.getDistance(), TOLERANCE);
+        assertEquals(1, v3.getPredecessors().size());
+        assertTrue(v3.getPredecessors().contains(v2));
+        v3.reset();
+        assertEquals(3.0, dijkstra.oneToMany(v1, Collections.singleton(v3))
+                .get(v3), TOLERANCE);
+        assertEquals(3.0, v3.getDistance(), TOLERANCE);
+        assertTrue(v3.getPredecessors().contains(v2));
+
+        // The bidirectional search leaves them untouched.
+        v3.reset();
+        assertEquals(3.0, dijkstra.oneToOneBidirectional(v1, v3), TOLERANCE);
+        assertEquals(Double.POSITIVE_INFINITY, v3.getDistance(), TOLERANCE);
+        assertTrue(v3.getPredecessors().isEmpty());
+        assertEquals(2, dijkstra.getBidirectional().getPath().size());
+    }
+
+    private static void fill(KeyedGraph<VDijkstra, Edge> g, Random random) {
+        for (int i = 1; i <= VERTICES; i++) {
+            g.addVertex(i);
+        }
+        for (int i = 0; i < EDGES; i++) {
+            g.addEdge(1 + random.nextInt(VERTICES),
+                      1 + random.nextInt(VERTICES), i + 1)
+                    .setWeight(1 + random.nextInt(10));
+        }
+    }
+
+    private static void check(Graph<VDijkstra, Edge> g) {
+        BidirectionalDijkstra<VDijkstra, Edge> bidirectional =
+                new BidirectionalDijkstra<VDijkstra, Edge>(g);
+        Dijkstra<VDijkstra, Edge> dijkstra = new Dijkstra<VDijkstra, Edge>(g);
+        for (VDijkstra source : g.vertexSet()) {
+            dijkstra.calculate(source);
+            for (VDijkstra target : g.vertexSet()) {
+                double expected = target.getDistance();
+                assertEquals(expected,
+                             bidirectional.calculate(source, target),
+                             TOLERANCE);
+                if (expected == Double.POSITIVE_INFINITY) {
+                    continue;
+                }
+                // The path leads from the source to the target and has the
+                // right length.
+                List<VDijkstra> vertices = bidirectional.getPathVertices();
+                List<Edge> edges = bidirectional.getPath();
+                assertSame(source, vertices.get(0));
+                assertSame(target, vertices.get(vertices.size() - 1));
+                assertEquals(vertices.size() - 1, edges.size());
+                double length = 0.0;
+                for (int i = 0; i < edges.size(); i++) {
+                    Edge e = edges.get(i);
+                    VDijkstra u = vertices.get(i);
+                    VDijkstra v = vertices.get(i + 1);
+                    if (g instanceof DirectedGraph) {
+                        assertSame(u, g.getEdgeSource(e));
+                        assertSame(v, g.getEdgeTarget(e));
+                    } else {
+                        assertTrue((u == g.getEdgeSource(e)
+                                && v == g.getEdgeTarget(e))
+                                || (v == g.getEdgeSource(e)
+                                && u == g.getEdgeTarget(e)));
+                    }
+                    length += g.getEdgeWeight(e);
+                }
+                assertEquals(expected, length, TOLERANCE);
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.alg;
+
+import org.javanetworkanalyzer.data.VDijkstra;
+import org.javanetworkanalyzer.model.CSRGraph;
+import org.javanetworkanalyzer.model.DirectedWeightedPseudoG;
+import org.javanetworkanalyzer.model.Edge;
+import org.javanetworkanalyzer.model.KeyedGraph;
+import org.javanetworkanalyzer.model.WeightedPseudoG;
+import org.jgrapht.Graph;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link ContractionHierarchy} and {@link CHQuery} against Dijkstra's
+ * algorithm on random graphs.
+ *
+ * @author Adam Gouge
+ */
+public class ContractionHierarchyTest {
+
+    private static final double TOLERANCE = 0.000000001;
+    private static final int VERTICES = 80;
+    private static final int EDGES = 240;
+
+    @Test
+    public void testDirected() throws Exception {
+        DirectedWeightedPseudoG<VDijkstra, Edge> g =
+                new DirectedWeightedPseudoG<VDijkstra, Edge>(
+                VDijkstra.class, Edge.class);
+        fill(g, new Random(1));
+        check(g, ContractionHierarchy.build(g));
+    }
+
+    @Test
+    public void testUndirected() throws Exception {
+        WeightedPseudoG<VDijkstra, Edge> g =
+                new WeightedPseudoG<VDijkstra, Edge>(
+                VDijkstra.class, Edge.class);
+        fill(g, new Random(2));
+        check(g, ContractionHierarchy.build(g));
+    }
+
+    @Test
+    public void testReadWrite() throws Exception {
+        DirectedWeightedPseudoG<VDijkstra, Edge> g =
+                new DirectedWeightedPseudoG<VDijkstra, Edge>(
+                VDijkstra.class, Edge.class);
+        fill(g, new Random(3));
+        ContractionHierarchy ch = ContractionHierarchy.build(g);
+        File file = File.createTempFile("graph", ".ch");
+        try {
+            ch.write(file);
+            ContractionHierarchy read = ContractionHierarchy.read(file);
+            assertEquals(ch.getVertexCount(), read.getVertexCount());
+            assertEquals(ch.getShortcutCount(), read.getShortcutCount());
+            for (int u = 0; u < ch.getVertexCount(); u++) {
+                assertEquals(ch.getID(u), read.getID(u));
+                assertEquals(ch.getRank(u), read.getRank(u));
+            }
+            check(g, read);
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static void fill(KeyedGraph<VDijkstra, Edge> g, Random random) {
+        for (int i = 1; i <= VERTICES; i++) {
+            g.addVertex(i);
+        }
+        for (int i = 0; i < EDGES; i++) {
+            g.addEdge(1 + random.nextInt(VERTICES),
+                      1 + random.nextInt(VERTICES), i + 1)
+                    .setWeight(1 + random.nextInt(20));
+        }
+    }
+
+    private static void check(Graph<VDijkstra, Edge> g,
+                              ContractionHierarchy ch) {
+        CSRGraph<VDijkstra, Edge> csr = CSRGraph.fromGraph(g);
+        CSRDijkstra dijkstra = new CSRDijkstra(csr);
+        CHQuery query = new CHQuery(ch);
+        int n = ch.getVertexCount();
+        double[][] expected = new double[n][n];
+        for (int s = 0; s < n; s++) {
+            // The hierarchy has the same vertex indices as the CSR graph.
+            assertEquals(csr.getID(s), ch.getID(s));
+            dijkstra.calculate(s);
+            for (int t = 0; t < n; t++) {
+                expected[s][t] = dijkstra.getDistance(t);
+                assertEquals(expected[s][t], query.oneToOne(s, t), TOLERANCE);
+                checkPath(csr, s, t, expected[s][t], query.getPath());
+            }
+        }
+        int[] sources = new int[n / 2];
+        int[] targets = new int[n / 3];
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = 2 * i;
+        }
+        for (int j = 0; j < targets.length; j++) {
+            targets[j] = 3 * j + 1;
+        }
+        double[][] table = query.manyToMany(sources, targets);
+        for (int i = 0; i < sources.length; i++) {
+            for (int j = 0; j < targets.length; j++) {
+                assertEquals(expected[sources[i]][targets[j]], table[i][j],
+                             TOLERANCE);
+            }
+        }
+    }
+
+    /**
+     * Checks that the path leads from s to t over arcs of the graph and has
+     * the expected length.
+     */
+    private static void checkPath(CSRGraph<?, ?> csr, int s, int t,
+                                  double expected, int[] path) {
+        if (expected == Double.POSITIVE_INFINITY) {
+            assertEquals(0, path.length);
+            return;
+        }
+        assertEquals(s, path[0]);
+        assertEquals(t, path[path.length - 1]);
+        double length = 0.0;
+        for (int i = 1; i < path.length; i++) {
+            double best = Double.POSITIVE_INFINITY;
+            for (int arc = csr.firstArc(path[i - 1]);
+                 arc < csr.endArc(path[i - 1]); arc++) {
+                if (csr.arcTarget(arc) == path[i]) {
+                    best = Math.min(best, csr.arcWeight(arc));
+                }
+            }
+            assertTrue(best < Double.POSITIVE_INFINITY);
+            length += best;
+        }
+        assertEquals(expected, length, TOLERANCE);
+    }
+}
@@ -27,8 +27,10 @@ package org.javanetworkanalyzer.alg;
 import junit.framework.TestCase;
 import org.javanetworkanalyzer.data.VDFS;
 import org.javanetworkanalyzer.model.AsUndirectedG;
+import org.javanetworkanalyzer.model.CSRGraph;
 import org.javanetworkanalyzer.model.DirectedPseudoG;
 import org.javanetworkanalyzer.model.Edge;
+import org.javanetworkanalyzer.model.KeyedGraph;
 import org.junit.Test;
 
 /**
@@ -86,6 +88,34 @@ public class DFSTest extends TestCase {
         assertTrue(v6.getFinishingTime() == 8);
     }
 
+    /**
+     * Checks that a path far longer than the Java stack allows for a
+     * recursive search is searched, both as a graph and as a CSR graph.
+     */
+    @Test
+    public void testDeepPath() {
+        final int n = 200000;
+        checkPath(path(n), n);
+        checkPath(CSRGraph.fromGraph(path(n)), n);
+    }
+
+    private static DirectedPseudoG<VDFS, Edge> path(int n) {
+        DirectedPseudoG<VDFS, Edge> path =
+                new DirectedPseudoG<VDFS, Edge>(VDFS.class, Edge.class);
+        for (int i = 1; i < n; i++) {
+            path.addEdge(i, i + 1, i);
+        }
+        return path;
+    }
+
+    private static void checkPath(KeyedGraph<VDFS, Edge> path, int n) {
+        new DFS<VDFS, Edge>(path).calculate(path.getVertex(1));
+        for (int i = 1; i <= n; i++) {
+            assertEquals(i, path.getVertex(i).getDiscoveryTime());
+            assertEquals(2 * n + 1 - i, path.getVertex(i).getFinishingTime());
+        }
+    }
+
     @Override
     public void setUp() {
         graph = new DirectedPseudoG<VDFS, Edge>(VDFS.class, Edge.class);
@@ -66,6 +66,22 @@ public class DijkstraCormenTest {
         assertTrue(sPT.containsEdge(v5, v1));
     }
 
+    @Test
+    public void testWDVertexAtRadius() throws NoSuchMethodException {
+        dijkstra = new Dijkstra<VDijkstra, Edge>(graph);
+        final double radius = 11.0;
+        dijkstra.calculate(v3, radius);
+        // v1 is exactly at the radius, so it is settled and relaxed.
+        assertEquals(11, v1.getDistance(), TOLERANCE);
+        assertEquals(16, v4.getDistance(), TOLERANCE);
+        assertEquals(21, v2.getDistance(), TOLERANCE);
+        sPT = dijkstra.reconstructTraversalGraph(radius);
+        assertTrue(sPT.edgeSet().size() == 2);
+        assertTrue(sPT.containsEdge(v3, v5));
+        assertTrue(sPT.containsEdge(v5, v1));
+        assertTrue(!sPT.containsVertex(v4));
+    }
+
     @Test
     public void testWD() throws NoSuchMethodException {
 
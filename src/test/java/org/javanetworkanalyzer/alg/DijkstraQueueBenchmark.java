@@ -0,0 +1,117 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.alg;
+
+import org.javanetworkanalyzer.data.VDijkstra;
+import org.javanetworkanalyzer.model.CSRGraph;
+import org.javanetworkanalyzer.model.DirectedWeightedPseudoG;
+import org.javanetworkanalyzer.model.Edge;
+import org.javanetworkanalyzer.model.KeyedGraph;
+
+import java.util.Random;
+
+/**
+ * Compares the running time of {@link Dijkstra} using a
+ * {@link PriorityDijkstraQueue} (O(n) decrease-key) and a
+ * {@link HeapDijkstraQueue} (O(log n) decrease-key) on square grids with
+ * random weights.
+ *
+ * <p> Not run as part of the test suite. Usage:
+ * <pre>
+ * java DijkstraQueueBenchmark [side] [sources]
+ * </pre>
+ *
+ * @author Adam Gouge
+ */
+public class DijkstraQueueBenchmark {
+
+    public static void main(String[] args) throws NoSuchMethodException {
+        final int side = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        final int sources = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+
+        final DirectedWeightedPseudoG<VDijkstra, Edge> graph = grid(side);
+        final CSRGraph<VDijkstra, Edge> csr = CSRGraph.fromGraph(graph);
+        System.out.println(side + "x" + side + " grid: "
+                + graph.vertexSet().size() + " vertices, "
+                + graph.edgeSet().size() + " edges, "
+                + sources + " sources.");
+
+        time("PriorityQueue", graph, new Dijkstra<VDijkstra, Edge>(
+                graph, new PriorityDijkstraQueue<VDijkstra>(side * side)),
+             sources);
+        time("4-ary heap", graph, new Dijkstra<VDijkstra, Edge>(
+                graph, new HeapDijkstraQueue<VDijkstra>(graph)), sources);
+        time("2-ary heap", graph, new Dijkstra<VDijkstra, Edge>(
+                graph, new HeapDijkstraQueue<VDijkstra>(graph, 2)), sources);
+        time("4-ary heap, CSR", csr, new Dijkstra<VDijkstra, Edge>(
+                csr, new HeapDijkstraQueue<VDijkstra>(csr)), sources);
+    }
+
+    /**
+     * Creates a side x side grid with edges in both directions between
+     * horizontal and vertical neighbors, with random integer weights.
+     */
+    private static DirectedWeightedPseudoG<VDijkstra, Edge> grid(int side)
+            throws NoSuchMethodException {
+        final Random random = new Random(1);
+        final DirectedWeightedPseudoG<VDijkstra, Edge> graph =
+                new DirectedWeightedPseudoG<VDijkstra, Edge>(
+                VDijkstra.class, Edge.class);
+        for (int i = 0; i < side; i++) {
+            for (int j = 0; j < side; j++) {
+                final int v = i * side + j + 1;
+                if (j + 1 < side) {
+                    graph.addEdge(v, v + 1).setWeight(1 + random.nextInt(100));
+                    graph.addEdge(v + 1, v).setWeight(1 + random.nextInt(100));
+                }
+                if (i + 1 < side) {
+                    graph.addEdge(v, v + side).setWeight(1 + random.nextInt(100));
+                    graph.addEdge(v + side, v).setWeight(1 + random.nextInt(100));
+                }
+            }
+        }
+        return graph;
+    }
+
+    private static void time(String name, KeyedGraph<VDijkstra, Edge> graph,
+                             Dijkstra<VDijkstra, Edge> dijkstra,
+                             int sources) {
+        // Warm up.
+        dijkstra.calculate(graph.getVertex(1));
+        final long start = System.currentTimeMillis();
+        double checksum = 0.0;
+        final int n = graph.vertexSet().size();
+        for (int s = 0; s < sources; s++) {
+            final VDijkstra source = graph.getVertex(1 + (s * 7919) % n);
+            dijkstra.calculate(source);
+            for (VDijkstra v : graph.vertexSet()) {
+                checksum += v.getDistance();
+            }
+        }
+        final long stop = System.currentTimeMillis();
+        System.out.println(name + ": " + (stop - start) + " ms (checksum "
+                + checksum + ").");
+    }
+}
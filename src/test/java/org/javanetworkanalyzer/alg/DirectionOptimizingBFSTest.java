@@ -0,0 +1,171 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.alg;
+
+import org.javanetworkanalyzer.data.SearchState;
+import org.javanetworkanalyzer.data.VDijkstra;
+import org.javanetworkanalyzer.model.CSRGraph;
+import org.javanetworkanalyzer.model.DirectedWeightedPseudoG;
+import org.javanetworkanalyzer.model.Edge;
+import org.javanetworkanalyzer.model.KeyedGraph;
+import org.javanetworkanalyzer.model.WeightedPseudoG;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link DirectionOptimizingBFS} against a plain top-down BFS on
+ * random graphs dense enough for bottom-up steps to be taken.
+ *
+ * @author Adam Gouge
+ */
+public class DirectionOptimizingBFSTest {
+
+    private static final int VERTICES = 150;
+
+    @Test
+    public void testDirected() {
+        DirectedWeightedPseudoG<VDijkstra, Edge> g =
+                new DirectedWeightedPseudoG<VDijkstra, Edge>(
+                VDijkstra.class, Edge.class);
+        check(fill(g, new Random(1), 1500));
+    }
+
+    @Test
+    public void testUndirected() {
+        WeightedPseudoG<VDijkstra, Edge> g =
+                new WeightedPseudoG<VDijkstra, Edge>(
+                VDijkstra.class, Edge.class);
+        check(fill(g, new Random(2), 1200));
+    }
+
+    @Test
+    public void testSparse() {
+        DirectedWeightedPseudoG<VDijkstra, Edge> g =
+                new DirectedWeightedPseudoG<VDijkstra, Edge>(
+                VDijkstra.class, Edge.class);
+        check(fill(g, new Random(3), 160));
+    }
+
+    private static CSRGraph<VDijkstra, Edge> fill(
+            KeyedGraph<VDijkstra, Edge> g, Random random, int edges) {
+        for (int i = 1; i <= VERTICES; i++) {
+            g.addVertex(i);
+        }
+        for (int i = 0; i < edges; i++) {
+            g.addEdge(1 + random.nextInt(VERTICES),
+                      1 + random.nextInt(VERTICES), i + 1);
+        }
+        return CSRGraph.fromGraph(g);
+    }
+
+    private static void check(CSRGraph<?, ?> csr) {
+        int n = csr.getVertexCount();
+        DirectionOptimizingBFS levels = new DirectionOptimizingBFS(csr);
+        SearchState state = new SearchState(n);
+        DirectionOptimizingBFS paths = new DirectionOptimizingBFS(csr, state);
+        int[] level = new int[n];
+        long[] sigma = new long[n];
+        int[] predecessors = new int[n];
+        int[] queue = new int[n];
+        for (int s = 0; s < n; s++) {
+            // Plain BFS counting shortest paths and predecessor arcs.
+            Arrays.fill(level, -1);
+            Arrays.fill(sigma, 0);
+            Arrays.fill(predecessors, 0);
+            int head = 0;
+            int tail = 0;
+            level[s] = 0;
+            sigma[s] = 1;
+            queue[tail++] = s;
+            while (head < tail) {
+                int u = queue[head++];
+                for (int arc = csr.firstArc(u); arc < csr.endArc(u); arc++) {
+                    int v = csr.arcTarget(arc);
+                    if (level[v] < 0) {
+                        level[v] = level[u] + 1;
+                        queue[tail++] = v;
+                    }
+                    if (level[v] == level[u] + 1) {
+                        sigma[v] += sigma[u];
+                        predecessors[v]++;
+                    }
+                }
+            }
+            levels.calculate(s);
+            paths.calculate(s);
+            assertEquals(tail, levels.getReachedCount());
+            assertEquals(tail, paths.getReachedCount());
+            for (int v = 0; v < n; v++) {
+                assertEquals(level[v], levels.getLevel(v));
+                assertEquals(level[v], paths.getLevel(v));
+                if (level[v] >= 0) {
+                    assertEquals(level[v], state.getDistance(v), 0.0);
+                    assertEquals(sigma[v], state.getSigma(v));
+                    int count = 0;
+                    for (int e = state.firstPredecessor(v); e >= 0;
+                         e = state.nextPredecessor(e)) {
+                        int u = state.predecessorVertex(e);
+                        assertEquals(level[v] - 1, level[u]);
+                        int edge = csr.arcEdge(state.predecessorArc(e));
+                        assertTrue(csr.edgeSource(edge) == u
+                                   && csr.edgeTarget(edge) == v
+                                   || csr.getOrientation()
+                                      == CSRGraph.UNDIRECTED
+                                      && csr.edgeSource(edge) == v
+                                      && csr.edgeTarget(edge) == u);
+                        count++;
+                    }
+                    assertEquals(predecessors[v], count);
+                }
+            }
+            for (int i = 1; i < levels.getReachedCount(); i++) {
+                assertTrue(levels.getLevel(levels.getReached(i - 1))
+                           <= levels.getLevel(levels.getReached(i)));
+            }
+            for (int l = 0; l < levels.getLevelCount(); l++) {
+                for (int i = levels.getLevelStart(l);
+                     i < levels.getLevelStart(l + 1); i++) {
+                    assertEquals(l, levels.getLevel(levels.getReached(i)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testBottomUpTaken() {
+        DirectedWeightedPseudoG<VDijkstra, Edge> g =
+                new DirectedWeightedPseudoG<VDijkstra, Edge>(
+                VDijkstra.class, Edge.class);
+        CSRGraph<VDijkstra, Edge> csr = fill(g, new Random(4), 3000);
+        DirectionOptimizingBFS bfs = new DirectionOptimizingBFS(csr);
+        bfs.calculate(0);
+        assertTrue(bfs.getBottomUpSteps() > 0);
+    }
+}
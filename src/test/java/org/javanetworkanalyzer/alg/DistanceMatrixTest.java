@@ -0,0 +1,137 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.alg;
+
+import org.javanetworkanalyzer.data.VDijkstra;
+import org.javanetworkanalyzer.model.CSRGraph;
+import org.javanetworkanalyzer.model.DirectedWeightedPseudoG;
+import org.javanetworkanalyzer.model.Edge;
+import org.junit.Test;
+
+import java.nio.DoubleBuffer;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Tests {@link DistanceMatrix} against Dijkstra's algorithm on a random
+ * graph.
+ *
+ * @author Adam Gouge
+ */
+public class DistanceMatrixTest {
+
+    private static final double TOLERANCE = 0.000000001;
+    private static final int VERTICES = 60;
+    private static final int EDGES = 150;
+
+    private final DirectedWeightedPseudoG<VDijkstra, Edge> g;
+    private final CSRGraph<VDijkstra, Edge> csr;
+    private final int[] sources;
+    private final int[] targets;
+    private final double[] expected;
+
+    public DistanceMatrixTest() {
+        g = new DirectedWeightedPseudoG<VDijkstra, Edge>(
+                VDijkstra.class, Edge.class);
+        Random random = new Random(4);
+        for (int i = 1; i <= VERTICES; i++) {
+            g.addVertex(i);
+        }
+        for (int i = 0; i < EDGES; i++) {
+            g.addEdge(1 + random.nextInt(VERTICES),
+                      1 + random.nextInt(VERTICES), i + 1)
+                    .setWeight(1 + random.nextInt(20));
+        }
+        csr = CSRGraph.fromGraph(g);
+        sources = new int[]{0, 5, 7, 5, 59, 30, 12};
+        // Repeated targets must be handled too.
+        targets = new int[]{3, 8, 8, 40, 0, 22, 51, 17};
+        expected = new double[sources.length * targets.length];
+        CSRDijkstra dijkstra = new CSRDijkstra(csr);
+        for (int i = 0; i < sources.length; i++) {
+            dijkstra.calculate(sources[i]);
+            for (int j = 0; j < targets.length; j++) {
+                expected[i * targets.length + j] =
+                        dijkstra.getDistance(targets[j]);
+            }
+        }
+    }
+
+    @Test
+    public void testDijkstra() {
+        for (int threads = 1; threads <= 3; threads++) {
+            DistanceMatrix matrix = new DistanceMatrix(csr);
+            matrix.setThreads(threads);
+            check(matrix);
+        }
+    }
+
+    @Test
+    public void testContractionHierarchy() {
+        DistanceMatrix matrix =
+                new DistanceMatrix(ContractionHierarchy.build(g));
+        matrix.setThreads(2);
+        check(matrix);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBufferTooSmall() {
+        new DistanceMatrix(csr).compute(sources, targets,
+                DoubleBuffer.allocate(sources.length * targets.length - 1));
+    }
+
+    private void check(DistanceMatrix matrix) {
+        double[] array = matrix.compute(sources, targets);
+        assertEquals(expected.length, array.length);
+        for (int k = 0; k < expected.length; k++) {
+            assertEquals(expected[k], array[k], TOLERANCE);
+        }
+
+        DoubleBuffer buffer =
+                DistanceMatrix.allocateDirect(sources.length, targets.length);
+        matrix.compute(sources, targets, buffer);
+        for (int k = 0; k < expected.length; k++) {
+            assertEquals(expected[k], buffer.get(k), TOLERANCE);
+        }
+
+        final boolean[] seen = new boolean[sources.length];
+        matrix.compute(sources, targets, new DistanceMatrix.RowHandler() {
+            @Override
+            public void row(int source, double[] distances) {
+                assertFalse(seen[source]);
+                seen[source] = true;
+                for (int j = 0; j < targets.length; j++) {
+                    assertEquals(expected[source * targets.length + j],
+                                 distances[j], TOLERANCE);
+                }
+            }
+        });
+        for (boolean s : seen) {
+            assertEquals(true, s);
+        }
+    }
+}
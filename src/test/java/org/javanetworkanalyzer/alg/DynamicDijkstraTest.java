@@ -0,0 +1,184 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.alg;
+
+import org.javanetworkanalyzer.data.VDijkstra;
+import org.javanetworkanalyzer.model.CSRGraph;
+import org.javanetworkanalyzer.model.DirectedWeightedPseudoG;
+import org.javanetworkanalyzer.model.Edge;
+import org.javanetworkanalyzer.model.KeyedGraph;
+import org.javanetworkanalyzer.model.WeightedPseudoG;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link DynamicDijkstra} against one {@link CSRDijkstra} per source
+ * after batches of random weight changes, on random graphs with many ties,
+ * arcs of weight zero and closed (infinite) edges.
+ *
+ * @author Adam Gouge
+ */
+public class DynamicDijkstraTest {
+
+    private static final int VERTICES = 100;
+    private static final int EDGES = 300;
+
+    @Test
+    public void testDirected() {
+        for (int seed = 0; seed < 5; seed++) {
+            Random random = new Random(seed);
+            DirectedWeightedPseudoG<VDijkstra, Edge> g =
+                    new DirectedWeightedPseudoG<VDijkstra, Edge>(
+                    VDijkstra.class, Edge.class);
+            check(fill(g, random), random);
+        }
+    }
+
+    @Test
+    public void testUndirected() {
+        for (int seed = 0; seed < 5; seed++) {
+            Random random = new Random(seed);
+            WeightedPseudoG<VDijkstra, Edge> g =
+                    new WeightedPseudoG<VDijkstra, Edge>(
+                    VDijkstra.class, Edge.class);
+            check(fill(g, random), random);
+        }
+    }
+
+    @Test
+    public void testLocalUpdate() {
+        // A path 1 -> 2 -> ... -> 1000 from source 1: lengthening the last
+        // edge only changes the last vertex.
+        DirectedWeightedPseudoG<VDijkstra, Edge> g =
+                new DirectedWeightedPseudoG<VDijkstra, Edge>(
+                VDijkstra.class, Edge.class);
+        for (int i = 1; i < 1000; i++) {
+            g.addEdge(i, i + 1, i).setWeight(1);
+        }
+        CSRGraph<VDijkstra, Edge> csr = CSRGraph.fromGraph(g);
+        DynamicDijkstra dijkstra = new DynamicDijkstra(csr);
+        dijkstra.calculate(new int[]{csr.indexOfID(1)});
+        assertEquals(1000, dijkstra.getChangedCount());
+        int last = csr.indexOfID(1000);
+        dijkstra.setEdgeWeights(new int[]{dijkstra.getParentEdge(last)},
+                                new double[]{5});
+        assertEquals(1, dijkstra.getChangedCount());
+        assertEquals(last, dijkstra.getChanged(0));
+        assertEquals(1003.0, dijkstra.getDistance(last), 0.0);
+        assertEquals(5.0, g.getEdgeWeight(g.getEdge(g.getVertex(999),
+                                                    g.getVertex(1000))), 0.0);
+    }
+
+    private static CSRGraph<VDijkstra, Edge> fill(
+            KeyedGraph<VDijkstra, Edge> g, Random random) {
+        for (int i = 1; i <= VERTICES; i++) {
+            g.addVertex(i);
+        }
+        for (int i = 0; i < EDGES; i++) {
+            g.addEdge(1 + random.nextInt(VERTICES),
+                      1 + random.nextInt(VERTICES), i + 1)
+                    .setWeight(random.nextInt(4));
+        }
+        return CSRGraph.fromGraph(g);
+    }
+
+    private static void check(CSRGraph<?, ?> csr, Random random) {
+        final int n = csr.getVertexCount();
+        int[] sources = new int[8];
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = random.nextInt(n);
+        }
+        DynamicDijkstra dynamic = new DynamicDijkstra(csr);
+        dynamic.calculate(sources);
+        compare(csr, sources, dynamic);
+        double[] distance = new double[n];
+        int[] origin = new int[n];
+        for (int batch = 0; batch < 30; batch++) {
+            for (int v = 0; v < n; v++) {
+                distance[v] = dynamic.getDistance(v);
+                origin[v] = dynamic.getOrigin(v);
+            }
+            int[] edges = new int[1 + random.nextInt(5)];
+            double[] weights = new double[edges.length];
+            for (int i = 0; i < edges.length; i++) {
+                // Favour tree edges, whose changes matter most.
+                int v = random.nextInt(n);
+                edges[i] = dynamic.getParentEdge(v) >= 0
+                        && random.nextBoolean()
+                        ? dynamic.getParentEdge(v)
+                        : random.nextInt(csr.getEdgeCount());
+                weights[i] = random.nextInt(10) == 0
+                        ? Double.POSITIVE_INFINITY : random.nextInt(5);
+            }
+            dynamic.setEdgeWeights(edges, weights);
+            compare(csr, sources, dynamic);
+            boolean[] changed = new boolean[n];
+            for (int i = 0; i < dynamic.getChangedCount(); i++) {
+                changed[dynamic.getChanged(i)] = true;
+            }
+            for (int v = 0; v < n; v++) {
+                assertTrue(changed[v] || (distance[v] == dynamic.getDistance(v)
+                        && origin[v] == dynamic.getOrigin(v)));
+            }
+        }
+    }
+
+    private static void compare(CSRGraph<?, ?> csr, int[] sources,
+                                DynamicDijkstra dynamic) {
+        // The closest source of each vertex, the first one on ties.
+        final int n = csr.getVertexCount();
+        double[] distance = new double[n];
+        int[] origin = new int[n];
+        Arrays.fill(distance, Double.POSITIVE_INFINITY);
+        Arrays.fill(origin, -1);
+        CSRDijkstra dijkstra = new CSRDijkstra(csr);
+        for (int i = 0; i < sources.length; i++) {
+            dijkstra.calculate(sources[i]);
+            for (int v = 0; v < n; v++) {
+                if (dijkstra.getDistance(v) < distance[v]) {
+                    distance[v] = dijkstra.getDistance(v);
+                    origin[v] = i;
+                }
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            assertEquals(distance[v], dynamic.getDistance(v), 0.0);
+            assertEquals(origin[v], dynamic.getOrigin(v));
+            final int parent = dynamic.getParent(v);
+            if (parent >= 0) {
+                final int e = dynamic.getParentEdge(v);
+                assertEquals(dynamic.getDistance(v),
+                             dynamic.getDistance(parent) + csr.edgeWeight(e),
+                             0.0);
+                assertEquals(dynamic.getOrigin(v), dynamic.getOrigin(parent));
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.alg;
+
+import org.javanetworkanalyzer.data.VDijkstra;
+import org.javanetworkanalyzer.model.DirectedWeightedPseudoG;
+import org.javanetworkanalyzer.model.Edge;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link HeapDijkstraQueue} on a graph which is not a CSR graph.
+ *
+ * @author Adam Gouge
+ */
+public class HeapDijkstraQueueTest {
+
+    @Test
+    public void testReuseAfterVertexRemoval() throws NoSuchMethodException {
+        DirectedWeightedPseudoG<VDijkstra, Edge> g =
+                new DirectedWeightedPseudoG<VDijkstra, Edge>(
+                VDijkstra.class, Edge.class);
+        for (int i = 1; i <= 3; i++) {
+            g.addVertex(i);
+        }
+        VDijkstra v1 = g.getVertex(1);
+        VDijkstra v2 = g.getVertex(2);
+        VDijkstra v3 = g.getVertex(3);
+        HeapDijkstraQueue<VDijkstra> queue = new HeapDijkstraQueue<VDijkstra>(g);
+        v1.setDistance(3.0);
+        v2.setDistance(1.0);
+        v3.setDistance(2.0);
+        queue.update(v1);
+        queue.update(v2);
+        queue.update(v3);
+        assertSame(v2, queue.poll());
+        queue.clear();
+        assertTrue(queue.isEmpty());
+
+        // The new vertex is numbered when it is first queued, and the
+        // removed vertex is never returned.
+        g.removeVertex(v1);
+        g.addVertex(4);
+        VDijkstra v4 = g.getVertex(4);
+        v3.setDistance(1.5);
+        v4.setDistance(0.5);
+        queue.update(v3);
+        queue.update(v4);
+        v3.setDistance(0.25);
+        queue.update(v3);
+        assertSame(v3, queue.poll());
+        assertSame(v4, queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testStableIndices() throws NoSuchMethodException {
+        DirectedWeightedPseudoG<VDijkstra, Edge> g =
+                new DirectedWeightedPseudoG<VDijkstra, Edge>(
+                VDijkstra.class, Edge.class);
+        for (int i = 1; i <= 10; i++) {
+            g.addVertex(i);
+        }
+        HeapDijkstraQueue<VDijkstra> queue = new HeapDijkstraQueue<VDijkstra>(g);
+        int[] indices = new int[11];
+        for (int i = 1; i <= 10; i++) {
+            VDijkstra v = g.getVertex(i);
+            v.setDistance((double) i);
+            queue.update(v);
+        }
+        for (int i = 1; i <= 10; i++) {
+            indices[i] = queue.pollIndex();
+            assertSame(g.getVertex(i), queue.vertex(indices[i]));
+        }
+        // The vertices keep their indices from one search to the next.
+        queue.clear();
+        for (int i = 10; i >= 1; i--) {
+            VDijkstra v = g.getVertex(i);
+            v.setDistance((double) -i);
+            queue.update(v);
+        }
+        for (int i = 10; i >= 1; i--) {
+            assertEquals(indices[i], queue.pollIndex());
+        }
+    }
+}
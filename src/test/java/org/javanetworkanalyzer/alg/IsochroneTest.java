@@ -0,0 +1,149 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.alg;
+
+import org.javanetworkanalyzer.data.VDijkstra;
+import org.javanetworkanalyzer.model.CSRGraph;
+import org.javanetworkanalyzer.model.DirectedWeightedPseudoG;
+import org.javanetworkanalyzer.model.Edge;
+import org.javanetworkanalyzer.model.WeightedPseudoG;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link Isochrone}.
+ *
+ * @author Adam Gouge
+ */
+public class IsochroneTest {
+
+    private static final double TOLERANCE = 0.000000001;
+
+    @Test
+    public void testPath() {
+        // 1 - 2 - 3 - 4, each edge of length 2.
+        WeightedPseudoG<VDijkstra, Edge> g =
+                new WeightedPseudoG<VDijkstra, Edge>(
+                VDijkstra.class, Edge.class);
+        for (int i = 1; i <= 4; i++) {
+            g.addVertex(i);
+        }
+        for (int i = 1; i < 4; i++) {
+            g.addEdge(i, i + 1, i).setWeight(2);
+        }
+        CSRGraph<VDijkstra, Edge> csr = CSRGraph.fromGraph(g);
+        Isochrone isochrone = new Isochrone(csr, 1, 3, 5);
+        isochrone.calculate(csr.indexOfID(1));
+
+        assertEquals(1, isochrone.getReachedCount(0));
+        assertEquals(2, isochrone.getReachedCount(1));
+        assertEquals(3, isochrone.getReachedCount(2));
+        assertEquals(csr.indexOfID(3), isochrone.getReached(2));
+        assertEquals(4.0, isochrone.getDistance(csr.indexOfID(3)), TOLERANCE);
+        assertEquals(Double.POSITIVE_INFINITY,
+                     isochrone.getDistance(csr.indexOfID(4)), TOLERANCE);
+
+        assertEquals(1, isochrone.getPartialArcCount(0));
+        int arc = isochrone.getPartialArc(0, 0);
+        assertEquals(csr.indexOfID(2), csr.arcTarget(arc));
+        assertEquals(0.5, isochrone.getPartialFraction(0, 0), TOLERANCE);
+        // Both arcs out of 2 are half traversed within 3.
+        assertEquals(2, isochrone.getPartialArcCount(1));
+        for (int i = 0; i < 2; i++) {
+            assertEquals(0.5, isochrone.getPartialFraction(1, i), TOLERANCE);
+        }
+        assertEquals(2, isochrone.getPartialArcCount(2));
+    }
+
+    @Test
+    public void testCalculateAll() {
+        Random random = new Random(5);
+        DirectedWeightedPseudoG<VDijkstra, Edge> g =
+                new DirectedWeightedPseudoG<VDijkstra, Edge>(
+                VDijkstra.class, Edge.class);
+        for (int i = 1; i <= 80; i++) {
+            g.addVertex(i);
+        }
+        for (int i = 0; i < 240; i++) {
+            g.addEdge(1 + random.nextInt(80), 1 + random.nextInt(80), i + 1)
+                    .setWeight(1 + random.nextInt(10));
+        }
+        final CSRGraph<VDijkstra, Edge> csr = CSRGraph.fromGraph(g);
+        final double[] cutoffs = {5, 10, 20};
+        final int[] origins = new int[30];
+        for (int i = 0; i < origins.length; i++) {
+            origins[i] = random.nextInt(80);
+        }
+        final CSRDijkstra dijkstra = new CSRDijkstra(csr);
+        final boolean[] seen = new boolean[origins.length];
+        Isochrone batch = new Isochrone(csr, cutoffs);
+        batch.setThreads(3);
+        batch.calculateAll(origins, new Isochrone.Handler() {
+            @Override
+            public void isochrone(int origin, Isochrone isochrone) {
+                seen[origin] = true;
+                dijkstra.calculate(origins[origin]);
+                for (int c = 0; c < cutoffs.length; c++) {
+                    int within = 0;
+                    int partial = 0;
+                    for (int v = 0; v < csr.getVertexCount(); v++) {
+                        double dv = dijkstra.getDistance(v);
+                        if (dv > cutoffs[c]) {
+                            continue;
+                        }
+                        within++;
+                        for (int arc = csr.firstArc(v);
+                             arc < csr.endArc(v); arc++) {
+                            if (dv < cutoffs[c]
+                                && dv + csr.arcWeight(arc) > cutoffs[c]) {
+                                partial++;
+                            }
+                        }
+                    }
+                    assertEquals(within, isochrone.getReachedCount(c));
+                    assertEquals(partial, isochrone.getPartialArcCount(c));
+                    for (int i = 0; i < isochrone.getReachedCount(c); i++) {
+                        assertTrue(dijkstra.getDistance(
+                                isochrone.getReached(i)) <= cutoffs[c]);
+                    }
+                }
+            }
+        });
+        for (boolean s : seen) {
+            assertTrue(s);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecreasingCutoffs() {
+        new Isochrone(CSRGraph.fromGraph(
+                new DirectedWeightedPseudoG<VDijkstra, Edge>(
+                VDijkstra.class, Edge.class)), 3, 2);
+    }
+}
@@ -0,0 +1,133 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.alg;
+
+import org.javanetworkanalyzer.data.VDijkstra;
+import org.javanetworkanalyzer.model.CSRGraph;
+import org.javanetworkanalyzer.model.DirectedWeightedPseudoG;
+import org.javanetworkanalyzer.model.Edge;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests {@link KNearestDijkstra} against one {@link CSRDijkstra} per source
+ * on random graphs with many ties.
+ *
+ * @author Adam Gouge
+ */
+public class KNearestDijkstraTest {
+
+    private static final int VERTICES = 100;
+    private static final int EDGES = 250;
+
+    @Test
+    public void testAgainstDijkstra() {
+        for (int seed = 0; seed < 5; seed++) {
+            Random random = new Random(seed);
+            DirectedWeightedPseudoG<VDijkstra, Edge> g =
+                    new DirectedWeightedPseudoG<VDijkstra, Edge>(
+                    VDijkstra.class, Edge.class);
+            for (int i = 1; i <= VERTICES; i++) {
+                g.addVertex(i);
+            }
+            for (int i = 0; i < EDGES; i++) {
+                g.addEdge(1 + random.nextInt(VERTICES),
+                          1 + random.nextInt(VERTICES), i + 1)
+                        .setWeight(random.nextInt(5));
+            }
+            CSRGraph<VDijkstra, Edge> csr = CSRGraph.fromGraph(g);
+            int[] sources = new int[10];
+            for (int i = 0; i < sources.length; i++) {
+                sources[i] = random.nextInt(VERTICES);
+            }
+            KNearestDijkstra nearest = new KNearestDijkstra(csr, 3);
+            check(csr, sources, nearest, Double.POSITIVE_INFINITY);
+            // Reuse the same instance with a radius.
+            check(csr, sources, nearest, 4.0);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonPositiveK() {
+        new KNearestDijkstra(CSRGraph.fromGraph(
+                new DirectedWeightedPseudoG<VDijkstra, Edge>(
+                VDijkstra.class, Edge.class)), 0);
+    }
+
+    private static void check(CSRGraph<?, ?> csr, int[] sources,
+                              KNearestDijkstra nearest, double radius) {
+        int n = csr.getVertexCount();
+        int k = nearest.getK();
+        double[][] distance = new double[sources.length][];
+        CSRDijkstra dijkstra = new CSRDijkstra(csr);
+        for (int i = 0; i < sources.length; i++) {
+            dijkstra.calculate(sources[i]);
+            distance[i] = new double[n];
+            for (int v = 0; v < n; v++) {
+                distance[i][v] = dijkstra.getDistance(v);
+            }
+        }
+        nearest.calculate(sources, radius);
+        for (int v = 0; v < n; v++) {
+            // Select the k closest distinct sources, ties by position.
+            boolean[] used = new boolean[sources.length];
+            int count = 0;
+            for (int rank = 0; rank < k; rank++) {
+                int best = -1;
+                for (int i = 0; i < sources.length; i++) {
+                    if (used[i] || distance[i][v] > radius
+                        || distance[i][v] == Double.POSITIVE_INFINITY
+                        || hasEarlierCopy(sources, i)) {
+                        continue;
+                    }
+                    if (best < 0 || distance[i][v] < distance[best][v]) {
+                        best = i;
+                    }
+                }
+                if (best >= 0) {
+                    used[best] = true;
+                    count++;
+                }
+                assertEquals(best, nearest.getOrigin(v, rank));
+                assertEquals(best < 0 ? Double.POSITIVE_INFINITY
+                             : distance[best][v],
+                             nearest.getDistance(v, rank), 0.0);
+            }
+            assertEquals(count, nearest.getCount(v));
+        }
+    }
+
+    private static boolean hasEarlierCopy(int[] sources, int i) {
+        for (int j = 0; j < i; j++) {
+            if (sources[j] == sources[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.alg;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests {@link ParallelRunner}.
+ *
+ * @author Adam Gouge
+ */
+public class ParallelRunnerTest {
+
+    @Test
+    public void testItemsHandedOutOnce() {
+        for (int threads = 1; threads <= 4; threads++) {
+            final AtomicIntegerArray taken = new AtomicIntegerArray(1000);
+            final List<Integer> counts = ParallelRunner.run(
+                    threads, taken.length(), "testing",
+                    new ParallelRunner.Task<Integer>() {
+                        @Override
+                        public Integer call(ParallelRunner.Items items) {
+                            int count = 0;
+                            int i;
+                            while ((i = items.next()) >= 0) {
+                                taken.incrementAndGet(i);
+                                count++;
+                            }
+                            return count;
+                        }
+                    });
+            assertEquals(threads, counts.size());
+            int total = 0;
+            for (int count : counts) {
+                total += count;
+            }
+            assertEquals(taken.length(), total);
+            for (int i = 0; i < taken.length(); i++) {
+                assertEquals(1, taken.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void testNoMoreThreadsThanItems() {
+        assertEquals(2, ParallelRunner.run(
+                8, 2, "testing", new ParallelRunner.Task<Void>() {
+            @Override
+            public Void call(ParallelRunner.Items items) {
+                return null;
+            }
+        }).size());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCheckedFailure() {
+        ParallelRunner.run(2, 10, "testing",
+                           new ParallelRunner.Task<Void>() {
+            @Override
+            public Void call(ParallelRunner.Items items) throws Exception {
+                throw new Exception("Failure.");
+            }
+        });
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCheckThreads() {
+        ParallelRunner.checkThreads(0);
+    }
+}
@@ -0,0 +1,164 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.alg;
+
+import org.javanetworkanalyzer.data.VStrahler;
+import org.javanetworkanalyzer.model.CSRGraph;
+import org.javanetworkanalyzer.model.DirectedPseudoG;
+import org.javanetworkanalyzer.model.Edge;
+import org.javanetworkanalyzer.model.StrahlerTree;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests {@link ParallelStrahler}.
+ *
+ * @author Adam Gouge
+ */
+public class ParallelStrahlerTest {
+
+    /**
+     * Compares with {@link DFSForStrahler} on the {@link StrahlerTest} tree and
+     * checks the Shreve magnitudes.
+     */
+    @Test
+    public void testStrahlerTree() {
+        StrahlerTree<Edge> expected = new StrahlerTest().prepareTree();
+        new DFSForStrahler<Edge>(expected).calculate(expected.getRootVertex());
+
+        StrahlerTree<Edge> tree = new StrahlerTest().prepareTree();
+        List<VStrahler> roots = new ArrayList<VStrahler>();
+        roots.add(tree.getRootVertex());
+        ParallelStrahler strahler = new ParallelStrahler(tree);
+        strahler.calculate(roots);
+
+        for (VStrahler node : expected.vertexSet()) {
+            assertEquals(node.getStrahlerNumber(),
+                         tree.getVertex(node.getID()).getStrahlerNumber());
+        }
+        CSRGraph<?, ?> csr = strahler.getGraph();
+        assertEquals(3, strahler.getStrahlerNumber(csr.indexOfID(1)));
+        assertEquals(10, strahler.getShreveMagnitude(csr.indexOfID(1)));
+        assertEquals(3, strahler.getShreveMagnitude(csr.indexOfID(8)));
+        assertEquals(4, strahler.getShreveMagnitude(csr.indexOfID(13)));
+        assertEquals(1, strahler.getShreveMagnitude(csr.indexOfID(14)));
+        assertEquals(1, tree.getVertex(15).getShreveMagnitude());
+        assertEquals(4, tree.getVertex(12).getShreveMagnitude());
+    }
+
+    /**
+     * Tests a forest of small and large trees whose edges point downstream,
+     * sharing the large trees between threads.
+     */
+    @Test
+    public void testRandomForest() {
+        Random random = new Random(7);
+        final int n = 20000;
+        // Each tree is a range of ids whose first id is the root; every other
+        // node flows into a node with a smaller id in the same tree.
+        int[] parent = new int[n + 1];
+        DirectedPseudoG<VStrahler, Edge> forest =
+                new DirectedPseudoG<VStrahler, Edge>(
+                VStrahler.class, Edge.class);
+        List<VStrahler> roots = new ArrayList<VStrahler>();
+        int id = 1;
+        int edgeID = 1;
+        while (id <= n) {
+            final int size = Math.min(n - id + 1, random.nextInt(10) == 0
+                    ? 1 + random.nextInt(5000) : 1 + random.nextInt(20));
+            forest.addVertex(id);
+            roots.add(forest.getVertex(id));
+            parent[id] = 0;
+            for (int v = id + 1; v < id + size; v++) {
+                // Favour nearby parents to get long main stems.
+                parent[v] = random.nextBoolean()
+                        ? v - 1 : id + random.nextInt(v - id);
+                forest.addEdge(v, parent[v], edgeID++);
+            }
+            id += size;
+        }
+        // Reference values in decreasing id order, children before parents.
+        int[] strahler = new int[n + 1];
+        int[] maxCount = new int[n + 1];
+        int[] top = new int[n + 1];
+        int[] shreve = new int[n + 1];
+        for (int v = n; v >= 1; v--) {
+            if (shreve[v] == 0) {
+                strahler[v] = 1;
+                shreve[v] = 1;
+            } else {
+                strahler[v] = maxCount[v] > 1 ? top[v] + 1 : top[v];
+            }
+            final int p = parent[v];
+            if (p > 0) {
+                shreve[p] += shreve[v];
+                if (strahler[v] > top[p]) {
+                    top[p] = strahler[v];
+                    maxCount[p] = 1;
+                } else if (strahler[v] == top[p]) {
+                    maxCount[p]++;
+                }
+            }
+        }
+
+        for (int threads = 1; threads <= 4; threads += 3) {
+            ParallelStrahler alg = new ParallelStrahler(forest);
+            alg.setThreads(threads);
+            alg.setLargeTreeSize(100);
+            alg.calculate(roots);
+            CSRGraph<?, ?> csr = alg.getGraph();
+            for (int v = 1; v <= n; v++) {
+                final int u = csr.indexOfID(v);
+                assertEquals(strahler[v], alg.getStrahlerNumber(u));
+                assertEquals(shreve[v], alg.getShreveMagnitude(u));
+                assertEquals(strahler[v],
+                             forest.getVertex(v).getStrahlerNumber());
+            }
+        }
+    }
+
+    /**
+     * Nodes outside the given trees are left unset.
+     */
+    @Test
+    public void testUnreached() {
+        StrahlerTree<Edge> tree = new StrahlerTree<Edge>(Edge.class);
+        tree.addEdge(1, 2);
+        tree.addEdge(1, 3);
+        tree.addEdge(4, 5);
+        ParallelStrahler strahler = new ParallelStrahler(tree);
+        strahler.calculate(new int[]{strahler.getGraph().indexOfID(1)});
+        assertEquals(2, tree.getVertex(1).getStrahlerNumber());
+        assertEquals(2, tree.getVertex(1).getShreveMagnitude());
+        assertEquals(-1, tree.getVertex(4).getStrahlerNumber());
+        assertEquals(-1, strahler.getShreveMagnitude(
+                strahler.getGraph().indexOfID(5)));
+    }
+}
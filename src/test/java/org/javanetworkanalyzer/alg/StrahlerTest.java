@@ -80,6 +80,24 @@ public class StrahlerTest {
         }
     }
 
+    /**
+     * Tests a main stem far longer than the Java stack allows for a recursive
+     * search; every node of a path has Strahler number 1.
+     */
+    @Test
+    public void testLongMainStem() {
+        final int n = 100000;
+        StrahlerTree<Edge> tree = new StrahlerTree<Edge>(Edge.class);
+        for (int i = 1; i < n; i++) {
+            tree.addEdge(i, i + 1);
+        }
+        tree.setRootVertex(1);
+        new DFSForStrahler<Edge>(tree).calculate(tree.getRootVertex());
+        for (VStrahler node : tree.vertexSet()) {
+            assertEquals(1, node.getStrahlerNumber());
+        }
+    }
+
     /**
      * Prepare a tree with root node 1.
      *
@@ -0,0 +1,149 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.alg;
+
+import org.javanetworkanalyzer.data.VStrahler;
+import org.javanetworkanalyzer.model.Edge;
+import org.javanetworkanalyzer.model.StrahlerTree;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests the incremental Strahler numbers of {@link StrahlerTree}.
+ *
+ * @author Adam Gouge
+ */
+public class StrahlerTreeTest {
+
+    @Test
+    public void testCalculate() {
+        StrahlerTree<Edge> expected = new StrahlerTest().prepareTree();
+        new DFSForStrahler<Edge>(expected).calculate(expected.getRootVertex());
+        StrahlerTree<Edge> tree = new StrahlerTest().prepareTree();
+        tree.calculateStrahlerNumbers();
+        assertSame(expected, tree);
+        assertNull(tree.getParent(tree.getRootVertex()));
+        assertEquals(tree.getVertex(3), tree.getParent(tree.getVertex(12)));
+    }
+
+    @Test
+    public void testAddAndRemoveTributary() {
+        StrahlerTree<Edge> tree = new StrahlerTest().prepareTree();
+        tree.calculateStrahlerNumbers();
+        // 14 gets a second order-1 child, which raises 14, 13, 12, 3 and 1.
+        tree.addEdge(14, 21);
+        assertEquals(1, tree.getVertex(21).getStrahlerNumber());
+        assertEquals(2, tree.getVertex(14).getStrahlerNumber());
+        assertEquals(3, tree.getVertex(13).getStrahlerNumber());
+        assertEquals(3, tree.getVertex(12).getStrahlerNumber());
+        assertEquals(4, tree.getVertex(3).getStrahlerNumber());
+        assertEquals(4, tree.getVertex(1).getStrahlerNumber());
+        // Removing 16's subtree lowers 13 back to 2, and so on up to 1.
+        tree.removeEdge(13, 16);
+        assertEquals(-1, tree.getVertex(16).getStrahlerNumber());
+        assertEquals(-1, tree.getVertex(19).getStrahlerNumber());
+        assertNull(tree.getParent(tree.getVertex(18)));
+        assertEquals(2, tree.getVertex(13).getStrahlerNumber());
+        assertEquals(3, tree.getVertex(1).getStrahlerNumber());
+        // Grafting it back under 2 makes 2 an order-2 stream.
+        tree.addEdge(16, 2);
+        assertEquals(2, tree.getVertex(16).getStrahlerNumber());
+        assertEquals(2, tree.getVertex(2).getStrahlerNumber());
+        assertEquals(3, tree.getVertex(1).getStrahlerNumber());
+        assertEquals(tree.getVertex(2), tree.getParent(tree.getVertex(16)));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCycle() {
+        StrahlerTree<Edge> tree = new StrahlerTest().prepareTree();
+        tree.calculateStrahlerNumbers();
+        tree.addEdge(6, 20);
+    }
+
+    /**
+     * Compares random edits with a full calculation after each one.
+     */
+    @Test
+    public void testRandomEdits() {
+        Random random = new Random(3);
+        StrahlerTree<Edge> tree = new StrahlerTree<Edge>(Edge.class);
+        List<int[]> edges = new ArrayList<int[]>();
+        int next = 2;
+        for (; next <= 200; next++) {
+            edges.add(new int[]{1 + random.nextInt(next - 1), next});
+            tree.addEdge(edges.get(edges.size() - 1)[0], next);
+        }
+        tree.setRootVertex(1);
+        tree.calculateStrahlerNumbers();
+        for (int edit = 0; edit < 300; edit++) {
+            if (random.nextInt(3) == 0 && !edges.isEmpty()) {
+                int[] edge = edges.remove(random.nextInt(edges.size()));
+                tree.removeEdge(edge[0], edge[1]);
+                // Drop the edges of the detached tributary.
+                List<int[]> kept = new ArrayList<int[]>();
+                for (int[] e : edges) {
+                    if (tree.getVertex(e[1]).getStrahlerNumber() != -1) {
+                        kept.add(e);
+                    }
+                }
+                edges = kept;
+            } else {
+                int parent;
+                do {
+                    parent = 1 + random.nextInt(next - 1);
+                } while (tree.getVertex(parent).getStrahlerNumber() == -1);
+                edges.add(new int[]{parent, next});
+                tree.addEdge(parent, next++);
+            }
+            if (edges.isEmpty()) {
+                assertEquals(1, tree.getVertex(1).getStrahlerNumber());
+                continue;
+            }
+            StrahlerTree<Edge> expected = new StrahlerTree<Edge>(Edge.class);
+            for (int[] e : edges) {
+                expected.addEdge(e[0], e[1]);
+            }
+            expected.setRootVertex(1);
+            expected.calculateStrahlerNumbers();
+            assertSame(expected, tree);
+        }
+    }
+
+    private static void assertSame(StrahlerTree<Edge> expected,
+                                   StrahlerTree<Edge> tree) {
+        for (VStrahler node : expected.vertexSet()) {
+            if (node.getStrahlerNumber() != -1) {
+                assertEquals(node.getStrahlerNumber(),
+                             tree.getVertex(node.getID()).getStrahlerNumber());
+            }
+        }
+    }
+}
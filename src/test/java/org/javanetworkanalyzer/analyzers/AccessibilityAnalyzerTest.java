@@ -24,6 +24,7 @@
  */
 package org.javanetworkanalyzer.analyzers;
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 import org.javanetworkanalyzer.data.VAccess;
@@ -180,6 +181,137 @@ public class AccessibilityAnalyzerTest extends CormenGraphPrep {
                      TOLERANCE);
     }
 
+    @Test
+    public void testNearestWD() throws Exception {
+        DirectedWeightedPseudoG<VAccess, EdgeCent> g = weightedDirected();
+        Set<VAccess> destinations = new HashSet<VAccess>();
+        destinations.add(g.getVertex(4));
+        destinations.add(g.getVertex(5));
+        AccessibilityAnalyzer<EdgeCent> analyzer =
+                new AccessibilityAnalyzer<EdgeCent>(g, destinations);
+
+        analyzer.computeNearest(2, Double.POSITIVE_INFINITY);
+        checkNearest(analyzer, g.getVertex(1), 4, 5.0, 5, 7.0);
+        checkNearest(analyzer, g.getVertex(2), 4, 2.0, 5, 4.0);
+        checkNearest(analyzer, g.getVertex(3), 5, 4.0, 4, 16.0);
+        checkNearest(analyzer, g.getVertex(4), 4, 0.0, 5, 2.0);
+        checkNearest(analyzer, g.getVertex(5), 5, 0.0, 4, 12.0);
+        assertEquals(4, g.getVertex(1).getClosestDestinationId());
+        assertEquals(10, analyzer.getNearestDestinationIds().length);
+
+        analyzer.computeNearest(2, 10.0);
+        checkNearest(analyzer, g.getVertex(1), 4, 5.0, 5, 7.0);
+        assertEquals(1, analyzer.getNearestDestinationCount(g.getVertex(3)));
+        assertEquals(5, analyzer.getNearestDestinationId(g.getVertex(3), 0));
+        assertEquals(-1, analyzer.getNearestDestinationId(g.getVertex(3), 1));
+        assertEquals(Double.POSITIVE_INFINITY,
+                     analyzer.getNearestDestinationDistance(
+                     g.getVertex(5), 1), TOLERANCE);
+    }
+
+    @Test
+    public void testUpdateEdgeWeightsWD() throws Exception {
+        DirectedWeightedPseudoG<VAccess, EdgeCent> g = weightedDirected();
+        AccessibilityAnalyzer<EdgeCent> analyzer =
+                new AccessibilityAnalyzer<EdgeCent>(g, destinations(g));
+        analyzer.compute();
+        assertEquals(4, g.getVertex(1).getClosestDestinationId());
+        assertEquals(5.0, g.getVertex(1).getDistanceToClosestDestination(),
+                     TOLERANCE);
+
+        EdgeCent edge = g.getEdge(g.getVertex(1), g.getVertex(4));
+        edge.setWeight(20);
+        analyzer.updateEdgeWeights(Collections.singleton(edge));
+        assertEquals(4, g.getVertex(1).getClosestDestinationId());
+        assertEquals(12.0, g.getVertex(1).getDistanceToClosestDestination(),
+                     TOLERANCE);
+
+        // Closing 2 -> 4 sends 1 and 2 to 5 instead.
+        edge = g.getEdge(g.getVertex(2), g.getVertex(4));
+        edge.setWeight(Double.POSITIVE_INFINITY);
+        analyzer.updateEdgeWeights(Collections.singleton(edge));
+        assertEquals(5, g.getVertex(1).getClosestDestinationId());
+        assertEquals(15.0, g.getVertex(1).getDistanceToClosestDestination(),
+                     TOLERANCE);
+        assertEquals(5, g.getVertex(2).getClosestDestinationId());
+        assertEquals(5.0, g.getVertex(2).getDistanceToClosestDestination(),
+                     TOLERANCE);
+    }
+
+    @Test
+    public void testUpdateEdgeWeightsCSR() throws Exception {
+        CSRGraph<VAccess, EdgeCent> csr =
+                CSRGraph.fromGraph(weightedUndirected());
+        AccessibilityAnalyzer<EdgeCent> analyzer =
+                new AccessibilityAnalyzer<EdgeCent>(csr, destinations(csr));
+        analyzer.compute();
+        for (int e = 0; e < csr.getEdgeCount(); e++) {
+            csr.setEdgeWeight(e, csr.edgeWeight(e) + e % 3);
+            analyzer.updateEdgeWeights(Collections.singleton(csr.edge(e)));
+            CSRGraph<VAccess, EdgeCent> expected =
+                    CSRGraph.fromGraph(weightedUndirected());
+            for (int f = 0; f <= e; f++) {
+                expected.setEdgeWeight(f, csr.edgeWeight(f));
+            }
+            new AccessibilityAnalyzer<EdgeCent>(
+                    expected, destinations(expected)).compute();
+            for (int id = 1; id <= getNumberOfVertices(); id++) {
+                assertEquals(expected.getVertex(id)
+                             .getDistanceToClosestDestination(),
+                             csr.getVertex(id)
+                             .getDistanceToClosestDestination(), TOLERANCE);
+            }
+        }
+    }
+
+    private static Set<VAccess> destinations(KeyedGraph<VAccess, EdgeCent> g) {
+        Set<VAccess> destinations = new HashSet<VAccess>();
+        destinations.add(g.getVertex(4));
+        destinations.add(g.getVertex(5));
+        return destinations;
+    }
+
+    private static void checkNearest(AccessibilityAnalyzer<EdgeCent> analyzer,
+                                     VAccess v, int first, double d1,
+                                     int second, double d2) {
+        assertEquals(2, analyzer.getNearestDestinationCount(v));
+        assertEquals(first, analyzer.getNearestDestinationId(v, 0));
+        assertEquals(d1, analyzer.getNearestDestinationDistance(v, 0),
+                     TOLERANCE);
+        assertEquals(second, analyzer.getNearestDestinationId(v, 1));
+        assertEquals(d2, analyzer.getNearestDestinationDistance(v, 1),
+                     TOLERANCE);
+    }
+
+    @Test
+    public void testCSR() throws Exception {
+        testCSR(directed(), directed());
+        testCSR(reversed(), reversed());
+        testCSR(undirected(), undirected());
+        testCSR(weightedDirected(), weightedDirected());
+        testCSR(weightedReversed(), weightedReversed());
+        testCSR(weightedUndirected(), weightedUndirected());
+    }
+
+    /**
+     * Checks that the analysis gives the same distances on a CSR copy of the
+     * second graph as on the first graph.
+     */
+    private void testCSR(KeyedGraph<VAccess, EdgeCent> g,
+                         KeyedGraph<VAccess, EdgeCent> copy) throws Exception {
+        test(g);
+        CSRGraph<VAccess, EdgeCent> csr = CSRGraph.fromGraph(copy);
+        test(csr);
+        for (int id = 1; id <= getNumberOfVertices(); id++) {
+            assertEquals(g.getVertex(id).getDistanceToClosestDestination(),
+                         csr.getVertex(id).getDistanceToClosestDestination(),
+                         TOLERANCE);
+            // Ties may be broken differently.
+            final int closest = csr.getVertex(id).getClosestDestinationId();
+            assertTrue(closest == 4 || closest == 5);
+        }
+    }
+
     public void test(KeyedGraph<VAccess, EdgeCent> g) throws Exception {
         // Prepare the destinations.
         Set<VAccess> destinations = new HashSet<VAccess>();
@@ -0,0 +1,184 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.analyzers;
+
+import org.javanetworkanalyzer.data.VWCent;
+import org.javanetworkanalyzer.model.CSRGraph;
+import org.javanetworkanalyzer.model.DirectedWeightedPseudoG;
+import org.javanetworkanalyzer.model.EdgeCent;
+import org.javanetworkanalyzer.model.WeightedKeyedGraph;
+import org.javanetworkanalyzer.model.WeightedPseudoG;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests {@link DynamicBetweenness} against recomputing everything after
+ * batches of random weight changes, including deletions and reinsertions.
+ *
+ * @author Adam Gouge
+ */
+public class DynamicBetweennessTest {
+
+    private static final int NUMBER_OF_NODES = 60;
+    private static final int NUMBER_OF_EDGES = 150;
+    private static final double TOLERANCE = 1E-8;
+
+    @Test
+    public void testUndirected() {
+        WeightedKeyedGraph<VWCent, EdgeCent> graph = weightedGraph(
+                new WeightedPseudoG<VWCent, EdgeCent>(
+                VWCent.class, EdgeCent.class), 1);
+        DynamicBetweenness dynamic = new DynamicBetweenness(graph);
+        dynamic.computeAll();
+        update(graph, dynamic, new Random(2));
+    }
+
+    @Test
+    public void testDirectedFileBacked() throws Exception {
+        WeightedKeyedGraph<VWCent, EdgeCent> graph = weightedGraph(
+                new DirectedWeightedPseudoG<VWCent, EdgeCent>(
+                VWCent.class, EdgeCent.class), 3);
+        File file = File.createTempFile("distances", ".bin");
+        file.deleteOnExit();
+        DynamicBetweenness dynamic = new DynamicBetweenness(graph, file);
+        dynamic.setThreads(3);
+        dynamic.computeAll();
+        update(graph, dynamic, new Random(4));
+    }
+
+    @Test
+    public void testAgainstGraphAnalyzer() throws Exception {
+        WeightedKeyedGraph<VWCent, EdgeCent> expected = weightedGraph(
+                new DirectedWeightedPseudoG<VWCent, EdgeCent>(
+                VWCent.class, EdgeCent.class), 5);
+        new WeightedGraphAnalyzer<EdgeCent>(expected).computeAll();
+        WeightedKeyedGraph<VWCent, EdgeCent> actual = weightedGraph(
+                new DirectedWeightedPseudoG<VWCent, EdgeCent>(
+                VWCent.class, EdgeCent.class), 5);
+        DynamicBetweenness dynamic = new DynamicBetweenness(actual);
+        dynamic.computeAll();
+        dynamic.storeResults();
+        for (int id = 1; id <= NUMBER_OF_NODES; id++) {
+            VWCent e = expected.getVertex(id);
+            VWCent a = actual.getVertex(id);
+            assertEquals(e.getBetweenness(), a.getBetweenness(), TOLERANCE);
+            assertEquals(e.getCloseness(), a.getCloseness(), TOLERANCE);
+            assertEquals(e.getHarmonicCloseness(), a.getHarmonicCloseness(),
+                         TOLERANCE);
+        }
+    }
+
+    @Test
+    public void testUnaffected() {
+        // A path 1 - 2 - 3 with a long shortcut from 1 to 3, which stays
+        // unused when it gets shorter but not short enough.
+        WeightedPseudoG<VWCent, EdgeCent> graph =
+                new WeightedPseudoG<VWCent, EdgeCent>(
+                VWCent.class, EdgeCent.class);
+        graph.addEdge(1, 2, 0).setWeight(1);
+        graph.addEdge(2, 3, 1).setWeight(1);
+        graph.addEdge(1, 3, 2).setWeight(10);
+        DynamicBetweenness dynamic = new DynamicBetweenness(graph);
+        dynamic.computeAll();
+        CSRGraph<?, ?> csr = dynamic.getGraph();
+        int shortcut = 0;
+        while (csr.getEdgeID(shortcut) != 2) {
+            shortcut++;
+        }
+        dynamic.setEdgeWeight(shortcut, 5);
+        assertEquals(0, dynamic.getAffectedCount());
+        assertEquals(2.0, dynamic.getBetweenness(csr.indexOfID(2)), 0.0);
+        // Now it ties with the path, halving the betweenness of 2.
+        dynamic.setEdgeWeight(shortcut, 2);
+        assertEquals(2, dynamic.getAffectedCount());
+        assertEquals(1.0, dynamic.getBetweenness(csr.indexOfID(2)), TOLERANCE);
+        // Deleting it restores the path.
+        dynamic.setEdgeWeight(shortcut, Double.POSITIVE_INFINITY);
+        assertEquals(2.0, dynamic.getBetweenness(csr.indexOfID(2)), TOLERANCE);
+        assertEquals(0.0, dynamic.getEdgeBetweenness(shortcut), TOLERANCE);
+    }
+
+    /**
+     * Applies batches of random weight changes and compares with a full
+     * computation on the resulting graph.
+     */
+    private static void update(WeightedKeyedGraph<VWCent, EdgeCent> graph,
+                               DynamicBetweenness dynamic, Random random) {
+        final int m = dynamic.getGraph().getEdgeCount();
+        for (int batch = 0; batch < 20; batch++) {
+            int[] edges = new int[1 + random.nextInt(3)];
+            double[] weights = new double[edges.length];
+            for (int i = 0; i < edges.length; i++) {
+                edges[i] = random.nextInt(m);
+                weights[i] = random.nextInt(6) == 0
+                        ? Double.POSITIVE_INFINITY : 1 + random.nextInt(5);
+            }
+            dynamic.setEdgeWeights(edges, weights);
+            // The edge objects carry the new weights.
+            DynamicBetweenness expected = new DynamicBetweenness(graph);
+            expected.computeAll();
+            for (int v = 0; v < NUMBER_OF_NODES; v++) {
+                assertEquals(expected.getBetweenness(v),
+                             dynamic.getBetweenness(v), TOLERANCE);
+                assertEquals(expected.getCloseness(v),
+                             dynamic.getCloseness(v), TOLERANCE);
+                assertEquals(expected.getHarmonicCloseness(v),
+                             dynamic.getHarmonicCloseness(v), TOLERANCE);
+                for (int w = 0; w < NUMBER_OF_NODES; w++) {
+                    assertEquals(expected.getDistance(v, w),
+                                 dynamic.getDistance(v, w), 0.0);
+                }
+            }
+            for (int e = 0; e < m; e++) {
+                assertEquals(expected.getEdgeBetweenness(e),
+                             dynamic.getEdgeBetweenness(e), TOLERANCE);
+            }
+        }
+    }
+
+    /**
+     * Fills the given graph with a cycle plus random chords, with integer
+     * weights so that there are many multiple shortest paths.
+     */
+    private static WeightedKeyedGraph<VWCent, EdgeCent> weightedGraph(
+            WeightedKeyedGraph<VWCent, EdgeCent> graph, long seed) {
+        Random random = new Random(seed);
+        for (int id = 0; id < NUMBER_OF_EDGES; id++) {
+            EdgeCent e;
+            if (id < NUMBER_OF_NODES) {
+                e = graph.addEdge(id + 1, (id + 1) % NUMBER_OF_NODES + 1, id);
+            } else {
+                e = graph.addEdge(1 + random.nextInt(NUMBER_OF_NODES),
+                                  1 + random.nextInt(NUMBER_OF_NODES), id);
+            }
+            graph.setEdgeWeight(e, 1 + random.nextInt(5));
+        }
+        return graph;
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.analyzers;
+
+import org.javanetworkanalyzer.data.VUCent;
+import org.javanetworkanalyzer.model.EdgeCent;
+import org.javanetworkanalyzer.model.PseudoG;
+
+/**
+ * Times single-threaded {@link UnweightedGraphAnalyzer#computeAll()} on
+ * star-heavy graphs: complete bipartite graphs K(h, k) in which each of h hubs
+ * is connected to all k leaves, as with interchanges in a transit network.
+ * Every leaf is reached through all h hubs, so an edge betweenness
+ * accumulation which is quadratic in the degree of each popped vertex does
+ * O(h) times more work than Brandes' algorithm. With a linear accumulation,
+ * the time divided by n * m should stay roughly constant as h grows.
+ *
+ * <p> Not run as part of the test suite. Usage:
+ * <pre>
+ * java EdgeBetweennessBenchmark [leaves] [maxHubs]
+ * </pre>
+ *
+ * @author Adam Gouge
+ */
+public class EdgeBetweennessBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        final int leaves = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+        final int maxHubs = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        // Warm up.
+        time(leaves, 2);
+        for (int hubs = 4; hubs <= maxHubs; hubs *= 2) {
+            final long ms = time(leaves, hubs);
+            final long n = leaves + hubs;
+            final long m = (long) leaves * hubs;
+            System.out.println("K(" + hubs + ", " + leaves + "): " + ms
+                    + " ms, " + (1E6 * ms / (n * m)) + " ns per n*m.");
+        }
+    }
+
+    private static long time(int leaves, int hubs) throws Exception {
+        final PseudoG<VUCent, EdgeCent> graph =
+                new PseudoG<VUCent, EdgeCent>(VUCent.class, EdgeCent.class);
+        for (int h = 1; h <= hubs; h++) {
+            for (int l = 1; l <= leaves; l++) {
+                graph.addEdge(h, hubs + l);
+            }
+        }
+        final long start = System.currentTimeMillis();
+        new UnweightedGraphAnalyzer<EdgeCent>(graph).computeAll();
+        return System.currentTimeMillis() - start;
+    }
+}
@@ -116,6 +116,7 @@ public abstract class GraphAnalyzerTest
             GraphAnalyzer<?, ?, ?> analyzer,
             String analysisType) {
         long start = System.currentTimeMillis();
+        analyzer.setThreads(threads());
         try {
             analyzer.computeAll();
         } catch (Exception ex) {
@@ -335,6 +336,16 @@ public abstract class GraphAnalyzerTest
      */
     protected abstract boolean printsResults();
 
+    /**
+     * Returns the number of threads to be used during graph analysis; see
+     * {@link GraphAnalyzer#setThreads(int)}.
+     *
+     * @return The number of threads, or 0 for the single-threaded algorithm
+     */
+    protected int threads() {
+        return 0;
+    }
+
     /**
      * Returns a {@link ProgressMonitor} to be used during graph analysis.
      *
@@ -0,0 +1,153 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.analyzers;
+
+import org.javanetworkanalyzer.data.VUCent;
+import org.javanetworkanalyzer.model.DirectedPseudoG;
+import org.javanetworkanalyzer.model.EdgeCent;
+import org.javanetworkanalyzer.model.KeyedGraph;
+import org.javanetworkanalyzer.model.PseudoG;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests harmonic closeness and its estimation by {@link HyperBallAnalyzer}.
+ *
+ * @author Adam Gouge
+ */
+public class HyperBallAnalyzerTest {
+
+    private static final double TOLERANCE = 1E-12;
+    private static final int NUMBER_OF_NODES = 500;
+    private static final int NUMBER_OF_EDGES = 1200;
+    private static final long SEED = 42;
+
+    /**
+     * The path 1 - 2 - 3, plus the isolated vertex 4.
+     */
+    private KeyedGraph<VUCent, EdgeCent> disconnectedGraph() {
+        PseudoG<VUCent, EdgeCent> graph =
+                new PseudoG<VUCent, EdgeCent>(VUCent.class, EdgeCent.class);
+        graph.addEdge(1, 2, 0);
+        graph.addEdge(2, 3, 1);
+        graph.addVertex(4);
+        return graph;
+    }
+
+    @Test
+    public void testExactHarmonicCloseness() throws Exception {
+        for (int threads = 0; threads <= 2; threads++) {
+            KeyedGraph<VUCent, EdgeCent> graph = disconnectedGraph();
+            UnweightedGraphAnalyzer<EdgeCent> analyzer =
+                    new UnweightedGraphAnalyzer<EdgeCent>(graph);
+            analyzer.setThreads(threads);
+            analyzer.computeAll();
+            assertEquals(0.5, graph.getVertex(1).getHarmonicCloseness(),
+                         TOLERANCE);
+            assertEquals(2.0 / 3, graph.getVertex(2).getHarmonicCloseness(),
+                         TOLERANCE);
+            assertEquals(0.5, graph.getVertex(3).getHarmonicCloseness(),
+                         TOLERANCE);
+            assertEquals(0.0, graph.getVertex(4).getHarmonicCloseness(),
+                         TOLERANCE);
+            // Closeness is zero on disconnected graphs.
+            assertEquals(0.0, graph.getVertex(2).getCloseness(), TOLERANCE);
+        }
+    }
+
+    @Test
+    public void testSmallGraph() {
+        KeyedGraph<VUCent, EdgeCent> graph = disconnectedGraph();
+        HyperBallAnalyzer<EdgeCent> analyzer =
+                new HyperBallAnalyzer<EdgeCent>(graph);
+        analyzer.setLog2m(10);
+        analyzer.computeAll();
+        assertEquals(3, analyzer.getIterations());
+        // Balls of at most three vertices are counted almost exactly.
+        assertEquals(0.5, graph.getVertex(1).getHarmonicCloseness(), 0.01);
+        assertEquals(2.0 / 3, graph.getVertex(2).getHarmonicCloseness(), 0.01);
+        assertEquals(0.0, graph.getVertex(4).getHarmonicCloseness(), 0.0);
+        assertEquals(1.0, graph.getVertex(2).getCloseness(), 0.01);
+    }
+
+    @Test
+    public void testUndirected() throws Exception {
+        PseudoG<VUCent, EdgeCent> graph =
+                new PseudoG<VUCent, EdgeCent>(VUCent.class, EdgeCent.class);
+        Random random = new Random(SEED);
+        for (int id = 0; id < NUMBER_OF_EDGES; id++) {
+            if (id < NUMBER_OF_NODES - 1) {
+                graph.addEdge(id + 1, id + 2, id);
+            } else {
+                graph.addEdge(1 + random.nextInt(NUMBER_OF_NODES),
+                              1 + random.nextInt(NUMBER_OF_NODES), id);
+            }
+        }
+        check(graph);
+    }
+
+    @Test
+    public void testDirected() throws Exception {
+        DirectedPseudoG<VUCent, EdgeCent> graph =
+                new DirectedPseudoG<VUCent, EdgeCent>(
+                VUCent.class, EdgeCent.class);
+        Random random = new Random(SEED);
+        for (int id = 0; id < NUMBER_OF_EDGES; id++) {
+            graph.addEdge(1 + random.nextInt(NUMBER_OF_NODES),
+                          1 + random.nextInt(NUMBER_OF_NODES), id);
+        }
+        check(graph);
+    }
+
+    /**
+     * Compares the harmonic closeness estimated by HyperBall with the exact
+     * values, on average.
+     */
+    private void check(KeyedGraph<VUCent, EdgeCent> graph) throws Exception {
+        UnweightedGraphAnalyzer<EdgeCent> exact =
+                new UnweightedGraphAnalyzer<EdgeCent>(graph);
+        exact.setThreads(1);
+        exact.computeAll();
+        double[] expected = new double[NUMBER_OF_NODES + 1];
+        for (VUCent v : graph.vertexSet()) {
+            expected[v.getID()] = v.getHarmonicCloseness();
+        }
+        HyperBallAnalyzer<EdgeCent> analyzer =
+                new HyperBallAnalyzer<EdgeCent>(graph);
+        analyzer.setLog2m(10);
+        analyzer.setSeed(SEED);
+        analyzer.computeAll();
+        double error = 0;
+        double total = 0;
+        for (VUCent v : graph.vertexSet()) {
+            error += Math.abs(v.getHarmonicCloseness() - expected[v.getID()]);
+            total += expected[v.getID()];
+        }
+        assertEquals(0.0, error / total, 0.02);
+    }
+}
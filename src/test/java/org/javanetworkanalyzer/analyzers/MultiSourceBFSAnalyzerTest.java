@@ -0,0 +1,151 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.analyzers;
+
+import org.javanetworkanalyzer.alg.BFS;
+import org.javanetworkanalyzer.data.VUCent;
+import org.javanetworkanalyzer.model.DirectedPseudoG;
+import org.javanetworkanalyzer.model.EdgeCent;
+import org.javanetworkanalyzer.model.KeyedGraph;
+import org.javanetworkanalyzer.model.PseudoG;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests {@link MultiSourceBFSAnalyzer} against
+ * {@link UnweightedGraphAnalyzer}.
+ *
+ * @author Adam Gouge
+ */
+public class MultiSourceBFSAnalyzerTest {
+
+    private static final double TOLERANCE = 1E-12;
+    // Not a multiple of 64, so that the last batch is partial.
+    private static final int NUMBER_OF_NODES = 300;
+    private static final int NUMBER_OF_EDGES = 700;
+    private static final long SEED = 7;
+
+    @Test
+    public void testPath() throws Exception {
+        // 1 - 2 - 3 - 4, plus the isolated vertex 5.
+        PseudoG<VUCent, EdgeCent> graph =
+                new PseudoG<VUCent, EdgeCent>(VUCent.class, EdgeCent.class);
+        graph.addEdge(1, 2, 0);
+        graph.addEdge(2, 3, 1);
+        graph.addEdge(3, 4, 2);
+        graph.addVertex(5);
+        MultiSourceBFSAnalyzer<EdgeCent> analyzer =
+                new MultiSourceBFSAnalyzer<EdgeCent>(graph);
+        analyzer.computeAll();
+        assertEquals(3, analyzer.getEccentricity(graph.getVertex(1)));
+        assertEquals(2, analyzer.getEccentricity(graph.getVertex(2)));
+        assertEquals(0, analyzer.getEccentricity(graph.getVertex(5)));
+        assertEquals(3, analyzer.getDiameter());
+        assertEquals((1 + 0.5 + 1.0 / 3) / 4,
+                     graph.getVertex(1).getHarmonicCloseness(), TOLERANCE);
+        assertEquals(0.0, graph.getVertex(1).getCloseness(), TOLERANCE);
+    }
+
+    @Test
+    public void testUndirected() throws Exception {
+        PseudoG<VUCent, EdgeCent> graph =
+                new PseudoG<VUCent, EdgeCent>(VUCent.class, EdgeCent.class);
+        Random random = new Random(SEED);
+        for (int id = 0; id < NUMBER_OF_EDGES; id++) {
+            if (id < NUMBER_OF_NODES - 1) {
+                graph.addEdge(id + 1, id + 2, id);
+            } else {
+                graph.addEdge(1 + random.nextInt(NUMBER_OF_NODES),
+                              1 + random.nextInt(NUMBER_OF_NODES), id);
+            }
+        }
+        check(graph);
+    }
+
+    @Test
+    public void testDirected() throws Exception {
+        DirectedPseudoG<VUCent, EdgeCent> graph =
+                new DirectedPseudoG<VUCent, EdgeCent>(
+                VUCent.class, EdgeCent.class);
+        Random random = new Random(SEED);
+        for (int id = 0; id < NUMBER_OF_EDGES; id++) {
+            graph.addEdge(1 + random.nextInt(NUMBER_OF_NODES),
+                          1 + random.nextInt(NUMBER_OF_NODES), id);
+        }
+        check(graph);
+    }
+
+    private void check(KeyedGraph<VUCent, EdgeCent> graph) throws Exception {
+        UnweightedGraphAnalyzer<EdgeCent> exact =
+                new UnweightedGraphAnalyzer<EdgeCent>(graph);
+        exact.computeAll();
+        double[] closeness = new double[NUMBER_OF_NODES + 1];
+        double[] harmonic = new double[NUMBER_OF_NODES + 1];
+        for (VUCent v : graph.vertexSet()) {
+            closeness[v.getID()] = v.getCloseness();
+            harmonic[v.getID()] = v.getHarmonicCloseness();
+        }
+        int[] eccentricity = null;
+        for (int threads = 1; threads <= 2; threads++) {
+            for (int words = 1; words <= 2; words++) {
+                MultiSourceBFSAnalyzer<EdgeCent> analyzer =
+                        new MultiSourceBFSAnalyzer<EdgeCent>(graph);
+                analyzer.setThreads(threads);
+                analyzer.setWordsPerBatch(words);
+                analyzer.computeAll();
+                int diameter = 0;
+                int[] ecc = new int[NUMBER_OF_NODES + 1];
+                for (VUCent v : graph.vertexSet()) {
+                    assertEquals(closeness[v.getID()], v.getCloseness(),
+                                 TOLERANCE);
+                    assertEquals(harmonic[v.getID()],
+                                 v.getHarmonicCloseness(), TOLERANCE);
+                    ecc[v.getID()] = analyzer.getEccentricity(v);
+                    diameter = Math.max(diameter, ecc[v.getID()]);
+                }
+                assertEquals(diameter, analyzer.getDiameter());
+                if (eccentricity != null) {
+                    for (int id = 1; id <= NUMBER_OF_NODES; id++) {
+                        assertEquals(eccentricity[id], ecc[id]);
+                    }
+                }
+                eccentricity = ecc;
+            }
+        }
+        // Check the eccentricities against the BFS distances.
+        for (VUCent v : graph.vertexSet()) {
+            BFS<VUCent, EdgeCent> bfs = new BFS<VUCent, EdgeCent>(graph);
+            bfs.calculate(v);
+            int max = 0;
+            for (VUCent w : graph.vertexSet()) {
+                max = Math.max(max, w.getDistance());
+            }
+            assertEquals(max, eccentricity[v.getID()]);
+        }
+    }
+}
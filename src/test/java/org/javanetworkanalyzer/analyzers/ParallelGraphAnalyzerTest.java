@@ -0,0 +1,164 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.analyzers;
+
+import org.javanetworkanalyzer.data.VCent;
+import org.javanetworkanalyzer.data.VUCent;
+import org.javanetworkanalyzer.data.VWCent;
+import org.javanetworkanalyzer.model.DirectedWeightedPseudoG;
+import org.javanetworkanalyzer.model.EdgeCent;
+import org.javanetworkanalyzer.model.KeyedGraph;
+import org.javanetworkanalyzer.model.PseudoG;
+import org.javanetworkanalyzer.model.WeightedKeyedGraph;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that parallel graph analysis gives the same results as the
+ * single-threaded algorithm, and bit-for-bit identical results for any number
+ * of threads.
+ *
+ * @author Adam Gouge
+ */
+public class ParallelGraphAnalyzerTest {
+
+    private static final int NUMBER_OF_NODES = 300;
+    private static final int NUMBER_OF_EDGES = 900;
+    private static final double TOLERANCE = 1E-10;
+    private static final long SEED = 42;
+
+    @Test
+    public void testUnweightedUndirected() throws Exception {
+        KeyedGraph<VUCent, EdgeCent> expected = unweightedGraph();
+        new UnweightedGraphAnalyzer<EdgeCent>(expected).computeAll();
+        KeyedGraph<VUCent, EdgeCent> reference = null;
+        for (int threads = 1; threads <= 4; threads++) {
+            KeyedGraph<VUCent, EdgeCent> actual = unweightedGraph();
+            UnweightedGraphAnalyzer<EdgeCent> analyzer =
+                    new UnweightedGraphAnalyzer<EdgeCent>(actual);
+            analyzer.setThreads(threads);
+            analyzer.computeAll();
+            check(expected, actual, TOLERANCE);
+            if (reference == null) {
+                reference = actual;
+            } else {
+                check(reference, actual, 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void testWeightedDirected() throws Exception {
+        WeightedKeyedGraph<VWCent, EdgeCent> expected = weightedGraph();
+        new WeightedGraphAnalyzer<EdgeCent>(expected).computeAll();
+        WeightedKeyedGraph<VWCent, EdgeCent> reference = null;
+        for (int threads = 1; threads <= 4; threads++) {
+            WeightedKeyedGraph<VWCent, EdgeCent> actual = weightedGraph();
+            WeightedGraphAnalyzer<EdgeCent> analyzer =
+                    new WeightedGraphAnalyzer<EdgeCent>(actual);
+            analyzer.setThreads(threads);
+            analyzer.computeAll();
+            check(expected, actual, TOLERANCE);
+            if (reference == null) {
+                reference = actual;
+            } else {
+                check(reference, actual, 0.0);
+            }
+        }
+    }
+
+    /**
+     * Compares the vertex betweenness and closeness and the edge betweenness
+     * of two graphs created by the same method.
+     */
+    private void check(KeyedGraph<? extends VCent, EdgeCent> expected,
+                       KeyedGraph<? extends VCent, EdgeCent> actual,
+                       double tolerance) {
+        for (int id = 1; id <= NUMBER_OF_NODES; id++) {
+            VCent e = expected.getVertex(id);
+            VCent a = actual.getVertex(id);
+            assertEquals(e.getBetweenness(), a.getBetweenness(), tolerance);
+            assertEquals(e.getCloseness(), a.getCloseness(), tolerance);
+            assertEquals(e.getHarmonicCloseness(), a.getHarmonicCloseness(),
+                         tolerance);
+        }
+        for (int id = 0; id < NUMBER_OF_EDGES; id++) {
+            assertEquals(edge(expected, id).getBetweenness(),
+                         edge(actual, id).getBetweenness(), tolerance);
+        }
+    }
+
+    private EdgeCent edge(KeyedGraph<?, EdgeCent> graph, int id) {
+        for (EdgeCent e : graph.edgeSet()) {
+            if (e.getID() == id) {
+                return e;
+            }
+        }
+        throw new IllegalStateException("Edge " + id + " not found.");
+    }
+
+    /**
+     * A connected undirected graph: a path plus random chords.
+     */
+    private KeyedGraph<VUCent, EdgeCent> unweightedGraph() {
+        PseudoG<VUCent, EdgeCent> graph =
+                new PseudoG<VUCent, EdgeCent>(VUCent.class, EdgeCent.class);
+        Random random = new Random(SEED);
+        for (int id = 0; id < NUMBER_OF_EDGES; id++) {
+            if (id < NUMBER_OF_NODES - 1) {
+                graph.addEdge(id + 1, id + 2, id);
+            } else {
+                graph.addEdge(1 + random.nextInt(NUMBER_OF_NODES),
+                              1 + random.nextInt(NUMBER_OF_NODES), id);
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * A strongly connected directed graph with integer weights (so that
+     * there are many multiple shortest paths): a cycle plus random chords.
+     */
+    private WeightedKeyedGraph<VWCent, EdgeCent> weightedGraph() {
+        DirectedWeightedPseudoG<VWCent, EdgeCent> graph =
+                new DirectedWeightedPseudoG<VWCent, EdgeCent>(
+                VWCent.class, EdgeCent.class);
+        Random random = new Random(SEED);
+        for (int id = 0; id < NUMBER_OF_EDGES; id++) {
+            EdgeCent e;
+            if (id < NUMBER_OF_NODES) {
+                e = graph.addEdge(id + 1, (id + 1) % NUMBER_OF_NODES + 1, id);
+            } else {
+                e = graph.addEdge(1 + random.nextInt(NUMBER_OF_NODES),
+                                  1 + random.nextInt(NUMBER_OF_NODES), id);
+            }
+            graph.setEdgeWeight(e, 1 + random.nextInt(5));
+        }
+        return graph;
+    }
+}
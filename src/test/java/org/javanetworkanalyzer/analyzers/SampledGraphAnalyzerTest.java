@@ -0,0 +1,191 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.analyzers;
+
+import org.javanetworkanalyzer.data.VCent;
+import org.javanetworkanalyzer.data.VUCent;
+import org.javanetworkanalyzer.data.VWCent;
+import org.javanetworkanalyzer.model.DirectedWeightedPseudoG;
+import org.javanetworkanalyzer.model.EdgeCent;
+import org.javanetworkanalyzer.model.KeyedGraph;
+import org.javanetworkanalyzer.model.PseudoG;
+import org.javanetworkanalyzer.model.WeightedKeyedGraph;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that betweenness estimated from a sample of pivots is close to the
+ * exact betweenness and depends only on the seed.
+ *
+ * @author Adam Gouge
+ */
+public class SampledGraphAnalyzerTest {
+
+    private static final int NUMBER_OF_NODES = 300;
+    private static final int NUMBER_OF_EDGES = 900;
+    private static final long SEED = 42;
+
+    /**
+     * Maximum difference between exact and estimated betweenness (after
+     * normalization).
+     */
+    private static final double TOLERANCE = 0.2;
+
+    @Test
+    public void testUniform() throws Exception {
+        KeyedGraph<VUCent, EdgeCent> expected = unweightedGraph();
+        new UnweightedGraphAnalyzer<EdgeCent>(expected).computeAll();
+        KeyedGraph<VUCent, EdgeCent> actual = unweightedGraph();
+        UnweightedGraphAnalyzer<EdgeCent> analyzer =
+                new UnweightedGraphAnalyzer<EdgeCent>(actual);
+        analyzer.setSampling(GraphAnalyzer.UNIFORM, 3000, SEED);
+        analyzer.computeAll();
+        assertEquals(3000, analyzer.getSampleCount());
+        assertTrue(Double.isNaN(analyzer.getErrorBound()));
+        check(expected, actual, TOLERANCE);
+    }
+
+    @Test
+    public void testDegreeProportional() throws Exception {
+        WeightedKeyedGraph<VWCent, EdgeCent> expected = weightedGraph();
+        new WeightedGraphAnalyzer<EdgeCent>(expected).computeAll();
+        WeightedKeyedGraph<VWCent, EdgeCent> actual = weightedGraph();
+        WeightedGraphAnalyzer<EdgeCent> analyzer =
+                new WeightedGraphAnalyzer<EdgeCent>(actual);
+        analyzer.setSampling(GraphAnalyzer.DEGREE_PROPORTIONAL, 3000, SEED);
+        analyzer.computeAll();
+        check(expected, actual, TOLERANCE);
+    }
+
+    @Test
+    public void testAdaptive() throws Exception {
+        KeyedGraph<VUCent, EdgeCent> expected = unweightedGraph();
+        new UnweightedGraphAnalyzer<EdgeCent>(expected).computeAll();
+        KeyedGraph<VUCent, EdgeCent> actual = unweightedGraph();
+        UnweightedGraphAnalyzer<EdgeCent> analyzer =
+                new UnweightedGraphAnalyzer<EdgeCent>(actual);
+        analyzer.setAdaptiveSampling(GraphAnalyzer.UNIFORM, 0.01, 0.1, SEED);
+        analyzer.computeAll();
+        assertTrue(analyzer.getSampleCount() > 0);
+        assertTrue(analyzer.getErrorBound() <= 0.01);
+        check(expected, actual, TOLERANCE);
+    }
+
+    @Test
+    public void testSeedDeterminesResults() throws Exception {
+        WeightedKeyedGraph<VWCent, EdgeCent> reference = null;
+        for (int threads = 0; threads <= 3; threads++) {
+            WeightedKeyedGraph<VWCent, EdgeCent> actual = weightedGraph();
+            WeightedGraphAnalyzer<EdgeCent> analyzer =
+                    new WeightedGraphAnalyzer<EdgeCent>(actual);
+            analyzer.setThreads(threads);
+            analyzer.setAdaptiveSampling(
+                    GraphAnalyzer.DEGREE_PROPORTIONAL, 0.05, 0.1, SEED);
+            analyzer.computeAll();
+            if (reference == null) {
+                reference = actual;
+            } else {
+                check(reference, actual, 0.0);
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownStrategy() throws Exception {
+        new UnweightedGraphAnalyzer<EdgeCent>(unweightedGraph())
+                .setSampling(0, 100, SEED);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidEpsilon() throws Exception {
+        new UnweightedGraphAnalyzer<EdgeCent>(unweightedGraph())
+                .setAdaptiveSampling(GraphAnalyzer.UNIFORM, 0.0, 0.1, SEED);
+    }
+
+    /**
+     * Compares the vertex and edge betweenness of two graphs created by the
+     * same method.
+     */
+    private void check(KeyedGraph<? extends VCent, EdgeCent> expected,
+                       KeyedGraph<? extends VCent, EdgeCent> actual,
+                       double tolerance) {
+        for (int id = 1; id <= NUMBER_OF_NODES; id++) {
+            assertEquals(expected.getVertex(id).getBetweenness(),
+                         actual.getVertex(id).getBetweenness(), tolerance);
+        }
+        EdgeCent[] edges = new EdgeCent[NUMBER_OF_EDGES];
+        for (EdgeCent e : actual.edgeSet()) {
+            edges[e.getID()] = e;
+        }
+        for (EdgeCent e : expected.edgeSet()) {
+            assertEquals(e.getBetweenness(),
+                         edges[e.getID()].getBetweenness(), tolerance);
+        }
+    }
+
+    /**
+     * A connected undirected graph: a path plus random chords.
+     */
+    private KeyedGraph<VUCent, EdgeCent> unweightedGraph() {
+        PseudoG<VUCent, EdgeCent> graph =
+                new PseudoG<VUCent, EdgeCent>(VUCent.class, EdgeCent.class);
+        Random random = new Random(SEED);
+        for (int id = 0; id < NUMBER_OF_EDGES; id++) {
+            if (id < NUMBER_OF_NODES - 1) {
+                graph.addEdge(id + 1, id + 2, id);
+            } else {
+                graph.addEdge(1 + random.nextInt(NUMBER_OF_NODES),
+                              1 + random.nextInt(NUMBER_OF_NODES), id);
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * A strongly connected directed graph with integer weights: a cycle plus
+     * random chords.
+     */
+    private WeightedKeyedGraph<VWCent, EdgeCent> weightedGraph() {
+        DirectedWeightedPseudoG<VWCent, EdgeCent> graph =
+                new DirectedWeightedPseudoG<VWCent, EdgeCent>(
+                VWCent.class, EdgeCent.class);
+        Random random = new Random(SEED);
+        for (int id = 0; id < NUMBER_OF_EDGES; id++) {
+            EdgeCent e;
+            if (id < NUMBER_OF_NODES) {
+                e = graph.addEdge(id + 1, (id + 1) % NUMBER_OF_NODES + 1, id);
+            } else {
+                e = graph.addEdge(1 + random.nextInt(NUMBER_OF_NODES),
+                                  1 + random.nextInt(NUMBER_OF_NODES), id);
+            }
+            graph.setEdgeWeight(e, 1 + random.nextInt(5));
+        }
+        return graph;
+    }
+}
@@ -0,0 +1,79 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.data;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link HyperLogLogCounters}.
+ *
+ * @author Adam Gouge
+ */
+public class HyperLogLogCountersTest {
+
+    @Test
+    public void testEstimates() {
+        HyperLogLogCounters counters = new HyperLogLogCounters(3, 10, 0);
+        assertEquals(0.0, counters.estimate(0), 0.0);
+        for (int i = 0; i < 10; i++) {
+            // Duplicates are not counted.
+            counters.add(0, i);
+            counters.add(0, i);
+        }
+        // Small cardinalities are counted almost exactly.
+        assertEquals(10.0, counters.estimate(0), 0.5);
+        for (int i = 0; i < 100000; i++) {
+            counters.add(1, i);
+        }
+        double error = 3 * counters.getRelativeStandardDeviation();
+        assertEquals(100000, counters.estimate(1), 100000 * error);
+    }
+
+    @Test
+    public void testUnion() {
+        HyperLogLogCounters a = new HyperLogLogCounters(2, 8, 1);
+        HyperLogLogCounters b = new HyperLogLogCounters(2, 8, 1);
+        for (int i = 0; i < 5000; i++) {
+            a.add(0, i);
+            b.add(1, i + 2500);
+        }
+        assertTrue(a.union(0, b, 1));
+        assertFalse(a.union(0, b, 1));
+        double error = 3 * a.getRelativeStandardDeviation();
+        assertEquals(7500, a.estimate(0), 7500 * error);
+        b.copyFrom(a);
+        assertEquals(a.estimate(0), b.estimate(0), 0.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnionWithDifferentSeeds() {
+        new HyperLogLogCounters(1, 8, 1).union(
+                0, new HyperLogLogCounters(1, 8, 2), 0);
+    }
+}
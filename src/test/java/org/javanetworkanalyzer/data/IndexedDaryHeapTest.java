@@ -0,0 +1,121 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.data;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests {@link IndexedDaryHeap}.
+ *
+ * @author Adam Gouge
+ */
+public class IndexedDaryHeapTest {
+
+    private static final double TOLERANCE = 0.0;
+
+    @Test
+    public void testBasicOperations() {
+        IndexedDaryHeap heap = new IndexedDaryHeap(5, 2);
+        assertTrue(heap.isEmpty());
+        heap.update(3, 7.0);
+        heap.update(1, 4.0);
+        heap.update(4, 9.0);
+        assertEquals(3, heap.size());
+        assertEquals(1, heap.peek());
+        // Decrease-key.
+        heap.update(4, 1.0);
+        assertEquals(4, heap.peek());
+        assertEquals(1.0, heap.peekPriority(), TOLERANCE);
+        // Increase-key.
+        heap.update(4, 8.0);
+        assertEquals(8.0, heap.priority(4), TOLERANCE);
+        assertTrue(heap.remove(1));
+        assertFalse(heap.remove(1));
+        assertFalse(heap.contains(1));
+        assertEquals(3, heap.poll());
+        assertEquals(4, heap.poll());
+        assertTrue(heap.isEmpty());
+        try {
+            heap.poll();
+            fail();
+        } catch (IllegalStateException ex) {
+        }
+        heap.update(2, 0.0);
+        heap.clear();
+        assertFalse(heap.contains(2));
+        heap.ensureCapacity(10);
+        heap.update(9, 1.0);
+        assertEquals(9, heap.poll());
+    }
+
+    @Test
+    public void testRandomOperations() {
+        final int n = 200;
+        final Random random = new Random(11);
+        for (int arity = 2; arity <= 5; arity++) {
+            IndexedDaryHeap heap = new IndexedDaryHeap(n, arity);
+            // Reference implementation: the priority of each key, or NaN.
+            double[] reference = new double[n];
+            java.util.Arrays.fill(reference, Double.NaN);
+            for (int step = 0; step < 20000; step++) {
+                final int key = random.nextInt(n);
+                final int op = random.nextInt(4);
+                if (op < 2) {
+                    final double priority = random.nextInt(1000);
+                    heap.update(key, priority);
+                    reference[key] = priority;
+                } else if (op == 2) {
+                    assertEquals(!Double.isNaN(reference[key]),
+                                 heap.remove(key));
+                    reference[key] = Double.NaN;
+                } else if (!heap.isEmpty()) {
+                    double min = Double.POSITIVE_INFINITY;
+                    for (int k = 0; k < n; k++) {
+                        if (reference[k] < min) {
+                            min = reference[k];
+                        }
+                    }
+                    final int polled = heap.poll();
+                    assertEquals(min, reference[polled], TOLERANCE);
+                    reference[polled] = Double.NaN;
+                }
+                int size = 0;
+                for (int k = 0; k < n; k++) {
+                    if (!Double.isNaN(reference[k])) {
+                        size++;
+                    }
+                }
+                assertEquals(size, heap.size());
+            }
+        }
+    }
+}
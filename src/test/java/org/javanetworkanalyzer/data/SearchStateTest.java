@@ -0,0 +1,94 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.data;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link SearchState}.
+ *
+ * @author Adam Gouge
+ */
+public class SearchStateTest {
+
+    private static final double TOLERANCE = 0.0;
+
+    @Test
+    public void testResetAndTouch() {
+        SearchState state = new SearchState(4);
+        assertFalse(state.isTouched(2));
+        assertEquals(Double.POSITIVE_INFINITY, state.getDistance(2), TOLERANCE);
+        state.setDistance(2, 3.5);
+        state.setSigma(0, 2);
+        state.addSigma(0, 3);
+        state.addDelta(1, 0.5);
+        assertTrue(state.isTouched(2));
+        assertFalse(state.touch(2));
+        assertEquals(3, state.getTouchedCount());
+        assertEquals(2, state.getTouched(0));
+        assertEquals(0, state.getTouched(1));
+        assertEquals(1, state.getTouched(2));
+        assertEquals(3.5, state.getDistance(2), TOLERANCE);
+        assertEquals(5, state.getSigma(0));
+        assertEquals(0.5, state.getDelta(1), TOLERANCE);
+
+        state.reset();
+        assertEquals(0, state.getTouchedCount());
+        assertFalse(state.isTouched(2));
+        assertEquals(Double.POSITIVE_INFINITY, state.getDistance(2), TOLERANCE);
+        assertEquals(0, state.getSigma(0));
+        assertEquals(0.0, state.getDelta(1), TOLERANCE);
+        assertTrue(state.touch(2));
+        assertEquals(Double.POSITIVE_INFINITY, state.getDistance(2), TOLERANCE);
+    }
+
+    @Test
+    public void testPredecessors() {
+        SearchState state = new SearchState(3);
+        // Force the predecessor buffer to grow.
+        for (int i = 0; i < 20; i++) {
+            state.addPredecessor(2, i % 2, i);
+        }
+        int count = 0;
+        int expectedArc = 19;
+        for (int e = state.firstPredecessor(2); e >= 0;
+             e = state.nextPredecessor(e)) {
+            assertEquals(expectedArc, state.predecessorArc(e));
+            assertEquals(expectedArc % 2, state.predecessorVertex(e));
+            expectedArc--;
+            count++;
+        }
+        assertEquals(20, count);
+        state.clearPredecessors(2);
+        assertEquals(-1, state.firstPredecessor(2));
+        state.addPredecessor(2, 1, 7);
+        state.reset();
+        assertEquals(-1, state.firstPredecessor(2));
+    }
+}
@@ -0,0 +1,87 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.graphcreators;
+
+import org.javanetworkanalyzer.data.VUCent;
+import org.javanetworkanalyzer.model.CSRGraph;
+import org.javanetworkanalyzer.model.Edge;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests reading vertex coordinates from the 2D graph.
+ *
+ * @author Adam Gouge
+ */
+public class CoordinateReaderTest {
+
+    private static final String FILENAME = "./files/graph2D.edges.csv";
+    private static final double TOLERANCE = 0.0;
+
+    @Test
+    public void testGraph2D() throws Exception {
+        CSRGraph<VUCent, Edge> graph = new GraphCreator<VUCent, Edge>(
+                FILENAME, GraphCreator.DIRECTED, VUCent.class, Edge.class)
+                .loadCSRGraph();
+        double[][] coordinates = new CoordinateReader(FILENAME).read(graph);
+        double[][] expected = {{223, 82}, {120, 322}, {222, 242}, {229, 26},
+            {335, 313}, {228, 191}};
+        for (int id = 1; id <= expected.length; id++) {
+            int u = graph.indexOfID(id);
+            assertEquals(expected[id - 1][0], coordinates[0][u], TOLERANCE);
+            assertEquals(expected[id - 1][1], coordinates[1][u], TOLERANCE);
+        }
+    }
+
+    @Test
+    public void testQuotedLineBreak() throws Exception {
+        // The geometry of the first edge spans two lines.
+        File file = File.createTempFile("coordinates", ".csv");
+        file.deleteOnExit();
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(("\"the_geom\";\"start_node\";\"end_node\"\n"
+                    + "\"LINESTRING (1 2,\n 3 4)\";1;2\n"
+                    + "\"LINESTRING (3 4, 5 6)\";2;3\n").getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+        CSRGraph<VUCent, Edge> graph = new GraphCreator<VUCent, Edge>(
+                file.getPath(), GraphCreator.DIRECTED, VUCent.class,
+                Edge.class).loadCSRGraph();
+        double[][] coordinates =
+                new CoordinateReader(file.getPath()).read(graph);
+        double[][] expected = {{1, 2}, {3, 4}, {5, 6}};
+        for (int id = 1; id <= expected.length; id++) {
+            int u = graph.indexOfID(id);
+            assertEquals(expected[id - 1][0], coordinates[0][u], TOLERANCE);
+            assertEquals(expected[id - 1][1], coordinates[1][u], TOLERANCE);
+        }
+    }
+}
@@ -30,8 +30,14 @@ import org.javanetworkanalyzer.data.VWCent;
 import org.javanetworkanalyzer.model.Edge;
 import org.javanetworkanalyzer.model.KeyedGraph;
 import org.javanetworkanalyzer.model.UndirectedG;
+import org.javanetworkanalyzer.model.WeightedKeyedGraph;
 import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -90,6 +96,37 @@ public class Graph2DGraphCreatorTest {
                 load2DGraph(true, GraphCreator.UNDIRECTED);
     }
 
+    @Test
+    public void weightedDirectedParallel() throws FileNotFoundException,
+            NoSuchMethodException {
+        WeightedKeyedGraph<VWCent, Edge> expected =
+                new WeightedGraphCreator<VWCent, Edge>(
+                FILENAME, GraphCreator.DIRECTED, VWCent.class, Edge.class,
+                WEIGHT).loadGraph();
+        WeightedGraphCreator<VWCent, Edge> creator =
+                new WeightedGraphCreator<VWCent, Edge>(
+                FILENAME, GraphCreator.DIRECTED, VWCent.class, Edge.class,
+                WEIGHT);
+        creator.setThreads(2);
+        WeightedKeyedGraph<VWCent, Edge> actual = creator.loadGraph();
+        assertEquals(expected.vertexSet().size(), actual.vertexSet().size());
+        assertEquals(edgeList(expected), edgeList(actual));
+    }
+
+    /**
+     * Returns the edges of a graph as sorted strings.
+     */
+    private List<String> edgeList(WeightedKeyedGraph<VWCent, Edge> graph) {
+        List<String> edges = new ArrayList<String>();
+        for (Edge e : graph.edgeSet()) {
+            edges.add(graph.getEdgeSource(e).getID() + " "
+                      + graph.getEdgeTarget(e).getID() + " "
+                      + graph.getEdgeWeight(e));
+        }
+        Collections.sort(edges);
+        return edges;
+    }
+
     /**
      * Loads the 2D graph according to whether it is to be considered weighted
      * and according to the given orientation.
@@ -0,0 +1,210 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.graphcreators;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests {@link MappedCSVEdgeReader}.
+ *
+ * @author Adam Gouge
+ */
+public class MappedCSVEdgeReaderTest {
+
+    private static final String HEADER =
+            "\"the_geom\";\"length\";\"start_node\";\"end_node\"\n";
+
+    /**
+     * Collects the edges read.
+     */
+    private static class EdgeList implements MappedCSVEdgeReader.EdgeHandler {
+
+        private final List<int[]> nodes = new ArrayList<int[]>();
+        private final List<Double> weights = new ArrayList<Double>();
+
+        @Override
+        public void edge(int startNode, int endNode, double weight) {
+            nodes.add(new int[]{startNode, endNode});
+            weights.add(weight);
+        }
+    }
+
+    private File write(String contents) throws IOException {
+        File file = File.createTempFile("edges", ".csv");
+        file.deleteOnExit();
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(contents.getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+        return file;
+    }
+
+    private EdgeList read(File file, String weightField, int window)
+            throws IOException {
+        EdgeList edges = new EdgeList();
+        new MappedCSVEdgeReader(file.getPath(), "start_node", "end_node",
+                                weightField, window, 1).read(edges);
+        return edges;
+    }
+
+    @Test
+    public void testParallel() throws IOException {
+        Random random = new Random(42);
+        StringBuilder contents = new StringBuilder(HEADER);
+        for (int i = 0; i < 500; i++) {
+            // Some geometries contain line breaks, which may be mistaken
+            // for the start of a line.
+            contents.append('"').append(i % 7 == 0 ? "a\nb;c\n" : "ab")
+                    .append("\";").append(random.nextInt(1000) / 8.0)
+                    .append(';').append(i).append(';')
+                    .append(random.nextInt(100)).append(i % 3 == 0 ? "\r\n" : "\n");
+        }
+        File file = write(contents.toString());
+        EdgeList expected = read(file, "length", 1024);
+        assertEquals(500, expected.nodes.size());
+        for (int minChunk = 1; minChunk <= 4096; minChunk *= 4) {
+            for (int threads = 1; threads <= 4; threads++) {
+                EdgeBuffer actual = new MappedCSVEdgeReader(
+                        file.getPath(), "start_node", "end_node", "length",
+                        256, minChunk).read(threads);
+                assertEquals(expected.nodes.size(), actual.size());
+                for (int i = 0; i < actual.size(); i++) {
+                    assertEquals(expected.nodes.get(i)[0],
+                                 actual.getStartNode(i));
+                    assertEquals(expected.nodes.get(i)[1],
+                                 actual.getEndNode(i));
+                    assertEquals(expected.weights.get(i),
+                                 actual.getWeight(i), 0.0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testQuotedFields() throws IOException {
+        File file = write(HEADER
+                + "\"LINESTRING (1 2; 3 4)\";\"1.5\";\"2\";\"3\"\r\n"
+                + "\"a \"\"quoted\"\"\n name\";2e1;\"-4\";5\n"
+                + "\n"
+                + "x;0.25;6;7");
+        for (int window = 48; window <= 1024; window *= 2) {
+            EdgeList edges = read(file, "length", window);
+            assertEquals(3, edges.nodes.size());
+            assertEquals(2, edges.nodes.get(0)[0]);
+            assertEquals(3, edges.nodes.get(0)[1]);
+            assertEquals(1.5, edges.weights.get(0), 0.0);
+            assertEquals(-4, edges.nodes.get(1)[0]);
+            assertEquals(5, edges.nodes.get(1)[1]);
+            assertEquals(20.0, edges.weights.get(1), 0.0);
+            assertEquals(6, edges.nodes.get(2)[0]);
+            assertEquals(7, edges.nodes.get(2)[1]);
+            assertEquals(0.25, edges.weights.get(2), 0.0);
+        }
+        // Unweighted.
+        assertEquals(1.0, read(file, null, 1024).weights.get(0), 0.0);
+    }
+
+    @Test
+    public void testWeightsParseExactly() throws IOException {
+        Random random = new Random(42);
+        StringBuilder contents = new StringBuilder(HEADER);
+        List<String> expected = new ArrayList<String>();
+        for (int i = 0; i < 2000; i++) {
+            String weight;
+            switch (i % 4) {
+                case 0:
+                    weight = Double.toString(random.nextDouble() * 1000);
+                    break;
+                case 1:
+                    weight = String.valueOf(random.nextInt(100000) / 100.0);
+                    break;
+                case 2:
+                    weight = random.nextInt(1000) + "." + random.nextInt(1000)
+                            + "E" + (random.nextInt(40) - 20);
+                    break;
+                default:
+                    weight = "0.000" + random.nextInt(1000000000);
+                    break;
+            }
+            expected.add(weight);
+            contents.append("\"g\";\"").append(weight).append("\";")
+                    .append(i).append(';').append(i + 1).append('\n');
+        }
+        EdgeList edges = read(write(contents.toString()), "length", 4096);
+        assertEquals(expected.size(), edges.weights.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), Double.parseDouble(expected.get(i)),
+                         edges.weights.get(i), 0.0);
+            assertEquals(i, edges.nodes.get(i)[0]);
+        }
+    }
+
+    @Test
+    public void testFieldValues() throws IOException {
+        File file = write(HEADER
+                + "\"LINESTRING (1 2,\r\n 3 4)\";1.5;2;3\r\n"
+                + "\"a \"\"quoted\"\"; name\";2;4;5\n"
+                + "plain;3;6;7");
+        final List<String> values = new ArrayList<String>();
+        final List<int[]> nodes = new ArrayList<int[]>();
+        new MappedCSVEdgeReader(file.getPath(), "start_node", "end_node",
+                                null, 48, 1).read(
+                "the_geom", new MappedCSVEdgeReader.FieldHandler() {
+            @Override
+            public void edge(int startNode, int endNode, double weight,
+                             String value) {
+                nodes.add(new int[]{startNode, endNode});
+                values.add(value);
+            }
+        });
+        assertEquals(3, values.size());
+        assertEquals("LINESTRING (1 2,\r\n 3 4)", values.get(0));
+        assertEquals("a \"quoted\"; name", values.get(1));
+        assertEquals("plain", values.get(2));
+        assertEquals(4, nodes.get(1)[0]);
+        assertEquals(7, nodes.get(2)[1]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMissingColumn() throws IOException {
+        read(write(HEADER), "speed", 1024);
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testInvalidNodeId() throws IOException {
+        read(write(HEADER + "g;1;2x;3\n"), null, 1024);
+    }
+}
@@ -0,0 +1,170 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.model;
+
+import org.javanetworkanalyzer.data.VDijkstra;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests {@link CSRGraphFile} on the Cormen graph.
+ *
+ * @author Adam Gouge
+ */
+public class CSRGraphFileTest {
+
+    private static final double TOLERANCE = 0.0;
+    private static final int[][] EDGES = {{1, 2, 10}, {1, 4, 5}, {5, 1, 7},
+        {2, 4, 2}, {4, 2, 3}, {3, 5, 4}, {2, 3, 1}, {4, 3, 9}, {5, 3, 6},
+        {4, 5, 2}};
+    private CSRGraph<VDijkstra, Edge> graph;
+    private File file;
+
+    @Before
+    public void setUp() throws NoSuchMethodException, IOException {
+        CSRGraph.Builder<VDijkstra, Edge> builder =
+                new CSRGraph.Builder<VDijkstra, Edge>(
+                VDijkstra.class, Edge.class);
+        for (int i = 0; i < EDGES.length; i++) {
+            builder.addEdge(EDGES[i][0], EDGES[i][1], EDGES[i][2], i + 1);
+        }
+        graph = builder.build(CSRGraph.DIRECTED);
+        file = File.createTempFile("cormen", ".csr");
+        CSRGraphFile.write(graph, file);
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        CSRGraph<VDijkstra, Edge> mapped =
+                CSRGraphFile.map(file, VDijkstra.class);
+        assertEquals(CSRGraph.DIRECTED, mapped.getOrientation());
+        assertFalse(mapped.hasEdgeObjects());
+        assertSameStructure(graph, mapped);
+        for (int e = 0; e < mapped.getEdgeCount(); e++) {
+            assertEquals(graph.getEdgeID(e), mapped.getEdgeID(e));
+        }
+        // The vertices are created on demand.
+        assertEquals(5, mapped.getVertex(5).getID());
+        assertEquals(5, mapped.vertexSet().size());
+    }
+
+    @Test
+    public void testOrientations() throws Exception {
+        for (int orientation = CSRGraph.DIRECTED;
+             orientation <= CSRGraph.UNDIRECTED; orientation++) {
+            CSRGraph<VDijkstra, Edge> mapped = CSRGraphFile.map(
+                    file, orientation, VDijkstra.class, null);
+            assertEquals(orientation, mapped.getOrientation());
+            assertSameStructure(graph.withOrientation(orientation), mapped);
+        }
+    }
+
+    @Test
+    public void testEdgeObjects() throws Exception {
+        CSRGraph<VDijkstra, Edge> mapped = CSRGraphFile.map(
+                file, CSRGraph.REVERSED, VDijkstra.class, Edge.class);
+        assertTrue(mapped.hasEdgeObjects());
+        assertEquals(10, mapped.edgeSet().size());
+        for (int e = 0; e < mapped.getEdgeCount(); e++) {
+            Edge edge = mapped.edge(e);
+            assertEquals(graph.getEdgeID(e), edge.getID());
+            assertEquals(graph.edgeWeight(e), edge.getWeight(), TOLERANCE);
+            // Reversed.
+            assertEquals(graph.getEdgeTarget(graph.edge(e)).getID(),
+                         mapped.getEdgeSource(edge).getID());
+        }
+    }
+
+    @Test
+    public void testWeightsNotWrittenBack() throws Exception {
+        CSRGraph<VDijkstra, Edge> mapped =
+                CSRGraphFile.map(file, VDijkstra.class);
+        mapped.setEdgeWeight(0, 42.0);
+        assertEquals(42.0, mapped.edgeWeight(0), TOLERANCE);
+        CSRGraph<VDijkstra, Edge> again =
+                CSRGraphFile.map(file, VDijkstra.class);
+        assertEquals(graph.edgeWeight(0), again.edgeWeight(0), TOLERANCE);
+    }
+
+    @Test
+    public void testNotAGraphFile() throws Exception {
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        raf.seek(0);
+        raf.writeInt(0);
+        raf.close();
+        try {
+            CSRGraphFile.map(file, VDijkstra.class);
+            fail();
+        } catch (IOException ex) {
+            // Expected.
+        }
+    }
+
+    @Test
+    public void testTruncatedFile() throws Exception {
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        raf.setLength(raf.length() - 8);
+        raf.close();
+        try {
+            CSRGraphFile.map(file, VDijkstra.class);
+            fail();
+        } catch (IOException ex) {
+            assertEquals("Truncated CSR graph file.", ex.getMessage());
+        }
+    }
+
+    private static void assertSameStructure(CSRGraph<?, ?> expected,
+                                            CSRGraph<?, ?> actual) {
+        assertEquals(expected.getVertexCount(), actual.getVertexCount());
+        assertEquals(expected.getEdgeCount(), actual.getEdgeCount());
+        assertEquals(expected.getArcCount(), actual.getArcCount());
+        for (int u = 0; u < expected.getVertexCount(); u++) {
+            assertEquals(expected.getID(u), actual.getID(u));
+            assertEquals(expected.firstArc(u), actual.firstArc(u));
+            assertEquals(expected.endArc(u), actual.endArc(u));
+            for (int a = expected.firstArc(u); a < expected.endArc(u); a++) {
+                assertEquals(expected.arcTarget(a), actual.arcTarget(a));
+                assertEquals(expected.arcWeight(a), actual.arcWeight(a),
+                             TOLERANCE);
+                assertEquals(expected.arcEdge(a), actual.arcEdge(a));
+            }
+        }
+    }
+}
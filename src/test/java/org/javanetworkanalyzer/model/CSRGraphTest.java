@@ -0,0 +1,272 @@
+/**
+ * Java Network Analyzer provides a collection of graph theory and social
+ * network analysis algorithms implemented on mathematical graphs using the
+ * <a href="http://www.jgrapht.org/">JGraphT</a> library.
+ *
+ * Java Network Analyzer is distributed under the GPL 3 license. It is produced
+ * by the "Atelier SIG" team of the <a href="http://www.irstv.fr">IRSTV
+ * Institute</a>, CNRS FR 2488.
+ *
+ * Copyright 2013 IRSTV (CNRS FR 2488).
+ *
+ * Java Network Analyzer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * Java Network Analyzer is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Java Network Analyzer. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.javanetworkanalyzer.model;
+
+import org.javanetworkanalyzer.alg.BFS;
+import org.javanetworkanalyzer.alg.Dijkstra;
+import org.javanetworkanalyzer.data.VBFS;
+import org.javanetworkanalyzer.data.VDijkstra;
+import org.javanetworkanalyzer.data.VId;
+import org.jgrapht.graph.DefaultEdge;
+import org.jgrapht.graph.SimpleGraph;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests {@link CSRGraph} on the Cormen graph.
+ *
+ * @author Adam Gouge
+ */
+public class CSRGraphTest {
+
+    private static final double TOLERANCE = 0.0;
+    private static final int[][] EDGES = {{1, 2, 10}, {1, 4, 5}, {5, 1, 7},
+        {2, 4, 2}, {4, 2, 3}, {3, 5, 4}, {2, 3, 1}, {4, 3, 9}, {5, 3, 6},
+        {4, 5, 2}};
+    private CSRGraph.Builder<VDijkstra, Edge> builder;
+
+    @Before
+    public void setUp() throws NoSuchMethodException {
+        builder = new CSRGraph.Builder<VDijkstra, Edge>(
+                VDijkstra.class, Edge.class);
+        for (int i = 0; i < EDGES.length; i++) {
+            builder.addEdge(EDGES[i][0], EDGES[i][1], EDGES[i][2], i + 1);
+        }
+    }
+
+    @Test
+    public void testStructure() {
+        DirectedCSRGraph<VDijkstra, Edge> g =
+                (DirectedCSRGraph<VDijkstra, Edge>) builder.build(
+                CSRGraph.DIRECTED);
+        assertEquals(5, g.getVertexCount());
+        assertEquals(10, g.getEdgeCount());
+        assertEquals(10, g.edgeSet().size());
+        VDijkstra v4 = g.getVertex(4);
+        assertEquals(4, v4.getID());
+        assertNull(g.getVertex(6));
+        assertEquals(3, g.outDegreeOf(v4));
+        assertEquals(2, g.inDegreeOf(v4));
+        assertEquals(5, g.edgesOf(v4).size());
+        // The arcs of a vertex are in edge order.
+        int u = g.indexOf(v4);
+        assertEquals(3, u);
+        assertEquals(3, g.endArc(u) - g.firstArc(u));
+        assertEquals(2, g.getID(g.arcTarget(g.firstArc(u))));
+        assertEquals(3.0, g.arcWeight(g.firstArc(u)), TOLERANCE);
+        Edge e = g.edge(g.arcEdge(g.firstArc(u)));
+        assertEquals(5, e.getID());
+        assertSame(v4, g.getEdgeSource(e));
+        assertSame(g.getVertex(2), g.getEdgeTarget(e));
+        assertSame(e, g.getEdge(v4, g.getVertex(2)));
+        assertTrue(g.containsEdge(e));
+
+        // The reversed view shares the arrays.
+        DirectedCSRGraph<VDijkstra, Edge> r =
+                (DirectedCSRGraph<VDijkstra, Edge>) g.withOrientation(
+                CSRGraph.REVERSED);
+        assertSame(v4, r.getVertex(4));
+        assertEquals(2, r.outDegreeOf(v4));
+        assertEquals(3, r.inDegreeOf(v4));
+        assertSame(g.getVertex(2), r.getEdgeSource(e));
+        assertSame(v4, r.getEdgeTarget(e));
+        r.setEdgeWeight(e, 13.0);
+        assertEquals(13.0, g.getEdgeWeight(e), TOLERANCE);
+        assertEquals(13.0, g.arcWeight(g.firstArc(u)), TOLERANCE);
+        assertEquals(13.0, e.getWeight(), TOLERANCE);
+
+        UndirectedCSRGraph<VDijkstra, Edge> un =
+                (UndirectedCSRGraph<VDijkstra, Edge>) g.withOrientation(
+                CSRGraph.UNDIRECTED);
+        assertEquals(5, un.degreeOf(v4));
+        assertEquals(20, un.getArcCount());
+    }
+
+    @Test
+    public void testSelfLoop() {
+        builder.addEdge(3, 3, 1, 11);
+        UndirectedCSRGraph<VDijkstra, Edge> g =
+                (UndirectedCSRGraph<VDijkstra, Edge>) builder.build(
+                CSRGraph.UNDIRECTED);
+        VDijkstra v3 = g.getVertex(3);
+        // As in JGraphT, a self-loop is counted twice in the degree but
+        // appears once in the edge set.
+        assertEquals(6, g.degreeOf(v3));
+        assertEquals(5, g.edgesOf(v3).size());
+        int loops = 0;
+        for (Edge e : g.edgesOf(v3)) {
+            if (e.getID() == 11) {
+                loops++;
+            }
+        }
+        assertEquals(1, loops);
+    }
+
+    @Test
+    public void testFromAnyGraph() {
+        SimpleGraph<VId, DefaultEdge> plain =
+                new SimpleGraph<VId, DefaultEdge>(DefaultEdge.class);
+        VId u = new VId(1);
+        VId v = new VId(2);
+        plain.addVertex(u);
+        plain.addVertex(v);
+        plain.addEdge(u, v);
+        try {
+            CSRGraph.fromAnyGraph(plain);
+            fail();
+        } catch (IllegalArgumentException ex) {
+        }
+        CSRGraph<VDijkstra, Edge> g = builder.build(CSRGraph.DIRECTED);
+        assertSame(g, CSRGraph.fromAnyGraph(g));
+    }
+
+    @Test
+    public void testImmutable() {
+        CSRGraph<VDijkstra, Edge> g = builder.build(CSRGraph.DIRECTED);
+        try {
+            g.addEdge(1, 3);
+            fail();
+        } catch (UnsupportedOperationException ex) {
+        }
+        try {
+            g.removeVertex(g.getVertex(1));
+            fail();
+        } catch (UnsupportedOperationException ex) {
+        }
+        try {
+            g.vertexSet().clear();
+            fail();
+        } catch (UnsupportedOperationException ex) {
+        }
+    }
+
+    @Test
+    public void testWithoutEdgeObjects() throws NoSuchMethodException {
+        CSRGraph<VDijkstra, Edge> g =
+                new CSRGraph.Builder<VDijkstra, Edge>(VDijkstra.class, null)
+                .addEdge(1, 2, 1.0, 1).addVertex(7).build(CSRGraph.DIRECTED);
+        assertFalse(g.hasEdgeObjects());
+        assertEquals(3, g.getVertexCount());
+        assertEquals(7, g.getID(2));
+        assertEquals(1, g.getID(g.edgeSource(0)));
+        assertEquals(2, g.getID(g.edgeTarget(0)));
+        try {
+            g.edgeSet();
+            fail();
+        } catch (UnsupportedOperationException ex) {
+        }
+    }
+
+    @Test
+    public void testFromGraph() throws NoSuchMethodException {
+        DirectedWeightedPseudoG<VDijkstra, Edge> legacy = legacyDirected();
+        CSRGraph<VDijkstra, Edge> g = CSRGraph.fromGraph(legacy);
+        assertTrue(g instanceof DirectedCSRGraph);
+        assertEquals(legacy.vertexSet(), g.vertexSet());
+        assertEquals(legacy.edgeSet(), g.edgeSet());
+        for (Edge e : legacy.edgeSet()) {
+            assertSame(legacy.getEdgeSource(e), g.getEdgeSource(e));
+            assertSame(legacy.getEdgeTarget(e), g.getEdgeTarget(e));
+            assertEquals(legacy.getEdgeWeight(e), g.getEdgeWeight(e),
+                         TOLERANCE);
+        }
+        assertSame(g, CSRGraph.fromGraph(g));
+    }
+
+    @Test
+    public void testDijkstra() throws NoSuchMethodException {
+        DirectedWeightedPseudoG<VDijkstra, Edge> directed = legacyDirected();
+        WeightedPseudoG<VDijkstra, Edge> undirected =
+                new WeightedPseudoG<VDijkstra, Edge>(
+                VDijkstra.class, Edge.class);
+        for (int[] edge : EDGES) {
+            undirected.addEdge(edge[0], edge[1]).setWeight(edge[2]);
+        }
+        CSRGraph<VDijkstra, Edge> csr = builder.build(CSRGraph.DIRECTED);
+        compareDijkstra(directed, csr);
+        compareDijkstra(new WeightedEdgeReversedG<VDijkstra, Edge>(directed),
+                        csr.withOrientation(CSRGraph.REVERSED));
+        compareDijkstra(undirected, csr.withOrientation(CSRGraph.UNDIRECTED));
+    }
+
+    @Test
+    public void testBFS() throws NoSuchMethodException {
+        CSRGraph.Builder<VBFS, Edge> b =
+                new CSRGraph.Builder<VBFS, Edge>(VBFS.class, Edge.class);
+        for (int i = 0; i < EDGES.length; i++) {
+            b.addEdge(EDGES[i][0], EDGES[i][1], 1.0, i + 1);
+        }
+        CSRGraph<VBFS, Edge> g = b.build(CSRGraph.DIRECTED);
+        BFS<VBFS, Edge> bfs = new BFS<VBFS, Edge>(g);
+        bfs.calculate(g.getVertex(3));
+        assertEquals(0, g.getVertex(3).getDistance().intValue());
+        assertEquals(1, g.getVertex(5).getDistance().intValue());
+        assertEquals(2, g.getVertex(1).getDistance().intValue());
+        assertEquals(3, g.getVertex(2).getDistance().intValue());
+        assertEquals(3, g.getVertex(4).getDistance().intValue());
+        assertEquals(1, g.getVertex(2).getPredecessors().size());
+        assertEquals(4, bfs.reconstructTraversalGraph().edgeSet().size());
+    }
+
+    private DirectedWeightedPseudoG<VDijkstra, Edge> legacyDirected()
+            throws NoSuchMethodException {
+        DirectedWeightedPseudoG<VDijkstra, Edge> g =
+                new DirectedWeightedPseudoG<VDijkstra, Edge>(
+                VDijkstra.class, Edge.class);
+        for (int[] edge : EDGES) {
+            g.addEdge(edge[0], edge[1]).setWeight(edge[2]);
+        }
+        return g;
+    }
+
+    private void compareDijkstra(KeyedGraph<VDijkstra, Edge> legacy,
+                                 CSRGraph<VDijkstra, Edge> csr) {
+        Dijkstra<VDijkstra, Edge> expected =
+                new Dijkstra<VDijkstra, Edge>(legacy);
+        Dijkstra<VDijkstra, Edge> actual =
+                new Dijkstra<VDijkstra, Edge>(csr);
+        for (int s = 1; s <= 5; s++) {
+            expected.calculate(legacy.getVertex(s));
+            actual.calculate(csr.getVertex(s));
+            for (int t = 1; t <= 5; t++) {
+                assertEquals(legacy.getVertex(t).getDistance(),
+                             csr.getVertex(t).getDistance(), TOLERANCE);
+                assertEquals(
+                        legacy.getVertex(t).getPredecessors().size(),
+                        csr.getVertex(t).getPredecessors().size());
+            }
+            assertEquals(
+                    expected.reconstructTraversalGraph().edgeSet().size(),
+                    actual.reconstructTraversalGraph().edgeSet().size());
+        }
+    }
+}